@@ -0,0 +1,127 @@
+// catalano Benchmarks
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Benchmarks;
+
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.Filters.ResizeBicubic;
+import com.tdlibs.catalano.Imaging.Filters.RotateBilinear;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Convolution, edge detection, grayscale and geometric filters.
+ * The sequential and concurrent filters are measured over the same images.
+ * The Sobel edge detector works over the grayscale version of the image.
+ *
+ * @author Diego catalano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvolutionBenchmark {
+
+    private static final int[][] GAUSSIAN = {
+        {1, 2, 1},
+        {2, 4, 2},
+        {1, 2, 1}
+    };
+
+    @Param({"256", "1024", "2048"})
+    public int size;
+
+    @Param({"Grayscale", "RGB"})
+    public FastBitmap.ColorSpace colorSpace;
+
+    private FastBitmap image;
+    private FastBitmap gray;
+
+    @Setup
+    public void setup(){
+        image = SyntheticData.Image(size, size, colorSpace, SyntheticData.SEED);
+        gray = SyntheticData.Image(size, size, FastBitmap.ColorSpace.Grayscale, SyntheticData.SEED);
+    }
+
+    @Benchmark
+    public FastBitmap convolution(){
+        FastBitmap fb = new FastBitmap(image);
+        new com.tdlibs.catalano.Imaging.Filters.Convolution(GAUSSIAN).applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap convolutionConcurrent(){
+        FastBitmap fb = new FastBitmap(image);
+        new com.tdlibs.catalano.Imaging.Concurrent.Filters.Convolution(GAUSSIAN).applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap sobel(){
+        FastBitmap fb = new FastBitmap(gray);
+        new com.tdlibs.catalano.Imaging.Filters.SobelEdgeDetector().applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap sobelConcurrent(){
+        FastBitmap fb = new FastBitmap(gray);
+        new com.tdlibs.catalano.Imaging.Concurrent.Filters.SobelEdgeDetector().applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap grayscale(){
+        FastBitmap fb = new FastBitmap(image);
+        if (fb.isRGB()) new com.tdlibs.catalano.Imaging.Filters.Grayscale().applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap grayscaleConcurrent(){
+        FastBitmap fb = new FastBitmap(image);
+        if (fb.isRGB()) new com.tdlibs.catalano.Imaging.Concurrent.Filters.Grayscale().applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap resizeBicubic(){
+        return new ResizeBicubic(size / 2 + size / 4, size / 2 + size / 4).apply(image);
+    }
+
+    @Benchmark
+    public FastBitmap rotateBilinear(){
+        return new RotateBilinear(30).apply(image);
+    }
+}
@@ -0,0 +1,116 @@
+// catalano Benchmarks
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Benchmarks;
+
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Neighborhood filters and their concurrent counterparts.
+ *
+ * <p>The filters work in place, each invocation copies the source image first.
+ * The copy benchmark measures only the copy.</p>
+ *
+ * @author Diego catalano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FiltersBenchmark {
+
+    @Param({"256", "1024"})
+    public int size;
+
+    @Param({"1", "3", "5"})
+    public int radius;
+
+    @Param({"Grayscale", "RGB"})
+    public FastBitmap.ColorSpace colorSpace;
+
+    private FastBitmap image;
+
+    @Setup
+    public void setup(){
+        image = SyntheticData.Image(size, size, colorSpace, SyntheticData.SEED);
+    }
+
+    @Benchmark
+    public FastBitmap copy(){
+        return new FastBitmap(image);
+    }
+
+    @Benchmark
+    public FastBitmap median(){
+        FastBitmap fb = new FastBitmap(image);
+        new com.tdlibs.catalano.Imaging.Filters.Median(radius).applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap medianConcurrent(){
+        FastBitmap fb = new FastBitmap(image);
+        new com.tdlibs.catalano.Imaging.Concurrent.Filters.Median(radius).applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap mean(){
+        FastBitmap fb = new FastBitmap(image);
+        new com.tdlibs.catalano.Imaging.Filters.Mean(radius).applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap meanConcurrent(){
+        FastBitmap fb = new FastBitmap(image);
+        new com.tdlibs.catalano.Imaging.Concurrent.Filters.Mean(radius).applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap variance(){
+        FastBitmap fb = new FastBitmap(image);
+        new com.tdlibs.catalano.Imaging.Filters.Variance(radius).applyInPlace(fb);
+        return fb;
+    }
+
+    @Benchmark
+    public FastBitmap varianceConcurrent(){
+        FastBitmap fb = new FastBitmap(image);
+        new com.tdlibs.catalano.Imaging.Concurrent.Filters.Variance(radius).applyInPlace(fb);
+        return fb;
+    }
+}
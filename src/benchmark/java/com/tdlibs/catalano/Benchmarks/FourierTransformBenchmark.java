@@ -0,0 +1,90 @@
+// catalano Benchmarks
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Benchmarks;
+
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Math.ComplexNumber;
+import com.tdlibs.catalano.Math.Transforms.FourierTransform;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fast Fourier transform of signals and images.
+ * The transforms work in place, each invocation copies the input first.
+ * @author Diego catalano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FourierTransformBenchmark {
+
+    // power of 2
+    @Param({"128", "512"})
+    public int size;
+
+    private FastBitmap image;
+    private ComplexNumber[][] data;
+
+    @Setup
+    public void setup(){
+        image = SyntheticData.Image(size, size, FastBitmap.ColorSpace.Grayscale, SyntheticData.SEED);
+        data = new ComplexNumber[size][];
+        for (int i = 0; i < size; i++) {
+            data[i] = SyntheticData.Signal(size, SyntheticData.SEED + i);
+        }
+    }
+
+    @Benchmark
+    public ComplexNumber[][] fft2(){
+        ComplexNumber[][] copy = SyntheticData.Copy(data);
+        FourierTransform.FFT2(copy, FourierTransform.Direction.Forward);
+        return copy;
+    }
+
+    @Benchmark
+    public com.tdlibs.catalano.Imaging.Filters.FourierTransform image(){
+        com.tdlibs.catalano.Imaging.Filters.FourierTransform ft = new com.tdlibs.catalano.Imaging.Filters.FourierTransform(image);
+        ft.Forward();
+        return ft;
+    }
+
+    @Benchmark
+    public FastBitmap imageRoundTrip(){
+        com.tdlibs.catalano.Imaging.Filters.FourierTransform ft = new com.tdlibs.catalano.Imaging.Filters.FourierTransform(image);
+        ft.Forward();
+        ft.Backward();
+        return ft.toFastBitmap();
+    }
+}
@@ -0,0 +1,117 @@
+// catalano Benchmarks
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Benchmarks;
+
+import com.tdlibs.catalano.MachineLearning.Classification.DecisionTrees.Learning.RandomForest;
+import com.tdlibs.catalano.MachineLearning.Classification.KNearestNeighbors;
+import com.tdlibs.catalano.MachineLearning.Clustering.KMeans;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * K-Nearest Neighbors, Random Forest and KMeans over gaussian blobs.
+ * The prediction benchmarks classify a fixed batch of queries with a model learned in the setup.
+ * @author Diego catalano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MachineLearningBenchmark {
+
+    private static final int QUERIES = 100;
+
+    @Param({"1000", "10000"})
+    public int samples;
+
+    @Param({"8", "32"})
+    public int features;
+
+    @Param({"4"})
+    public int classes;
+
+    @Param({"20"})
+    public int trees;
+
+    private double[][] input;
+    private int[] output;
+    private double[][] queries;
+
+    private KNearestNeighbors knn;
+    private RandomForest forest;
+
+    @Setup
+    public void setup(){
+        Object[] data = SyntheticData.Blobs(samples, features, classes, SyntheticData.SEED);
+        input = (double[][])data[0];
+        output = (int[])data[1];
+        // same blobs of the training, other samples
+        queries = (double[][])SyntheticData.Blobs(QUERIES, features, classes, SyntheticData.SEED, SyntheticData.SEED + 1)[0];
+
+        knn = new KNearestNeighbors(5);
+        knn.Learn(input, output);
+
+        forest = new RandomForest(trees);
+        forest.Learn(input, output);
+    }
+
+    @Benchmark
+    public void knnPredict(Blackhole bh){
+        for (double[] q : queries) {
+            bh.consume(knn.Predict(q));
+        }
+    }
+
+    @Benchmark
+    public RandomForest randomForestLearn(){
+        RandomForest rf = new RandomForest(trees);
+        rf.Learn(input, output);
+        return rf;
+    }
+
+    @Benchmark
+    public void randomForestPredict(Blackhole bh){
+        for (double[] q : queries) {
+            bh.consume(forest.Predict(q));
+        }
+    }
+
+    @Benchmark
+    public KMeans kmeans(){
+        KMeans kmeans = new KMeans(classes);
+        kmeans.Compute(input);
+        return kmeans;
+    }
+}
@@ -0,0 +1,88 @@
+// catalano Benchmarks
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Benchmarks;
+
+import com.tdlibs.catalano.Math.Matrix;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dense matrix kernels.
+ * @author Diego catalano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixBenchmark {
+
+    @Param({"64", "256", "512"})
+    public int n;
+
+    private double[][] a;
+    private double[][] b;
+    private double[] v;
+
+    @Setup
+    public void setup(){
+        a = SyntheticData.Invertible(n, SyntheticData.SEED);
+        b = SyntheticData.Matrix(n, n, SyntheticData.SEED + 1);
+        v = SyntheticData.Matrix(1, n, SyntheticData.SEED + 2)[0];
+    }
+
+    @Benchmark
+    public double[][] multiply(){
+        return Matrix.Multiply(a, b);
+    }
+
+    @Benchmark
+    public double[] multiplyVector(){
+        return Matrix.Multiply(v, a);
+    }
+
+    @Benchmark
+    public double[][] multiplyByTranspose(){
+        return Matrix.MultiplyByTranspose(a, b);
+    }
+
+    @Benchmark
+    public double[][] transpose(){
+        return Matrix.Transpose(a);
+    }
+
+    @Benchmark
+    public double[][] inverse(){
+        return Matrix.Inverse(a);
+    }
+}
@@ -0,0 +1,190 @@
+// catalano Benchmarks
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Benchmarks;
+
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Math.ComplexNumber;
+import java.util.Random;
+
+/**
+ * Synthetic and deterministic inputs of the benchmarks.
+ * The same seed always produces the same data, no file is read.
+ * @author Diego catalano
+ */
+final class SyntheticData {
+
+    /**
+     * Default seed.
+     */
+    static final long SEED = 0x5EEDL;
+
+    private SyntheticData() {}
+
+    /**
+     * Create an image with smooth gradients, edges and noise.
+     * @param width Width.
+     * @param height Height.
+     * @param colorSpace Color space.
+     * @param seed Seed.
+     * @return Image.
+     */
+    static FastBitmap Image(int width, int height, FastBitmap.ColorSpace colorSpace, long seed){
+        Random random = new Random(seed);
+        FastBitmap fastBitmap = new FastBitmap(width, height, colorSpace);
+
+        for (int x = 0; x < height; x++) {
+            for (int y = 0; y < width; y++) {
+                double wave = Math.sin(x * 0.05) * Math.cos(y * 0.03);
+                int edge = ((x / 32) + (y / 32)) % 2 == 0 ? 40 : -40;
+                int r = Clamp(128 + (int)(80 * wave) + edge + random.nextInt(21) - 10);
+                if (colorSpace == FastBitmap.ColorSpace.Grayscale){
+                    fastBitmap.setGray(x, y, r);
+                }
+                else{
+                    int g = Clamp(255 * y / width + random.nextInt(21) - 10);
+                    int b = Clamp(255 * x / height - edge + random.nextInt(21) - 10);
+                    if (colorSpace == FastBitmap.ColorSpace.ARGB)
+                        fastBitmap.setARGB(x, y, 255, r, g, b);
+                    else
+                        fastBitmap.setRGB(x, y, r, g, b);
+                }
+            }
+        }
+
+        return fastBitmap;
+    }
+
+    /**
+     * Create a matrix with uniform values in [-1, 1].
+     * @param rows Rows.
+     * @param cols Columns.
+     * @param seed Seed.
+     * @return Matrix.
+     */
+    static double[][] Matrix(int rows, int cols, long seed){
+        Random random = new Random(seed);
+        double[][] m = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                m[i][j] = random.nextDouble() * 2 - 1;
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Create a diagonally dominant square matrix, always invertible.
+     * @param n Size.
+     * @param seed Seed.
+     * @return Matrix.
+     */
+    static double[][] Invertible(int n, long seed){
+        double[][] m = Matrix(n, n, seed);
+        for (int i = 0; i < n; i++) {
+            m[i][i] += n;
+        }
+        return m;
+    }
+
+    /**
+     * Create a signal as a sum of sinusoids and noise.
+     * @param n Length.
+     * @param seed Seed.
+     * @return Signal.
+     */
+    static ComplexNumber[] Signal(int n, long seed){
+        Random random = new Random(seed);
+        ComplexNumber[] signal = new ComplexNumber[n];
+        for (int i = 0; i < n; i++) {
+            double v = Math.sin(2 * Math.PI * 5 * i / n) + 0.5 * Math.sin(2 * Math.PI * 37 * i / n) + 0.1 * random.nextGaussian();
+            signal[i] = new ComplexNumber(v, 0);
+        }
+        return signal;
+    }
+
+    /**
+     * Copy complex numbers.
+     * @param data Data.
+     * @return Copy.
+     */
+    static ComplexNumber[][] Copy(ComplexNumber[][] data){
+        ComplexNumber[][] copy = new ComplexNumber[data.length][data[0].length];
+        for (int i = 0; i < data.length; i++) {
+            for (int j = 0; j < data[0].length; j++) {
+                copy[i][j] = new ComplexNumber(data[i][j]);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Create gaussian blobs, one for each class.
+     * @param samples Number of samples.
+     * @param features Number of features.
+     * @param classes Number of classes.
+     * @param seed Seed.
+     * @return Input in [0], output in [1] as a single row.
+     */
+    static Object[] Blobs(int samples, int features, int classes, long seed){
+        Random random = new Random(seed);
+        return Blobs(samples, features, classes, random, random);
+    }
+
+    /**
+     * Create gaussian blobs, one for each class.
+     * The centers come from the seed of the centers, so another sample seed gives new samples of the same blobs.
+     * @param samples Number of samples.
+     * @param features Number of features.
+     * @param classes Number of classes.
+     * @param seed Seed of the centers.
+     * @param sampleSeed Seed of the samples.
+     * @return Input in [0], output in [1] as a single row.
+     */
+    static Object[] Blobs(int samples, int features, int classes, long seed, long sampleSeed){
+        return Blobs(samples, features, classes, new Random(seed), new Random(sampleSeed));
+    }
+
+    private static Object[] Blobs(int samples, int features, int classes, Random centerRandom, Random random){
+        double[][] centers = new double[classes][features];
+        for (int c = 0; c < classes; c++) {
+            for (int f = 0; f < features; f++) {
+                centers[c][f] = centerRandom.nextDouble() * 10 - 5;
+            }
+        }
+
+        double[][] input = new double[samples][features];
+        int[] output = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            int c = i % classes;
+            output[i] = c;
+            for (int f = 0; f < features; f++) {
+                input[i][f] = centers[c][f] + random.nextGaussian() * 1.5;
+            }
+        }
+
+        return new Object[] {input, output};
+    }
+
+    private static int Clamp(int value){
+        return value < 0 ? 0 : value > 255 ? 255 : value;
+    }
+}
@@ -200,7 +200,7 @@ public class ArraysUtil {
         for (int i = 0; i < arrays.size(); i++) {
             int[] v = arrays.get(i);
             for (int j = 0; j < v.length; j++) {
-                all[idx++] = v[i];
+                all[idx++] = v[j];
             }
         }
         
@@ -225,7 +225,7 @@ public class ArraysUtil {
         for (int i = 0; i < arrays.size(); i++) {
             double[] v = arrays.get(i);
             for (int j = 0; j < v.length; j++) {
-                all[idx++] = v[i];
+                all[idx++] = v[j];
             }
         }
         
@@ -250,7 +250,7 @@ public class ArraysUtil {
         for (int i = 0; i < arrays.size(); i++) {
             float[] v = arrays.get(i);
             for (int j = 0; j < v.length; j++) {
-                all[idx++] = v[i];
+                all[idx++] = v[j];
             }
         }
         
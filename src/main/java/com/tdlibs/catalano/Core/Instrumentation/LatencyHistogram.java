@@ -0,0 +1,195 @@
+// catalano Core Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Core.Instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with logarithmic buckets.
+ * 
+ * <p>As the HDR histogram, each power of 2 is divided in 32 linear sub-buckets,
+ * so any recorded value is represented with a relative error below 1/32 (about 3%).
+ * Values below 64 are exact. The buckets are atomic counters, many threads can record at the same time.</p>
+ * 
+ * @author Diego catalano
+ */
+public class LatencyHistogram {
+    
+    // sub-buckets of each power of 2
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    
+    // buckets to represent all the positive longs
+    private static final int SIZE = (63 - SUB_BITS + 1) * SUB;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Initializes a new instance of the LatencyHistogram class.
+     */
+    public LatencyHistogram() {}
+    
+    /**
+     * Record a value.
+     * @param value Value, negative values are recorded as zero.
+     */
+    public void Record(long value){
+        if (value < 0) value = 0;
+        counts.incrementAndGet(Index(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        
+        long m;
+        while (value < (m = min.get()) && !min.compareAndSet(m, value));
+        while (value > (m = max.get()) && !max.compareAndSet(m, value));
+    }
+    
+    /**
+     * Get the number of recorded values.
+     * @return Count.
+     */
+    public long getCount(){
+        return count.get();
+    }
+    
+    /**
+     * Get the sum of the recorded values.
+     * @return Sum.
+     */
+    public long getSum(){
+        return sum.get();
+    }
+    
+    /**
+     * Get the minimum recorded value.
+     * @return Minimum, zero if nothing was recorded.
+     */
+    public long getMin(){
+        return count.get() == 0 ? 0 : min.get();
+    }
+    
+    /**
+     * Get the maximum recorded value.
+     * @return Maximum.
+     */
+    public long getMax(){
+        return max.get();
+    }
+    
+    /**
+     * Get the mean of the recorded values.
+     * @return Mean.
+     */
+    public double getMean(){
+        long n = count.get();
+        return n == 0 ? 0 : (double)sum.get() / n;
+    }
+    
+    /**
+     * Get the value at a percentile.
+     * The value is the highest value of the bucket where the percentile falls, limited to the maximum.
+     * @param percentile Percentile in [0, 100].
+     * @return Value.
+     */
+    public long getValueAtPercentile(double percentile){
+        long[] c = new long[SIZE];
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            c[i] = counts.get(i);
+            total += c[i];
+        }
+        return ValueAtPercentile(c, total, percentile, max.get());
+    }
+    
+    /**
+     * Get the values at several percentiles over the same counts.
+     * @param percentiles Percentiles in [0, 100].
+     * @return Values.
+     */
+    public long[] getValuesAtPercentiles(double... percentiles){
+        long[] c = new long[SIZE];
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            c[i] = counts.get(i);
+            total += c[i];
+        }
+        
+        long[] values = new long[percentiles.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ValueAtPercentile(c, total, percentiles[i], max.get());
+        }
+        return values;
+    }
+    
+    /**
+     * Clear the recorded values.
+     */
+    public void Reset(){
+        for (int i = 0; i < SIZE; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+    
+    private static long ValueAtPercentile(long[] counts, long total, double percentile, long max){
+        if (total == 0) return 0;
+        
+        percentile = Math.max(0, Math.min(100, percentile));
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100 * total));
+        
+        long acc = 0;
+        for (int i = 0; i < counts.length; i++) {
+            acc += counts[i];
+            if (acc >= rank) return Math.min(max, HighestValue(i));
+        }
+        return max;
+    }
+    
+    /**
+     * Bucket of the value.
+     */
+    static int Index(long value){
+        if (value < 2 * SUB) return (int)value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB + (int)(value >> shift) - SUB;
+    }
+    
+    /**
+     * Highest value that falls in the bucket.
+     */
+    static long HighestValue(int index){
+        if (index < 2 * SUB) return index;
+        int shift = index / SUB - 1;
+        long sub = index % SUB + SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+}
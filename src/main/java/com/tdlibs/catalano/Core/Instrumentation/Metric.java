@@ -0,0 +1,174 @@
+// catalano Core Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Core.Instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metric of an instrumented operation.
+ * 
+ * <p>Records the number of calls, the latency histogram in nanoseconds, the processed units
+ * (pixels, samples), the processed rows and the bytes allocated by the calling thread.
+ * The metric is thread safe.</p>
+ * 
+ * <pre>
+ * long t = metric.Start();
+ * long a = ThreadAllocation.CurrentThread();
+ * ... operation ...
+ * metric.Stop(t, a, units, rows);
+ * </pre>
+ * 
+ * @author Diego catalano
+ */
+public class Metric {
+    
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong units = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong allocated = new AtomicLong();
+
+    /**
+     * Initializes a new instance of the Metric class.
+     * @param name Name.
+     */
+    public Metric(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get name.
+     * @return Name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get latency histogram in nanoseconds.
+     * @return Latency histogram.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    /**
+     * Get number of calls.
+     * @return Calls.
+     */
+    public long getCalls(){
+        return latency.getCount();
+    }
+    
+    /**
+     * Get number of calls that threw an exception.
+     * @return Errors.
+     */
+    public long getErrors(){
+        return errors.get();
+    }
+
+    /**
+     * Get processed units (pixels, samples).
+     * @return Units.
+     */
+    public long getUnits() {
+        return units.get();
+    }
+
+    /**
+     * Get processed rows.
+     * @return Rows.
+     */
+    public long getRows() {
+        return rows.get();
+    }
+
+    /**
+     * Get bytes allocated by the calling threads.
+     * @return Allocated bytes.
+     */
+    public long getAllocatedBytes() {
+        return allocated.get();
+    }
+    
+    /**
+     * Start a call.
+     * @return Start time in nanoseconds.
+     */
+    public long Start(){
+        return System.nanoTime();
+    }
+    
+    /**
+     * Stop a call.
+     * @param start Start time, returned by Start.
+     * @param allocatedBefore Allocated bytes of the thread before the call, returned by ThreadAllocation.CurrentThread.
+     * @param units Processed units.
+     * @param rows Processed rows.
+     */
+    public void Stop(long start, long allocatedBefore, long units, long rows){
+        Record(System.nanoTime() - start, units, rows, ThreadAllocation.CurrentThread() - allocatedBefore);
+    }
+    
+    /**
+     * Record a call.
+     * @param nanos Latency in nanoseconds.
+     * @param units Processed units.
+     * @param rows Processed rows.
+     * @param allocatedBytes Allocated bytes.
+     */
+    public void Record(long nanos, long units, long rows, long allocatedBytes){
+        latency.Record(nanos);
+        if (units != 0) this.units.addAndGet(units);
+        if (rows != 0) this.rows.addAndGet(rows);
+        if (allocatedBytes > 0) this.allocated.addAndGet(allocatedBytes);
+    }
+    
+    /**
+     * Record a call that threw an exception.
+     */
+    public void RecordError(){
+        errors.incrementAndGet();
+    }
+    
+    /**
+     * Take a snapshot of the metric.
+     * @return Snapshot.
+     */
+    public MetricSnapshot Snapshot(){
+        return new MetricSnapshot(this);
+    }
+    
+    /**
+     * Clear the metric.
+     */
+    public void Reset(){
+        latency.Reset();
+        errors.set(0);
+        units.set(0);
+        rows.set(0);
+        allocated.set(0);
+    }
+}
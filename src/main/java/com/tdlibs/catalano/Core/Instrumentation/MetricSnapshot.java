@@ -0,0 +1,218 @@
+// catalano Core Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Core.Instrumentation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a metric.
+ * The latencies are in nanoseconds.
+ * @author Diego catalano
+ */
+public final class MetricSnapshot {
+    
+    private final String name;
+    private final long calls;
+    private final long errors;
+    private final long units;
+    private final long rows;
+    private final long allocatedBytes;
+    private final long totalNanos;
+    private final long min;
+    private final long max;
+    private final double mean;
+    private final long p50, p90, p99, p999;
+
+    /**
+     * Initializes a new instance of the MetricSnapshot class.
+     * @param metric Metric.
+     */
+    MetricSnapshot(Metric metric) {
+        LatencyHistogram h = metric.getLatency();
+        long[] p = h.getValuesAtPercentiles(50, 90, 99, 99.9);
+        
+        this.name = metric.getName();
+        this.calls = h.getCount();
+        this.errors = metric.getErrors();
+        this.units = metric.getUnits();
+        this.rows = metric.getRows();
+        this.allocatedBytes = metric.getAllocatedBytes();
+        this.totalNanos = h.getSum();
+        this.min = h.getMin();
+        this.max = h.getMax();
+        this.mean = h.getMean();
+        this.p50 = p[0];
+        this.p90 = p[1];
+        this.p99 = p[2];
+        this.p999 = p[3];
+    }
+
+    /**
+     * Get name.
+     * @return Name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get number of calls.
+     * @return Calls.
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Get number of calls that threw an exception.
+     * @return Errors.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Get processed units (pixels, samples).
+     * @return Units.
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * Get processed rows.
+     * @return Rows.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Get bytes allocated by the calling threads.
+     * @return Allocated bytes.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Get total time.
+     * @return Nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Get minimum latency.
+     * @return Nanoseconds.
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * Get maximum latency.
+     * @return Nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Get mean latency.
+     * @return Nanoseconds.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Get median latency.
+     * @return Nanoseconds.
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * Get 90th percentile of the latency.
+     * @return Nanoseconds.
+     */
+    public long getP90() {
+        return p90;
+    }
+
+    /**
+     * Get 99th percentile of the latency.
+     * @return Nanoseconds.
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Get 99.9th percentile of the latency.
+     * @return Nanoseconds.
+     */
+    public long getP999() {
+        return p999;
+    }
+    
+    /**
+     * Get units processed by second.
+     * @return Throughput.
+     */
+    public double getUnitsPerSecond(){
+        return totalNanos == 0 ? 0 : units * 1e9 / totalNanos;
+    }
+    
+    /**
+     * Convert the snapshot to a map, the keys are prefixed with the name.
+     * @return Map of values.
+     */
+    public Map<String, Number> toMap(){
+        Map<String, Number> map = new LinkedHashMap<String, Number>();
+        map.put(name + ".calls", calls);
+        map.put(name + ".errors", errors);
+        map.put(name + ".units", units);
+        map.put(name + ".rows", rows);
+        map.put(name + ".allocatedBytes", allocatedBytes);
+        map.put(name + ".totalNanos", totalNanos);
+        map.put(name + ".min", min);
+        map.put(name + ".mean", mean);
+        map.put(name + ".p50", p50);
+        map.put(name + ".p90", p90);
+        map.put(name + ".p99", p99);
+        map.put(name + ".p999", p999);
+        map.put(name + ".max", max);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: calls=%d errors=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus units=%d rows=%d allocated=%d",
+                name, calls, errors, mean / 1000, p50 / 1000.0, p99 / 1000.0, max / 1000.0, units, rows, allocatedBytes);
+    }
+}
@@ -0,0 +1,142 @@
+// catalano Core Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Core.Instrumentation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of metrics.
+ * 
+ * <p>The instrumented decorators (e.g. InstrumentedApplyInPlace, InstrumentedClassifier) record in a registry,
+ * the default registry is used if none is specified. The snapshot of the registry can be exported to a metrics system.</p>
+ * 
+ * @author Diego catalano
+ */
+public class MetricsRegistry {
+    
+    private static final MetricsRegistry defaultRegistry = new MetricsRegistry();
+    
+    private final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>();
+
+    /**
+     * Initializes a new instance of the MetricsRegistry class.
+     */
+    public MetricsRegistry() {}
+    
+    /**
+     * Get the default registry.
+     * @return Default registry.
+     */
+    public static MetricsRegistry getDefault(){
+        return defaultRegistry;
+    }
+    
+    /**
+     * Get a metric, it is created if it does not exist.
+     * @param name Name.
+     * @return Metric.
+     */
+    public Metric getMetric(String name){
+        Metric m = metrics.get(name);
+        if (m == null){
+            Metric created = new Metric(name);
+            m = metrics.putIfAbsent(name, created);
+            if (m == null) m = created;
+        }
+        return m;
+    }
+    
+    /**
+     * Get the names of the metrics.
+     * @return Names, sorted.
+     */
+    public List<String> getNames(){
+        List<String> names = new ArrayList<String>(metrics.keySet());
+        Collections.sort(names);
+        return names;
+    }
+    
+    /**
+     * Remove a metric.
+     * @param name Name.
+     */
+    public void Remove(String name){
+        metrics.remove(name);
+    }
+    
+    /**
+     * Take a snapshot of all the metrics.
+     * @return Snapshots, sorted by name.
+     */
+    public List<MetricSnapshot> Snapshot(){
+        List<MetricSnapshot> lst = new ArrayList<MetricSnapshot>();
+        for (String name : getNames()) {
+            Metric m = metrics.get(name);
+            if (m != null) lst.add(m.Snapshot());
+        }
+        return lst;
+    }
+    
+    /**
+     * Export the snapshot as a flat map, the keys are "name.value".
+     * @return Map of values.
+     */
+    public Map<String, Number> Export(){
+        Map<String, Number> map = new LinkedHashMap<String, Number>();
+        for (MetricSnapshot s : Snapshot()) {
+            map.putAll(s.toMap());
+        }
+        return map;
+    }
+    
+    /**
+     * Clear all the metrics, the metrics are kept registered.
+     */
+    public void Reset(){
+        for (Metric m : metrics.values()) {
+            m.Reset();
+        }
+    }
+    
+    /**
+     * Remove all the metrics.
+     */
+    public void Clear(){
+        metrics.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (MetricSnapshot s : Snapshot()) {
+            sb.append(s).append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,89 @@
+// catalano Core Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Core.Instrumentation;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the current thread.
+ * 
+ * <p>Uses the allocation counters of the HotSpot JVM. The counters are approximated
+ * and only see the allocations of the calling thread, not of the worker threads.
+ * In other platforms (e.g. Android) the allocations are not supported and are reported as zero.</p>
+ * 
+ * @author Diego catalano
+ */
+public final class ThreadAllocation {
+    
+    private static final boolean supported;
+    
+    static {
+        boolean s = false;
+        try {
+            s = HotSpot.Enable();
+        } catch (Throwable t) {
+            s = false;
+        }
+        supported = s;
+    }
+
+    private ThreadAllocation() {}
+    
+    /**
+     * Check if the platform supports the allocation counters.
+     * @return True if supported, otherwise false.
+     */
+    public static boolean isSupported(){
+        return supported;
+    }
+    
+    /**
+     * Get the bytes allocated by the current thread since it started.
+     * @return Allocated bytes, zero if not supported.
+     */
+    public static long CurrentThread(){
+        return supported ? HotSpot.Allocated() : 0;
+    }
+    
+    /**
+     * Loaded only if the platform has the management classes.
+     */
+    private static final class HotSpot {
+        
+        private static com.sun.management.ThreadMXBean bean;
+        
+        static boolean Enable(){
+            java.lang.management.ThreadMXBean b = ManagementFactory.getThreadMXBean();
+            if (!(b instanceof com.sun.management.ThreadMXBean)) return false;
+            
+            bean = (com.sun.management.ThreadMXBean)b;
+            if (!bean.isThreadAllocatedMemorySupported()) return false;
+            if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId()) >= 0;
+        }
+        
+        static long Allocated(){
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
@@ -94,10 +94,19 @@ public class BinaryHeap<E extends Comparable<E>> {
   
     /**
      * Remove a specified item from the heap.
+     * The item is searched linearly, use the {@link IndexedHeap} to change the keys often.
      * @param item Item.
      */
     public void remove(E item){
-        heap.remove(item);
+        int k = heap.indexOf(item);
+        if (k < 0) return;
+
+        E lastNode = heap.remove(heap.size() - 1);
+        count--;
+        if (k < heap.size()) {
+            downHeap(k, lastNode);
+            upHeap(k, heap.get(k));
+        }
     }
 
     /**
@@ -0,0 +1,266 @@
+// catalano Core Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+package com.tdlibs.catalano.Core.Structs;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary Heap.
+ * 
+ * <p>Min heap of integer items in the range [0, capacity) with double keys. The position of each item
+ * in the heap is indexed, so contains, decrease key and remove are O(1) / O(log n) without searching the item.
+ * A larger arity makes the heap shallower, the default arity 4 keeps the children of a node in the same cache line.</p>
+ * 
+ * @see BinaryHeap
+ * @author Diego catalano
+ */
+public class IndexedHeap {
+    
+    private final int arity;
+    private final int[] position;
+    private int[] items;
+    private double[] keys;
+    private int size = 0;
+
+    /**
+     * Initializes a new instance of the IndexedHeap class.
+     * @param capacity Number of items, the items are from 0 to capacity - 1.
+     */
+    public IndexedHeap(int capacity) {
+        this(capacity, 4);
+    }
+    
+    /**
+     * Initializes a new instance of the IndexedHeap class.
+     * @param capacity Number of items, the items are from 0 to capacity - 1.
+     * @param arity Number of children of each node.
+     */
+    public IndexedHeap(int capacity, int arity) {
+        if (arity < 2)
+            throw new IllegalArgumentException("The arity must be at least 2.");
+        
+        this.arity = arity;
+        this.position = new int[capacity];
+        Arrays.fill(position, -1);
+        
+        int initial = Math.max(16, Math.min(capacity, 1024));
+        this.items = new int[initial];
+        this.keys = new double[initial];
+    }
+    
+    /**
+     * Get the number of items in the heap.
+     * @return Size.
+     */
+    public int size(){
+        return size;
+    }
+    
+    /**
+     * Get the capacity of the heap.
+     * @return Capacity.
+     */
+    public int capacity(){
+        return position.length;
+    }
+    
+    /**
+     * Check if the heap is empty.
+     * @return True if the heap is empty, otherwise false.
+     */
+    public boolean isEmpty(){
+        return size == 0;
+    }
+    
+    /**
+     * Check if the item is in the heap.
+     * @param item Item.
+     * @return True if the item is in the heap, otherwise false.
+     */
+    public boolean contains(int item){
+        return position[item] >= 0;
+    }
+    
+    /**
+     * Get the key of an item in the heap.
+     * @param item Item.
+     * @return Key.
+     */
+    public double getKey(int item){
+        int p = position[item];
+        if (p < 0)
+            throw new IllegalArgumentException("The item " + item + " is not in the heap.");
+        return keys[p];
+    }
+    
+    /**
+     * Adds an item in the heap.
+     * @param item Item.
+     * @param key Key.
+     */
+    public void add(int item, double key){
+        if (position[item] >= 0)
+            throw new IllegalArgumentException("The item " + item + " is already in the heap.");
+        
+        if (size == items.length){
+            int n = Math.min(position.length, items.length * 2);
+            items = Arrays.copyOf(items, n);
+            keys = Arrays.copyOf(keys, n);
+        }
+        
+        upHeap(size++, item, key);
+    }
+    
+    /**
+     * Decrease the key of an item in the heap.
+     * @param item Item.
+     * @param key New key, less or equal than the current key.
+     */
+    public void decreaseKey(int item, double key){
+        int p = position[item];
+        if (p < 0)
+            throw new IllegalArgumentException("The item " + item + " is not in the heap.");
+        upHeap(p, item, key);
+    }
+    
+    /**
+     * Adds the item, or changes its key if it is already in the heap.
+     * @param item Item.
+     * @param key Key.
+     */
+    public void update(int item, double key){
+        int p = position[item];
+        if (p < 0)
+            add(item, key);
+        else if (key < keys[p])
+            upHeap(p, item, key);
+        else
+            downHeap(p, item, key);
+    }
+    
+    /**
+     * Get the item with the minimum key.
+     * @return Item.
+     */
+    public int peek(){
+        if (size == 0)
+            throw new IllegalArgumentException("The heap is empty.");
+        return items[0];
+    }
+    
+    /**
+     * Get the minimum key.
+     * @return Key.
+     */
+    public double peekKey(){
+        if (size == 0)
+            throw new IllegalArgumentException("The heap is empty.");
+        return keys[0];
+    }
+    
+    /**
+     * Remove the item with the minimum key.
+     * @return Item.
+     */
+    public int poll(){
+        if (size == 0)
+            throw new IllegalArgumentException("The heap is empty.");
+        
+        int min = items[0];
+        position[min] = -1;
+        size--;
+        if (size > 0)
+            downHeap(0, items[size], keys[size]);
+        return min;
+    }
+    
+    /**
+     * Remove an item from the heap.
+     * @param item Item.
+     * @return True if the item was in the heap, otherwise false.
+     */
+    public boolean remove(int item){
+        int p = position[item];
+        if (p < 0) return false;
+        
+        position[item] = -1;
+        size--;
+        if (p < size){
+            int last = items[size];
+            double key = keys[size];
+            if (key < keys[p])
+                upHeap(p, last, key);
+            else
+                downHeap(p, last, key);
+        }
+        return true;
+    }
+    
+    /**
+     * Remove all the items, the cost is proportional to the size and not to the capacity.
+     */
+    public void clear(){
+        for (int i = 0; i < size; i++)
+            position[items[i]] = -1;
+        size = 0;
+    }
+    
+    private void upHeap(int k, int item, double key){
+        while (k > 0) {
+            int parent = (k - 1) / arity;
+            if (key >= keys[parent]) break;
+            items[k] = items[parent];
+            keys[k] = keys[parent];
+            position[items[k]] = k;
+            k = parent;
+        }
+        items[k] = item;
+        keys[k] = key;
+        position[item] = k;
+    }
+    
+    private void downHeap(int k, int item, double key){
+        while (true) {
+            int first = k * arity + 1;
+            if (first >= size) break;
+            
+            int last = Math.min(first + arity, size);
+            int child = first;
+            double min = keys[first];
+            for (int c = first + 1; c < last; c++) {
+                if (keys[c] < min){
+                    min = keys[c];
+                    child = c;
+                }
+            }
+            
+            if (key <= min) break;
+            items[k] = items[child];
+            keys[k] = min;
+            position[items[k]] = k;
+            k = child;
+        }
+        items[k] = item;
+        keys[k] = key;
+        position[item] = k;
+    }
+}
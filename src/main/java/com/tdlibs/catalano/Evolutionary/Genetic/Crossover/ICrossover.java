@@ -26,6 +26,7 @@ import java.util.List;
 
 /**
  * Common interface to crossover operations.
+ * The parents must not be changed, the offspring are new chromosomes.
  * @author Diego catalano
  */
 public interface ICrossover<T> {
@@ -0,0 +1,225 @@
+// catalano Genetic Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2019
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+package com.tdlibs.catalano.Evolutionary.Genetic;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Evolutionary.Genetic.Chromosome.IChromosome;
+import com.tdlibs.catalano.Evolutionary.Genetic.Crossover.ICrossover;
+import com.tdlibs.catalano.Evolutionary.Genetic.Mutation.IMutation;
+import com.tdlibs.catalano.Evolutionary.Genetic.Reinsertion.IReinsertion;
+import com.tdlibs.catalano.Evolutionary.Genetic.Selection.ISelection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Island model.
+ * 
+ * <p>Several populations (islands) evolve in parallel, one island by task. Each migration interval, the best chromosomes
+ * of each island replace the worst chromosomes of the next island (ring topology). The islands explore different regions
+ * and the migration shares the good solutions between them. The fitness function must be thread safe.</p>
+ * 
+ * @see Population
+ * @author Diego catalano
+ */
+public class IslandModel {
+    
+    private List<Population> islands;
+    private int migrationInterval = 10;
+    private int migrants = 2;
+    private int epochs = 0;
+
+    /**
+     * Get the islands.
+     * @return Islands, read only.
+     */
+    public List<Population> getIslands() {
+        return Collections.unmodifiableList(islands);
+    }
+
+    /**
+     * Get number of epochs between the migrations.
+     * @return Migration interval.
+     */
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    /**
+     * Set number of epochs between the migrations.
+     * @param migrationInterval Migration interval.
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        this.migrationInterval = Math.max(1, migrationInterval);
+    }
+
+    /**
+     * Get number of chromosomes that migrate from each island.
+     * @return Number of migrants.
+     */
+    public int getMigrants() {
+        return migrants;
+    }
+
+    /**
+     * Set number of chromosomes that migrate from each island.
+     * @param migrants Number of migrants.
+     */
+    public void setMigrants(int migrants) {
+        this.migrants = Math.max(0, migrants);
+    }
+
+    /**
+     * Get number of epochs executed.
+     * @return Number of epochs.
+     */
+    public int getNumberOfEpochs() {
+        return epochs;
+    }
+
+    /**
+     * Get number of evaluations of all the islands.
+     * @return Number of evaluations.
+     */
+    public long getNumberOfEvaluations() {
+        long n = 0;
+        for (Population p : islands) {
+            n += p.getNumberOfEvaluations();
+        }
+        return n;
+    }
+    
+    /**
+     * Get best chromosome of all the islands.
+     * @return Best chromosome.
+     */
+    public IChromosome<?> getBest() {
+        IChromosome<?> best = null;
+        for (Population p : islands) {
+            IChromosome<?> b = p.getBest();
+            if(best == null || b.getFitness() > best.getFitness())
+                best = b;
+        }
+        return best;
+    }
+
+    /**
+     * Initializes a new instance of the IslandModel class.
+     * @param islands Islands.
+     */
+    public IslandModel(List<Population> islands) {
+        if(islands.isEmpty())
+            throw new IllegalArgumentException("At least one island must be specified.");
+        this.islands = new ArrayList<>(islands);
+    }
+    
+    /**
+     * Initializes a new instance of the IslandModel class.
+     * @param base Chromosome base, each island starts from a new chromosome.
+     * @param islands Number of islands.
+     * @param population Size of the population of each island.
+     * @param function Function to be optimized.
+     * @param crossoverRate Crossover rate.
+     */
+    public IslandModel(IChromosome<?> base, int islands, int population, IFitness function, float crossoverRate) {
+        if(islands < 1)
+            throw new IllegalArgumentException("At least one island must be specified.");
+        
+        this.islands = new ArrayList<>(islands);
+        for (int i = 0; i < islands; i++) {
+            this.islands.add(new Population(i == 0 ? base : base.CreateNew(), population, function, crossoverRate));
+        }
+    }
+    
+    /**
+     * Set all operators in the islands.
+     * @param selection Selection method.
+     * @param crossover Crossover method.
+     * @param mutation Mutation method.
+     */
+    public void setOperators(ISelection selection, ICrossover<?> crossover, IMutation<?> mutation){
+        for (Population p : islands) {
+            p.setOperators(selection, crossover, mutation);
+        }
+    }
+    
+    /**
+     * Set all operators in the islands.
+     * @param selection Selection method.
+     * @param crossover Crossover method.
+     * @param mutation Mutation method.
+     * @param reinsertion Reinsertion method.
+     */
+    public void setOperators(ISelection selection, ICrossover<?> crossover, IMutation<?> mutation, IReinsertion reinsertion){
+        for (Population p : islands) {
+            p.setOperators(selection, crossover, mutation, reinsertion);
+        }
+    }
+    
+    /**
+     * Run a epoch (Generation) in all the islands, and migrate the chromosomes at the end of each interval.
+     */
+    public void RunEpoch(){
+        
+        List<Callable<Void>> lst = new ArrayList<>(islands.size());
+        for (final Population p : islands) {
+            lst.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    p.RunEpoch();
+                    return null;
+                }
+            });
+        }
+        
+        try {
+            MulticoreExecutor.run(lst);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+        
+        epochs++;
+        if(epochs % migrationInterval == 0)
+            Migrate();
+    }
+    
+    /**
+     * Migrate the best chromosomes of each island to the next island.
+     * The chromosomes are shared, the operators never change them.
+     */
+    @SuppressWarnings("rawtypes") // the same raw lists of Population.getBest and Population.Immigrate
+    public void Migrate(){
+        int n = islands.size();
+        if(n < 2 || migrants == 0) return;
+        
+        //All the emigrants are chosen before the first immigration
+        List<List<IChromosome>> emigrants = new ArrayList<>(n);
+        for (Population p : islands) {
+            emigrants.add(p.getBest(migrants));
+        }
+        
+        for (int i = 0; i < n; i++) {
+            islands.get((i + 1) % n).Immigrate(emigrants.get(i));
+        }
+    }
+}
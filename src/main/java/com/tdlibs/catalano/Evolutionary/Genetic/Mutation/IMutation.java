@@ -31,6 +31,7 @@ public interface IMutation<T> {
     
     /**
      * Compute the mutation operator.
+     * The chromosome must not be changed, the mutation returns a new chromosome.
      * @param chromossome Chromosome.
      * @return Mutate chromosome.
      */
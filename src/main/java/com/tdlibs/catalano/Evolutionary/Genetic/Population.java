@@ -29,12 +29,23 @@ import com.tdlibs.catalano.Evolutionary.Genetic.Reinsertion.GlobalElistismReinse
 import com.tdlibs.catalano.Evolutionary.Genetic.Reinsertion.IReinsertion;
 import com.tdlibs.catalano.Evolutionary.Genetic.Selection.ISelection;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Population of chromosomes.
+ * 
+ * <p>The chromosomes are evaluated in batches, in parallel when an executor is specified (the fitness function must be thread safe).
+ * The operators never change a chromosome in place, they return new chromosomes, so the chromosomes are shared between
+ * the generations without copies.</p>
+ * 
+ * @see IslandModel
  * @author Diego catalano
  */
 public class Population {
@@ -53,6 +64,8 @@ public class Population {
     private IChromosome best;
     private double minError;
     private long nEvals;
+    
+    private ExecutorService executor;
 
     /**
      * Get population size.
@@ -126,6 +139,31 @@ public class Population {
         this.reinsertion = reinsertion;
     }
 
+    /**
+     * Get the executor used to evaluate the chromosomes.
+     * @return Executor, null if the chromosomes are evaluated in the caller thread.
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Set the executor used to evaluate the chromosomes.
+     * The fitness function must be thread safe.
+     * @param executor Executor, null to evaluate the chromosomes in the caller thread.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+    
+    /**
+     * Get the chromosomes of the population.
+     * @return Chromosomes, read only.
+     */
+    public List<IChromosome> getChromosomes() {
+        return Collections.unmodifiableList(list);
+    }
+
     /**
      * Get number of evaluations.
      * @return Number of evaluations.
@@ -142,9 +180,22 @@ public class Population {
      * @param crossoverRate Crossover rate.
      */
     public Population(IChromosome base, int population, IFitness function, float crossoverRate) {
+        this(base, population, function, crossoverRate, null);
+    }
+    
+    /**
+     * Initializes a new instance of the Population class.
+     * @param base Chromosome base.
+     * @param population Size of population.
+     * @param function Function to be optimized.
+     * @param crossoverRate Crossover rate.
+     * @param executor Executor used to evaluate the chromosomes, null to evaluate them in the caller thread.
+     */
+    public Population(IChromosome base, int population, IFitness function, float crossoverRate, ExecutorService executor) {
         this.population = population;
         this.crossoverRate = crossoverRate;
         this.function = function;
+        this.executor = executor;
         Generate(base);
     }
     
@@ -178,21 +229,15 @@ public class Population {
     private void Generate(IChromosome chromossome){
         list = new ArrayList<>(population);
         
-        chromossome.Evaluate(function);
-        minError = chromossome.getFitness();
-        best = chromossome.Clone();
-        
         list.add(chromossome);
         for (int i = 1; i < population; i++) {
-            IChromosome c = chromossome.CreateNew();
-            c.Evaluate(function);
-            list.add(c);
-            
-            if(c.getFitness() < minError){
-                minError = c.getFitness();
-                best = c.Clone();
-            }
+            list.add(chromossome.CreateNew());
         }
+        Evaluate(list);
+        
+        IChromosome b = FindBestChromossome(list);
+        minError = b.getFitness();
+        best = b.Clone();
     }
     
     /**
@@ -215,29 +260,100 @@ public class Population {
                 newPop.addAll(elem);
             }
             else{
-                newPop.add(list.get(i-1).Clone());
-                newPop.add(list.get(i).Clone());
+                //The mutation returns a new chromosome, the parents are not copied
+                newPop.add(list.get(i-1));
+                newPop.add(list.get(i));
             }
         }
         
         //Mutation
         int size = newPop.size();
         for (int i = 0; i < size; i++) {
-            IChromosome c = (IChromosome)mutation.Compute(newPop.get(i));
-            c.Evaluate(function);
-            newPop.set(i, c);
-            nEvals++;
+            newPop.set(i, (IChromosome)mutation.Compute(newPop.get(i)));
         }
+        Evaluate(newPop);
+        nEvals += size;
         
         list = reinsertion.Compute(this, list, newPop);
+        UpdateBest();
+        
+    }
+    
+    /**
+     * Replace the worst chromosomes of the population.
+     * The immigrants must be evaluated by the same fitness function.
+     * @param immigrants Immigrants.
+     */
+    public void Immigrate(List<IChromosome> immigrants){
+        List<IChromosome> pop = new ArrayList<>(list);
+        Sort(pop);
         
-        //Find best chromossome
+        int n = Math.min(immigrants.size(), pop.size());
+        for (int i = 0; i < n; i++) {
+            pop.set(pop.size() - 1 - i, immigrants.get(i));
+        }
+        
+        list = pop;
+        UpdateBest();
+    }
+    
+    /**
+     * Get the best chromosomes of the population.
+     * @param count Number of chromosomes.
+     * @return Best chromosomes, sorted by fitness.
+     */
+    public List<IChromosome> getBest(int count){
+        List<IChromosome> pop = new ArrayList<>(list);
+        Sort(pop);
+        return new ArrayList<>(pop.subList(0, Math.min(count, pop.size())));
+    }
+    
+    private void UpdateBest(){
         IChromosome bTemp = FindBestChromossome(list);
         if(bTemp.getFitness() > minError){
             minError = bTemp.getFitness();
             best = bTemp.Clone();
         }
+    }
+    
+    /**
+     * Evaluate the chromosomes, in batches of contiguous chromosomes when there is an executor.
+     */
+    private void Evaluate(final List<IChromosome> chromosomes){
+        int n = chromosomes.size();
+        if(executor == null || n < 2){
+            for (IChromosome c : chromosomes) {
+                c.Evaluate(function);
+            }
+            return;
+        }
+        
+        int tasks = Math.min(n, 4 * Runtime.getRuntime().availableProcessors());
+        List<Callable<Void>> lst = new ArrayList<>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int start = t * n / tasks;
+            final int end = (t + 1) * n / tasks;
+            lst.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = start; i < end; i++) {
+                        chromosomes.get(i).Evaluate(function);
+                    }
+                    return null;
+                }
+            });
+        }
         
+        try {
+            for (Future<Void> f : executor.invokeAll(lst)) {
+                f.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        }
     }
     
     private IChromosome FindBestChromossome(List<IChromosome> list){
@@ -247,7 +363,7 @@ public class Population {
         for (IChromosome c : list) {
             if(c.getFitness() > f){
                 f = c.getFitness();
-                b = c.Clone();
+                b = c;
             }
         }
         
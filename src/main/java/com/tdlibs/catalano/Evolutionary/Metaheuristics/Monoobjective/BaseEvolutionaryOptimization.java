@@ -128,4 +128,33 @@ public abstract class BaseEvolutionaryOptimization {
      */
     public abstract void Compute(IObjectiveFunction function, List<DoubleRange> boundConstraints);
     
+    /**
+     * Compute the fitness of the solutions in a single call if the function is a {@link IBatchObjectiveFunction}.
+     * @param function Function.
+     * @param population Solutions.
+     * @param fitness Fitness of each solution (output).
+     */
+    protected void Evaluate(IObjectiveFunction function, double[][] population, double[] fitness){
+        if(function instanceof IBatchObjectiveFunction){
+            ((IBatchObjectiveFunction)function).Compute(population, fitness);
+        }
+        else{
+            for (int i = 0; i < population.length; i++)
+                fitness[i] = function.Compute(population[i]);
+        }
+        nEvals += population.length;
+    }
+    
+    /**
+     * Compute the fitness of the individuals from start to end (exclusive).
+     * @param function Function.
+     * @param population Population.
+     * @param start First individual.
+     * @param end Last individual (exclusive).
+     */
+    protected void Evaluate(IObjectiveFunction function, PopulationMatrix population, int start, int end){
+        population.Evaluate(function, start, end);
+        nEvals += Math.max(0, end - start);
+    }
+    
 }
\ No newline at end of file
@@ -50,9 +50,7 @@ package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
 import com.tdlibs.catalano.Core.DoubleRange;
 import com.tdlibs.catalano.Math.Matrix;
 import com.tdlibs.catalano.Statistics.Tools;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -149,18 +147,20 @@ public class BiogeographyBasedOptimization extends BaseEvolutionaryOptimization{
         nEvals = 0;
         minError = Double.MAX_VALUE;
         
-        //Initialize the population
-        List<Individual> population = Individual.CreatePopulation(populationSize, bounds, function);
-        nEvals += populationSize;
+        //Initialize the population, the new habitats are stored after the population
+        PopulationMatrix population = new PopulationMatrix(populationSize, bounds.size(), 2 * populationSize);
+        population.Randomize(bounds, rand);
+        Evaluate(function, population, 0, populationSize);
         
         //Sort the population
-        Collections.sort(population);
+        population.Sort();
         
-        best = Arrays.copyOf(population.get(0).getLocation(), bounds.size());
-        minError = population.get(0).getFitness();
+        best = population.getLocation(0);
+        minError = population.getFitness(0);
         
         int nKeep = (int)(populationSize * keepRate);
         int nNews = populationSize - nKeep;
+        int[] selected = new int[populationSize];
         
         //Migration rate
         double[] mu = Matrix.Linspace(1,0,populationSize);
@@ -175,60 +175,61 @@ public class BiogeographyBasedOptimization extends BaseEvolutionaryOptimization{
         //Main algorithm
         for (int g = 0; g < generations; g++) {
             
-            List<Individual> newpop = new ArrayList<>(populationSize);
-            for (int i = 0; i < populationSize; i++) {
-                newpop.add(population.get(i).getClone());
-            }
-            
+            population.setSize(2 * populationSize);
             for (int i = 0; i < populationSize; i++) {
                 
-                double[] newIndividual = newpop.get(i).getLocation();
+                int newIndividual = populationSize + i;
+                population.Copy(i, newIndividual);
+                
+                //Emmigration Probabilities
+                double[] ep = Arrays.copyOf(mu, mu.length);
+                ep[i] = 0;
+                double sum = Tools.Sum(ep);
+                for (int k = 0; k < ep.length; k++) {
+                    ep[k] /= sum;
+                }
+                
                 for (int j = 0; j < bounds.size(); j++) {
                     
                     //Migration
                     if(rand.nextDouble() <= (1 - mu[i])){
                         
-                        //Emmigration Probabilities
-                        double[] ep = Arrays.copyOf(mu, mu.length);
-                        ep[i] = 0;
-                        double sum = Tools.Sum(ep);
-                        for (int k = 0; k < ep.length; k++) {
-                            ep[k] /= sum;
-                        }
-                        
                         //Roulette Whell Selection
                         int index = RouletteWheelSelection(ep, rand);
                         
                         //Migration
-                        newIndividual[j] = population.get(i).getLocation(j) + alpha * (population.get(index).getLocation(j) - population.get(i).getLocation(j));
+                        population.set(newIndividual, j, population.get(i, j) + alpha * (population.get(index, j) - population.get(i, j)));
                         
                     }
                     
                     //Mutation
                     if(rand.nextFloat()<= pMutation){
-                        newIndividual[j] = newIndividual[j] + sigmas[j]*rand.nextGaussian();
+                        population.set(newIndividual, j, population.get(newIndividual, j) + sigmas[j]*rand.nextGaussian());
                     }
                     
                 }
                 
-                com.tdlibs.catalano.Math.Tools.Clamp(newIndividual, bounds);
-                double f = function.Compute(newIndividual);
-                newpop.get(i).setFitness(f);
-                nEvals++;
+                population.Clamp(newIndividual, bounds);
                 
             }
             
-            //Sort the new population
-            Collections.sort(newpop);
-
+            //Evaluate the new habitats
+            Evaluate(function, population, populationSize, 2 * populationSize);
+            
             //Get the best of the two population
-            population = population.subList(0, nKeep);
-            population.addAll(newpop.subList(0, nNews));
+            int[] order = population.Argsort();
+            int n = 0;
+            for (int i = 0; i < nKeep; i++)
+                selected[n++] = i;
+            for (int i = 0; n < populationSize; i++) {
+                if(order[i] >= populationSize) selected[n++] = order[i];
+            }
+            population.Select(selected, populationSize);
 
             //Update best and minError
-            Collections.sort(population);
-            best = Arrays.copyOf(population.get(0).getLocation(), bounds.size());
-            minError = population.get(0).getFitness();
+            population.Sort();
+            best = population.getLocation(0);
+            minError = population.getFitness(0);
             
             //Update listener
             listener.onIteration(g+1, minError);   
@@ -25,8 +25,6 @@ package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
 import com.tdlibs.catalano.Core.ArraysUtil;
 import com.tdlibs.catalano.Core.DoubleRange;
 import com.tdlibs.catalano.Math.Matrix;
-import com.tdlibs.catalano.Math.Tools;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -130,32 +128,30 @@ public class ButterflyOptimizationAlgorithm extends BaseEvolutionaryOptimization
         nEvals = 0;
         
         //Initialize the population
-        double[][] pop = new double[populationSize][bounds.size()];
-        double[] fitness = new double[populationSize];
-        for (int i = 0; i < pop.length; i++){
-            pop[i] = Matrix.UniformRandom(bounds);
-            fitness[i] = function.Compute(pop[i]);
-            if(fitness[i] < minError){
-                minError = fitness[i];
-                best = Arrays.copyOf(pop[i], pop[0].length);
-            }
-        }
-        nEvals += populationSize;
+        int dim = bounds.size();
+        PopulationMatrix pop = new PopulationMatrix(populationSize, dim);
+        pop.Randomize(bounds, rand);
+        
+        Evaluate(function, pop, 0, populationSize);
+        minError = pop.getFitness(pop.MinIndex());
+        best = pop.getLocation(pop.MinIndex());
         
         int[] index = Matrix.Indices(0,populationSize);
+        double sm = sensoryModality;
+        PopulationMatrix moves = new PopulationMatrix(populationSize, dim);
         for (int g = 0; g < generations; g++) {
             
-            for (int i = 0; i < pop.length; i++) {
+            //Move all the butterflies from the current positions
+            for (int i = 0; i < populationSize; i++) {
                 
                 //Calculate fragrance of each butterfly
-                double fp = sensoryModality * Math.pow(fitness[i], pExpoent);
+                double fp = sm * Math.pow(pop.getFitness(i), pExpoent);
                 
-                double[] s = new double[pop[0].length]; 
                 if(rand.nextFloat() <= pSwith){
                     
                     double r = rand.nextDouble();
-                    for (int j = 0; j < pop[0].length; j++) {
-                        s[j] = pop[i][j] + (r*r*best[j] - pop[i][j]) * fp;
+                    for (int j = 0; j < dim; j++) {
+                        moves.set(i, j, pop.get(i, j) + (r*r*best[j] - pop.get(i, j)) * fp);
                     }
                     
                 }
@@ -163,33 +159,33 @@ public class ButterflyOptimizationAlgorithm extends BaseEvolutionaryOptimization
                     double r = rand.nextDouble();
                     ArraysUtil.Shuffle(index);
                     
-                    for (int j = 0; j < pop[0].length; j++) {
-                        s[j] = pop[i][j] + (r*r*pop[index[0]][j] - pop[index[1]][j]) * fp;
+                    for (int j = 0; j < dim; j++) {
+                        moves.set(i, j, pop.get(i, j) + (r*r*pop.get(index[0], j) - pop.get(index[1], j)) * fp);
                     }
                 }
                 
-                //Update the population if the solution is better
-                Tools.Clamp(s, bounds);
-                double f = function.Compute(s);
-                nEvals++;
-                if(f < fitness[i]){
-                    pop[i] = s;
-                    fitness[i] = f;
+                moves.Clamp(i, bounds);
+            }
+            
+            //Update the population if the solution is better
+            Evaluate(function, moves, 0, populationSize);
+            for (int i = 0; i < populationSize; i++) {
+                if(moves.getFitness(i) < pop.getFitness(i)){
+                    pop.Copy(moves, i, i);
                 }
                 
                 //Update global error
-                if(f < minError){
-                    minError = f;
-                    best = Arrays.copyOf(pop[i], pop[0].length);
+                if(moves.getFitness(i) < minError){
+                    minError = moves.getFitness(i);
+                    best = moves.getLocation(i);
                 }
-                                
             }
             
             //Update listener
             listener.onIteration(g+1, minError);
             
             //Update sensory modality
-            sensoryModality = NewSensoryModality(sensoryModality, (g+1));
+            sm = NewSensoryModality(sm, (g+1));
             
         }
     }
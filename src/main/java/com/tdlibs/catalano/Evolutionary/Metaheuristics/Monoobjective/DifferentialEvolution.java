@@ -26,7 +26,6 @@ import com.tdlibs.catalano.Core.ArraysUtil;
 import com.tdlibs.catalano.Core.DoubleRange;
 import com.tdlibs.catalano.Math.Matrix;
 import com.tdlibs.catalano.Math.Random.Random;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -241,102 +240,100 @@ public class DifferentialEvolution extends BaseEvolutionaryOptimization{
         Random rand = new Random();
         
         //Generate the population
-        double[][] pop = new double[populationSize][boundConstraint.size()];
-        for (int i = 0; i < pop.length; i++) {
-            pop[i] = Matrix.UniformRandom(boundConstraint);
+        int dim = boundConstraint.size();
+        PopulationMatrix pop = new PopulationMatrix(populationSize, dim);
+        for (int i = 0; i < populationSize; i++) {
+            pop.setLocation(i, Matrix.UniformRandom(boundConstraint));
         }
 
         //Compute fitness
-        double[] fitness = new double[pop.length];
-        for (int i = 0; i < fitness.length; i++) {
-            fitness[i] = function.Compute(pop[i]);
-            if(fitness[i] < minError){
-                minError = fitness[i];
-                best = pop[i];
-            }
-        }
+        Evaluate(function, pop, 0, populationSize);
+        minError = pop.getFitness(pop.MinIndex());
+        best = pop.getLocation(pop.MinIndex());
 
-        int[] idx = Matrix.Indices(0, pop.length);        
+        int[] idx = Matrix.Indices(0, populationSize);
+        PopulationMatrix trials = new PopulationMatrix(populationSize, dim);
+        double[] x = pop.getLocations();
+        double[] trial = trials.getLocations();
+        double[] mv = new double[dim];
         for (int g = 0; g < generations; g++) {
-            for (int p = 0; p < pop.length; p++) {
-                
-                int var = rand.nextInt(pop[0].length);
+            for (int p = 0; p < populationSize; p++) {
                 
-                double[] trial = new double[pop[0].length];
+                int var = rand.nextInt(dim);
+                int c = p * dim;
 
                 switch(strategy){
                     case RAND_1_BIN:
                         ArraysUtil.Shuffle(idx);
-                        for (int i = 0; i < trial.length; i++) {
+                        for (int i = 0; i < dim; i++) {
                             if(rand.nextDouble() <= prob || i == var){
-                                trial[i] = pop[idx[0]][i] + f * (pop[idx[1]][i] - pop[idx[2]][i]);
+                                trial[c + i] = x[idx[0] * dim + i] + f * (x[idx[1] * dim + i] - x[idx[2] * dim + i]);
                             }
                             else{
-                                trial[i] = pop[p][i];
+                                trial[c + i] = x[c + i];
                             }
                         }
                     break;
                     case RAND_2_BIN:{
                         ArraysUtil.Shuffle(idx);
-                        for (int i = 0; i < trial.length; i++) {
+                        for (int i = 0; i < dim; i++) {
                             if(rand.nextDouble() <= prob || i == var){
-                                trial[i] = pop[idx[0]][i] + f * (pop[idx[1]][i] - pop[idx[2]][i] + pop[idx[3]][i] - pop[idx[4]][i]);
+                                trial[c + i] = x[idx[0] * dim + i] + f * (x[idx[1] * dim + i] - x[idx[2] * dim + i] + x[idx[3] * dim + i] - x[idx[4] * dim + i]);
                             }
                             else{
-                                trial[i] = pop[p][i];
+                                trial[c + i] = x[c + i];
                             }
                         }
+                    break;
                     }
                     case RAND_1_EXP:{
                         ArraysUtil.Shuffle(idx);
                         int l = 0;
                         
                         //Mutation vector
-                        double[] mv = Arrays.copyOf(pop[p], pop[0].length);
-                        for (int i = 0; i < trial.length; i++) {
-                            mv[i] = pop[idx[0]][i] + f * (pop[idx[1]][i] - pop[idx[2]][i]);
+                        for (int i = 0; i < dim; i++) {
+                            mv[i] = x[idx[0] * dim + i] + f * (x[idx[1] * dim + i] - x[idx[2] * dim + i]);
                         }
                         
-                        trial = Arrays.copyOf(pop[p], pop[0].length);
+                        System.arraycopy(x, c, trial, c, dim);
                         do {
-                            trial[var] = mv[var];
+                            trial[c + var] = mv[var];
                             l++;
-                            var = (var + 1) % pop[0].length;
-                        } while (rand.nextDouble() <= prob && l < pop[0].length);
+                            var = (var + 1) % dim;
+                        } while (rand.nextDouble() <= prob && l < dim);
+                    break;
                     }
                     case RAND_2_EXP:{
                         ArraysUtil.Shuffle(idx);
                         int l = 0;
                         
                         //Mutation vector
-                        double[] mv = Arrays.copyOf(pop[p], pop[0].length);
-                        for (int i = 0; i < trial.length; i++) {
-                            mv[i] = pop[idx[0]][i] + f * (pop[idx[1]][i] - pop[idx[2]][i] + pop[idx[3]][i] - pop[idx[4]][i]);
+                        for (int i = 0; i < dim; i++) {
+                            mv[i] = x[idx[0] * dim + i] + f * (x[idx[1] * dim + i] - x[idx[2] * dim + i] + x[idx[3] * dim + i] - x[idx[4] * dim + i]);
                         }
                         
-                        trial = Arrays.copyOf(pop[p], pop[0].length);
+                        System.arraycopy(x, c, trial, c, dim);
                         do {
-                            trial[var] = mv[var];
+                            trial[c + var] = mv[var];
                             l++;
-                            var = (var + 1) % pop[0].length;
-                        } while (rand.nextDouble() <= prob && l < pop[0].length);
+                            var = (var + 1) % dim;
+                        } while (rand.nextDouble() <= prob && l < dim);
+                    break;
                     }
                 }
                 
                 //Fix constraint
-                for (int i = 0; i < trial.length; i++) {
-                    trial[i] = trial[i] < boundConstraint.get(i).getMin() ? boundConstraint.get(i).getMin() : trial[i];
-                    trial[i] = trial[i] > boundConstraint.get(i).getMax() ? boundConstraint.get(i).getMax() : trial[i];
-                }
-
-                double fTrial = function.Compute(trial);
-                nEvals++;
-                if(fTrial < fitness[p]){
-                    pop[p] = trial;
-                    fitness[p] = fTrial;
-                    if(fTrial < minError) {
-                        best = trial;
-                        minError = fTrial;
+                trials.Clamp(p, boundConstraint);
+            }
+            
+            //Evaluate the trials of the generation and select
+            Evaluate(function, trials, 0, populationSize);
+            for (int p = 0; p < populationSize; p++) {
+                if(trials.getFitness(p) < pop.getFitness(p)){
+                    pop.Copy(trials, p, p);
+                    if(trials.getFitness(p) < minError){
+                        best = trials.getLocation(p);
+                        minError = trials.getFitness(p);
                     }
                 }
             }
@@ -352,49 +349,48 @@ public class DifferentialEvolution extends BaseEvolutionaryOptimization{
         Random rand = new Random();
 
         //Generate the population
-        double[][] pop = new double[populationSize][boundConstraint.size()];
-        for (int i = 0; i < pop.length; i++) {
-            pop[i] = Matrix.UniformRandom(boundConstraint);
+        int dim = boundConstraint.size();
+        PopulationMatrix pop = new PopulationMatrix(populationSize, dim);
+        for (int i = 0; i < populationSize; i++) {
+            pop.setLocation(i, Matrix.UniformRandom(boundConstraint));
         }
 
         //Compute fitness
-        double[] fitness = new double[pop.length];
-        for (int i = 0; i < fitness.length; i++) {
-            fitness[i] = function.Compute(pop[i]);
-            if(fitness[i] < minError){
-                minError = fitness[i];
-                best = pop[i];
-            }
-        }
+        Evaluate(function, pop, 0, populationSize);
+        minError = pop.getFitness(pop.MinIndex());
+        best = pop.getLocation(pop.MinIndex());
         
-        int[] idx = Matrix.Indices(0, pop.length);
+        int[] idx = Matrix.Indices(0, populationSize);
+        PopulationMatrix trials = new PopulationMatrix(populationSize, dim);
+        double[] x = pop.getLocations();
+        double[] trial = trials.getLocations();
+        double[] mv = new double[dim];
         for (int g = 0; g < generations; g++) {
-            for (int p = 0; p < pop.length; p++) {
+            for (int p = 0; p < populationSize; p++) {
                 
-                int var = rand.nextInt(pop[0].length + 1);
-
-                double[] trial = new double[pop[0].length];
+                int var = rand.nextInt(dim);
+                int c = p * dim;
 
                 switch(strategy){
                     case BEST_1_BIN:
                         ArraysUtil.Shuffle(idx);
-                        for (int i = 0; i < trial.length; i++) {
+                        for (int i = 0; i < dim; i++) {
                             if(rand.nextDouble() <= prob || i == var){
-                                trial[i] = best[i] + f * (pop[idx[0]][i] - pop[idx[1]][i]);
+                                trial[c + i] = best[i] + f * (x[idx[0] * dim + i] - x[idx[1] * dim + i]);
                             }
                             else{
-                                trial[i] = pop[p][i];
+                                trial[c + i] = x[c + i];
                             }
                         }
                     break;
                     case BEST_2_BIN:{
                         ArraysUtil.Shuffle(idx);
-                        for (int i = 0; i < trial.length; i++) {
+                        for (int i = 0; i < dim; i++) {
                             if(rand.nextDouble() <= prob || i == var){
-                                trial[i] = best[i] + f * (pop[idx[0]][i] - pop[idx[1]][i] + pop[idx[2]][i] - pop[idx[3]][i]);
+                                trial[c + i] = best[i] + f * (x[idx[0] * dim + i] - x[idx[1] * dim + i] + x[idx[2] * dim + i] - x[idx[3] * dim + i]);
                             }
                             else{
-                                trial[i] = pop[p][i];
+                                trial[c + i] = x[c + i];
                             }
                         }
                     break;
@@ -404,17 +400,16 @@ public class DifferentialEvolution extends BaseEvolutionaryOptimization{
                         int l = 0;
                         
                         //Mutation vector
-                        double[] mv = Arrays.copyOf(pop[p], pop[0].length);
-                        for (int i = 0; i < trial.length; i++) {
-                            mv[i] = best[i] + f * (pop[idx[0]][i] - pop[idx[1]][i]);
+                        for (int i = 0; i < dim; i++) {
+                            mv[i] = best[i] + f * (x[idx[0] * dim + i] - x[idx[1] * dim + i]);
                         }
                         
-                        trial = Arrays.copyOf(pop[p], pop[0].length);
+                        System.arraycopy(x, c, trial, c, dim);
                         do {
-                            trial[var] = mv[var];
+                            trial[c + var] = mv[var];
                             l++;
-                            var = (var + 1) % pop[0].length;
-                        } while (rand.nextDouble() <= prob && l < pop[0].length);
+                            var = (var + 1) % dim;
+                        } while (rand.nextDouble() <= prob && l < dim);
                     break;
                     }
                     case BEST_2_EXP:{
@@ -422,51 +417,50 @@ public class DifferentialEvolution extends BaseEvolutionaryOptimization{
                         int l = 0;
                         
                         //Mutation vector
-                        double[] mv = Arrays.copyOf(pop[p], pop[0].length);
-                        for (int i = 0; i < trial.length; i++) {
-                            mv[i] = best[i] + f * (pop[idx[0]][i] - pop[idx[1]][i] + pop[idx[2]][i] - pop[idx[3]][i]);
+                        for (int i = 0; i < dim; i++) {
+                            mv[i] = best[i] + f * (x[idx[0] * dim + i] - x[idx[1] * dim + i] + x[idx[2] * dim + i] - x[idx[3] * dim + i]);
                         }
                         
-                        trial = Arrays.copyOf(pop[p], pop[0].length);
+                        System.arraycopy(x, c, trial, c, dim);
                         do {
-                            trial[var] = mv[var];
+                            trial[c + var] = mv[var];
                             l++;
-                            var = (var + 1) % pop[0].length;
-                        } while (rand.nextDouble() <= prob && l < pop[0].length);
+                            var = (var + 1) % dim;
+                        } while (rand.nextDouble() <= prob && l < dim);
                     break;
                     }
                     case RAND_TO_BEST_BIN:{
                         ArraysUtil.Shuffle(idx);
-                        for (int i = 0; i < trial.length; i++) {
+                        for (int i = 0; i < dim; i++) {
                             if(rand.nextDouble() <= prob || i == var){
-                                trial[i] = pop[idx[1]][i] + f * (pop[idx[2]][i] - pop[idx[3]][i]) + f2 * (best[i] - pop[idx[0]][i]);
+                                trial[c + i] = x[idx[1] * dim + i] + f * (x[idx[2] * dim + i] - x[idx[3] * dim + i]) + f2 * (best[i] - x[idx[0] * dim + i]);
                             }
                             else{
-                                trial[i] = pop[p][i];
+                                trial[c + i] = x[c + i];
                             }
                         }
                     break;
                     }
                     case CURRENT_TO_BEST_BIN:{
                         ArraysUtil.Shuffle(idx);
-                        for (int i = 0; i < trial.length; i++) {
+                        for (int i = 0; i < dim; i++) {
                             if(rand.nextDouble() <= prob || i == var){
-                                trial[i] = pop[p][i] + f * (pop[idx[0]][i] - pop[idx[1]][i]) + f2 * (best[i] - pop[p][i]);
+                                trial[c + i] = x[c + i] + f * (x[idx[0] * dim + i] - x[idx[1] * dim + i]) + f2 * (best[i] - x[c + i]);
                             }
                             else{
-                                trial[i] = pop[p][i];
+                                trial[c + i] = x[c + i];
                             }
                         }
                     break;
                     }
                     case CURRENT_TO_RAND_BIN:{
                         ArraysUtil.Shuffle(idx);
-                        for (int i = 0; i < trial.length; i++) {
+                        for (int i = 0; i < dim; i++) {
                             if(rand.nextDouble() <= prob || i == var){
-                                trial[i] = pop[p][i] + f * (pop[idx[1]][i] - pop[idx[2]][i]) + f2 * (pop[idx[0]][i] - pop[p][i]);
+                                trial[c + i] = x[c + i] + f * (x[idx[1] * dim + i] - x[idx[2] * dim + i]) + f2 * (x[idx[0] * dim + i] - x[c + i]);
                             }
                             else{
-                                trial[i] = pop[p][i];
+                                trial[c + i] = x[c + i];
                             }
                         }
                     break;
@@ -474,19 +468,17 @@ public class DifferentialEvolution extends BaseEvolutionaryOptimization{
                 }
                 
                 //Fix constraint
-                for (int i = 0; i < trial.length; i++) {
-                    trial[i] = trial[i] < boundConstraint.get(i).getMin() ? boundConstraint.get(i).getMin() : trial[i];
-                    trial[i] = trial[i] > boundConstraint.get(i).getMax() ? boundConstraint.get(i).getMax() : trial[i];
-                }
-
-                double fTrial = function.Compute(trial);
-                nEvals++;
-                if(fTrial < fitness[p]){
-                    pop[p] = trial;
-                    fitness[p] = fTrial;
-                    if(fTrial < minError){
-                        best = trial;
-                        minError = fTrial;
+                trials.Clamp(p, boundConstraint);
+            }
+            
+            //Evaluate the trials of the generation and select
+            Evaluate(function, trials, 0, populationSize);
+            for (int p = 0; p < populationSize; p++) {
+                if(trials.getFitness(p) < pop.getFitness(p)){
+                    pop.Copy(trials, p, p);
+                    if(trials.getFitness(p) < minError){
+                        best = trials.getLocation(p);
+                        minError = trials.getFitness(p);
                     }
                 }
             }
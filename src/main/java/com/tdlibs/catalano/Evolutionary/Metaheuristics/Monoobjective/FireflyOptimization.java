@@ -50,9 +50,6 @@ package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
 import com.tdlibs.catalano.Core.DoubleRange;
 import com.tdlibs.catalano.Math.Matrix;
 import com.tdlibs.catalano.Math.Tools;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -194,6 +191,7 @@ public class FireflyOptimization extends BaseEvolutionaryOptimization {
     public FireflyOptimization(int population, int generations, double alpha, double beta0, double gamma, double alphaDamp, double delta){
         this.populationSize = population;
         this.generations = generations;
+        this.alpha = alpha;
         this.beta0 = beta0;
         this.gamma = gamma;
         this.alphaDamp = alphaDamp;
@@ -209,12 +207,15 @@ public class FireflyOptimization extends BaseEvolutionaryOptimization {
         
         Random rand = new Random();
         
-        //Generate population
-        List<Individual> pop = Individual.CreatePopulation(populationSize, boundConstraint, function);
+        //Generate population, the best move of each firefly is stored after the population
+        int dim = boundConstraint.size();
+        PopulationMatrix pop = new PopulationMatrix(populationSize, dim, 2 * populationSize);
+        pop.Randomize(boundConstraint, rand);
+        Evaluate(function, pop, 0, populationSize);
         
         //Calculate dmax
-        double[] min = new double[boundConstraint.size()];
-        double[] max = new double[boundConstraint.size()];
+        double[] min = new double[dim];
+        double[] max = new double[dim];
         for (int i = 0; i < min.length; i++) {
             DoubleRange range = boundConstraint.get(i);
             min[i] = range.getMin();
@@ -222,51 +223,51 @@ public class FireflyOptimization extends BaseEvolutionaryOptimization {
         }
         dmax = Matrix.Norm2(Matrix.Subtract(min, max));
         
-        //Firefly algorithm
+        //Firefly algorithm, the moves of one firefly are evaluated in a batch
+        PopulationMatrix moves = new PopulationMatrix(populationSize, dim);
+        double[] m = moves.getLocations();
         for (int g = 0; g < generations; g++) {
             
-            //Initialize a new population
-            List<Individual> newPop = new ArrayList<Individual>(populationSize);
-            for (int i = 0; i < populationSize; i++) {
-                newPop.add(new Individual(null, Double.MAX_VALUE));
-            }
-            
-            //Compute
+            //Move each firefly towards all the others
+            double[] x = pop.getLocations();
+            pop.setSize(2 * populationSize);
             for (int i = 0; i < populationSize; i++) {
+                int a = pop.Offset(i);
                 for (int j = 0; j < populationSize; j++) {
-                    double rij = Matrix.Norm2(Matrix.Subtract(pop.get(i).getLocation(), pop.get(j).getLocation())) / dmax;
+                    int b = pop.Offset(j);
+                    
+                    double rij = 0;
+                    for (int k = 0; k < dim; k++)
+                        rij += (x[a + k] - x[b + k]) * (x[a + k] - x[b + k]);
+                    rij = Math.sqrt(rij) / dmax;
                     double beta = beta0 * Math.exp(-gamma * (rij*rij));
-                    double[] e = Matrix.Multiply(Matrix.UniformRandom(-1, 1, boundConstraint.size()), delta);
 
                     //New solution
-                    double[] newsol = new double[boundConstraint.size()];
-                    for (int k = 0; k < newsol.length; k++) {
-                        Individual a = pop.get(i);
-                        Individual b = pop.get(j);
-                        newsol[k] = a.getLocation()[k] + beta * rand.nextDouble() * (b.getLocation()[k] - a.getLocation()[k]) + damp * e[k];
-                        newsol[k] = Tools.Clamp(newsol[k], boundConstraint.get(k));
-                    }
-
-                    double newfit = function.Compute(newsol);
-                    nEvals++;
-                    if(newfit <= newPop.get(i).getFitness()){
-                        newPop.set(i, new Individual(newsol, newfit));
-                        if(newfit < minError){
-                            minError = newfit;
-                            best = Arrays.copyOf(newPop.get(i).getLocation(), boundConstraint.size());
-                        }
+                    int c = moves.Offset(j);
+                    for (int k = 0; k < dim; k++) {
+                        double e = (2 * rand.nextDouble() - 1) * delta;
+                        m[c + k] = x[a + k] + beta * rand.nextDouble() * (x[b + k] - x[a + k]) + damp * e;
+                        m[c + k] = Tools.Clamp(m[c + k], boundConstraint.get(k));
                     }
                 }
+                
+                //Evaluate the moves and keep the best, the first fireflies are not changed yet
+                Evaluate(function, moves, 0, populationSize);
+                int k = 0;
+                for (int j = 1; j < populationSize; j++) {
+                    if(moves.getFitness(j) <= moves.getFitness(k))
+                        k = j;
+                }
+                
+                pop.Copy(moves, k, populationSize + i);
+                if(moves.getFitness(k) < minError){
+                    minError = moves.getFitness(k);
+                    best = moves.getLocation(k);
+                }
             }
             
-            //Merge population
-            pop.addAll(newPop);
-            
-            //Sort
-            Collections.sort(pop);
-            
-            //Truncate
-            pop = pop.subList(0, populationSize);
+            //Sort the merged population and truncate
+            pop.Select(pop.Argsort(), populationSize);
             
             damp = damp*alphaDamp;
             
@@ -27,6 +27,7 @@ package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
 
 import com.tdlibs.catalano.Core.DoubleRange;
 import com.tdlibs.catalano.Math.Matrix;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -91,32 +92,35 @@ public class GreyWolfOptimizer extends BaseEvolutionaryOptimization {
         
         
         //GWO start here
+        double[] fit = new double[pop.length];
         for (int g = 0; g < generations; g++) {
             
+            //Evaluate the pack
+            Evaluate(function, pop, fit);
+            
             //Update alpha, beta and delta
             for (int i = 0; i < pop.length; i++) {
                 
-                double fitness = function.Compute(pop[i]);
-                nEvals++;
+                double fitness = fit[i];
                 
                 if(fitness < alphaScore){
                     alphaScore = fitness;
-                    alpha = pop[i];
+                    alpha = Arrays.copyOf(pop[i], pop[i].length);
                 }
                 
                 if(fitness > alphaScore && fitness < betaScore){
                     betaScore = fitness;
-                    beta = pop[i];
+                    beta = Arrays.copyOf(pop[i], pop[i].length);
                 }
                 
                 if(fitness > alphaScore && fitness > betaScore && fitness < deltaScore){
                     deltaScore = fitness;
-                    delta = pop[i];
+                    delta = Arrays.copyOf(pop[i], pop[i].length);
                 }
                 
                 if(fitness < minError){
                     minError = fitness;
-                    best = pop[i];
+                    best = Arrays.copyOf(pop[i], pop[i].length);
                 }
                 
             }
@@ -48,11 +48,7 @@
 package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
 
 import com.tdlibs.catalano.Core.DoubleRange;
-import com.tdlibs.catalano.Math.Matrix;
 import com.tdlibs.catalano.Math.Tools;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -240,11 +236,14 @@ public class HarmonySearch extends BaseEvolutionaryOptimization {
         
         Random rand = new Random();
         
-        //Initialize the population
-        List<Individual> pop = Individual.CreatePopulation(populationSize, boundConstraint, function);
+        //Initialize the population, the new harmonies are stored after the population
+        int size = populationSize + newHarmonies;
+        PopulationMatrix pop = new PopulationMatrix(populationSize, boundConstraint.size(), size);
+        pop.Randomize(boundConstraint, rand);
+        Evaluate(function, pop, 0, populationSize);
         
         //Sort population by your fitness
-        Collections.sort(pop);
+        pop.Sort();
         
         //Calculate fret width
         double[] fretWidth = new double[boundConstraint.size()];
@@ -256,45 +255,34 @@ public class HarmonySearch extends BaseEvolutionaryOptimization {
         //Initialize the algorithm
         for (int g = 0; g < generations; g++) {
             
-            //Initialize new pop
-            List<Individual> newPop = new ArrayList<Individual>(newHarmonies);
-            for (int i = 0; i < newHarmonies; i++) {
-                double[] values = Matrix.UniformRandom(boundConstraint);
-                newPop.add(new Individual(values));
-            }
-            
-            for (int i = 0; i < newHarmonies; i++) {
+            //Initialize new harmonies
+            pop.setSize(size);
+            for (int i = populationSize; i < size; i++) {
+                pop.Randomize(i, boundConstraint, rand);
                 for (int j = 0; j < boundConstraint.size(); j++) {
                     
                     //Harmony memory
                     if(rand.nextDouble() <= hmcr){
-                        int randPos = rand.nextInt(pop.size());
-                        newPop.get(i).getLocation()[j] = pop.get(randPos).getLocation()[j];
+                        int randPos = rand.nextInt(populationSize);
+                        pop.set(i, j, pop.get(randPos, j));
                     }
                     
                     //Pitch adjustment
-                    double v = newPop.get(i).getLocation()[j];
+                    double v = pop.get(i, j);
                     if(rand.nextDouble() <= pitch){
                         v += rand.nextGaussian() * fretWidth[j];
                     }
                     
                     //Clamp value
-                    newPop.get(i).getLocation()[j] = Tools.Clamp(v, boundConstraint.get(j));
+                    pop.set(i, j, Tools.Clamp(v, boundConstraint.get(j)));
                 }
-                
-                //Compute fitness
-                newPop.get(i).setFitness(function.Compute(newPop.get(i).getLocation()));
-                nEvals++;
             }
             
-            //Merge harmonies
-            pop.addAll(newPop);
-            
-            //Sort
-            Collections.sort(pop);
+            //Compute fitness of the new harmonies
+            Evaluate(function, pop, populationSize, size);
             
-            //Truncate
-            pop = pop.subList(0, populationSize);
+            //Sort the merged harmonies and truncate
+            pop.Select(pop.Argsort(), populationSize);
             
             //Damp fret width
             for (int i = 0; i < fretWidth.length; i++) {
@@ -302,8 +290,8 @@ public class HarmonySearch extends BaseEvolutionaryOptimization {
             }
             
             //Update global values
-            best = Arrays.copyOf(pop.get(0).getLocation(), boundConstraint.size());
-            minError = pop.get(0).getFitness();
+            best = pop.getLocation(0);
+            minError = pop.getFitness(0);
             
             if(listener != null)
                 listener.onIteration(g+1, minError);
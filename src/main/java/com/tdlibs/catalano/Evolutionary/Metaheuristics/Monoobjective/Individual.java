@@ -38,14 +38,21 @@ public class Individual implements Comparable<Individual>, Cloneable {
     
     public static List<Individual> CreatePopulation(int populationSize, List<DoubleRange> boundConstraints, IObjectiveFunction function){
         
-        List<Individual> population = new ArrayList<>(populationSize);
+        double[][] locations = new double[populationSize][];
         for (int i = 0; i < populationSize; i++) {
-            double[] location = Matrix.UniformRandom(boundConstraints);
-            double fitness = function.Compute(location);
-            population.add(new Individual(location, fitness));
+            locations[i] = Matrix.UniformRandom(boundConstraints);
         }
         
-        return population;
+        double[] fitness = new double[populationSize];
+        if(function instanceof IBatchObjectiveFunction){
+            ((IBatchObjectiveFunction)function).Compute(locations, fitness);
+        }
+        else{
+            for (int i = 0; i < populationSize; i++)
+                fitness[i] = function.Compute(locations[i]);
+        }
+        
+        return CreatePopulation(locations, fitness);
         
     }
     
@@ -23,9 +23,7 @@
 package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
 
 import com.tdlibs.catalano.Core.DoubleRange;
-import com.tdlibs.catalano.Math.Matrix;
 import com.tdlibs.catalano.Math.Tools;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -66,50 +64,45 @@ public class JayaOptimization extends BaseEvolutionaryOptimization {
         Random rand = new Random();
         
         //Generate the individuals
-        double[][] pop = new double[populationSize][boundConstraint.size()];
-        for (int i = 0; i < pop.length; i++) {
-            pop[i] = Matrix.UniformRandom(boundConstraint);
-        }
+        int dim = boundConstraint.size();
+        PopulationMatrix pop = new PopulationMatrix(populationSize, dim);
+        pop.Randomize(boundConstraint, rand);
 
         //Compute fitness
-        double[] fitness = new double[pop.length];
-        for (int i = 0; i < fitness.length; i++){
-            fitness[i] = function.Compute(pop[i]);
-            if(fitness[i] < minError){
-                minError = fitness[i];
-                best = Arrays.copyOf(pop[i], pop[0].length);
-            }
-        }
+        Evaluate(function, pop, 0, populationSize);
+        minError = pop.getFitness(pop.MinIndex());
+        best = pop.getLocation(pop.MinIndex());
         
         
         //Jaya algorithm
+        PopulationMatrix newPop = new PopulationMatrix(populationSize, dim);
+        double[] worst = new double[dim];
         for (int it = 0; it < generations; it++) {
             
             //Worst solution
-            double[] worst = pop[Matrix.MaxIndex(fitness)];
+            pop.getLocation(pop.MaxIndex(), worst);
             
-            for (int i = 0; i < pop.length; i++) {
-                
-                double[] newSolution = new double[pop[0].length];
-                for (int j = 0; j < pop[0].length; j++) {
+            //All the solutions move with the best and the worst of the previous iteration
+            for (int i = 0; i < populationSize; i++) {
+                for (int j = 0; j < dim; j++) {
                     
                     //Jaya equation
-                    newSolution[j] = pop[i][j] + (rand.nextDouble() * (best[j] - Math.abs(pop[i][j]))) - (rand.nextDouble() * (worst[j] - Math.abs(pop[i][j])));
+                    double v = pop.get(i, j);
+                    v = v + (rand.nextDouble() * (best[j] - Math.abs(v))) - (rand.nextDouble() * (worst[j] - Math.abs(v)));
                     
                     //Clamp values
-                    newSolution[j] = Tools.Clamp(newSolution[j], boundConstraint.get(j));
+                    newPop.set(i, j, Tools.Clamp(v, boundConstraint.get(j)));
                 }
-                
-                double f = function.Compute(newSolution);
-                nEvals++;
-                
-                if(f < fitness[i]){
-                    pop[i] = newSolution;
-                    fitness[i] = f;
+            }
+            
+            Evaluate(function, newPop, 0, populationSize);
+            for (int i = 0; i < populationSize; i++) {
+                if(newPop.getFitness(i) < pop.getFitness(i)){
+                    pop.Copy(newPop, i, i);
                 }
-                if(f < minError){
-                    minError = f;
-                    best = Arrays.copyOf(newSolution, pop[0].length);
+                if(newPop.getFitness(i) < minError){
+                    minError = newPop.getFitness(i);
+                    best = newPop.getLocation(i);
                 }
             }
             
@@ -0,0 +1,145 @@
+// catalano Genetic Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2018
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel objective function.
+ * Evaluates the solutions of a population in parallel with an objective function.
+ * 
+ * <p>The solutions are taken one by one by the threads, so objectives with different
+ * costs by solution (e.g. simulations) keep all the cores busy. The objective function
+ * must be thread safe.</p>
+ * 
+ * @author Diego catalano
+ */
+public class ParallelObjectiveFunction implements IBatchObjectiveFunction {
+    
+    private IObjectiveFunction function;
+    private ExecutorService executor;
+    private int threads;
+
+    /**
+     * Get the objective function.
+     * @return Objective function.
+     */
+    public IObjectiveFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * Get the executor.
+     * @return Executor, null if the MulticoreExecutor is used.
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Get the number of threads.
+     * @return Number of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of threads.
+     * @param threads Number of threads.
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Initializes a new instance of the ParallelObjectiveFunction class.
+     * @param function Objective function.
+     */
+    public ParallelObjectiveFunction(IObjectiveFunction function) {
+        this(function, null, MulticoreExecutor.getThreadPoolSize());
+    }
+    
+    /**
+     * Initializes a new instance of the ParallelObjectiveFunction class.
+     * @param function Objective function.
+     * @param executor Executor, null to use the MulticoreExecutor.
+     * @param threads Number of threads.
+     */
+    public ParallelObjectiveFunction(IObjectiveFunction function, ExecutorService executor, int threads) {
+        if (function == null)
+            throw new IllegalArgumentException("The objective function can not be null.");
+        this.function = function;
+        this.executor = executor;
+        setThreads(threads);
+    }
+
+    @Override
+    public double Compute(double[] values) {
+        return function.Compute(values);
+    }
+
+    @Override
+    public void Compute(final double[][] population, final double[] fitness) {
+        
+        int tasks = Math.min(threads, population.length);
+        if (tasks <= 1 || (executor == null && MulticoreExecutor.getThreadPoolSize() <= 1)) {
+            for (int i = 0; i < population.length; i++)
+                fitness[i] = function.Compute(population[i]);
+            return;
+        }
+        
+        final AtomicInteger next = new AtomicInteger();
+        List<Callable<Void>> lst = new ArrayList<Callable<Void>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            lst.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    int i;
+                    while ((i = next.getAndIncrement()) < population.length)
+                        fitness[i] = function.Compute(population[i]);
+                    return null;
+                }
+            });
+        }
+        
+        try {
+            if (executor == null) {
+                MulticoreExecutor.run(lst);
+            }
+            else {
+                for (Future<Void> future : executor.invokeAll(lst))
+                    future.get();
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+    
+}
@@ -142,9 +142,11 @@ public class ParticleSwarmOptimization extends BaseEvolutionaryOptimization {
         //Initialize the particles
         Initialize(populationSize, boundConstraint, function, seed);
         
+        double[][] locations = new double[populationSize][];
+        double[] fitness = new double[populationSize];
         for (int i = 0; i < generations; i++) {
             
-            //For each swarm
+            //Move all the particles to the best of the previous iteration
             for (int j = 0; j < populationSize; j++) {
 
                 Particle p = swarm.get(j);
@@ -176,9 +178,16 @@ public class ParticleSwarmOptimization extends BaseEvolutionaryOptimization {
                     newLocation[k] = newLocation[k] > boundConstraint.get(k).getMax() ? boundConstraint.get(k).getMax() : newLocation[k];
                 }
                 p.setLocation(newLocation);
+                locations[j] = newLocation;
                 
-                p.setFitness(function.Compute(newLocation));
-                nEvals++;
+            }
+            
+            //Evaluate the swarm and update the bests
+            Evaluate(function, locations, fitness);
+            for (int j = 0; j < populationSize; j++) {
+                
+                Particle p = swarm.get(j);
+                p.setFitness(fitness[j]);
                 
                 if(p.getFitness() < p.getBestFitness()){
                     p.setBestLocation(p.getLocation());
@@ -190,9 +199,6 @@ public class ParticleSwarmOptimization extends BaseEvolutionaryOptimization {
                     }
                 }
                 
-                //Swap the swarm
-                swarm.set(j, p);
-                
             }
             
             //Dumping factor
@@ -213,6 +219,7 @@ public class ParticleSwarmOptimization extends BaseEvolutionaryOptimization {
         
         if(seed != 0) random.setSeed(seed);
         
+        double[][] locations = new double[swarmSize][];
         for(int i = 0; i < swarmSize; i++) {
 
             // randomize location inside the bound constraint.
@@ -229,15 +236,22 @@ public class ParticleSwarmOptimization extends BaseEvolutionaryOptimization {
             p.setLocation(loc);
             p.setBestLocation(loc);
             p.setVelocity(vel);
-            p.setFitness(function.Compute(loc));
+            locations[i] = loc;
+
+            swarm.add(p);
+        }
+        
+        double[] fitness = new double[swarmSize];
+        Evaluate(function, locations, fitness);
+        for(int i = 0; i < swarmSize; i++) {
+            Particle p = swarm.get(i);
+            p.setFitness(fitness[i]);
             p.setBestFitness(p.getFitness());
             
             if(p.getFitness() < minError){
                 minError = p.getFitness();
                 best = p.getLocation();
             }
-
-            swarm.add(p);
         }
     }
 }
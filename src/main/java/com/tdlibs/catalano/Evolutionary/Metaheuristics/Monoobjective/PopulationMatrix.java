@@ -0,0 +1,385 @@
+// catalano Genetic Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2018
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
+
+import com.tdlibs.catalano.Core.DoubleRange;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Population stored as a matrix.
+ * The locations of all the individuals are stored row by row in a single array
+ * and the fitness in a parallel array, the individuals are sorted and selected by index.
+ * 
+ * <p>The capacity can be greater than the size, the rows after the size are used to
+ * hold the new individuals before the selection (e.g. (mu + lambda) strategies).</p>
+ * 
+ * @author Diego catalano
+ */
+public class PopulationMatrix {
+    
+    private int size;
+    private int capacity;
+    private int dimensions;
+    
+    private double[] locations;
+    private double[] fitness;
+    
+    //Buffers
+    private double[] bufferLocations;
+    private double[] bufferFitness;
+    private int[] order;
+    private int[] bufferOrder;
+    private double[] row;
+    private double[][] rows;
+    private double[] rowsFitness;
+
+    /**
+     * Get the number of individuals.
+     * @return Size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Set the number of individuals.
+     * @param size Size, up to the capacity.
+     */
+    public void setSize(int size) {
+        if (size < 0 || size > capacity)
+            throw new IllegalArgumentException("The size must be between 0 and the capacity.");
+        this.size = size;
+    }
+
+    /**
+     * Get the maximum number of individuals.
+     * @return Capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of dimensions.
+     * @return Dimensions.
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Get the locations of all the individuals, row by row.
+     * The array is replaced when the individuals are sorted or selected.
+     * @return Locations.
+     */
+    public double[] getLocations() {
+        return locations;
+    }
+
+    /**
+     * Get the fitness of all the individuals.
+     * The array is replaced when the individuals are sorted or selected.
+     * @return Fitness.
+     */
+    public double[] getFitness() {
+        return fitness;
+    }
+
+    /**
+     * Initializes a new instance of the PopulationMatrix class.
+     * @param size Number of individuals.
+     * @param dimensions Number of dimensions.
+     */
+    public PopulationMatrix(int size, int dimensions) {
+        this(size, dimensions, size);
+    }
+    
+    /**
+     * Initializes a new instance of the PopulationMatrix class.
+     * @param size Number of individuals.
+     * @param dimensions Number of dimensions.
+     * @param capacity Maximum number of individuals.
+     */
+    public PopulationMatrix(int size, int dimensions, int capacity) {
+        if (dimensions < 1)
+            throw new IllegalArgumentException("The number of dimensions must be at least 1.");
+        if (capacity < size)
+            throw new IllegalArgumentException("The capacity must be at least the size.");
+        this.size = size;
+        this.dimensions = dimensions;
+        this.capacity = capacity;
+        this.locations = new double[capacity * dimensions];
+        this.fitness = new double[capacity];
+        Arrays.fill(fitness, Double.NaN);
+    }
+    
+    /**
+     * Get the offset of the individual in the locations.
+     * @param i Individual.
+     * @return Offset.
+     */
+    public int Offset(int i){
+        return i * dimensions;
+    }
+    
+    /**
+     * Get a value of the individual.
+     * @param i Individual.
+     * @param j Dimension.
+     * @return Value.
+     */
+    public double get(int i, int j){
+        return locations[i * dimensions + j];
+    }
+    
+    /**
+     * Set a value of the individual.
+     * @param i Individual.
+     * @param j Dimension.
+     * @param value Value.
+     */
+    public void set(int i, int j, double value){
+        locations[i * dimensions + j] = value;
+    }
+    
+    /**
+     * Get the fitness of the individual.
+     * @param i Individual.
+     * @return Fitness.
+     */
+    public double getFitness(int i){
+        return fitness[i];
+    }
+    
+    /**
+     * Set the fitness of the individual.
+     * @param i Individual.
+     * @param fitness Fitness.
+     */
+    public void setFitness(int i, double fitness){
+        this.fitness[i] = fitness;
+    }
+    
+    /**
+     * Get a copy of the location of the individual.
+     * @param i Individual.
+     * @return Location.
+     */
+    public double[] getLocation(int i){
+        return Arrays.copyOfRange(locations, i * dimensions, (i + 1) * dimensions);
+    }
+    
+    /**
+     * Copy the location of the individual.
+     * @param i Individual.
+     * @param location Location (output).
+     */
+    public void getLocation(int i, double[] location){
+        System.arraycopy(locations, i * dimensions, location, 0, dimensions);
+    }
+    
+    /**
+     * Set the location of the individual.
+     * @param i Individual.
+     * @param location Location.
+     */
+    public void setLocation(int i, double[] location){
+        System.arraycopy(location, 0, locations, i * dimensions, dimensions);
+    }
+    
+    /**
+     * Copy an individual (location and fitness).
+     * @param from Source individual.
+     * @param to Destination individual.
+     */
+    public void Copy(int from, int to){
+        Copy(this, from, to);
+    }
+    
+    /**
+     * Copy an individual (location and fitness) from other population.
+     * @param population Source population.
+     * @param from Source individual.
+     * @param to Destination individual.
+     */
+    public void Copy(PopulationMatrix population, int from, int to){
+        System.arraycopy(population.locations, from * dimensions, locations, to * dimensions, dimensions);
+        fitness[to] = population.fitness[from];
+    }
+    
+    /**
+     * Set random locations in all the individuals.
+     * @param bounds Bound constraints.
+     * @param rand Random number generator.
+     */
+    public void Randomize(List<DoubleRange> bounds, Random rand){
+        for (int i = 0; i < size; i++)
+            Randomize(i, bounds, rand);
+    }
+    
+    /**
+     * Set a random location in the individual.
+     * @param i Individual.
+     * @param bounds Bound constraints.
+     * @param rand Random number generator.
+     */
+    public void Randomize(int i, List<DoubleRange> bounds, Random rand){
+        for (int j = 0, k = i * dimensions; j < dimensions; j++, k++) {
+            DoubleRange range = bounds.get(j);
+            locations[k] = range.getMin() + rand.nextDouble() * (range.getMax() - range.getMin());
+        }
+    }
+    
+    /**
+     * Clamp the location of the individual.
+     * @param i Individual.
+     * @param bounds Bound constraints.
+     */
+    public void Clamp(int i, List<DoubleRange> bounds){
+        for (int j = 0, k = i * dimensions; j < dimensions; j++, k++) {
+            DoubleRange range = bounds.get(j);
+            if (locations[k] < range.getMin()) locations[k] = range.getMin();
+            if (locations[k] > range.getMax()) locations[k] = range.getMax();
+        }
+    }
+    
+    /**
+     * Get the index of the individual with the minimum fitness.
+     * @return Index.
+     */
+    public int MinIndex(){
+        int index = 0;
+        for (int i = 1; i < size; i++) {
+            if (Double.compare(fitness[i], fitness[index]) < 0) index = i;
+        }
+        return index;
+    }
+    
+    /**
+     * Get the index of the individual with the maximum fitness.
+     * @return Index.
+     */
+    public int MaxIndex(){
+        int index = 0;
+        for (int i = 1; i < size; i++) {
+            if (Double.compare(fitness[i], fitness[index]) > 0) index = i;
+        }
+        return index;
+    }
+    
+    /**
+     * Compute the fitness of the individuals.
+     * The rows are copied in reused buffers, so the function receives a new array only in the first call.
+     * @param function Objective function.
+     * @param start First individual.
+     * @param end Last individual (exclusive).
+     */
+    public void Evaluate(IObjectiveFunction function, int start, int end){
+        int n = end - start;
+        if (n <= 0) return;
+        
+        if (function instanceof IBatchObjectiveFunction) {
+            if (rows == null || rows.length != n) {
+                rows = new double[n][dimensions];
+                rowsFitness = new double[n];
+            }
+            for (int i = 0; i < n; i++)
+                getLocation(start + i, rows[i]);
+            ((IBatchObjectiveFunction)function).Compute(rows, rowsFitness);
+            System.arraycopy(rowsFitness, 0, fitness, start, n);
+        }
+        else {
+            if (row == null) row = new double[dimensions];
+            for (int i = start; i < end; i++) {
+                getLocation(i, row);
+                fitness[i] = function.Compute(row);
+            }
+        }
+    }
+    
+    /**
+     * Get the order of the individuals by the fitness (ascending).
+     * The sort is stable, the returned array is reused by the next call.
+     * @return Indexes of the individuals.
+     */
+    public int[] Argsort(){
+        if (order == null || order.length != capacity) {
+            order = new int[capacity];
+            bufferOrder = new int[capacity];
+        }
+        for (int i = 0; i < size; i++)
+            order[i] = i;
+        
+        //Bottom up merge sort
+        int[] a = order;
+        int[] b = bufferOrder;
+        for (int width = 1; width < size; width *= 2) {
+            for (int lo = 0; lo < size; lo += 2 * width) {
+                int mid = Math.min(lo + width, size);
+                int hi = Math.min(lo + 2 * width, size);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi)
+                    b[k++] = Double.compare(fitness[a[j]], fitness[a[i]]) < 0 ? a[j++] : a[i++];
+                while (i < mid) b[k++] = a[i++];
+                while (j < hi) b[k++] = a[j++];
+            }
+            int[] t = a; a = b; b = t;
+        }
+        order = a;
+        bufferOrder = b;
+        
+        return order;
+    }
+    
+    /**
+     * Sort the individuals by the fitness (ascending).
+     */
+    public void Sort(){
+        Select(Argsort(), size);
+    }
+    
+    /**
+     * Keep only the selected individuals, in the given order.
+     * @param indexes Indexes of the individuals.
+     * @param count Number of selected individuals.
+     */
+    public void Select(int[] indexes, int count){
+        if (count > capacity)
+            throw new IllegalArgumentException("The number of selected individuals must be at most the capacity.");
+        if (bufferLocations == null) {
+            bufferLocations = new double[locations.length];
+            bufferFitness = new double[fitness.length];
+        }
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(locations, indexes[i] * dimensions, bufferLocations, i * dimensions, dimensions);
+            bufferFitness[i] = fitness[indexes[i]];
+        }
+        
+        double[] t = locations; locations = bufferLocations; bufferLocations = t;
+        double[] f = fitness; fitness = bufferFitness; bufferFitness = f;
+        size = count;
+    }
+    
+}
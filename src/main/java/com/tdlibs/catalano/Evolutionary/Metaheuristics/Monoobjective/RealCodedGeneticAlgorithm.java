@@ -51,9 +51,6 @@ import com.tdlibs.catalano.Core.ArraysUtil;
 import com.tdlibs.catalano.Core.DoubleRange;
 import com.tdlibs.catalano.Math.Matrix;
 import com.tdlibs.catalano.Math.Tools;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -120,80 +117,75 @@ public class RealCodedGeneticAlgorithm extends BaseEvolutionaryOptimization {
     public void Compute(IObjectiveFunction function, List<DoubleRange> boundConstraint) {
         
          Random rand = new Random();
+         nEvals = 0;
          
          int popCO = 2*(int)(populationSize * crossoverPercentage)/2;
          int popMU = (int)(populationSize * mutationPercentage);
         
-        //Generate the population
+        //Generate the population, the offsprings and the mutants are stored after the population
+        int dim = boundConstraint.size();
         int pSize = populationSize + popCO * 2 + popMU;
-        List<Individual> population = new ArrayList<Individual>(pSize);
-        for (int i = 0; i < pSize; i++) {
-            double[] values = new double[boundConstraint.size()];
-            for (int j = 0; j < values.length; j++) {
-                DoubleRange range = boundConstraint.get(j);
-                values[j] = range.getMin() + rand.nextDouble() * (range.getMax() - range.getMin());
-            }
-
-            Individual c = new Individual(values, function.Compute(values));
-            population.add(c);
-        }
-        
+        int nNews = 2*(popCO/2) + popMU;
+        PopulationMatrix population = new PopulationMatrix(pSize, dim, pSize + nNews);
+        population.Randomize(boundConstraint, rand);
+        Evaluate(function, population, 0, pSize);
         
         //Sort
-        Collections.sort(population);
+        population.Sort();
         
         //Best of the all solution
-        best = Arrays.copyOf(population.get(0).getLocation(), boundConstraint.size());
-        minError = population.get(0).getFitness();
-        maxError = population.get(population.size()-1).getFitness();
+        best = population.getLocation(0);
+        minError = population.getFitness(0);
+        maxError = population.getFitness(pSize - 1);
+        
+        //Mutation range
+        double[] sigma = new double[dim];
+        for (int i = 0; i < sigma.length; i++) {
+            DoubleRange range = boundConstraint.get(i);
+            sigma[i] = 0.1 * (range.getMax() - range.getMin());
+        }
+        int[] positions = Matrix.Indices(0, dim);
         
         //For each generation
         for (int g = 0; g < generations; g++) {
             
+            int size = population.getSize();
+            population.setSize(size + nNews);
+            
             //Crossover
-            List<Individual> news = new ArrayList<Individual>(popCO + popMU);
+            int n = size;
             for (int i = 0; i < popCO/2; i++) {
                 
                 //Selection
                 int[] index = null;
                 switch(selection){
                     case Random:
-                        index = RandomSelection(population);
+                        index = RandomSelection(size, rand);
                     break;
                     case RoulleteWheelSelection:
-                        index = RoulleteWheelSelection(population, beta, maxError);
+                        index = RoulleteWheelSelection(population, size, beta, maxError, rand);
                     break;
                     case Elite:
                         index = EliteSelection();
                     break;
                 }
-
-                Individual c1 = population.get(index[0]);
-                Individual c2 = population.get(index[1]);
-                
-                double[][] elem = Crossover(c1.getLocation(), c2.getLocation(), 0.4, boundConstraint);
-
-                c1 = new Individual(elem[0], function.Compute(elem[0]));
-                c2 = new Individual(elem[1], function.Compute(elem[1]));
-                news.add(c1);
-                news.add(c2);
                 
-                nEvals += 2;
+                Crossover(population, index[0], index[1], n, n + 1, 0.4, boundConstraint, rand);
+                n += 2;
             }
             
             for (int i = 0; i < popMU; i++) {
-                double[] elem = Mutation(population.get(rand.nextInt(population.size())).getLocation(), mutationRate, boundConstraint);
-                news.add(new Individual(elem, function.Compute(elem)));
-                nEvals++;
+                Mutation(population, rand.nextInt(size), n++, mutationRate, sigma, positions, boundConstraint, rand);
             }
             
-            population.addAll(news);
-            Collections.sort(population);
+            //Evaluate the offsprings and the mutants
+            Evaluate(function, population, size, size + nNews);
+            population.Sort();
             
-            best = Arrays.copyOf(population.get(0).getLocation(), boundConstraint.size());
-            minError = population.get(0).getFitness();
+            best = population.getLocation(0);
+            minError = population.getFitness(0);
             
-            population = population.subList(0, populationSize);
+            population.setSize(populationSize);
             
             if(listener != null)
                 listener.onIteration(g+1, minError);
@@ -204,7 +196,6 @@ public class RealCodedGeneticAlgorithm extends BaseEvolutionaryOptimization {
     
     /**
      * Elite selection algorithm.
-     * @param lst List of chromosomes.
      * @return Index of the selected chromosome.
      */
     private int[] EliteSelection(){
@@ -215,16 +206,15 @@ public class RealCodedGeneticAlgorithm extends BaseEvolutionaryOptimization {
     
     /**
      * Random selection algorithm.
-     * @param lst List of chromosomes.
+     * @param size Number of chromosomes.
+     * @param rand Random number generator.
      * @return Index of the selected chromosome.
      */
-    private int[] RandomSelection(List<Individual> lst){
-        
-        Random rand = new Random();
+    private int[] RandomSelection(int size, Random rand){
         
         int[] index = new int[2];
-        index[0] = rand.nextInt(lst.size());
-        index[1] = rand.nextInt(lst.size());
+        index[0] = rand.nextInt(size);
+        index[1] = rand.nextInt(size);
         
         return index;
         
@@ -232,18 +222,19 @@ public class RealCodedGeneticAlgorithm extends BaseEvolutionaryOptimization {
     
     /**
      * Roullete Wheel Selection.
-     * @param lst List of the chromosome.
+     * @param population Population.
+     * @param size Number of chromosomes.
      * @param worstError Worst error.
+     * @param rand Random number generator.
      * @return Index of the selected chromosome.
      */
-    private int[] RoulleteWheelSelection(List<Individual> lst, double beta, double worstError){
+    private int[] RoulleteWheelSelection(PopulationMatrix population, int size, double beta, double worstError, Random rand){
         
-        Random rand = new Random();
-        double[] fitness = new double[lst.size()];
+        double[] fitness = new double[size];
         
         double sum = 0;
         for (int i = 0; i < fitness.length; i++) {
-            double v = Math.exp(-beta * lst.get(i).getFitness() / worstError);
+            double v = Math.exp(-beta * population.getFitness(i) / worstError);
             fitness[i] = v;
             sum += v;
         }
@@ -270,58 +261,33 @@ public class RealCodedGeneticAlgorithm extends BaseEvolutionaryOptimization {
         return index;
     }
     
-    private double[][] Crossover(double[] a, double[] b, double gamma, List<DoubleRange> boundConstraint){
-        
-        Random rand = new Random();
+    private void Crossover(PopulationMatrix population, int a, int b, int y1, int y2, double gamma, List<DoubleRange> boundConstraint, Random rand){
         
         double min = -gamma;
         double max = 1+gamma;
         
-        double[] alpha = new double[a.length];
-        for (int i = 0; i < alpha.length; i++) {
-            alpha[i] = min + rand.nextDouble() * (max - min);
-        }
-        
-        double[][] y = new double[2][a.length];
-        for (int i = 0; i < y[0].length; i++) {
-            double v1 = alpha[i]*a[i] + (1 - alpha[i]) * b[i];
-            double v2 = alpha[i]*b[i] + (1 - alpha[i]) * a[i];
+        for (int i = 0; i < population.getDimensions(); i++) {
+            double alpha = min + rand.nextDouble() * (max - min);
+            double v1 = alpha*population.get(a, i) + (1 - alpha) * population.get(b, i);
+            double v2 = alpha*population.get(b, i) + (1 - alpha) * population.get(a, i);
             
-            v1 = Tools.Clamp(v1, boundConstraint.get(i));
-            v2 = Tools.Clamp(v2, boundConstraint.get(i));
-            y[0][i] = v1;
-            y[1][i] = v2;
+            population.set(y1, i, Tools.Clamp(v1, boundConstraint.get(i)));
+            population.set(y2, i, Tools.Clamp(v2, boundConstraint.get(i)));
         }
         
-        return y;
-        
     }
     
-    private double[] Mutation(double[] a, double mu, List<DoubleRange> boundConstraint){
-        
-        Random rand = new Random();
-        
-        int[] j = Matrix.Indices(0, a.length);
-        ArraysUtil.Shuffle(j);
+    private void Mutation(PopulationMatrix population, int a, int y, double mu, double[] sigma, int[] positions, List<DoubleRange> boundConstraint, Random rand){
         
-        int n = (int)Math.ceil(mu*a.length);
-        j = Arrays.copyOf(j, n);
+        ArraysUtil.Shuffle(positions);
+        int n = (int)Math.ceil(mu*positions.length);
         
-        double[] sigma = new double[a.length];
-        for (int i = 0; i < sigma.length; i++) {
-            DoubleRange range = boundConstraint.get(i);
-            sigma[i] = 0.1 * (range.getMax() - range.getMin());
+        population.Copy(a, y);
+        for (int i = 0; i < n; i++) {
+            int j = positions[i];
+            double v = population.get(a, j) + sigma[j] * rand.nextGaussian();
+            population.set(y, j, Tools.Clamp(v, boundConstraint.get(j)));
         }
         
-        double[] y = Arrays.copyOf(a, a.length);
-        for (int i = 0; i < j.length; i++) {
-            DoubleRange range = boundConstraint.get(j[i]);
-            double v = a[j[i]] + sigma[j[i]] * rand.nextGaussian();
-            v = Tools.Clamp(v, range);
-            y[j[i]] = v;
-        }
-        
-        return y;
-        
     }   
 }
\ No newline at end of file
@@ -46,12 +46,8 @@
 //
 package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
 
-import com.tdlibs.catalano.Core.ArraysUtil;
 import com.tdlibs.catalano.Core.DoubleRange;
-import com.tdlibs.catalano.Math.Matrix;
 import com.tdlibs.catalano.Math.Tools;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -271,64 +267,59 @@ public class RealCodedSimulatedAnnealing extends BaseEvolutionaryOptimization {
         Random rand = new Random();
 
         //Generate the individuals
-        double[][] pop = new double[populationSize][boundConstraint.size()];
-        for (int i = 0; i < pop.length; i++) {
-            pop[i] = Matrix.UniformRandom(boundConstraint);
-        }
+        int dim = boundConstraint.size();
+        PopulationMatrix pop = new PopulationMatrix(populationSize, dim);
+        pop.Randomize(boundConstraint, rand);
 
         //Compute fitness
-        double[] fitness = new double[pop.length];
-        for (int i = 0; i < fitness.length; i++)
-            fitness[i] = function.Compute(pop[i]);
+        Evaluate(function, pop, 0, populationSize);
 
         
-        //Initialize temp
+        //Initialize temp and mutation range
         double t = t0;
+        double sr = sigma;
+        PopulationMatrix newPop = new PopulationMatrix(populationSize * move, dim);
+        double[] sigmaRange = new double[dim];
         for (int i = 0; i < generations; i++) {
             
-            double[][] newPop = new double[pop.length * move][pop[0].length];
-            double[] newFitness = new double[newPop.length];
-            
             //Compute mutation range by sigma
-            double[] sigmaRange = new double[boundConstraint.size()];
             for (int m = 0; m < sigmaRange.length; m++) {
                 DoubleRange range = boundConstraint.get(m);
-                sigmaRange[m] = sigma * (range.getMax() - range.getMin());
+                sigmaRange[m] = sr * (range.getMax() - range.getMin());
             }
             
             for (int j = 0; j < maxSub; j++) {
                 int index = 0;
-                for (int k = 0; k < pop.length; k++) {
+                for (int k = 0; k < populationSize; k++) {
                     for (int l = 0; l < move; l++) {
                         
                         //Mutate
-                        newPop[index] = Mutate(pop[k], mu, sigmaRange, boundConstraint, rand);
-                        newFitness[index] = function.Compute(newPop[index]);
-                        index++;
-                        nEvals++;
+                        Mutate(pop, k, newPop, index++, mu, sigmaRange, boundConstraint, rand);
                     }
                 }
                 
+                //Evaluate the neighbors
+                Evaluate(function, newPop, 0, newPop.getSize());
+                
                 //Sort
-                int[] order = ArraysUtil.Argsort(newFitness, true);
+                int[] order = newPop.Argsort();
 
-                for (int p = 0; p < pop.length; p++) {
-                    if(newFitness[order[p]] <= fitness[p]){
-                        pop[p] = Arrays.copyOf(newPop[order[p]], newPop[0].length);
-                        fitness[p] = newFitness[order[p]];
+                for (int p = 0; p < populationSize; p++) {
+                    double newFitness = newPop.getFitness(order[p]);
+                    if(newFitness <= pop.getFitness(p)){
+                        pop.Copy(newPop, order[p], p);
                     }
                     else{
-                        double delta = (newFitness[order[p]] - fitness[p]) / fitness[p];
+                        double delta = (newFitness - pop.getFitness(p)) / pop.getFitness(p);
                         double pr = Math.exp(-delta/t);
                         if(rand.nextDouble() <= pr){
-                            pop[p] = Arrays.copyOf(newPop[order[p]], newPop[0].length);
-                            fitness[p] = newFitness[order[p]];
+                            pop.Copy(newPop, order[p], p);
                         }
                     }
 
-                    if(fitness[p] <= minError){
-                        minError = fitness[p];
-                        best = Arrays.copyOf(pop[p], pop[p].length);
+                    if(pop.getFitness(p) <= minError){
+                        minError = pop.getFitness(p);
+                        best = pop.getLocation(p);
                     }
                 }
             }
@@ -336,7 +327,7 @@ public class RealCodedSimulatedAnnealing extends BaseEvolutionaryOptimization {
             //Update Temp.
             t *= alpha;
 
-            sigma *= 0.98;
+            sr *= 0.98;
             
             if(listener != null)
                 listener.onIteration(i+1, minError);
@@ -344,22 +335,16 @@ public class RealCodedSimulatedAnnealing extends BaseEvolutionaryOptimization {
         
     }
     
-    private double[] Mutate(double[] solution, double mu, double[] sigmaRange, List<DoubleRange> boundConstraint, Random rand){
+    private void Mutate(PopulationMatrix pop, int solution, PopulationMatrix newPop, int neighbor, double mu, double[] sigmaRange, List<DoubleRange> boundConstraint, Random rand){
         
-        double[] v = Matrix.UniformRandom(0, 1, solution.length);
-        List<Integer> lst = new ArrayList<Integer>();
-        for (int i = 0; i < v.length; i++) {
-            if(v[i] <= mu) lst.add(i);
-        }
-        
-        v = Arrays.copyOf(solution, solution.length);
-        for (Integer i : lst) {
-            v[i] = solution[i] + sigmaRange[i] * rand.nextGaussian();
-            v[i] = Tools.Clamp(v[i], boundConstraint.get(i));
+        newPop.Copy(pop, solution, neighbor);
+        for (int i = 0; i < sigmaRange.length; i++) {
+            if(rand.nextDouble() <= mu){
+                double v = pop.get(solution, i) + sigmaRange[i] * rand.nextGaussian();
+                newPop.set(neighbor, i, Tools.Clamp(v, boundConstraint.get(i)));
+            }
         }
         
-        return v;
-        
     }
 
     @Override
@@ -22,10 +22,9 @@
 
 package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
 
+import com.tdlibs.catalano.Core.ArraysUtil;
 import com.tdlibs.catalano.Core.DoubleRange;
-import com.tdlibs.catalano.Math.Tools;
-import java.util.Arrays;
-import java.util.Collections;
+import com.tdlibs.catalano.Math.Matrix;
 import java.util.List;
 import java.util.Random;
 
@@ -69,53 +68,54 @@ public class SalpSwarmAlgorithm extends BaseEvolutionaryOptimization{
         nEvals = 0;
         
         //Create the population
-        List<Individual> pop = Individual.CreatePopulation(populationSize, boundConstraints, function);
-        Collections.sort(pop);
+        int dim = boundConstraints.size();
+        PopulationMatrix pop = new PopulationMatrix(populationSize, dim);
+        pop.Randomize(boundConstraints, rand);
+        Evaluate(function, pop, 0, populationSize);
         
-        minError = pop.get(0).getFitness();
-        best = Arrays.copyOf(pop.get(0).getLocation(), boundConstraints.size());
+        int index = pop.MinIndex();
+        minError = pop.getFitness(index);
+        best = pop.getLocation(index);
         
-        Collections.shuffle(pop);
+        //Shuffle the chain
+        int[] order = Matrix.Indices(0, populationSize);
+        ArraysUtil.Shuffle(order);
+        pop.Select(order, populationSize);
         
         //Main algorithm
         for (int g = 0; g < generations; g++) {
             
             double c1 = 2 * Math.exp(-Math.pow(4*(g+1)/generations,2));
             
-            for (int i = 0; i < pop.size(); i++) {
+            for (int i = 0; i < populationSize; i++) {
                 
-                if(i <= pop.size() / 2){
-                    for (int j = 0; j < boundConstraints.size(); j++) {
+                if(i <= populationSize / 2){
+                    for (int j = 0; j < dim; j++) {
                         DoubleRange range = boundConstraints.get(j);
                         if(rand.nextDouble() < 0.5)
-                            pop.get(i).getLocation()[j] = best[j] + c1 * ((range.getMax() - range.getMin()) * rand.nextDouble() + range.getMin());
+                            pop.set(i, j, best[j] + c1 * ((range.getMax() - range.getMin()) * rand.nextDouble() + range.getMin()));
                         else
-                            pop.get(i).getLocation()[j] = best[j] - c1 * ((range.getMax() - range.getMin()) * rand.nextDouble() + range.getMin());
+                            pop.set(i, j, best[j] - c1 * ((range.getMax() - range.getMin()) * rand.nextDouble() + range.getMin()));
                     }
                 }
-                else if (i > (pop.size()/2) && i < pop.size()){
-                    double[] salp1 = pop.get(i-1).getLocation();
-                    double[] salp2 = pop.get(i).getLocation();
-                    
-                    for (int j = 0; j < salp2.length; j++)
-                        salp2[j] = (salp2[j] + salp1[j]) / 2;
+                else{
+                    for (int j = 0; j < dim; j++)
+                        pop.set(i, j, (pop.get(i, j) + pop.get(i - 1, j)) / 2);
                     
                 }
             }
             
             //Clamp values
-            for (int i = 0; i < pop.size(); i++)
-                Tools.Clamp(pop.get(i).getLocation(), boundConstraints);
+            for (int i = 0; i < populationSize; i++)
+                pop.Clamp(i, boundConstraints);
             
             
             //Calculate fitness
-            for (int i = 0; i < pop.size(); i++) {
-                double f = function.Compute(pop.get(i).getLocation());
-                pop.get(i).setFitness(f);
-                nEvals++;
-                if(f < minError){
-                    minError = f;
-                    best = Arrays.copyOf(pop.get(i).getLocation(), boundConstraints.size());
+            Evaluate(function, pop, 0, populationSize);
+            for (int i = 0; i < populationSize; i++) {
+                if(pop.getFitness(i) < minError){
+                    minError = pop.getFitness(i);
+                    best = pop.getLocation(i);
                 }
             }
             
@@ -48,7 +48,6 @@
 package com.tdlibs.catalano.Evolutionary.Metaheuristics.Monoobjective;
 
 import com.tdlibs.catalano.Core.DoubleRange;
-import com.tdlibs.catalano.Math.Matrix;
 import com.tdlibs.catalano.Math.Tools;
 import java.util.Arrays;
 import java.util.List;
@@ -86,81 +85,78 @@ public class TeachingLearningBasedOptimization extends BaseEvolutionaryOptimizat
         Random rand = new Random();
 
         //Generate the individuals
-        double[][] pop = new double[populationSize][boundConstraint.size()];
-        for (int i = 0; i < pop.length; i++) {
-            pop[i] = Matrix.UniformRandom(boundConstraint);
-        }
+        int dim = boundConstraint.size();
+        PopulationMatrix pop = new PopulationMatrix(populationSize, dim);
+        pop.Randomize(boundConstraint, rand);
 
         //Compute fitness
-        double[] fitness = new double[pop.length];
-        for (int i = 0; i < fitness.length; i++)
-            fitness[i] = function.Compute(pop[i]);
+        Evaluate(function, pop, 0, populationSize);
         
         //TLBO algorithm
+        PopulationMatrix newPop = new PopulationMatrix(populationSize, dim);
+        double[] mean = new double[dim];
+        double[] teacher = new double[dim];
         for (int it = 0; it < generations; it++) {
             
             //Calculate mean
-            double[] mean = com.tdlibs.catalano.Statistics.Tools.Mean(pop);
+            double[] x = pop.getLocations();
+            Arrays.fill(mean, 0);
+            for (int i = 0, k = 0; i < populationSize; i++) {
+                for (int j = 0; j < dim; j++, k++) {
+                    mean[j] += x[k];
+                }
+            }
+            for (int j = 0; j < dim; j++) {
+                mean[j] /= populationSize;
+            }
             
             //Select teacher
-            double[] teacher = Arrays.copyOf(pop[Matrix.MinIndex(fitness)], pop[0].length);
+            pop.getLocation(pop.MinIndex(), teacher);
             
             //Teacher phase
             for (int i = 0; i < populationSize; i++) {
                 double tf = rand.nextInt(2)+1;
                 
-                double[] newsol = new double[pop[0].length];
-                for (int j = 0; j < newsol.length; j++) {
-                    newsol[j] = pop[i][j] + rand.nextDouble() * (teacher[j] - tf * mean[j]);
-                    newsol[j] = Tools.Clamp(newsol[j], boundConstraint.get(j));
-                }
-                
-                double f = function.Compute(newsol);
-                nEvals++;
-                
-                if(f < fitness[i]){
-                    pop[i] = newsol;
-                    fitness[i] = f;
-                    if(f < minError){
-                        minError = f;
-                        best = Arrays.copyOf(newsol, newsol.length);
-                    }
+                for (int j = 0; j < dim; j++) {
+                    double v = pop.get(i, j) + rand.nextDouble() * (teacher[j] - tf * mean[j]);
+                    newPop.set(i, j, Tools.Clamp(v, boundConstraint.get(j)));
                 }
             }
+            Select(function, pop, newPop);
             
-            //Learner phase
+            //Learner phase, all the learners interact with the population after the teacher phase
             for (int i = 0; i < populationSize; i++) {
                 
-                int[] a = Matrix.Indices(0, populationSize);
-                a = Matrix.RemoveColumn(a, i);
-                int pos = a[rand.nextInt(populationSize - 1)];
+                int pos = rand.nextInt(populationSize - 1);
+                if(pos >= i) pos++;
                 
-                double[] step = Matrix.Subtract(pop[i], pop[pos]);
-                if(fitness[pos] < fitness[i]){
-                    step = Matrix.Multiply(step, -1);
-                }
-                
-                double[] newsol = new double[pop[0].length];
-                for (int j = 0; j < newsol.length; j++) {
-                    newsol[j] = pop[i][j] + rand.nextDouble() * step[j];
-                    newsol[j] = Tools.Clamp(newsol[j], boundConstraint.get(j));
-                }
-                
-                double f = function.Compute(newsol);
-                nEvals++;
-                
-                if(f < fitness[i]){
-                    pop[i] = newsol;
-                    fitness[i] = f;
-                    if(f < minError){
-                        minError = f;
-                        best = Arrays.copyOf(pop[i], pop[i].length);
-                    }
+                double sign = pop.getFitness(pos) < pop.getFitness(i) ? -1 : 1;
+                for (int j = 0; j < dim; j++) {
+                    double step = sign * (pop.get(i, j) - pop.get(pos, j));
+                    double v = pop.get(i, j) + rand.nextDouble() * step;
+                    newPop.set(i, j, Tools.Clamp(v, boundConstraint.get(j)));
                 }
             }
+            Select(function, pop, newPop);
             
             if(listener != null)
                 listener.onIteration(it+1, minError);
         }
     }
+    
+    /**
+     * Evaluate the new solutions and keep the better ones.
+     */
+    private void Select(IObjectiveFunction function, PopulationMatrix pop, PopulationMatrix newPop){
+        Evaluate(function, newPop, 0, populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            if(newPop.getFitness(i) < pop.getFitness(i)){
+                pop.Copy(newPop, i, i);
+                if(newPop.getFitness(i) < minError){
+                    minError = newPop.getFitness(i);
+                    best = newPop.getLocation(i);
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -44,6 +44,14 @@ public class CentroidDefuzzifier implements IDefuzzifier{
         this.intervals = intervals;
     }
     
+    /**
+     * Number of segments that the speech universe will be splited.
+     * @return Number of intervals.
+     */
+    public int getIntervals() {
+        return intervals;
+    }
+
     @Override
     public float Defuzzify(FuzzyOutput fuzzyOutput, INorm normOperator) {
         // results and accumulators
@@ -0,0 +1,482 @@
+// catalano Fuzzy Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Fuzzy;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Compiled Fuzzy Inference System.
+ *
+ * <p>Compiles the rules of an {@link InferenceSystem} that have a given output variable into
+ * primitive programs: every distinct clause is evaluated once per input vector, every rule is
+ * a small RPN bytecode evaluated over a float stack, and the output labels are sampled once
+ * when the defuzzifier is a {@link CentroidDefuzzifier}.</p>
+ *
+ * <p>Optionally a lookup table over discretized inputs can be built, in that case the evaluation
+ * is a multilinear interpolation of the table.</p>
+ *
+ * <p>The compiled system does not change the numeric inputs of the linguistic variables and
+ * can be used by several threads.</p>
+ *
+ * @author Diego catalano
+ */
+public class CompiledInferenceSystem {
+
+    // opcodes, non negative values are clause indexes
+    private static final int AND = -1;
+    private static final int OR = -2;
+    private static final int NOT = -3;
+    private static final int VERY = -4;
+
+    private String[] inputs;
+    private float[] start;
+    private float[] end;
+
+    // clauses
+    private int[] clauseInput;
+    private FuzzySet[] clauseLabel;
+
+    // rules
+    private int[][] program;
+    private INorm[] norms;
+    private ICoNorm[] conorms;
+    private IUnaryOperator[] nots;
+    private int[] ruleLabel;
+    private int maxStack;
+
+    // output
+    private LinguisticVariable outputVariable;
+    private FuzzySet[] outputLabels;
+    private IDefuzzifier defuzzifier;
+    private INorm normOperator;
+    private float[] samples;
+    private float[][] sampledMembership;
+
+    // lookup table, published in a single write
+    private volatile LookupTable lookup;
+
+    /**
+     * Initializes a new instance of the CompiledInferenceSystem class.
+     * @param system Inference system to be compiled.
+     * @param output Name of the output linguistic variable.
+     * @param inputs Names of the input linguistic variables, defining the order of the inputs.
+     */
+    public CompiledInferenceSystem(InferenceSystem system, String output, String... inputs) {
+        Database database = system.getDatabase();
+
+        this.inputs = inputs;
+        this.start = new float[inputs.length];
+        this.end = new float[inputs.length];
+        HashMap<String, Integer> inputIndex = new HashMap<String, Integer>();
+        for (int i = 0; i < inputs.length; i++) {
+            LinguisticVariable v = database.getVariable(inputs[i]);
+            if (v == null)
+                throw new IllegalArgumentException("Linguistic variable " + inputs[i] + " was not found on the database.");
+            start[i] = v.getStart();
+            end[i] = v.getEnd();
+            inputIndex.put(inputs[i], i);
+        }
+
+        this.outputVariable = database.getVariable(output);
+        if (outputVariable == null)
+            throw new IllegalArgumentException("Linguistic variable " + output + " was not found on the database.");
+        this.defuzzifier = system.getDefuzzifier();
+        this.normOperator = system.getNormOperator();
+
+        // select only rules with the variable as output
+        List<Rule> rules = new ArrayList<Rule>();
+        for (Rule r : system.getRulebase().getRules()) {
+            if (r.getOutput().getVariable().getName().equals(output))
+                rules.add(r);
+        }
+
+        HashMap<String, Integer> clauses = new HashMap<String, Integer>();
+        List<Clause> clauseList = new ArrayList<Clause>();
+        HashMap<String, Integer> labels = new HashMap<String, Integer>();
+        List<FuzzySet> labelList = new ArrayList<FuzzySet>();
+
+        int n = rules.size();
+        program = new int[n][];
+        norms = new INorm[n];
+        conorms = new ICoNorm[n];
+        nots = new IUnaryOperator[n];
+        ruleLabel = new int[n];
+
+        for (int r = 0; r < n; r++) {
+            Rule rule = rules.get(r);
+            ArrayList<Object> tokens = rule.getRPNTokenList();
+            int[] code = new int[tokens.size()];
+            int depth = 0;
+
+            for (int t = 0; t < code.length; t++) {
+                Object o = tokens.get(t);
+                if (o instanceof Clause){
+                    Clause c = (Clause)o;
+                    String key = c.toString();
+                    Integer idx = clauses.get(key);
+                    if (idx == null){
+                        if (!inputIndex.containsKey(c.getVariable().getName()))
+                            throw new IllegalArgumentException("Linguistic variable " + c.getVariable().getName() + " is not an input.");
+                        idx = clauseList.size();
+                        clauses.put(key, idx);
+                        clauseList.add(c);
+                    }
+                    code[t] = idx;
+                    depth++;
+                }
+                else{
+                    String op = o.toString();
+                    if (op.equals("AND")) { code[t] = AND; depth--; }
+                    else if (op.equals("OR")) { code[t] = OR; depth--; }
+                    else if (op.equals("NOT")) code[t] = NOT;
+                    else if (op.equals("VERY")) code[t] = VERY;
+                    else throw new IllegalArgumentException("Unknown operator " + op + " in rule " + rule.getName() + ".");
+                }
+                maxStack = Math.max(maxStack, depth);
+            }
+
+            program[r] = code;
+            norms[r] = rule.getNormOperator();
+            conorms[r] = rule.getConormOperator();
+            nots[r] = rule.getNotOperator();
+
+            FuzzySet label = rule.getOutput().getLabel();
+            Integer idx = labels.get(label.Name());
+            if (idx == null){
+                idx = labelList.size();
+                labels.put(label.Name(), idx);
+                labelList.add(label);
+            }
+            ruleLabel[r] = idx;
+        }
+        maxStack = Math.max(maxStack, 1);
+
+        clauseInput = new int[clauseList.size()];
+        clauseLabel = new FuzzySet[clauseList.size()];
+        for (int i = 0; i < clauseInput.length; i++) {
+            clauseInput[i] = inputIndex.get(clauseList.get(i).getVariable().getName());
+            clauseLabel[i] = clauseList.get(i).getLabel();
+        }
+
+        outputLabels = labelList.toArray(new FuzzySet[labelList.size()]);
+
+        // sample the output labels with the same points of the centroid defuzzifier
+        if (defuzzifier instanceof CentroidDefuzzifier){
+            float s = outputVariable.getStart();
+            float e = outputVariable.getEnd();
+            float increment = (e - s) / ((CentroidDefuzzifier)defuzzifier).getIntervals();
+
+            ArrayList<Float> points = new ArrayList<Float>();
+            for (float x = s; x < e; x += increment)
+                points.add(x);
+
+            samples = new float[points.size()];
+            for (int i = 0; i < samples.length; i++)
+                samples[i] = points.get(i);
+
+            sampledMembership = new float[outputLabels.length][samples.length];
+            for (int l = 0; l < outputLabels.length; l++) {
+                for (int i = 0; i < samples.length; i++) {
+                    sampledMembership[l][i] = outputLabels[l].getMembership(samples[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the names of the inputs.
+     * @return Names of the inputs.
+     */
+    public String[] getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Verify if the lookup table was built.
+     * @return True if the evaluation uses the lookup table.
+     */
+    public boolean hasLookupTable(){
+        return lookup != null;
+    }
+
+    /**
+     * Build a lookup table of the output over a regular grid of the inputs.
+     * The evaluation becomes a multilinear interpolation of the table, the points where no rule fires
+     * are not used by the interpolation.
+     * @param resolution Number of points for each input, at least 2.
+     */
+    public void BuildLookupTable(int... resolution){
+        if (resolution.length != inputs.length)
+            throw new IllegalArgumentException("The resolution must be specified for each input.");
+
+        int size = 1;
+        for (int i = 0; i < resolution.length; i++) {
+            if (resolution[i] < 2)
+                throw new IllegalArgumentException("The resolution must be at least 2.");
+            size *= resolution[i];
+        }
+
+        final int[] res = resolution.clone();
+        final float[] t = new float[size];
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        int parts = Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize(), size));
+        for (int p = 0; p < parts; p++) {
+            final int from = p * size / parts;
+            final int to = (p + 1) * size / parts;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    Workspace ws = new Workspace();
+                    float[] x = new float[inputs.length];
+                    for (int k = from; k < to; k++) {
+                        int idx = k;
+                        for (int i = inputs.length - 1; i >= 0; i--) {
+                            int q = idx % res[i];
+                            idx /= res[i];
+                            x[i] = start[i] + (end[i] - start[i]) * q / (res[i] - 1);
+                        }
+                        t[k] = Compute(x, ws);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        try {
+            MulticoreExecutor.run(tasks);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+
+        this.lookup = new LookupTable(res, t);
+    }
+
+    /**
+     * Discard the lookup table, the evaluation will be exact again.
+     */
+    public void ClearLookupTable(){
+        this.lookup = null;
+    }
+
+    /**
+     * Evaluates the output of the system.
+     * @param inputs Values of the inputs, in the order specified in the constructor.
+     * @return Numerical output of the system, NaN if no rule fires.
+     */
+    public float Evaluate(float... inputs){
+        if (inputs.length != this.inputs.length)
+            throw new IllegalArgumentException("The number of values must be the same of the inputs.");
+
+        LookupTable lut = lookup;
+        if (lut != null)
+            return Interpolate(lut, inputs);
+        return Compute(inputs, new Workspace());
+    }
+
+    /**
+     * Evaluates the output of the system for a batch of inputs.
+     * @param inputs Values of the inputs, one array per input: inputs[input][sample].
+     * @param output Output of the system for each sample, NaN if no rule fires.
+     */
+    public void Evaluate(final float[][] inputs, final float[] output){
+        if (inputs.length != this.inputs.length)
+            throw new IllegalArgumentException("The number of arrays must be the same of the inputs.");
+
+        final LookupTable lut = lookup;
+        final int n = output.length;
+        int parts = Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize(), n / 4096));
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int p = 0; p < parts; p++) {
+            final int from = p * n / parts;
+            final int to = (p + 1) * n / parts;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    Workspace ws = new Workspace();
+                    float[] x = new float[inputs.length];
+                    for (int k = from; k < to; k++) {
+                        for (int i = 0; i < x.length; i++)
+                            x[i] = inputs[i][k];
+                        output[k] = lut != null ? Interpolate(lut, x) : Compute(x, ws);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        if (parts == 1){
+            try {
+                tasks.get(0).call();
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+            return;
+        }
+
+        try {
+            MulticoreExecutor.run(tasks);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Evaluates the firing strength of each compiled rule.
+     * @param x Values of the inputs.
+     * @param ws Workspace.
+     */
+    private void FiringStrength(float[] x, Workspace ws){
+        float[] membership = ws.membership;
+        for (int c = 0; c < membership.length; c++) {
+            membership[c] = clauseLabel[c].getMembership(x[clauseInput[c]]);
+        }
+
+        float[] stack = ws.stack;
+        for (int r = 0; r < program.length; r++) {
+            int[] code = program[r];
+            int top = -1;
+            for (int t = 0; t < code.length; t++) {
+                int op = code[t];
+                if (op >= 0){
+                    stack[++top] = membership[op];
+                }
+                else if (op == AND){
+                    stack[top - 1] = norms[r].Evaluate(stack[top - 1], stack[top]);
+                    top--;
+                }
+                else if (op == OR){
+                    stack[top - 1] = conorms[r].Evaluate(stack[top - 1], stack[top]);
+                    top--;
+                }
+                else if (op == NOT){
+                    stack[top] = nots[r].Evaluate(stack[top]);
+                }
+                else{
+                    stack[top] *= stack[top];
+                }
+            }
+            ws.strength[r] = stack[top];
+        }
+    }
+
+    /**
+     * Evaluates the output without the lookup table.
+     */
+    private float Compute(float[] x, Workspace ws){
+        FiringStrength(x, ws);
+        float[] strength = ws.strength;
+
+        if (sampledMembership == null){
+            FuzzyOutput fuzzyOutput = new FuzzyOutput(outputVariable);
+            for (int r = 0; r < strength.length; r++) {
+                if (strength[r] > 0)
+                    fuzzyOutput.addOutput(outputLabels[ruleLabel[r]].Name(), strength[r]);
+            }
+            return defuzzifier.Defuzzify(fuzzyOutput, normOperator);
+        }
+
+        float weightSum = 0, membershipSum = 0;
+        for (int i = 0; i < samples.length; i++) {
+            float xs = samples[i];
+            for (int r = 0; r < strength.length; r++) {
+                if (strength[r] > 0){
+                    float constrainedMembership = normOperator.Evaluate(sampledMembership[ruleLabel[r]][i], strength[r]);
+                    weightSum += xs * constrainedMembership;
+                    membershipSum += constrainedMembership;
+                }
+            }
+        }
+
+        // if no membership was found, the numerical output is unknown
+        if (membershipSum == 0)
+            return Float.NaN;
+        return weightSum / membershipSum;
+    }
+
+    /**
+     * Multilinear interpolation of the lookup table.
+     * The corners where no rule fires (NaN) are skipped and the weights of the others are normalized.
+     */
+    private float Interpolate(LookupTable lut, float[] x){
+        int[] resolution = lut.resolution;
+        float[] table = lut.table;
+        int d = x.length;
+        int[] base = new int[d];
+        float[] frac = new float[d];
+
+        for (int i = 0; i < d; i++) {
+            float pos = (x[i] - start[i]) / (end[i] - start[i]) * (resolution[i] - 1);
+            if (pos <= 0) pos = 0;
+            if (pos >= resolution[i] - 1) pos = resolution[i] - 1;
+            int b = Math.min((int)pos, resolution[i] - 2);
+            base[i] = b;
+            frac[i] = pos - b;
+        }
+
+        float result = 0, weights = 0;
+        for (int corner = 0; corner < (1 << d); corner++) {
+            float w = 1;
+            int idx = 0;
+            for (int i = 0; i < d; i++) {
+                int bit = (corner >> (d - 1 - i)) & 1;
+                idx = idx * resolution[i] + base[i] + bit;
+                w *= bit == 1 ? frac[i] : 1 - frac[i];
+            }
+            if (w != 0 && table[idx] == table[idx]){
+                result += w * table[idx];
+                weights += w;
+            }
+        }
+
+        if (weights == 0)
+            return Float.NaN;
+        return result / weights;
+    }
+
+    /**
+     * Resolution and values of a lookup table.
+     */
+    private static final class LookupTable {
+        final int[] resolution;
+        final float[] table;
+
+        LookupTable(int[] resolution, float[] table) {
+            this.resolution = resolution;
+            this.table = table;
+        }
+    }
+
+    /**
+     * Scratch arrays of one thread.
+     */
+    private class Workspace {
+        final float[] membership = new float[clauseInput.length];
+        final float[] stack = new float[maxStack];
+        final float[] strength = new float[program.length];
+    }
+}
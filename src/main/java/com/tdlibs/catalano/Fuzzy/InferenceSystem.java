@@ -100,4 +100,36 @@ public class InferenceSystem {
         // returns the fuzzy output obtained
         return fuzzyOutput;
     }
-}
+    
+    /**
+     * Gets the database of the linguistic variables.
+     * @return Database.
+     */
+    Database getDatabase(){
+        return database;
+    }
+    
+    /**
+     * Gets the rulebase of the system.
+     * @return Rulebase.
+     */
+    Rulebase getRulebase(){
+        return rulebase;
+    }
+    
+    /**
+     * Gets the defuzzifier of the system.
+     * @return Defuzzifier.
+     */
+    IDefuzzifier getDefuzzifier(){
+        return defuzzifier;
+    }
+    
+    /**
+     * Gets the norm operator used in the defuzzification.
+     * @return Norm operator.
+     */
+    INorm getNormOperator(){
+        return normOperator;
+    }
+}
\ No newline at end of file
@@ -114,6 +114,38 @@ public class Rule {
         this( fuzzyDatabase, name, rule, new MinimumNorm(), new MaximumCoNorm());
     }
     
+    /**
+     * The parsed RPN expression, clauses and operator names.
+     * @return RPN token list.
+     */
+    ArrayList<Object> getRPNTokenList(){
+        return rpnTokenList;
+    }
+    
+    /**
+     * The norm operator used in the AND operations.
+     * @return Norm operator.
+     */
+    INorm getNormOperator(){
+        return normOperator;
+    }
+    
+    /**
+     * The conorm operator used in the OR operations.
+     * @return CoNorm operator.
+     */
+    ICoNorm getConormOperator(){
+        return conormOperator;
+    }
+    
+    /**
+     * The complement operator used in the NOT operations.
+     * @return Unary operator.
+     */
+    IUnaryOperator getNotOperator(){
+        return notOperator;
+    }
+    
     private int Priority(String Operator){
         // if its unary
         if ( unaryOperators.indexOf(Operator) >= 0 )
@@ -365,8 +397,9 @@ public class Rule {
 
             // operation
             if (o.toString().equals("AND")) s.push( normOperator.Evaluate( x, y ) );
-            if (o.toString().equals("OR")) s.push( normOperator.Evaluate( x, y ) );
-            if (o.toString().equals("NOT")) s.push( normOperator.Evaluate( x, y ) );
+            if (o.toString().equals("OR")) s.push( conormOperator.Evaluate( x, y ) );
+            if (o.toString().equals("NOT")) s.push( notOperator.Evaluate( y ) );
+            if (o.toString().equals("VERY")) s.push( y * y );
         }
     }
 
@@ -25,6 +25,7 @@
 package com.tdlibs.catalano.Fuzzy;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,7 +41,7 @@ public class Rulebase {
      * Initializes a new instance of the Rulebase class.
      */
     public Rulebase() {
-        this.rules = new HashMap<String, Rule>(20);
+        this.rules = new LinkedHashMap<String, Rule>(20);
     }
     
     /**
@@ -81,15 +82,6 @@ public class Rulebase {
      * @return An array with all the rulebase rules.
      */
     public Rule[] getRules(){
-        Rule[] r = new Rule[rules.size()];
-
-        for (int i = 0; i < rules.size(); i++) {
-            r[i] = rules.get(Integer.toString(i));
-        }
-        
-        //for ( KeyValuePair<String, Rule> kvp : rules )
-            //r[i++] = kvp.Value;
-
-        return r;
+        return rules.values().toArray(new Rule[rules.size()]);
     }
 }
\ No newline at end of file
@@ -6,7 +6,13 @@
 
 package com.tdlibs.catalano.Graph.Network;
 
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
 import com.tdlibs.catalano.Graph.AdjacencyMatrix;
+import com.tdlibs.catalano.Graph.SparseGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  *
@@ -34,4 +40,151 @@ public class ClosenessCentrality {
         return dc;
     }
     
+    /**
+     * Compute the closeness centrality of a sparse graph.
+     * 
+     * <p>The distances are the shortest paths along the edges, breadth first search in the unweighted graphs
+     * and Dijkstra in the weighted graphs (the weights can not be negative). The sources are processed in parallel.
+     * As in the distance matrix, the sum of the distances to the reachable nodes is divided by n - 1.</p>
+     * 
+     * @param graph Sparse graph.
+     * @return Centrality.
+     */
+    public double[] Compute(final SparseGraph graph){
+        
+        final int n = graph.getNumberOfNodes();
+        final double[] dc = new double[n];
+        final boolean unweighted = graph.isUnweighted();
+        if(!unweighted)
+            for (double w : graph.getWeights())
+                if(w < 0) throw new IllegalArgumentException("The weights can not be negative.");
+        
+        int tasks = Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize(), n));
+        List<Callable<Void>> lst = new ArrayList<Callable<Void>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int start = t * n / tasks;
+            final int end = (t + 1) * n / tasks;
+            lst.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    double[] dist = new double[n];
+                    int[] queue = new int[n];
+                    int[] pos = new int[n];
+                    for (int s = start; s < end; s++) {
+                        double sum = unweighted ? BreadthFirst(graph, s, dist, queue) : Dijkstra(graph, s, dist, queue, pos);
+                        dc[s] = sum / ((double)n - 1);
+                    }
+                    return null;
+                }
+            });
+        }
+        
+        try {
+            MulticoreExecutor.run(lst);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+        
+        return dc;
+    }
+    
+    /**
+     * Sum of the distances from the source, unit weights.
+     */
+    private static double BreadthFirst(SparseGraph graph, int source, double[] dist, int[] queue){
+        int[] ptr = graph.getRowPointers();
+        int[] cols = graph.getTargets();
+        
+        Arrays.fill(dist, -1);
+        dist[source] = 0;
+        queue[0] = source;
+        int head = 0, tail = 1;
+        double sum = 0;
+        while(head < tail){
+            int u = queue[head++];
+            double d = dist[u] + 1;
+            for (int k = ptr[u]; k < ptr[u + 1]; k++) {
+                int v = cols[k];
+                if(dist[v] < 0){
+                    dist[v] = d;
+                    sum += d;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return sum;
+    }
+    
+    /**
+     * Sum of the distances from the source, binary heap of nodes indexed by position.
+     */
+    private static double Dijkstra(SparseGraph graph, int source, double[] dist, int[] heap, int[] pos){
+        int[] ptr = graph.getRowPointers();
+        int[] cols = graph.getTargets();
+        double[] w = graph.getWeights();
+        
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(pos, -1);
+        dist[source] = 0;
+        heap[0] = source;
+        pos[source] = 0;
+        int size = 1;
+        double sum = 0;
+        
+        while(size > 0){
+            int u = heap[0];
+            pos[u] = -2;
+            size--;
+            if(size > 0){
+                heap[0] = heap[size];
+                pos[heap[0]] = 0;
+                Down(heap, pos, dist, 0, size);
+            }
+            sum += dist[u];
+            
+            for (int k = ptr[u]; k < ptr[u + 1]; k++) {
+                int v = cols[k];
+                if(pos[v] == -2) continue;
+                double d = dist[u] + w[k];
+                if(d < dist[v]){
+                    dist[v] = d;
+                    if(pos[v] == -1){
+                        heap[size] = v;
+                        pos[v] = size++;
+                    }
+                    Up(heap, pos, dist, pos[v]);
+                }
+            }
+        }
+        return sum;
+    }
+    
+    private static void Up(int[] heap, int[] pos, double[] dist, int i){
+        int v = heap[i];
+        while(i > 0){
+            int p = (i - 1) >> 1;
+            if(dist[heap[p]] <= dist[v]) break;
+            heap[i] = heap[p];
+            pos[heap[i]] = i;
+            i = p;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+    
+    private static void Down(int[] heap, int[] pos, double[] dist, int i, int size){
+        int v = heap[i];
+        while(true){
+            int c = 2 * i + 1;
+            if(c >= size) break;
+            if(c + 1 < size && dist[heap[c + 1]] < dist[heap[c]]) c++;
+            if(dist[v] <= dist[heap[c]]) break;
+            heap[i] = heap[c];
+            pos[heap[i]] = i;
+            i = c;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+    
 }
@@ -7,6 +7,7 @@
 package com.tdlibs.catalano.Graph.Network;
 
 import com.tdlibs.catalano.Graph.AdjacencyMatrix;
+import com.tdlibs.catalano.Graph.SparseGraph;
 
 /**
  * 
@@ -42,4 +43,24 @@ public class DegreeCentrality {
         
         return dc;
     }
+    
+    /**
+     * Compute the degree centrality, the number of out edges of each node.
+     * @param graph Sparse graph.
+     * @return Centrality.
+     */
+    public double[] Compute(SparseGraph graph){
+        
+        double[] dc = new double[graph.getNumberOfNodes()];
+        double edges = dc.length - 1;
+        
+        for (int i = 0; i < dc.length; i++)
+            dc[i] = graph.getOutDegree(i);
+        
+        if(normalize)
+            for (int i = 0; i < dc.length; i++)
+                dc[i] /= edges;
+        
+        return dc;
+    }
 }
\ No newline at end of file
@@ -7,23 +7,122 @@
 package com.tdlibs.catalano.Graph.Network;
 
 import com.tdlibs.catalano.Graph.AdjacencyMatrix;
-import com.tdlibs.catalano.Math.Matrix;
+import com.tdlibs.catalano.Graph.SparseGraph;
 
 /**
  *
  * @author Diego
  */
 public class EigenvectorCentrality {
+    
+    private double epsilon = 1e-6;
+    private int maxIterations = 100;
+    private int it = 0;
+
+    /**
+     * Get epsilon value, stop criteria.
+     * @return Epsilon value.
+     */
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * Set epsilon value, stop criteria.
+     * @param epsilon Epsilon value.
+     */
+    public void setEpsilon(double epsilon) {
+        if(epsilon == 0)
+            throw new IllegalArgumentException("The epsilon value must be different of zero.");
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Get maximum number of iterations.
+     * @return Maximum number of iterations.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Set maximum number of iterations.
+     * @param maxIterations Maximum number of iterations.
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = Math.max(1, maxIterations);
+    }
+
+    /**
+     * Get number of iterations executed in the last graph.
+     * @return Number of iterations.
+     */
+    public int getNumberOfIterations() {
+        return it;
+    }
 
     public EigenvectorCentrality() {}
     
+    /**
+     * Compute the eigenvector centrality.
+     * The non zero elements of the matrix are the edges, the result is the same of the sparse graph.
+     * @param matrix Adjacency matrix.
+     * @return Centrality.
+     */
     public double[] Compute(AdjacencyMatrix matrix){
+        return Compute(SparseGraph.FromAdjacencyMatrix(matrix));
+    }
+    
+    /**
+     * Compute the eigenvector centrality.
+     * 
+     * <p>Power iteration starting from the degree centrality, with the products by the sparse graph
+     * (in parallel in the large graphs). The iteration uses A + I, that has the same eigenvectors and
+     * doesn't oscillate in the bipartite graphs. The result has unit length.</p>
+     * 
+     * @param graph Sparse graph.
+     * @return Centrality.
+     */
+    public double[] Compute(SparseGraph graph){
+        
+        int n = graph.getNumberOfNodes();
+        double[] x = new DegreeCentrality().Compute(graph);
+        if(Normalize(x) == 0)
+            return x;
         
-        double[] dc = new DegreeCentrality().Compute(matrix);
+        double[] y = new double[n];
+        it = 0;
+        double diff = Double.MAX_VALUE;
+        while(diff > epsilon && it < maxIterations){
+            graph.Multiply(x, y, true);
+            for (int i = 0; i < n; i++)
+                y[i] += x[i];
+            
+            if(Normalize(y) == 0)
+                return y;
+            
+            diff = 0;
+            for (int i = 0; i < n; i++)
+                diff = Math.max(diff, Math.abs(x[i] - y[i]));
+            
+            double[] t = x; x = y; y = t;
+            it++;
+        }
         
-        return Matrix.MultiplyByTranspose(matrix.getData(), dc);
+        return x;
+    }
+    
+    private static double Normalize(double[] v){
+        double norm = 0;
+        for (int i = 0; i < v.length; i++)
+            norm += v[i] * v[i];
+        norm = Math.sqrt(norm);
         
+        if(norm != 0)
+            for (int i = 0; i < v.length; i++)
+                v[i] /= norm;
         
+        return norm;
     }
     
 }
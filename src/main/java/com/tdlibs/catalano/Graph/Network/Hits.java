@@ -23,6 +23,7 @@
 package com.tdlibs.catalano.Graph.Network;
 
 import com.tdlibs.catalano.Graph.AdjacencyMatrix;
+import com.tdlibs.catalano.Graph.SparseGraph;
 import com.tdlibs.catalano.Math.Matrix;
 
 /**
@@ -37,6 +38,7 @@ public class Hits {
     private double[] authority;
     private double[] hubs;
     private int it = 0;
+    private int maxIterations = 100;
 
     /**
      * Get epsilon value.
@@ -65,6 +67,22 @@ public class Hits {
         return it;
     }
 
+    /**
+     * Get maximum number of iterations in the sparse graphs.
+     * @return Maximum number of iterations.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Set maximum number of iterations in the sparse graphs.
+     * @param maxIterations Maximum number of iterations.
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = Math.max(1, maxIterations);
+    }
+
     /**
      * Get Authority.
      * @return Authority.
@@ -99,6 +117,24 @@ public class Hits {
         Compute(matrix);
     }
     
+    /**
+     * Initialize a new instance of the Hits class.
+     * @param graph Sparse graph.
+     */
+    public Hits(SparseGraph graph) {
+        Compute(graph);
+    }
+    
+    /**
+     * Initialize a new instance of the Hits class.
+     * @param graph Sparse graph.
+     * @param epsilon Epsilon value.
+     */
+    public Hits(SparseGraph graph, double epsilon){
+        setEpsilon(epsilon);
+        Compute(graph);
+    }
+    
     /**
      * Compute Hits.
      * @param matrix Adjacency matrix.
@@ -147,6 +183,72 @@ public class Hits {
         
     }
     
+    /**
+     * Compute Hits.
+     * @param graph Sparse graph.
+     */
+    public void Compute(SparseGraph graph){
+        Compute(graph, Matrix.CreateMatrix1D(graph.getNumberOfNodes(), 1D));
+    }
+    
+    /**
+     * Compute Hits.
+     * 
+     * <p>The products A' * A and A * A' are never built, each iteration multiplies the vectors
+     * by the sparse graph and by its transpose (in parallel in the large graphs).
+     * Stops when the maximum absolute difference is less than epsilon or after the maximum number of iterations.</p>
+     * 
+     * @param graph Sparse graph.
+     * @param weights Normalized weights.[0..1]
+     */
+    public void Compute(SparseGraph graph, double[] weights){
+        
+        int n = graph.getNumberOfNodes();
+        if(n != weights.length)
+            throw new IllegalArgumentException("The number of nodes must be the same lenght of the weights.");
+        
+        authority = weights.clone();
+        hubs = weights.clone();
+        double[] temp = new double[n];
+        double[] a = new double[n];
+        double[] h = new double[n];
+        
+        it = 0;
+        double maxDiff = Double.MAX_VALUE;
+        while(maxDiff > epsilon && it < maxIterations){
+            
+            //Compute authority: a = A' * (A * a)
+            graph.Multiply(authority, temp, true);
+            graph.MultiplyTranspose(temp, a, true);
+            Normalize(a);
+            
+            //Compute hubs: h = A * (A' * h)
+            graph.MultiplyTranspose(hubs, temp, true);
+            graph.Multiply(temp, h, true);
+            Normalize(h);
+            
+            maxDiff = 0;
+            for (int i = 0; i < n; i++) {
+                maxDiff = Math.max(maxDiff, Math.abs(authority[i] - a[i]));
+                maxDiff = Math.max(maxDiff, Math.abs(hubs[i] - h[i]));
+            }
+            
+            double[] t = authority; authority = a; a = t;
+            t = hubs; hubs = h; h = t;
+            it++;
+        }
+    }
+    
+    private static void Normalize(double[] v){
+        double sum = 0;
+        for (int i = 0; i < v.length; i++)
+            sum += v[i];
+        
+        if(sum != 0)
+            for (int i = 0; i < v.length; i++)
+                v[i] /= sum;
+    }
+    
     /**
      * Equivalent like Multiply by Transpose, but with normalizations.
      * @param m Matrix.
@@ -22,7 +22,13 @@
 
 package com.tdlibs.catalano.Graph.Network;
 
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
 import com.tdlibs.catalano.Graph.AdjacencyMatrix;
+import com.tdlibs.catalano.Graph.SparseGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * PageRank algorithm.
@@ -34,6 +40,7 @@ public class PageRank {
     private double epsilon = 0.001;
     private double factor = 0.85;
     private int it = 0;
+    private int maxIterations = 100;
 
     /**
      * Get epsilon value.
@@ -78,6 +85,22 @@ public class PageRank {
         return it;
     }
 
+    /**
+     * Get maximum number of iterations in the sparse graphs.
+     * @return Maximum number of iterations.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Set maximum number of iterations in the sparse graphs.
+     * @param maxIterations Maximum number of iterations.
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = Math.max(1, maxIterations);
+    }
+
     /**
      * Initialize a new instance of the PageRank class.
      */
@@ -159,6 +182,126 @@ public class PageRank {
         return ranks;
     }
     
+    /**
+     * Compute PageRank.
+     * @param graph Sparse graph.
+     * @return Ranks.
+     */
+    public double[] Compute(SparseGraph graph){
+        double[] w = new double[graph.getNumberOfNodes()];
+        Arrays.fill(w, 1D / w.length);
+        return Compute(graph, w);
+    }
+    
+    /**
+     * Compute PageRank.
+     * 
+     * <p>Pull power iteration, each node pulls the rank of its in edges. The nodes are split in ranges
+     * balanced by the in degree, each range computes its ranks, its share for the next iteration and its
+     * part of the convergence in a single pass (in parallel in the large graphs).
+     * The rank of the nodes without out edges is spread over all the nodes.
+     * Stops when the sum of the absolute differences is less than epsilon or after the maximum number of iterations.</p>
+     * 
+     * @param graph Sparse graph.
+     * @param weights Initial weights.
+     * @return Ranks.
+     * @see PersonalizedPageRank
+     */
+    public double[] Compute(SparseGraph graph, double[] weights){
+        
+        final int n = graph.getNumberOfNodes();
+        if(n != weights.length)
+            throw new IllegalArgumentException("The number of nodes must be the same lenght of the weights.");
+        
+        final int[] ptr = graph.getColumnPointers();
+        final int[] src = graph.getSources();
+        final double[] ranks = weights.clone();
+        final double[] inv = new double[n];
+        double[] share = new double[n];
+        double dangling = 0;
+        for (int i = 0; i < n; i++) {
+            int d = graph.getOutDegree(i);
+            inv[i] = d == 0 ? 0 : 1D / d;
+            share[i] = ranks[i] * inv[i];
+            if(d == 0) dangling += ranks[i];
+        }
+        
+        int[] parts = graph.getPartitions(true);
+        int tasks = parts.length - 1;
+        
+        // partial sums of each range: difference and dangling rank
+        final double[][] partial = new double[tasks][2];
+        
+        it = 0;
+        double diff = Double.MAX_VALUE;
+        double[] nextShare = new double[n];
+        while(diff > epsilon && it < maxIterations){
+            final double base = ((1 - factor) + factor * dangling) / n;
+            final double[] cur = share;
+            final double[] next = nextShare;
+            
+            if(tasks == 1){
+                Iteration(ptr, src, inv, ranks, cur, next, base, 0, n, partial[0]);
+            }
+            else{
+                List<Callable<Void>> lst = new ArrayList<Callable<Void>>(tasks);
+                for (int t = 0; t < tasks; t++) {
+                    final int start = parts[t];
+                    final int end = parts[t + 1];
+                    final double[] part = partial[t];
+                    lst.add(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            Iteration(ptr, src, inv, ranks, cur, next, base, start, end, part);
+                            return null;
+                        }
+                    });
+                }
+                
+                try {
+                    MulticoreExecutor.run(lst);
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+            
+            diff = 0;
+            dangling = 0;
+            for (int t = 0; t < tasks; t++) {
+                diff += partial[t][0];
+                dangling += partial[t][1];
+            }
+            
+            nextShare = share;
+            share = next;
+            it++;
+        }
+        
+        return ranks;
+    }
+    
+    /**
+     * One iteration of the nodes from start to end.
+     */
+    private void Iteration(int[] ptr, int[] src, double[] inv, double[] ranks, double[] share, double[] nextShare, double base, int start, int end, double[] partial){
+        double diff = 0;
+        double dangling = 0;
+        for (int i = start; i < end; i++) {
+            double sum = 0;
+            for (int k = ptr[i]; k < ptr[i + 1]; k++) {
+                sum += share[src[k]];
+            }
+            
+            double r = base + factor * sum;
+            diff += Math.abs(r - ranks[i]);
+            ranks[i] = r;
+            nextShare[i] = r * inv[i];
+            if(inv[i] == 0) dangling += r;
+        }
+        partial[0] = diff;
+        partial[1] = dangling;
+    }
+    
     /**
      * Test for convergency.
      * @param oldRanks Old ranks value.
@@ -0,0 +1,346 @@
+// catalano Graph Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+package com.tdlibs.catalano.Graph.Network;
+
+import com.tdlibs.catalano.Graph.SparseGraph;
+import java.util.Arrays;
+
+/**
+ * Personalized PageRank.
+ * 
+ * <p>Push algorithm: each node has an estimated rank and a residual, the residual of a node is pushed to its out edges
+ * only when it is larger than epsilon times its out degree. Only the active nodes are processed, so the cost depends on
+ * the neighborhood of the seeds and not on the size of the graph. The rank of the nodes without out edges returns to the seeds.</p>
+ * 
+ * <p>After a change of the edges, {@link #Update(SparseGraph, int...)} repairs the residuals of the neighbors of the changed
+ * nodes and pushes again, the ranks are not computed from scratch.</p>
+ * 
+ * @see PageRank
+ * @author Diego catalano
+ */
+public class PersonalizedPageRank {
+    
+    private double epsilon = 1e-6;
+    private double factor = 0.85;
+    private long pushes = 0;
+    
+    private SparseGraph graph;
+    private double[] seed;
+    private int[] seeds;
+    private double[] ranks;
+    private double[] residuals;
+    
+    // rank of the nodes without out edges
+    private double dangling;
+    
+    private int[] queue;
+    private boolean[] active;
+    private int head, size;
+
+    /**
+     * Get epsilon value.
+     * @return Epsilon value.
+     */
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * Set epsilon value.
+     * Epsilon is the maximum residual of a node by out edge.
+     * @param epsilon Epsilon value.
+     */
+    public void setEpsilon(double epsilon) {
+        if(epsilon <= 0)
+            throw new IllegalArgumentException("The epsilon value must be greater than zero.");
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Get damping factor.
+     * @return Damping factor.
+     */
+    public double getFactor() {
+        return factor;
+    }
+
+    /**
+     * Set damping factor.
+     * @param factor Damping factor.
+     */
+    public void setFactor(double factor) {
+        this.factor = Math.min(1, Math.max(0, factor));
+    }
+
+    /**
+     * Get number of pushes executed by the last computation or update.
+     * @return Number of pushes.
+     */
+    public long getNumberOfPushes() {
+        return pushes;
+    }
+    
+    /**
+     * Get the ranks.
+     * The array is shared, it is updated by the next update.
+     * @return Ranks.
+     */
+    public double[] getRanks() {
+        return ranks;
+    }
+
+    /**
+     * Initialize a new instance of the PersonalizedPageRank class.
+     */
+    public PersonalizedPageRank() {}
+    
+    /**
+     * Initialize a new instance of the PersonalizedPageRank class.
+     * @param factor Damping factor.
+     */
+    public PersonalizedPageRank(double factor) {
+        setFactor(factor);
+    }
+    
+    /**
+     * Initialize a new instance of the PersonalizedPageRank class.
+     * @param factor Damping factor.
+     * @param epsilon Epsilon value.
+     */
+    public PersonalizedPageRank(double factor, double epsilon) {
+        setFactor(factor);
+        setEpsilon(epsilon);
+    }
+    
+    /**
+     * Compute the personalized PageRank.
+     * @param graph Sparse graph.
+     * @param weights Weights of the seeds, the zeros are not seeds. They are normalized to sum one.
+     * @return Ranks.
+     */
+    public double[] Compute(SparseGraph graph, double[] weights){
+        
+        int n = graph.getNumberOfNodes();
+        if(n != weights.length)
+            throw new IllegalArgumentException("The number of nodes must be the same lenght of the weights.");
+        
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if(weights[i] < 0)
+                throw new IllegalArgumentException("The weights can not be negative.");
+            if(weights[i] > 0){
+                sum += weights[i];
+                count++;
+            }
+        }
+        if(sum == 0)
+            throw new IllegalArgumentException("At least one weight must be greater than zero.");
+        if(factor >= 1)
+            throw new IllegalArgumentException("The damping factor must be less than one.");
+        
+        this.graph = graph;
+        this.seed = new double[n];
+        this.seeds = new int[count];
+        for (int i = 0, k = 0; i < n; i++) {
+            if(weights[i] > 0){
+                seed[i] = weights[i] / sum;
+                seeds[k++] = i;
+            }
+        }
+        
+        ranks = new double[n];
+        residuals = seed.clone();
+        dangling = 0;
+        queue = new int[n];
+        active = new boolean[n];
+        head = size = 0;
+        
+        pushes = 0;
+        for (int s : seeds)
+            Activate(s);
+        Push();
+        
+        return ranks;
+    }
+    
+    /**
+     * Compute the personalized PageRank of a single seed.
+     * @param graph Sparse graph.
+     * @param node Seed.
+     * @return Ranks.
+     */
+    public double[] Compute(SparseGraph graph, int node){
+        double[] weights = new double[graph.getNumberOfNodes()];
+        weights[node] = 1;
+        return Compute(graph, weights);
+    }
+    
+    /**
+     * Update the ranks after a change of the edges.
+     * 
+     * <p>Only the residuals of the old and new out neighbors of the changed nodes are repaired, then the nodes
+     * above the threshold are pushed. The graph can have more nodes than the previous one, the new nodes are not seeds.</p>
+     * 
+     * @param graph Sparse graph with the changes.
+     * @param nodes Nodes whose out edges were added, removed or reweighted.
+     * @return Ranks.
+     */
+    public double[] Update(SparseGraph graph, int... nodes){
+        if(this.graph == null)
+            throw new IllegalArgumentException("The ranks must be computed before the update.");
+        
+        SparseGraph old = this.graph;
+        int n = graph.getNumberOfNodes();
+        if(n < old.getNumberOfNodes())
+            throw new IllegalArgumentException("The graph can not remove nodes.");
+        
+        if(n > ranks.length){
+            ranks = Arrays.copyOf(ranks, n);
+            residuals = Arrays.copyOf(residuals, n);
+            seed = Arrays.copyOf(seed, n);
+            queue = new int[n];
+            active = new boolean[n];
+        }
+        this.graph = graph;
+        
+        double alpha = 1 - factor;
+        int[] oldPtr = old.getRowPointers();
+        int[] oldCols = old.getTargets();
+        int[] ptr = graph.getRowPointers();
+        int[] cols = graph.getTargets();
+        
+        // nodes whose residual must be repaired, the queue is empty here
+        boolean seedsChanged = false;
+        for (int x : nodes) {
+            int before = x < old.getNumberOfNodes() ? old.getOutDegree(x) : 0;
+            int after = graph.getOutDegree(x);
+            if(before == 0 && after != 0){
+                dangling -= ranks[x];
+                seedsChanged = true;
+            }
+            else if(before != 0 && after == 0){
+                dangling += ranks[x];
+                seedsChanged = true;
+            }
+            
+            if(x < old.getNumberOfNodes())
+                for (int k = oldPtr[x]; k < oldPtr[x + 1]; k++)
+                    Mark(oldCols[k]);
+            for (int k = ptr[x]; k < ptr[x + 1]; k++)
+                Mark(cols[k]);
+        }
+        if(seedsChanged)
+            for (int s : seeds)
+                Mark(s);
+        
+        // residual from the invariant: p(u) + a * r(u) = a * s(u) + (1 - a) * (sum of p(x) / d(x) over the in edges + s(u) * dangling)
+        int[] inPtr = graph.getColumnPointers();
+        int[] src = graph.getSources();
+        int marked = size;
+        for (int q = 0; q < marked; q++) {
+            int u = queue[q];
+            double in = 0;
+            for (int k = inPtr[u]; k < inPtr[u + 1]; k++) {
+                int x = src[k];
+                in += ranks[x] / graph.getOutDegree(x);
+            }
+            double rhs = alpha * seed[u] + factor * (in + seed[u] * dangling);
+            residuals[u] = (rhs - ranks[u]) / alpha;
+        }
+        
+        // keep only the nodes above the threshold
+        size = 0;
+        head = 0;
+        for (int q = 0; q < marked; q++) {
+            int u = queue[q];
+            active[u] = false;
+        }
+        int[] repaired = Arrays.copyOf(queue, marked);
+        pushes = 0;
+        for (int u : repaired)
+            Activate(u);
+        Push();
+        
+        return ranks;
+    }
+    
+    private void Mark(int u){
+        if(!active[u]){
+            active[u] = true;
+            queue[size++] = u;
+        }
+    }
+    
+    /**
+     * Enqueue the node if its residual is above the threshold.
+     */
+    private void Activate(int u){
+        if(!active[u] && Math.abs(residuals[u]) > epsilon * Math.max(1, graph.getOutDegree(u))){
+            active[u] = true;
+            int tail = head + size;
+            if(tail >= queue.length) tail -= queue.length;
+            queue[tail] = u;
+            size++;
+        }
+    }
+    
+    /**
+     * Push the active nodes until all the residuals are below the threshold.
+     */
+    private void Push(){
+        double alpha = 1 - factor;
+        int[] ptr = graph.getRowPointers();
+        int[] cols = graph.getTargets();
+        
+        while(size > 0){
+            int u = queue[head];
+            if(++head == queue.length) head = 0;
+            size--;
+            active[u] = false;
+            
+            double r = residuals[u];
+            residuals[u] = 0;
+            ranks[u] += alpha * r;
+            pushes++;
+            
+            int d = ptr[u + 1] - ptr[u];
+            if(d == 0){
+                // the walk restarts at the seeds
+                dangling += alpha * r;
+                double f = factor * r;
+                for (int s : seeds) {
+                    residuals[s] += f * seed[s];
+                    Activate(s);
+                }
+            }
+            else{
+                double f = factor * r / d;
+                for (int k = ptr[u]; k < ptr[u + 1]; k++) {
+                    int v = cols[k];
+                    residuals[v] += f;
+                    Activate(v);
+                }
+            }
+        }
+    }
+}
@@ -46,12 +46,29 @@
 package com.tdlibs.catalano.Graph.Pathfinding.AStar;
 
 import com.tdlibs.catalano.Core.IntPoint;
-import com.tdlibs.catalano.Core.Structs.BinaryHeap;
+import com.tdlibs.catalano.Core.Structs.IndexedHeap;
 import com.tdlibs.catalano.Graph.Pathfinding.ISearch;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * AStar pathfinding.
+ * 
+ * <p>The costs are stored in a flat grid, a cost equals zero means block. The cost of a move is the cost of the
+ * destination cell, in straight and in diagonal moves. The open list is an indexed heap with decrease key and
+ * the state of the search (g, parents and flags) is a flat grid reused by the queries, only the touched cells are reset.
+ * Concurrent queries use different states.</p>
+ * 
+ * <p>With eight neighbors and the same cost in all the free cells, the Jump Point Search can be enabled:
+ * only the jump points (cells with forced neighbors) are added in the open list, the straight and diagonal
+ * runs between them are scanned without touching the heap.</p>
+ * 
+ * <p>The heuristic is scaled by the minimum cost of the free cells. The path is the shortest only if the
+ * heuristic is admissible for the neighbors: Manhattan, Chebyshev and Euclidean with four neighbors,
+ * only Chebyshev with eight neighbors (a diagonal move costs the same of a straight move).
+ * SquaredEuclidean is never admissible, it is faster but the path can be longer. The default is Chebyshev.</p>
+ * 
  * @author Diego catalano
  */
 public class AStar implements ISearch{
@@ -59,11 +76,24 @@ public class AStar implements ISearch{
     public static enum Neighbor {Four, Eight};
     public static enum Heuristic {Manhattan, Chebyshev, Euclidean, SquaredEuclidean};
     
+    // straight moves first, then diagonal moves
+    private static final int[] DX = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DY = {0, 0, -1, 1, -1, 1, -1, 1};
+    
     private int width;
     private int height;
     private Neighbor neighbor;
     private Heuristic heuristic;
-    private NodeMap nodeMap;
+    private float[] costs;
+    private boolean jumpPointSearch = false;
+    
+    // cost of all the free cells, NaN if they have different costs
+    private float uniformCost;
+    // minimum cost of the free cells, scale of the heuristic
+    private float minCost = 1;
+    private boolean uniformDirty = true;
+    
+    private final ConcurrentLinkedQueue<GridState> states = new ConcurrentLinkedQueue<GridState>();
 
     /**
      * Get width of the map.
@@ -107,11 +137,29 @@ public class AStar implements ISearch{
 
     /**
      * Set heuristic.
+     * With eight neighbors only Chebyshev is admissible, the others can return a longer path.
      * @param heuristic Heuristic.
      */
     public void setHeuristic(Heuristic heuristic) {
         this.heuristic = heuristic;
     }
+
+    /**
+     * Check if the Jump Point Search is enabled.
+     * @return True if the Jump Point Search is enabled, otherwise false.
+     */
+    public boolean isJumpPointSearch() {
+        return jumpPointSearch;
+    }
+
+    /**
+     * Enable the Jump Point Search.
+     * It is used only with eight neighbors and the same cost in all the free cells, otherwise the AStar is used.
+     * @param jumpPointSearch True to enable the Jump Point Search.
+     */
+    public void setJumpPointSearch(boolean jumpPointSearch) {
+        this.jumpPointSearch = jumpPointSearch;
+    }
     
     /**
      * Add block in the path.
@@ -120,7 +168,7 @@ public class AStar implements ISearch{
      * @param y Y axis coordinate.
      */
     public void addBlock(int x, int y){
-        nodeMap.nodes[x][y].setCost(0);
+        costs[x * width + y] = 0;
     }
     
     /**
@@ -130,7 +178,7 @@ public class AStar implements ISearch{
      * @param y Y axis coordinate.
      */
     public void removeBlock(int x, int y){
-        nodeMap.nodes[x][y].setCost(1);
+        setCost(x, y, 1);
     }
     
     /**
@@ -140,7 +188,7 @@ public class AStar implements ISearch{
      * @return True if is blocked, otherwise false.
      */
     public boolean isBlocked(int x, int y){
-        return nodeMap.nodes[x][y].getCost() == 0;
+        return costs[x * width + y] == 0;
     }
     
     /**
@@ -150,7 +198,7 @@ public class AStar implements ISearch{
      * @return Cost.
      */
     public double getCost(int x, int y){
-        return this.nodeMap.nodes[x][y].getCost();
+        return costs[x * width + y];
     }
     
     /**
@@ -160,15 +208,24 @@ public class AStar implements ISearch{
      * @param cost Cost.
      */
     public void setCost(int x, int y, double cost){
-        this.nodeMap.nodes[x][y].setCost(cost);
+        costs[x * width + y] = (float)cost;
+        if (cost > 0 && (float)cost != uniformCost)
+            uniformDirty = true;
     }
 
     /**
      * Get node map.
+     * The node map is a copy of the costs, the changes in the node map are not used by this instance.
      * @return Node map.
      */
     public NodeMap getNodeMap() {
-        return nodeMap;
+        double[][] costMap = new double[height][width];
+        for (int x = 0; x < height; x++) {
+            for (int y = 0; y < width; y++) {
+                costMap[x][y] = costs[x * width + y];
+            }
+        }
+        return new NodeMap(costMap, neighbor, heuristic);
     }
     
     /**
@@ -179,7 +236,7 @@ public class AStar implements ISearch{
     public double getTotalCost(ArrayList<IntPoint> path){
         double sum = 0;
         for (IntPoint p : path) {
-            sum += nodeMap.getNode(p.x, p.y).getCost();
+            sum += costs[p.x * width + p.y];
         }
         return sum;
     }
@@ -190,7 +247,7 @@ public class AStar implements ISearch{
      * @param height Height of the Matrix.
      */
     public AStar(int width, int height){
-        this(width, height, 1, Neighbor.Eight, Heuristic.Euclidean);
+        this(width, height, 1, Neighbor.Eight, Heuristic.Chebyshev);
     }
     
     /**
@@ -200,7 +257,7 @@ public class AStar implements ISearch{
      * @param initialCost Initial cost for all nodes.
      */
     public AStar(int width, int height, double initialCost){
-        this(width, height, initialCost, Neighbor.Eight, Heuristic.Euclidean);
+        this(width, height, initialCost, Neighbor.Eight, Heuristic.Chebyshev);
     }
     
     /**
@@ -208,7 +265,7 @@ public class AStar implements ISearch{
      * @param costMap Cost map.
      */
     public AStar(double[][] costMap){
-        this(costMap, Neighbor.Eight, Heuristic.Euclidean);
+        this(costMap, Neighbor.Eight, Heuristic.Chebyshev);
     }
     
     /**
@@ -222,7 +279,12 @@ public class AStar implements ISearch{
         this.height = costMap.length;
         this.neighbor = neighbor;
         this.heuristic = heuristic;
-        nodeMap = new NodeMap(costMap, neighbor, heuristic);
+        this.costs = new float[width * height];
+        for (int x = 0; x < height; x++) {
+            for (int y = 0; y < width; y++) {
+                costs[x * width + y] = (float)costMap[x][y];
+            }
+        }
     }
 
     /**
@@ -238,70 +300,8 @@ public class AStar implements ISearch{
         this.height = height;
         this.neighbor = neighbor;
         this.heuristic = heuristic;
-        nodeMap = new NodeMap(width, height, initialCost, neighbor, heuristic);
-    }
-    
-    private boolean AStar(NodeMap Map, int StartX, int StartY, int EndX, int EndY) {
-        return AStar(Map, Map.nodes[StartX][StartY], Map.nodes[EndX][EndY]);
-    }
-
-    private boolean AStar(NodeMap Map, ANode Start, ANode End) {
-        try{
-            if (Start != null && End != null){
-                if (Start.getMapParent() == Map && End.getMapParent() == Map) {
-                    boolean PathFound = true;
-                    BinaryHeap<ANode> OpenList = new BinaryHeap<>();
-                    BinaryHeap<ANode> ClosedList = new BinaryHeap<>();
-                    OpenList.add(Start);
-                    Start.setOnOpenList(true);
-                    while (!End.isOnClosedList()) {
-                        if (OpenList.size() > 0) {
-                            ANode Current = OpenList.remove();
-
-                            ClosedList.add(Current);
-                            Current.setOnClosedList(true);
-                            ANode[] Surrounding = Current.getSurroundingNodes();
-                            for (ANode Next : Surrounding) {
-                                if (Next.getCost() > 0 && !Next.isOnClosedList()) {
-                                    if (!Next.isOnOpenList()){
-                                        Next.setParent(Current);
-                                        Next.setG(Current.getG() + Next.getCost());
-                                        Next.setH(Next.ComputeHeuristic(End));
-                                        OpenList.add(Next);
-                                        Next.setOnOpenList(true);
-                                    }
-                                    else {
-                                        if (Current.getG() > (Next.getG() + Current.getCost())) {
-                                            Current.setParent(Next);
-                                            Current.setG(Next.getG() + Current.getCost());
-                                            OpenList.remove(Current);
-                                            OpenList.add(Current);
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        else {
-                            PathFound = false;
-                            break;
-                        }
-                    }
-                    return PathFound;
-                }
-                else
-                {
-                    throw new IllegalArgumentException("Start or End Node does not belong to the NodeMap passed into the function.");
-                }
-            }
-            else
-            {
-                throw new IllegalArgumentException("Start or End Node were not initialised, ensure they are initialised and belong to a NodeMap.");
-            }
-        }
-        catch (IllegalArgumentException Ex)
-        {
-            throw new IllegalArgumentException(Ex.getMessage());
-        }
+        this.costs = new float[width * height];
+        Arrays.fill(costs, (float)initialCost);
     }
 
     @Override
@@ -309,34 +309,235 @@ public class AStar implements ISearch{
         return FindPath(start.x, start.y, end.x, end.y);
     }
 
+    /**
+     * Find path.
+     * @param startX Start X axis coordinate.
+     * @param startY Start Y axis coordinate.
+     * @param endX End X axis coordinate.
+     * @param endY End Y axis coordinate.
+     * @return List of points from the end to the start, both excluded. Empty if there is no path.
+     */
     @Override
     public ArrayList<IntPoint> FindPath(int startX, int startY, int endX, int endY) {
         
+        if (startX < 0 || startX >= height || startY < 0 || startY >= width || endX < 0 || endX >= height || endY < 0 || endY >= width)
+            throw new IllegalArgumentException("Start or End Node are out of the map.");
+        
         ArrayList<IntPoint> path = new ArrayList<IntPoint>();
+        int start = startX * width + startY;
+        int end = endX * width + endY;
+        if (start == end) return path;
         
-        NodeMap copy = nodeMap.clone();
-        boolean result = AStar(copy, startX, startY, endX, endY);
+        GridState state = states.poll();
+        if (state == null) state = new GridState(costs.length);
         
-        if(result){
+        try {
+            UpdateCosts();
+            boolean jump = jumpPointSearch && neighbor == Neighbor.Eight && isUniform();
+            boolean found = jump ? JumpPointSearch(state, start, end) : Search(state, start, end);
             
-            ANode cur = copy.getNode(endX, endY);
-            ANode end = copy.getNode(startX, startY);
-            
-            try{
-                while (true) {
-                    if(cur.getParent() != end){
-                        path.add(new IntPoint(cur.getParent().getX(), cur.getParent().getY()));
-                        cur = cur.getParent();
+            if (found) {
+                int[] parent = state.parent;
+                if (jump) {
+                    // the jump points are aligned, fill the cells between them
+                    boolean first = true;
+                    for (int v = end; v != start; v = parent[v]) {
+                        int p = parent[v];
+                        int x = v / width, y = v % width;
+                        int px = p / width, py = p % width;
+                        int sx = Integer.signum(px - x), sy = Integer.signum(py - y);
+                        while (x != px || y != py) {
+                            if (!first) path.add(new IntPoint(x, y));
+                            first = false;
+                            x += sx;
+                            y += sy;
+                        }
                     }
-                    else{
-                        break;
+                }
+                else {
+                    for (int v = parent[end]; v != start; v = parent[v]) {
+                        path.add(new IntPoint(v / width, v % width));
                     }
                 }
             }
-            finally{
-                return path;
-            }
         }
+        finally {
+            state.Reset();
+            states.offer(state);
+        }
+        
         return path;
     }
-}
\ No newline at end of file
+    
+    private boolean Search(GridState state, int start, int end) {
+        float[] g = state.g;
+        int[] parent = state.parent;
+        byte[] flags = state.flags;
+        IndexedHeap open = state.open;
+        int ex = end / width, ey = end % width;
+        int moves = neighbor == Neighbor.Eight ? 8 : 4;
+        
+        state.Open(start, 0, start, Heuristic(start / width, start % width, ex, ey));
+        while (!open.isEmpty()) {
+            int u = open.poll();
+            flags[u] = GridState.CLOSED;
+            if (u == end) return true;
+            
+            int ux = u / width, uy = u % width;
+            float gu = g[u];
+            for (int k = 0; k < moves; k++) {
+                int vx = ux + DX[k], vy = uy + DY[k];
+                if (vx < 0 || vx >= height || vy < 0 || vy >= width) continue;
+                
+                int v = vx * width + vy;
+                float c = costs[v];
+                if (!(c > 0) || flags[v] == GridState.CLOSED) continue;
+                
+                float cost = gu + c;
+                if (flags[v] == 0) {
+                    state.Open(v, cost, u, cost + Heuristic(vx, vy, ex, ey));
+                }
+                else if (cost < g[v]) {
+                    g[v] = cost;
+                    parent[v] = u;
+                    open.decreaseKey(v, cost + Heuristic(vx, vy, ex, ey));
+                }
+            }
+        }
+        return false;
+    }
+    
+    private boolean JumpPointSearch(GridState state, int start, int end) {
+        int[] parent = state.parent;
+        byte[] flags = state.flags;
+        IndexedHeap open = state.open;
+        
+        state.Open(start, 0, start, Heuristic(start / width, start % width, end / width, end % width));
+        while (!open.isEmpty()) {
+            int u = open.poll();
+            flags[u] = GridState.CLOSED;
+            if (u == end) return true;
+            
+            int x = u / width, y = u % width;
+            int dx = Integer.signum(x - parent[u] / width);
+            int dy = Integer.signum(y - parent[u] % width);
+            
+            if (dx == 0 && dy == 0) {
+                for (int k = 0; k < 8; k++)
+                    Jump(state, u, DX[k], DY[k], end);
+            }
+            else if (dx != 0 && dy != 0) {
+                Jump(state, u, dx, dy, end);
+                Jump(state, u, dx, 0, end);
+                Jump(state, u, 0, dy, end);
+                if (!isWalkable(x - dx, y)) Jump(state, u, -dx, dy, end);
+                if (!isWalkable(x, y - dy)) Jump(state, u, dx, -dy, end);
+            }
+            else if (dx != 0) {
+                Jump(state, u, dx, 0, end);
+                if (!isWalkable(x, y + 1)) Jump(state, u, dx, 1, end);
+                if (!isWalkable(x, y - 1)) Jump(state, u, dx, -1, end);
+            }
+            else {
+                Jump(state, u, 0, dy, end);
+                if (!isWalkable(x + 1, y)) Jump(state, u, 1, dy, end);
+                if (!isWalkable(x - 1, y)) Jump(state, u, -1, dy, end);
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Jump from the cell in the direction and relax the jump point found.
+     */
+    private void Jump(GridState state, int u, int dx, int dy, int end) {
+        int x = u / width, y = u % width;
+        int j = Jump(x + dx, y + dy, dx, dy, end);
+        if (j < 0 || state.flags[j] == GridState.CLOSED) return;
+        
+        int jx = j / width, jy = j % width;
+        float cost = state.g[u] + uniformCost * Math.max(Math.abs(jx - x), Math.abs(jy - y));
+        if (state.flags[j] == 0) {
+            state.Open(j, cost, u, cost + Heuristic(jx, jy, end / width, end % width));
+        }
+        else if (cost < state.g[j]) {
+            state.g[j] = cost;
+            state.parent[j] = u;
+            state.open.decreaseKey(j, cost + Heuristic(jx, jy, end / width, end % width));
+        }
+    }
+    
+    /**
+     * Scan from the cell in the direction until a jump point, a block or the border.
+     * @return Jump point, -1 if there is no jump point.
+     */
+    private int Jump(int x, int y, int dx, int dy, int end) {
+        while (true) {
+            if (!isWalkable(x, y)) return -1;
+            
+            int cell = x * width + y;
+            if (cell == end) return cell;
+            
+            if (dx != 0 && dy != 0) {
+                if ((!isWalkable(x - dx, y) && isWalkable(x - dx, y + dy)) || (!isWalkable(x, y - dy) && isWalkable(x + dx, y - dy)))
+                    return cell;
+                if (Jump(x + dx, y, dx, 0, end) >= 0 || Jump(x, y + dy, 0, dy, end) >= 0)
+                    return cell;
+            }
+            else if (dx != 0) {
+                if ((!isWalkable(x, y + 1) && isWalkable(x + dx, y + 1)) || (!isWalkable(x, y - 1) && isWalkable(x + dx, y - 1)))
+                    return cell;
+            }
+            else {
+                if ((!isWalkable(x + 1, y) && isWalkable(x + 1, y + dy)) || (!isWalkable(x - 1, y) && isWalkable(x - 1, y + dy)))
+                    return cell;
+            }
+            
+            x += dx;
+            y += dy;
+        }
+    }
+    
+    private boolean isWalkable(int x, int y) {
+        return x >= 0 && x < height && y >= 0 && y < width && costs[x * width + y] > 0;
+    }
+    
+    /**
+     * Compute the uniform cost and the minimum cost of the free cells after a change of the costs.
+     */
+    private void UpdateCosts() {
+        if (uniformDirty) {
+            float u = Float.NaN;
+            float min = Float.POSITIVE_INFINITY;
+            boolean uniform = true;
+            for (float c : costs) {
+                if (c > 0) {
+                    if (u != u) u = c;
+                    else if (c != u) uniform = false;
+                    if (c < min) min = c;
+                }
+            }
+            uniformCost = uniform ? u : Float.NaN;
+            minCost = min == Float.POSITIVE_INFINITY ? 1 : min;
+            uniformDirty = false;
+        }
+    }
+    
+    /**
+     * Check if all the free cells have the same cost.
+     */
+    private boolean isUniform() {
+        return uniformCost == uniformCost;
+    }
+    
+    private double Heuristic(int x, int y, int endX, int endY) {
+        int dx = Math.abs(x - endX);
+        int dy = Math.abs(y - endY);
+        switch (heuristic) {
+            case Manhattan: return minCost * (dx + dy);
+            case Chebyshev: return minCost * Math.max(dx, dy);
+            case Euclidean: return minCost * Math.sqrt((double)dx * dx + (double)dy * dy);
+            default: return minCost * ((double)dx * dx + (double)dy * dy);
+        }
+    }
+}
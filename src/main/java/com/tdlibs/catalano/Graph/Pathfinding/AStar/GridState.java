@@ -0,0 +1,75 @@
+// catalano Graph Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+package com.tdlibs.catalano.Graph.Pathfinding.AStar;
+
+import com.tdlibs.catalano.Core.Structs.IndexedHeap;
+import java.util.Arrays;
+
+/**
+ * Flat state of a search in a grid, reused by the queries.
+ * Only the touched cells are reset after a query, so the cost of a query doesn't depend on the size of the grid.
+ * @author Diego catalano
+ */
+final class GridState {
+    
+    static final byte OPEN = 1;
+    static final byte CLOSED = 2;
+    
+    final float[] g;
+    final int[] parent;
+    final byte[] flags;
+    final IndexedHeap open;
+    
+    private int[] touched = new int[1024];
+    private int count = 0;
+
+    GridState(int size) {
+        this.g = new float[size];
+        this.parent = new int[size];
+        this.flags = new byte[size];
+        this.open = new IndexedHeap(size);
+    }
+    
+    /**
+     * Open a cell for the first time.
+     */
+    void Open(int cell, float cost, int from, double f){
+        if (count == touched.length)
+            touched = Arrays.copyOf(touched, count * 2);
+        touched[count++] = cell;
+        
+        g[cell] = cost;
+        parent[cell] = from;
+        flags[cell] = OPEN;
+        open.add(cell, f);
+    }
+    
+    /**
+     * Reset the touched cells.
+     */
+    void Reset(){
+        for (int i = 0; i < count; i++)
+            flags[touched[i]] = 0;
+        count = 0;
+        open.clear();
+    }
+}
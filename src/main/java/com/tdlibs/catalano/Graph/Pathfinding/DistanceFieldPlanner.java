@@ -0,0 +1,487 @@
+// catalano Graph Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+package com.tdlibs.catalano.Graph.Pathfinding;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Core.IntPoint;
+import com.tdlibs.catalano.Graph.Pathfinding.AStar.AStar.Neighbor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Distance field planner.
+ * 
+ * <p>Computes the distance of all the cells to a goal (or to the nearest of several goals) once, then the path from
+ * any start is extracted following the field in O(path length). The fields are cached by goal with LRU eviction,
+ * so many queries against the same static map only pay the field of each goal once.
+ * A field has 4 bytes by cell (a 4096 x 4096 map needs 64 MB by field), by default only the last field is kept,
+ * use {@link #setCacheSize(int)} to keep more goals.</p>
+ * 
+ * <p>FindPath follows the convention of {@link ISearch} (the same of AStar): the points from the end to the start,
+ * both excluded. FindPathToNearest and FindPaths return the points from the start to the goal, both included.</p>
+ * 
+ * <p>Rules: 0 means block, a value greater than zero is the cost to enter the cell, in straight and in diagonal moves.
+ * With the same cost in all the free cells the field is a breadth first search by levels (the large levels are expanded in parallel),
+ * otherwise it is a Dijkstra with a bucket queue (Dial), there is no heap because the costs are integers.</p>
+ * 
+ * @see WavefrontPlanning
+ * @author Diego catalano
+ */
+public class DistanceFieldPlanner implements ISearch {
+    
+    /**
+     * Distance of the cells that can't reach the goal.
+     */
+    public static final int UNREACHABLE = -1;
+    
+    // minimum size of a level to expand it in parallel
+    private static final int PARALLEL_FRONTIER = 1 << 14;
+    
+    private final int width;
+    private final int height;
+    private final Neighbor neighbor;
+    
+    // costs with a border of blocks, the neighbors of a cell are at fixed offsets without bounds checks
+    private final int stride;
+    private final int[] costs;
+    private final int[] offsets;
+    private final int maxCost;
+    private final boolean uniform;
+    
+    private int cacheSize;
+    private final LinkedHashMap<List<Integer>, int[]> cache = new LinkedHashMap<List<Integer>, int[]>(16, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Integer>, int[]> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Get width of the map.
+     * @return Width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get height of the map.
+     * @return Height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get neighbor size of the algorithm.
+     * @return Neighbor.
+     */
+    public Neighbor getNeighbor() {
+        return neighbor;
+    }
+
+    /**
+     * Get maximum number of fields in the cache.
+     * @return Cache size.
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Set maximum number of fields in the cache.
+     * Each field has 4 bytes by cell, (width + 2) * (height + 2) * 4 bytes.
+     * @param cacheSize Cache size, zero disables the cache.
+     */
+    public void setCacheSize(int cacheSize) {
+        if (cacheSize < 0)
+            throw new IllegalArgumentException("The cache size can not be negative.");
+        synchronized (cache) {
+            this.cacheSize = cacheSize;
+            while (cache.size() > cacheSize)
+                cache.remove(cache.keySet().iterator().next());
+        }
+    }
+    
+    /**
+     * Get number of fields in the cache.
+     * @return Number of fields.
+     */
+    public int getCachedFields() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Initializes a new instance of the DistanceFieldPlanner class.
+     * @param map Map, 0 means block and values greater than zero are the costs.
+     */
+    public DistanceFieldPlanner(int[][] map) {
+        this(map, Neighbor.Eight, 1);
+    }
+    
+    /**
+     * Initializes a new instance of the DistanceFieldPlanner class.
+     * @param map Map, 0 means block and values greater than zero are the costs.
+     * @param neighbor Neighbor.
+     */
+    public DistanceFieldPlanner(int[][] map, Neighbor neighbor) {
+        this(map, neighbor, 1);
+    }
+    
+    /**
+     * Initializes a new instance of the DistanceFieldPlanner class.
+     * @param map Map, 0 means block and values greater than zero are the costs. The map is copied.
+     * @param neighbor Neighbor.
+     * @param cacheSize Maximum number of fields in the cache.
+     */
+    public DistanceFieldPlanner(int[][] map, Neighbor neighbor, int cacheSize) {
+        this.height = map.length;
+        this.width = map[0].length;
+        this.neighbor = neighbor;
+        setCacheSize(cacheSize);
+        
+        this.stride = width + 2;
+        this.costs = new int[stride * (height + 2)];
+        this.offsets = neighbor == Neighbor.Eight
+                ? new int[] {-stride, stride, -1, 1, -stride - 1, -stride + 1, stride - 1, stride + 1}
+                : new int[] {-stride, stride, -1, 1};
+        
+        int max = 0, min = Integer.MAX_VALUE;
+        for (int x = 0; x < height; x++) {
+            if (map[x].length != width)
+                throw new IllegalArgumentException("All the rows of the map must have the same length.");
+            for (int y = 0; y < width; y++) {
+                int c = Math.max(0, map[x][y]);
+                costs[Cell(x, y)] = c;
+                if (c > 0){
+                    max = Math.max(max, c);
+                    min = Math.min(min, c);
+                }
+            }
+        }
+        this.maxCost = max;
+        this.uniform = max == min;
+    }
+    
+    /**
+     * Remove all the fields from the cache.
+     */
+    public void ClearCache(){
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+    
+    /**
+     * Get the distance field of the goals.
+     * @param goals Goals.
+     * @return Distance of each cell to the nearest goal, indexed by [x][y], {@link #UNREACHABLE} if it can't reach any goal.
+     */
+    public int[][] getDistanceField(IntPoint... goals){
+        int[] field = Field(goals);
+        int[][] r = new int[height][width];
+        for (int x = 0; x < height; x++)
+            System.arraycopy(field, Cell(x, 0), r[x], 0, width);
+        return r;
+    }
+    
+    /**
+     * Get the cost of the path from the start to the nearest goal.
+     * @param start Start point.
+     * @param goals Goals.
+     * @return Cost, {@link #UNREACHABLE} if there is no path.
+     */
+    public int getDistance(IntPoint start, IntPoint... goals){
+        Check(start.x, start.y);
+        return Field(goals)[Cell(start.x, start.y)];
+    }
+
+    /**
+     * Find path.
+     * @param start Start point.
+     * @param end End point.
+     * @return List of points from the end to the start, both excluded. Empty if there is no path.
+     */
+    @Override
+    public ArrayList<IntPoint> FindPath(IntPoint start, IntPoint end) {
+        return FindPath(start.x, start.y, end.x, end.y);
+    }
+
+    /**
+     * Find path.
+     * @param startX Start X axis coordinate.
+     * @param startY Start Y axis coordinate.
+     * @param endX End X axis coordinate.
+     * @param endY End Y axis coordinate.
+     * @return List of points from the end to the start, both excluded. Empty if there is no path.
+     */
+    @Override
+    public ArrayList<IntPoint> FindPath(int startX, int startY, int endX, int endY) {
+        ArrayList<IntPoint> path = FindPathToNearest(new IntPoint(startX, startY), new IntPoint(endX, endY));
+        if (path.size() <= 2) return new ArrayList<IntPoint>();
+        
+        ArrayList<IntPoint> r = new ArrayList<IntPoint>(path.size() - 2);
+        for (int i = path.size() - 2; i > 0; i--)
+            r.add(path.get(i));
+        return r;
+    }
+    
+    /**
+     * Find the path to the nearest goal.
+     * @param start Start point.
+     * @param goals Goals.
+     * @return List of points from the start to the goal, both included. Empty if there is no path.
+     */
+    public ArrayList<IntPoint> FindPathToNearest(IntPoint start, IntPoint... goals){
+        Check(start.x, start.y);
+        return Path(Field(goals), Cell(start.x, start.y));
+    }
+    
+    /**
+     * Find the paths of several starts to the nearest goal, the field is computed once.
+     * @param starts Start points.
+     * @param goals Goals.
+     * @return List of points of each start, from the start to the goal. Empty if there is no path.
+     */
+    public List<ArrayList<IntPoint>> FindPaths(IntPoint[] starts, IntPoint... goals){
+        for (IntPoint s : starts)
+            Check(s.x, s.y);
+        
+        int[] field = Field(goals);
+        List<ArrayList<IntPoint>> paths = new ArrayList<ArrayList<IntPoint>>(starts.length);
+        for (IntPoint s : starts)
+            paths.add(Path(field, Cell(s.x, s.y)));
+        return paths;
+    }
+    
+    /**
+     * Follow the field from the start, each step goes to a neighbor with the distance of the cell minus the cost of the neighbor.
+     */
+    private ArrayList<IntPoint> Path(int[] field, int start){
+        ArrayList<IntPoint> path = new ArrayList<IntPoint>();
+        if (field[start] == UNREACHABLE) return path;
+        
+        int cur = start;
+        path.add(new IntPoint(cur / stride - 1, cur % stride - 1));
+        while (field[cur] != 0) {
+            int next = -1;
+            for (int off : offsets) {
+                int n = cur + off;
+                if (costs[n] > 0 && field[n] != UNREACHABLE && field[n] + costs[n] == field[cur]){
+                    next = n;
+                    break;
+                }
+            }
+            cur = next;
+            path.add(new IntPoint(cur / stride - 1, cur % stride - 1));
+        }
+        return path;
+    }
+    
+    /**
+     * Get the field of the goals from the cache or compute it.
+     */
+    private int[] Field(IntPoint... goals){
+        if (goals.length == 0)
+            throw new IllegalArgumentException("At least one goal must be specified.");
+        
+        Integer[] cells = new Integer[goals.length];
+        for (int i = 0; i < goals.length; i++) {
+            Check(goals[i].x, goals[i].y);
+            cells[i] = Cell(goals[i].x, goals[i].y);
+        }
+        Arrays.sort(cells);
+        List<Integer> key = Arrays.asList(cells);
+        
+        int[] field;
+        synchronized (cache) {
+            field = cache.get(key);
+        }
+        if (field != null) return field;
+        
+        field = uniform ? BreadthFirst(cells) : Dial(cells);
+        
+        synchronized (cache) {
+            if (cacheSize > 0) cache.put(key, field);
+        }
+        return field;
+    }
+    
+    /**
+     * Breadth first search by levels, all the free cells have the same cost.
+     */
+    private int[] BreadthFirst(Integer[] goals){
+        final int[] field = new int[costs.length];
+        Arrays.fill(field, UNREACHABLE);
+        
+        int[] frontier = new int[goals.length];
+        int size = 0;
+        for (int g : goals) {
+            if (costs[g] > 0 && field[g] != 0){
+                field[g] = 0;
+                frontier[size++] = g;
+            }
+        }
+        
+        int[] next = new int[Math.max(16, size * 8)];
+        int level = 0;
+        while (size > 0) {
+            level += maxCost;
+            int tasks = Math.min(MulticoreExecutor.getThreadPoolSize(), size / PARALLEL_FRONTIER);
+            
+            if (tasks <= 1){
+                if (next.length < size * 8) next = new int[size * 8];
+                size = Expand(field, frontier, 0, size, level, next, 0);
+            }
+            else{
+                // each task writes in its own part of the next level, a cell reached by two tasks
+                // is in the level twice with the same distance, the second expansion doesn't change anything
+                final int[] cur = frontier;
+                final int[] out = next.length < size * 8 ? new int[size * 8] : next;
+                final int lv = level;
+                List<Callable<Integer>> lst = new ArrayList<Callable<Integer>>(tasks);
+                for (int t = 0; t < tasks; t++) {
+                    final int start = t * size / tasks;
+                    final int end = (t + 1) * size / tasks;
+                    lst.add(new Callable<Integer>() {
+                        @Override
+                        public Integer call() {
+                            return Expand(field, cur, start, end, lv, out, start * 8);
+                        }
+                    });
+                }
+                
+                List<Integer> counts;
+                try {
+                    counts = MulticoreExecutor.run(lst);
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+                
+                // compact the parts of the tasks
+                int n = 0;
+                for (int t = 0; t < tasks; t++) {
+                    int offset = (t * size / tasks) * 8;
+                    int c = counts.get(t);
+                    System.arraycopy(out, offset, out, n, c);
+                    n += c;
+                }
+                next = out;
+                size = n;
+            }
+            
+            int[] t = frontier;
+            frontier = next;
+            next = t;
+        }
+        
+        return field;
+    }
+    
+    /**
+     * Expand the cells of the level from start to end.
+     * @return Number of cells of the next level.
+     */
+    private int Expand(int[] field, int[] frontier, int start, int end, int level, int[] next, int offset){
+        int[] offsets = this.offsets;
+        int n = offset;
+        for (int i = start; i < end; i++) {
+            int u = frontier[i];
+            for (int off : offsets) {
+                int v = u + off;
+                if (field[v] == UNREACHABLE && costs[v] > 0){
+                    field[v] = level;
+                    next[n++] = v;
+                }
+            }
+        }
+        return n - offset;
+    }
+    
+    /**
+     * Dijkstra with a circular bucket queue.
+     * Going from a cell to its neighbor costs the cost of the neighbor, so all the cells that reach the goal
+     * through the cell u have the distance of u plus the cost of u.
+     */
+    private int[] Dial(Integer[] goals){
+        int[] field = new int[costs.length];
+        Arrays.fill(field, UNREACHABLE);
+        
+        int buckets = maxCost + 1;
+        int[][] bucket = new int[buckets][16];
+        int[] count = new int[buckets];
+        int pending = 0;
+        
+        for (int g : goals) {
+            if (costs[g] > 0 && field[g] != 0){
+                field[g] = 0;
+                bucket[0][count[0]++] = g;
+                pending++;
+            }
+        }
+        
+        for (int d = 0; pending > 0; d++) {
+            int b = d % buckets;
+            
+            // the bucket doesn't receive cells while it is processed, the costs are greater than zero
+            int[] cells = bucket[b];
+            int n = count[b];
+            count[b] = 0;
+            pending -= n;
+            
+            for (int i = 0; i < n; i++) {
+                int u = cells[i];
+                if (field[u] != d) continue;
+                
+                int nd = d + costs[u];
+                int nb = nd % buckets;
+                for (int off : offsets) {
+                    int v = u + off;
+                    if (costs[v] > 0 && (field[v] == UNREACHABLE || nd < field[v])){
+                        field[v] = nd;
+                        if (count[nb] == bucket[nb].length)
+                            bucket[nb] = Arrays.copyOf(bucket[nb], count[nb] * 2);
+                        bucket[nb][count[nb]++] = v;
+                        pending++;
+                    }
+                }
+            }
+        }
+        
+        return field;
+    }
+    
+    private int Cell(int x, int y){
+        return (x + 1) * stride + y + 1;
+    }
+    
+    private void Check(int x, int y){
+        if (x < 0 || x >= height || y < 0 || y >= width)
+            throw new IllegalArgumentException("The point (" + x + ", " + y + ") is out of the map.");
+    }
+}
@@ -0,0 +1,563 @@
+// catalano Graph Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+package com.tdlibs.catalano.Graph;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Sparse graph.
+ * 
+ * <p>The edges are stored in compressed sparse rows (out edges of each node) and in compressed
+ * sparse columns (in edges of each node), so the products by the matrix and by its transpose
+ * read contiguous memory. The columns of each row are sorted and the duplicated edges are merged, summing their weights
+ * (an unweighted graph stays unweighted).</p>
+ * 
+ * <p>The products with vectors split the nodes in ranges with the same cost and process them in parallel.
+ * The cost of a node is its degree plus one, so the ranges of hubs have few nodes and the ranges of leaves have many nodes.</p>
+ * 
+ * @see AdjacencyMatrix
+ * @author Diego catalano
+ */
+public class SparseGraph {
+    
+    // minimum number of edges to compute the products in parallel
+    private static final int PARALLEL_EDGES = 1 << 15;
+    
+    private final int nodes;
+    
+    // out edges
+    private int[] rowPtr;
+    private int[] cols;
+    private double[] values;
+    
+    // in edges
+    private int[] colPtr;
+    private int[] rows;
+    private double[] inValues;
+    
+    private int[] rowParts;
+    private int[] colParts;
+
+    /**
+     * Initializes a new instance of the SparseGraph class.
+     * @param nodes Number of nodes.
+     * @param from Source node of each edge.
+     * @param to Target node of each edge.
+     */
+    public SparseGraph(int nodes, int[] from, int[] to) {
+        this(nodes, from, to, null, false);
+    }
+    
+    /**
+     * Initializes a new instance of the SparseGraph class.
+     * @param nodes Number of nodes.
+     * @param from Source node of each edge.
+     * @param to Target node of each edge.
+     * @param weights Weight of each edge, null to use 1.
+     */
+    public SparseGraph(int nodes, int[] from, int[] to, double[] weights) {
+        this(nodes, from, to, weights, false);
+    }
+    
+    /**
+     * Initializes a new instance of the SparseGraph class.
+     * @param nodes Number of nodes.
+     * @param from Source node of each edge.
+     * @param to Target node of each edge.
+     * @param weights Weight of each edge, null to use 1.
+     * @param undirected True to add each edge in both directions.
+     */
+    public SparseGraph(int nodes, int[] from, int[] to, double[] weights, boolean undirected) {
+        this(nodes, from, to, weights, from.length, undirected);
+    }
+    
+    private SparseGraph(int nodes, int[] from, int[] to, double[] weights, int edges, boolean undirected) {
+        if (from.length < edges || to.length < edges || (weights != null && weights.length < edges))
+            throw new IllegalArgumentException("The edges must have the same length.");
+        
+        for (int e = 0; e < edges; e++) {
+            if (from[e] < 0 || from[e] >= nodes || to[e] < 0 || to[e] >= nodes)
+                throw new IllegalArgumentException("The edge " + e + " is out of the nodes: " + from[e] + " -> " + to[e]);
+        }
+        
+        this.nodes = nodes;
+        Build(from, to, weights, edges, undirected);
+    }
+    
+    /**
+     * Create a sparse graph from an adjacency matrix.
+     * The non zero elements are the edges.
+     * @param matrix Adjacency matrix.
+     * @return Sparse graph.
+     */
+    public static SparseGraph FromAdjacencyMatrix(AdjacencyMatrix matrix){
+        double[][] data = matrix.getData();
+        int n = data.length;
+        
+        int edges = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (data[i][j] != 0) edges++;
+            }
+        }
+        
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        double[] weights = new double[edges];
+        for (int i = 0, e = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (data[i][j] != 0){
+                    from[e] = i;
+                    to[e] = j;
+                    weights[e++] = data[i][j];
+                }
+            }
+        }
+        
+        return new SparseGraph(n, from, to, weights);
+    }
+    
+    /**
+     * Read a graph from an edge list file.
+     * @param filepath Path of the file.
+     * @return Sparse graph.
+     * @throws IOException If the file can't be read.
+     * @see #Read(InputStream, boolean)
+     */
+    public static SparseGraph Read(String filepath) throws IOException{
+        return Read(filepath, false);
+    }
+    
+    /**
+     * Read a graph from an edge list file.
+     * @param filepath Path of the file.
+     * @param undirected True to add each edge in both directions.
+     * @return Sparse graph.
+     * @throws IOException If the file can't be read.
+     * @see #Read(InputStream, boolean)
+     */
+    public static SparseGraph Read(String filepath, boolean undirected) throws IOException{
+        InputStream in = new FileInputStream(filepath);
+        try {
+            return Read(in, undirected);
+        } finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * Read a graph from an edge list.
+     * 
+     * <p>Each line has the source node, the target node and optionally the weight, separated by spaces, tabs or commas.
+     * Empty lines and lines starting with # or % are ignored. The nodes are numbered from 0 and the number of nodes
+     * is the maximum node plus one. The lines are streamed, only the edges are kept in memory.</p>
+     * 
+     * @param in Input stream.
+     * @param undirected True to add each edge in both directions.
+     * @return Sparse graph.
+     * @throws IOException If the stream can't be read.
+     */
+    public static SparseGraph Read(InputStream in, boolean undirected) throws IOException{
+        BufferedReader br = new BufferedReader(new InputStreamReader(in, "UTF-8"), 1 << 16);
+        
+        int[] from = new int[1024];
+        int[] to = new int[1024];
+        double[] weights = null;
+        int edges = 0;
+        int max = -1;
+        
+        String line;
+        int lineNumber = 0;
+        while ((line = br.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '#' || line.charAt(0) == '%') continue;
+            
+            String[] tokens = line.split("[\\s,;]+");
+            if (tokens.length < 2)
+                throw new IOException("Invalid edge in the line " + lineNumber + ": " + line);
+            
+            if (edges == from.length){
+                from = Arrays.copyOf(from, edges * 2);
+                to = Arrays.copyOf(to, edges * 2);
+                if (weights != null) weights = Arrays.copyOf(weights, edges * 2);
+            }
+            
+            try {
+                from[edges] = Integer.parseInt(tokens[0]);
+                to[edges] = Integer.parseInt(tokens[1]);
+                if (tokens.length > 2){
+                    if (weights == null){
+                        weights = new double[from.length];
+                        Arrays.fill(weights, 0, edges, 1);
+                    }
+                    weights[edges] = Double.parseDouble(tokens[2]);
+                }
+                else if (weights != null){
+                    weights[edges] = 1;
+                }
+            } catch (NumberFormatException ex) {
+                throw new IOException("Invalid edge in the line " + lineNumber + ": " + line, ex);
+            }
+            
+            if (from[edges] < 0 || to[edges] < 0)
+                throw new IOException("Negative node in the line " + lineNumber + ": " + line);
+            
+            max = Math.max(max, Math.max(from[edges], to[edges]));
+            edges++;
+        }
+        
+        return new SparseGraph(max + 1, from, to, weights, edges, undirected);
+    }
+    
+    /**
+     * Build the compressed rows and columns.
+     */
+    private void Build(int[] from, int[] to, double[] weights, int edges, boolean undirected){
+        int total = undirected ? edges * 2 : edges;
+        
+        // in edges, counting sort by target
+        int[] ptr = new int[nodes + 1];
+        for (int e = 0; e < edges; e++) {
+            ptr[to[e] + 1]++;
+            if (undirected) ptr[from[e] + 1]++;
+        }
+        for (int i = 0; i < nodes; i++) ptr[i + 1] += ptr[i];
+        
+        int[] src = new int[total];
+        double[] w = new double[total];
+        int[] next = Arrays.copyOf(ptr, nodes);
+        for (int e = 0; e < edges; e++) {
+            double v = weights == null ? 1 : weights[e];
+            int k = next[to[e]]++;
+            src[k] = from[e];
+            w[k] = v;
+            if (undirected){
+                k = next[from[e]]++;
+                src[k] = to[e];
+                w[k] = v;
+            }
+        }
+        
+        // out edges, the targets of each row are sorted because the columns are visited in order
+        rowPtr = new int[nodes + 1];
+        for (int k = 0; k < total; k++) rowPtr[src[k] + 1]++;
+        for (int i = 0; i < nodes; i++) rowPtr[i + 1] += rowPtr[i];
+        
+        cols = new int[total];
+        values = new double[total];
+        next = Arrays.copyOf(rowPtr, nodes);
+        for (int j = 0; j < nodes; j++) {
+            for (int k = ptr[j]; k < ptr[j + 1]; k++) {
+                int p = next[src[k]]++;
+                cols[p] = j;
+                values[p] = w[k];
+            }
+        }
+        
+        // merge the duplicated edges
+        int p = 0;
+        for (int i = 0; i < nodes; i++) {
+            int start = rowPtr[i];
+            int end = rowPtr[i + 1];
+            rowPtr[i] = p;
+            for (int k = start; k < end; k++) {
+                if (p > rowPtr[i] && cols[p - 1] == cols[k]){
+                    if (weights != null) values[p - 1] += values[k];
+                }
+                else{
+                    cols[p] = cols[k];
+                    values[p++] = values[k];
+                }
+            }
+        }
+        rowPtr[nodes] = p;
+        if (p < total){
+            cols = Arrays.copyOf(cols, p);
+            values = Arrays.copyOf(values, p);
+        }
+        
+        // in edges from the merged rows
+        colPtr = new int[nodes + 1];
+        for (int k = 0; k < p; k++) colPtr[cols[k] + 1]++;
+        for (int i = 0; i < nodes; i++) colPtr[i + 1] += colPtr[i];
+        
+        rows = new int[p];
+        inValues = new double[p];
+        next = Arrays.copyOf(colPtr, nodes);
+        for (int i = 0; i < nodes; i++) {
+            for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+                int q = next[cols[k]]++;
+                rows[q] = i;
+                inValues[q] = values[k];
+            }
+        }
+    }
+    
+    /**
+     * Get number of nodes.
+     * @return Number of nodes.
+     */
+    public int getNumberOfNodes(){
+        return nodes;
+    }
+    
+    /**
+     * Get number of directed edges, an undirected edge is counted twice.
+     * @return Number of edges.
+     */
+    public int getNumberOfEdges(){
+        return cols.length;
+    }
+    
+    /**
+     * Get number of out edges of the node.
+     * @param node Node.
+     * @return Out degree.
+     */
+    public int getOutDegree(int node){
+        return rowPtr[node + 1] - rowPtr[node];
+    }
+    
+    /**
+     * Get number of in edges of the node.
+     * @param node Node.
+     * @return In degree.
+     */
+    public int getInDegree(int node){
+        return colPtr[node + 1] - colPtr[node];
+    }
+    
+    /**
+     * Get the weight of an edge.
+     * @param from Source node.
+     * @param to Target node.
+     * @return Weight, zero if there is no edge.
+     */
+    public double getWeight(int from, int to){
+        int k = Arrays.binarySearch(cols, rowPtr[from], rowPtr[from + 1], to);
+        return k < 0 ? 0 : values[k];
+    }
+    
+    /**
+     * Get the first edge of each node in the out edges, the last element is the number of edges.
+     * The array is shared, it must not be modified.
+     * @return Row pointers.
+     */
+    public int[] getRowPointers(){
+        return rowPtr;
+    }
+    
+    /**
+     * Get the target node of the out edges.
+     * The array is shared, it must not be modified.
+     * @return Targets.
+     */
+    public int[] getTargets(){
+        return cols;
+    }
+    
+    /**
+     * Get the weight of the out edges.
+     * The array is shared, it must not be modified.
+     * @return Weights.
+     */
+    public double[] getWeights(){
+        return values;
+    }
+    
+    /**
+     * Get the first edge of each node in the in edges, the last element is the number of edges.
+     * The array is shared, it must not be modified.
+     * @return Column pointers.
+     */
+    public int[] getColumnPointers(){
+        return colPtr;
+    }
+    
+    /**
+     * Get the source node of the in edges.
+     * The array is shared, it must not be modified.
+     * @return Sources.
+     */
+    public int[] getSources(){
+        return rows;
+    }
+    
+    /**
+     * Get the weight of the in edges.
+     * The array is shared, it must not be modified.
+     * @return Weights.
+     */
+    public double[] getInWeights(){
+        return inValues;
+    }
+    
+    /**
+     * Check if all the edges have weight 1.
+     * @return True if the graph is unweighted.
+     */
+    public boolean isUnweighted(){
+        for (double v : values) {
+            if (v != 1) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Check if the graph is symmetric.
+     * @return True if each edge has the reverse edge with the same weight.
+     */
+    public boolean isSymmetric(){
+        return Arrays.equals(rowPtr, colPtr) && Arrays.equals(cols, rows) && Arrays.equals(values, inValues);
+    }
+    
+    /**
+     * Convert to an adjacency matrix.
+     * @return Adjacency matrix.
+     */
+    public AdjacencyMatrix toAdjacencyMatrix(){
+        double[][] m = new double[nodes][nodes];
+        for (int i = 0; i < nodes; i++) {
+            for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+                m[i][cols[k]] = values[k];
+            }
+        }
+        return new AdjacencyMatrix(m);
+    }
+    
+    /**
+     * Multiply the matrix by a vector, y[i] = sum of w(i, j) * x[j] over the out edges of i.
+     * @param x Vector.
+     * @param y Result.
+     * @param weighted True to use the weights, false to use 1 for all the edges.
+     */
+    public void Multiply(double[] x, double[] y, boolean weighted){
+        Product(rowPtr, cols, weighted ? values : null, getPartitions(false), x, y);
+    }
+    
+    /**
+     * Multiply the transpose of the matrix by a vector, y[j] = sum of w(i, j) * x[i] over the in edges of j.
+     * Each node pulls from its in edges, there is no concurrent write.
+     * @param x Vector.
+     * @param y Result.
+     * @param weighted True to use the weights, false to use 1 for all the edges.
+     */
+    public void MultiplyTranspose(double[] x, double[] y, boolean weighted){
+        Product(colPtr, rows, weighted ? inValues : null, getPartitions(true), x, y);
+    }
+    
+    /**
+     * Get the ranges of nodes processed in parallel by the products.
+     * The ranges have the same cost, the cost of a node is its degree plus one.
+     * The array is shared, it must not be modified.
+     * @param in True to balance the in degrees, false to balance the out degrees.
+     * @return Bounds of the ranges, the range t is from bounds[t] to bounds[t + 1] (exclusive).
+     */
+    public int[] getPartitions(boolean in){
+        if (in){
+            if (colParts == null) colParts = Partition(colPtr);
+            return colParts;
+        }
+        if (rowParts == null) rowParts = Partition(rowPtr);
+        return rowParts;
+    }
+    
+    /**
+     * Split the nodes in ranges with the same cost, the cost of the first i nodes is ptr[i] + i.
+     * @param ptr Pointers.
+     * @return Bounds of the ranges.
+     */
+    private int[] Partition(int[] ptr){
+        long cost = (long)ptr[nodes] + nodes;
+        int tasks = ptr[nodes] < PARALLEL_EDGES ? 1 : Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize() * 4, nodes));
+        
+        int[] bounds = new int[tasks + 1];
+        for (int t = 1; t < tasks; t++) {
+            long target = cost * t / tasks;
+            
+            // first node with cost >= target
+            int lo = bounds[t - 1], hi = nodes;
+            while (lo < hi){
+                int mid = (lo + hi) >>> 1;
+                if ((long)ptr[mid] + mid < target) lo = mid + 1;
+                else hi = mid;
+            }
+            bounds[t] = lo;
+        }
+        bounds[tasks] = nodes;
+        return bounds;
+    }
+    
+    private static void Product(final int[] ptr, final int[] idx, final double[] w, int[] parts, final double[] x, final double[] y){
+        if (parts.length == 2){
+            Product(ptr, idx, w, 0, parts[1], x, y);
+            return;
+        }
+        
+        List<Callable<Void>> lst = new ArrayList<Callable<Void>>(parts.length - 1);
+        for (int t = 0; t < parts.length - 1; t++) {
+            final int start = parts[t];
+            final int end = parts[t + 1];
+            if (start == end) continue;
+            lst.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    Product(ptr, idx, w, start, end, x, y);
+                    return null;
+                }
+            });
+        }
+        
+        try {
+            MulticoreExecutor.run(lst);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+    
+    private static void Product(int[] ptr, int[] idx, double[] w, int start, int end, double[] x, double[] y){
+        for (int i = start; i < end; i++) {
+            double sum = 0;
+            if (w == null){
+                for (int k = ptr[i]; k < ptr[i + 1]; k++) {
+                    sum += x[idx[k]];
+                }
+            }
+            else{
+                for (int k = ptr[i]; k < ptr[i + 1]; k++) {
+                    sum += w[k] * x[idx[k]];
+                }
+            }
+            y[i] = sum;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import com.tdlibs.catalano.Imaging.Corners.ICornersFeatureDetector;
 import com.tdlibs.catalano.Imaging.Corners.SusanCornersDetector;
 import com.tdlibs.catalano.Imaging.FastBitmap;
 import com.tdlibs.catalano.Imaging.Tools.IntegralImage;
+import com.tdlibs.catalano.Imaging.Tools.ScaleSpace;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -114,6 +115,23 @@ public class FastRetinaKeypointDetector {
             grayImage.toGrayscale();
         }
         
+        integral = null;
+        return Process();
+    }
+    
+    /**
+     * Process the grayscale source of the scale space, reusing its integral image.
+     * @param space Scale space.
+     * @return List of keypoints.
+     */
+    public List<FastRetinaKeypoint> ProcessImage(ScaleSpace space){
+        grayImage = space.getSource();
+        integral = space.getIntegralImage();
+        return Process();
+    }
+    
+    private List<FastRetinaKeypoint> Process(){
+        
         // 1. Extract corners points from the image.
         List<FastRetinaKeypoint> features = new ArrayList<FastRetinaKeypoint>();
         if(Detector != null){
@@ -130,7 +148,8 @@ public class FastRetinaKeypointDetector {
         }
 
         // 2. Compute the integral for the given image
-        integral = IntegralImage.FromFastBitmap(grayImage);
+        if (integral == null)
+            integral = IntegralImage.FromFastBitmap(grayImage);
 
         // 3. Compute feature descriptors if required
         descriptor = null;
@@ -23,6 +23,7 @@
 package com.tdlibs.catalano.Imaging.Corners;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.Tools.ScaleSpace;
 import java.util.List;
 
 /**
@@ -149,4 +150,30 @@ public class FastCornersDetector implements ICornersFeatureDetector{
         return null;
         
     }
+    
+    /**
+     * Process the grayscale source of the scale space.
+     * @param space Scale space.
+     * @return List of feature points.
+     */
+    public List<FeaturePoint> ProcessImage(ScaleSpace space){
+        return ProcessImage(space.getSource());
+    }
+    
+    /**
+     * Process a level of the scale space.
+     * @param space Scale space.
+     * @param octave Octave.
+     * @param interval Interval.
+     * @return List of feature points, in coordinates of the source image.
+     */
+    public List<FeaturePoint> ProcessImage(ScaleSpace space, int octave, int interval){
+        List<FeaturePoint> points = ProcessImage(space.getImage(octave, interval));
+        int scale = space.getScale(octave);
+        for (FeaturePoint p : points) {
+            p.x *= scale;
+            p.y *= scale;
+        }
+        return points;
+    }
 }
\ No newline at end of file
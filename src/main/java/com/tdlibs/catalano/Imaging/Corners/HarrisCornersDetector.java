@@ -27,6 +27,7 @@ package com.tdlibs.catalano.Imaging.Corners;
 import com.tdlibs.catalano.Core.ArraysUtil;
 import com.tdlibs.catalano.Core.IntPoint;
 import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.Tools.ScaleSpace;
 import com.tdlibs.catalano.Math.Constants;
 import java.util.ArrayList;
 import java.util.List;
@@ -275,6 +276,61 @@ public class HarrisCornersDetector implements ICornersDetector{
             }
         }
         
+        return Process(diffx, diffy, diffxy, width, height);
+    }
+    
+    /**
+     * Process the grayscale source of the scale space.
+     * @param space Scale space.
+     * @return List of corners.
+     */
+    public List<IntPoint> ProcessImage(ScaleSpace space){
+        return ProcessImage(space.getSource());
+    }
+    
+    /**
+     * Process a level of the scale space, using its cached derivatives.
+     * @param space Scale space.
+     * @param octave Octave.
+     * @param interval Interval.
+     * @return List of corners, in coordinates of the source image.
+     */
+    public List<IntPoint> ProcessImage(ScaleSpace space, int octave, int interval){
+        
+        float[] dx = space.getDerivativeX(octave, interval);
+        float[] dy = space.getDerivativeY(octave, interval);
+        int width = space.getWidth(octave);
+        int height = space.getHeight(octave);
+        
+        // 1. Partial differences from the scale space
+        float[][] diffx = new float[height][width];
+        float[][] diffy = new float[height][width];
+        float[][] diffxy = new float[height][width];
+        
+        for (int i = 0; i < height; i++) {
+            int offset = i * width;
+            for (int j = 0; j < width; j++) {
+                float h = dy[offset + j];
+                float v = dx[offset + j];
+                
+                diffx[i][j] = h * h;
+                diffy[i][j] = v * v;
+                diffxy[i][j] = h * v;
+            }
+        }
+        
+        List<IntPoint> corners = Process(diffx, diffy, diffxy, width, height);
+        int scale = space.getScale(octave);
+        for (IntPoint p : corners) {
+            p.x *= scale;
+            p.y *= scale;
+        }
+        
+        return corners;
+    }
+    
+    private List<IntPoint> Process(float[][] diffx, float[][] diffy, float[][] diffxy, int width, int height){
+        
         // 2. Smooth the diff images
         if (sigma > 0.0)
         {
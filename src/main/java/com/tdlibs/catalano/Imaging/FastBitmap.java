@@ -27,11 +27,15 @@ import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
 import java.awt.image.DataBufferByte;
 import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageTypeSpecifier;
@@ -56,6 +60,8 @@ public class FastBitmap {
     private CoordinateSystem cSystem = CoordinateSystem.Matrix;
     private int strideX, strideY;
     private int size;
+    private int origin, stride;
+    private boolean view;
     
     /**
      * Coodinate system.
@@ -256,12 +262,34 @@ public class FastBitmap {
         this.raster = getRaster();
         if (isGrayscale()) {
             pixelsGRAY = ((DataBufferByte)raster.getDataBuffer()).getData();
-            this.size = pixelsGRAY.length;
         }
         if (isRGB() || isARGB()) {
             pixels = ((DataBufferInt)raster.getDataBuffer()).getData();
-            this.size = pixels.length;
         }
+        
+        // the raster can be a region of a bigger buffer
+        SampleModel sm = raster.getSampleModel();
+        if (sm instanceof ComponentSampleModel)
+            this.stride = ((ComponentSampleModel)sm).getScanlineStride();
+        else if (sm instanceof SinglePixelPackedSampleModel)
+            this.stride = ((SinglePixelPackedSampleModel)sm).getScanlineStride();
+        else
+            this.stride = getWidth();
+        this.origin = raster.getDataBuffer().getOffset() - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+        this.size = getWidth() * getHeight();
+        this.view = origin != 0 || stride != getWidth();
+        setCoordinateSystem(cSystem);
+    }
+    
+    /**
+     * Position in the buffer of the pixel at the offset.
+     * @param offset Offset, in [0, size).
+     * @return Index in the buffer.
+     */
+    private int index(int offset){
+        if (!view) return offset;
+        int width = getWidth();
+        return origin + (offset / width) * stride + offset % width;
     }
     
     /**
@@ -280,28 +308,71 @@ public class FastBitmap {
     
     /**
      * Retrieve the raw gray data from the Fast bitmap.
+     * <p>In a region of interest the data is a compact copy of its pixels, the changes in the data
+     * are written in the region (and in its parent image) by setGrayData.</p>
      * @return The data with the pixels values.
      */
     public byte[] getGrayData(){
+        if (view) {
+            int width = getWidth(), height = getHeight();
+            byte[] data = new byte[width * height];
+            for (int i = 0; i < height; i++)
+                System.arraycopy(pixelsGRAY, origin + i * stride, data, i * width, width);
+            return data;
+        }
+        return this.pixelsGRAY;
+    }
+    
+    /**
+     * Retrieve the gray buffer without copy.
+     * In a region of interest, the pixel (x, y) is at getOrigin() + x * getStride() + y.
+     * @return The buffer with the pixels values.
+     */
+    public byte[] getGrayBuffer(){
         return this.pixelsGRAY;
     }
     
     /**
      * Set the raw gray data in the Fast Bitmap.
+     * <p>In a region of interest the data is compact and it is copied to the pixels of the region.</p>
      * @param data Data.
      */
     public void setGrayData(byte[] data){
+        if (view) {
+            int width = getWidth(), height = getHeight();
+            for (int i = 0; i < height; i++)
+                System.arraycopy(data, i * width, pixelsGRAY, origin + i * stride, width);
+            return;
+        }
         this.pixelsGRAY = data;
     }
     
     /**
      * Retrieve the raw rgb or argb data from the Fast bitmap.
+     * <p>In a region of interest the data is a compact copy of its pixels, the changes in the data
+     * are written in the region (and in its parent image) by setRGBData.</p>
      * @return The data with pixels values.
      */
     public int[] getRGBData(){
+        if (view) {
+            int width = getWidth(), height = getHeight();
+            int[] data = new int[width * height];
+            for (int i = 0; i < height; i++)
+                System.arraycopy(pixels, origin + i * stride, data, i * width, width);
+            return data;
+        }
         return this.pixels;
     }
-
+    
+    /**
+     * Retrieve the rgb or argb buffer without copy.
+     * In a region of interest, the pixel (x, y) is at getOrigin() + x * getStride() + y.
+     * @return The buffer with the pixels values.
+     */
+    public int[] getRGBBuffer(){
+        return this.pixels;
+    }
+    
     /**
      * Get the size of the image in pixels.
      * @return Number of pixels.
@@ -312,31 +383,61 @@ public class FastBitmap {
     
     /**
      * Set the raw rgb or argb data in the Fast Bitmap.
+     * <p>In a region of interest the data is compact and it is copied to the pixels of the region.</p>
      * @param data 
      */
     public void setRGBData(int[] data){
+        if (view) {
+            int width = getWidth(), height = getHeight();
+            for (int i = 0; i < height; i++)
+                System.arraycopy(data, i * width, pixels, origin + i * stride, width);
+            return;
+        }
         this.pixels = data;
     }
     
     /**
      * Set image to FastBitmap.
+     * <p>In a region of interest, an image with the same size and type is copied to the pixels of the region,
+     * otherwise the region is replaced by the image and stops sharing the buffer of its parent image.</p>
      * @param bufferedImage BufferedImage.
      */
     public void setImage(BufferedImage bufferedImage){
+        if (view && WriteThrough(new FastBitmap(bufferedImage))) return;
         this.bufferedImage = bufferedImage;
         refresh();
     }
     
     /**
      * Set Image to Fast Bitmap.
+     * <p>In a region of interest, an image with the same size and type is copied to the pixels of the region,
+     * otherwise the region is replaced by the image and stops sharing the buffer of its parent image.</p>
      * @param fastBitmap FastBitmap.
      */
     public void setImage(FastBitmap fastBitmap){
+        if (view && WriteThrough(fastBitmap)) {
+            setCoordinateSystem(fastBitmap.getCoordinateSystem());
+            return;
+        }
         this.bufferedImage = fastBitmap.toBufferedImage();
         setCoordinateSystem(fastBitmap.getCoordinateSystem());
         refresh();
     }
     
+    /**
+     * Copy the pixels of the image to the region of interest.
+     * @return True if the image has the same size and type of the region.
+     */
+    private boolean WriteThrough(FastBitmap fastBitmap){
+        if (fastBitmap.getWidth() != getWidth() || fastBitmap.getHeight() != getHeight() || fastBitmap.getType() != getType())
+            return false;
+        if (isGrayscale())
+            setGrayData(fastBitmap.getGrayData());
+        else
+            setRGBData(fastBitmap.getRGBData());
+        return true;
+    }
+    
     /**
      * Get the actually coordinate system.
      * @return Coordinate system.
@@ -351,16 +452,70 @@ public class FastBitmap {
      */
     public void setCoordinateSystem(CoordinateSystem coSystem){
         this.cSystem = coSystem;
+        int rowStride = stride > 0 ? stride : getWidth();
         if (coSystem == CoordinateSystem.Matrix){
-            this.strideX = getWidth();
+            this.strideX = rowStride;
             this.strideY = 1;
         }
         else{
             this.strideX = 1;
-            this.strideY = getWidth();
+            this.strideY = rowStride;
         }
     }
     
+    /**
+     * Get a region of interest of the image.
+     * <p>The region is a view over the buffer of this image: no pixel is copied and the changes in the
+     * region are visible in this image. All the accessors of the region honor its offset and stride.
+     * The raw data (getGrayData, getRGBData) is a compact copy, it is written back by setGrayData and setRGBData,
+     * use getGrayBuffer and getRGBBuffer with getOrigin and getStride to work over the shared buffer without copy.
+     * The filters that keep the size and the type of the region write their result in this image,
+     * the filters that change them (e.g. Grayscale in a RGB image, resize, rotate) replace the region
+     * by a new image, that is not written in this image.
+     * Use new FastBitmap(region) to get a compact copy.</p>
+     * @param x X axis coordinate.
+     * @param y Y axis coordinate.
+     * @param width Width of the region.
+     * @param height Height of the region.
+     * @return Region of interest.
+     */
+    public FastBitmap getRegionOfInterest(int x, int y, int width, int height){
+        int row = cSystem == CoordinateSystem.Matrix ? x : y;
+        int col = cSystem == CoordinateSystem.Matrix ? y : x;
+        if (row < 0 || col < 0 || row + height > getHeight() || col + width > getWidth())
+            throw new IllegalArgumentException("The region of interest is outside of the image.");
+        
+        FastBitmap roi = new FastBitmap();
+        roi.bufferedImage = bufferedImage.getSubimage(col, row, width, height);
+        roi.cSystem = cSystem;
+        roi.refresh();
+        return roi;
+    }
+    
+    /**
+     * Check if the image is a view over the buffer of another image.
+     * @return True if is a view, otherwise false.
+     */
+    public boolean isView(){
+        return view;
+    }
+    
+    /**
+     * Get the index of the first pixel in the raw data.
+     * @return Origin.
+     */
+    public int getOrigin(){
+        return origin;
+    }
+    
+    /**
+     * Get the distance between two rows in the raw data.
+     * @return Stride.
+     */
+    public int getStride(){
+        return stride;
+    }
+    
     /**
      * Convert FastBitmap to BufferedImage.
      * @return Buffered Image.
@@ -691,16 +846,16 @@ public class FastBitmap {
      * Set all pixels with value 0.
      */
     public void Clear(){
+        int width = getWidth();
+        int height = getHeight();
         if(isGrayscale()){
-            int size = pixelsGRAY.length;
-            for (int i = 0; i < size; i++) {
-                pixelsGRAY[i] = 0;
+            for (int i = 0; i < height; i++) {
+                Arrays.fill(pixelsGRAY, origin + i * stride, origin + i * stride + width, (byte)0);
             }
         }
         else{
-            int size = pixels.length;
-            for (int i = 0; i < size; i++) {
-                pixels[i] = 0;
+            for (int i = 0; i < height; i++) {
+                Arrays.fill(pixels, origin + i * stride, origin + i * stride + width, 0);
             }
         }
     }
@@ -792,9 +947,9 @@ public class FastBitmap {
      */
     public int[] getRGB(int offset){
         int[] rgb = new int[3];
-        rgb[0] = pixels[offset] >> 16 & 0xFF;
-        rgb[1] = pixels[offset] >> 8 & 0xFF;
-        rgb[2] = pixels[offset] & 0xFF;
+        rgb[0] = pixels[index(offset)] >> 16 & 0xFF;
+        rgb[1] = pixels[index(offset)] >> 8 & 0xFF;
+        rgb[2] = pixels[index(offset)] & 0xFF;
         return rgb;
     }
     
@@ -806,9 +961,9 @@ public class FastBitmap {
      */
     public int[] getRGB(int x, int y){
         int[] rgb = new int[3];
-        rgb[0] = pixels[x*strideX+y*strideY] >> 16 & 0xFF;
-        rgb[1] = pixels[x*strideX+y*strideY] >> 8 & 0xFF;
-        rgb[2] = pixels[x*strideX+y*strideY] & 0xFF;
+        rgb[0] = pixels[origin+x*strideX+y*strideY] >> 16 & 0xFF;
+        rgb[1] = pixels[origin+x*strideX+y*strideY] >> 8 & 0xFF;
+        rgb[2] = pixels[origin+x*strideX+y*strideY] & 0xFF;
         return rgb;
     }
     
@@ -827,7 +982,7 @@ public class FastBitmap {
      * @return RGB.
      */
     public int getPackedRGB(int offset){
-        return pixels[offset];
+        return pixels[index(offset)];
     }
     
     /**
@@ -837,7 +992,7 @@ public class FastBitmap {
      * @return RGB.
      */
     public int getPackedRGB(int x, int y){
-        return pixels[x*strideX+y*strideY];
+        return pixels[origin+x*strideX+y*strideY];
     }
     
     /**
@@ -846,7 +1001,7 @@ public class FastBitmap {
      * @return RGB.
      */
     public int getPackedRGB(IntPoint point){
-        return pixels[point.x*strideX+point.y*strideY];
+        return pixels[origin+point.x*strideX+point.y*strideY];
     }
     
     /**
@@ -857,10 +1012,10 @@ public class FastBitmap {
      */
     public int[] getARGB(int x, int y){
         int[] argb = new int[4];
-        argb[0] = pixels[x*strideX+y*strideY] >> 24 & 0xFF;
-        argb[1] = pixels[x*strideX+y*strideY] >> 16 & 0xFF;
-        argb[2] = pixels[x*strideX+y*strideY] >> 8  & 0xFF;
-        argb[3] = pixels[x*strideX+y*strideY]       & 0xFF;
+        argb[0] = pixels[origin+x*strideX+y*strideY] >> 24 & 0xFF;
+        argb[1] = pixels[origin+x*strideX+y*strideY] >> 16 & 0xFF;
+        argb[2] = pixels[origin+x*strideX+y*strideY] >> 8  & 0xFF;
+        argb[3] = pixels[origin+x*strideX+y*strideY]       & 0xFF;
         return argb;
     }
     
@@ -892,8 +1047,8 @@ public class FastBitmap {
      * @param blue Blue channel's value.
      */
     public void setRGB(int x, int y, int red, int green, int blue){
-        int a = pixels[x*strideX+y*strideY] >> 24 & 0xFF;
-        pixels[x*strideX+y*strideY] = a << 24 | red << 16 | green << 8 | blue;
+        int a = pixels[origin+x*strideX+y*strideY] >> 24 & 0xFF;
+        pixels[origin+x*strideX+y*strideY] = a << 24 | red << 16 | green << 8 | blue;
     }
     
     /**
@@ -923,7 +1078,7 @@ public class FastBitmap {
      * @param rgb RGB color.
      */
     public void setRGB(int x, int y, int[] rgb){
-         pixels[x*strideX+y*strideY] = rgb[0] << 16 | rgb[1] << 8 | rgb[2];
+         pixels[origin+x*strideX+y*strideY] = rgb[0] << 16 | rgb[1] << 8 | rgb[2];
     }
     
     /**
@@ -934,8 +1089,8 @@ public class FastBitmap {
      * @param blue Blue channel's value.
      */
     public void setRGB(int offset, int red, int green, int blue){
-        int a = pixels[offset] >> 24 & 0xFF;
-        pixels[offset] = a << 24 | red << 16| green << 8 | blue;
+        int a = pixels[index(offset)] >> 24 & 0xFF;
+        pixels[index(offset)] = a << 24 | red << 16| green << 8 | blue;
     }
     
     /**
@@ -944,8 +1099,8 @@ public class FastBitmap {
      * @param rgb RGB array.
      */
     public void setRGB(int offset, int[] rgb){
-        int a = pixels[offset] >> 24 & 0xFF;
-        pixels[offset] = a << 24 | rgb[0] << 16| rgb[1] << 8 | rgb[2];
+        int a = pixels[index(offset)] >> 24 & 0xFF;
+        pixels[index(offset)] = a << 24 | rgb[0] << 16| rgb[1] << 8 | rgb[2];
     }
     
     /**
@@ -954,8 +1109,8 @@ public class FastBitmap {
      * @param color Color.
      */
     public void setRGB(int offset, Color color){
-        int a = pixels[offset] >> 24 & 0xFF;
-        pixels[offset] = a << 24 | color.r << 16| color.g << 8 | color.b;
+        int a = pixels[index(offset)] >> 24 & 0xFF;
+        pixels[index(offset)] = a << 24 | color.r << 16| color.g << 8 | color.b;
     }
     
     /**
@@ -964,7 +1119,7 @@ public class FastBitmap {
      * @param rgb RGB color.
      */
     public void setRGB(IntPoint point, int[] rgb){
-         pixels[point.x*strideX+point.y*strideY] = rgb[0] << 16 | rgb[1] << 8 | rgb[2];
+         pixels[origin+point.x*strideX+point.y*strideY] = rgb[0] << 16 | rgb[1] << 8 | rgb[2];
     }
     
     /**
@@ -973,7 +1128,7 @@ public class FastBitmap {
      * @param color RGB as int representation.
      */
     public void setRGB(int offset, int color){
-        pixels[offset] = color;
+        pixels[index(offset)] = color;
     }
     
     /**
@@ -983,7 +1138,7 @@ public class FastBitmap {
      * @param color RGB as int representation.
      */
     public void setRGB(int x, int y, int color){
-        pixels[x*strideX+y*strideY] = color;
+        pixels[origin+x*strideX+y*strideY] = color;
     }
     
     /**
@@ -992,7 +1147,7 @@ public class FastBitmap {
      * @param color RGB as int representation.
      */
     public void setRGB(IntPoint point, int color){
-        pixels[point.x*strideX+point.y*strideY] = color;
+        pixels[origin+point.x*strideX+point.y*strideY] = color;
     }
     
     /**
@@ -1005,7 +1160,7 @@ public class FastBitmap {
      * @param blue Blue channel's value.
      */
     public void setARGB(int x, int y, int alpha, int red, int green, int blue){
-        pixels[x*strideX+y*strideY] = alpha << 24 | red << 16 | green << 8 | blue;
+        pixels[origin+x*strideX+y*strideY] = alpha << 24 | red << 16 | green << 8 | blue;
     }
     
     /**
@@ -1027,7 +1182,7 @@ public class FastBitmap {
      * @param rgb ARGB color.
      */
     public void setARGB(int x, int y, int[] rgb){
-         pixels[x*strideX+y*strideY] = rgb[0] << 24 | rgb[1] << 16 | rgb[2] << 8 | rgb[3];
+         pixels[origin+x*strideX+y*strideY] = rgb[0] << 24 | rgb[1] << 16 | rgb[2] << 8 | rgb[3];
     }
     
     /**
@@ -1036,7 +1191,7 @@ public class FastBitmap {
      * @param rgb ARGB color.
      */
     public void setARGB(IntPoint point, int[] rgb){
-         pixels[point.x*getWidth()+point.y] = rgb[0] << 24 | rgb[1] << 16 | rgb[2] << 8 | rgb[3];
+         pixels[origin+point.x*stride+point.y] = rgb[0] << 24 | rgb[1] << 16 | rgb[2] << 8 | rgb[3];
     }
     
     /**
@@ -1048,7 +1203,7 @@ public class FastBitmap {
      * @param blue Blue channel's value.
      */
     public void setARGB(int offset, int alpha, int red, int green, int blue){
-        pixels[offset] = alpha << 24| red << 16| green << 8 | blue;
+        pixels[index(offset)] = alpha << 24| red << 16| green << 8 | blue;
     }
     
     /**
@@ -1057,7 +1212,7 @@ public class FastBitmap {
      * @param argb ARGB array.
      */
     public void setARGB(int offset, int[] argb){
-        pixels[offset] = argb[0] << 24| argb[1] << 16| argb[2] << 8 | argb[3];
+        pixels[index(offset)] = argb[0] << 24| argb[1] << 16| argb[2] << 8 | argb[3];
     }
     
     /**
@@ -1067,7 +1222,7 @@ public class FastBitmap {
      * @return Gray channel's value.
      */
     public int getGray(int x, int y){
-        return pixelsGRAY[x*strideX+y*strideY] & 0xFF;
+        return pixelsGRAY[origin+x*strideX+y*strideY] & 0xFF;
     }
     
     /**
@@ -1076,7 +1231,7 @@ public class FastBitmap {
      * @return Gray channel's value.
      */
     public int getGray(IntPoint point){
-        return pixelsGRAY[point.x*getWidth()+point.y] & 0xFF;
+        return pixelsGRAY[origin+point.x*stride+point.y] & 0xFF;
     }
     
     /**
@@ -1084,7 +1239,7 @@ public class FastBitmap {
      * @param offset Offset.
      */
     public int getGray(int offset){
-        return pixelsGRAY[offset] & 0xFF;
+        return pixelsGRAY[index(offset)] & 0xFF;
     }
     
     /**
@@ -1093,7 +1248,7 @@ public class FastBitmap {
      * @param value Gray channel's value.
      */
     public void setGray(int offset, int value){
-        pixelsGRAY[offset] = (byte)value;
+        pixelsGRAY[index(offset)] = (byte)value;
     }
     
     /**
@@ -1103,7 +1258,7 @@ public class FastBitmap {
      * @param value Gray channel's value.
      */
     public void setGray(int x, int y, int value){
-        pixelsGRAY[x*strideX+y*strideY] = (byte)value;
+        pixelsGRAY[origin+x*strideX+y*strideY] = (byte)value;
     }
     
     /**
@@ -1112,7 +1267,7 @@ public class FastBitmap {
      * @param value Gray channel's value.
      */
     public void setGray(IntPoint point, int value){
-        pixelsGRAY[point.x*strideX+point.y*strideY] = (byte)value;
+        pixelsGRAY[origin+point.x*strideX+point.y*strideY] = (byte)value;
     }
     
     /**
@@ -1122,7 +1277,7 @@ public class FastBitmap {
      * @return Alpha value.
      */
     public int getAlpha(int x, int y){
-        return pixels[x*strideX+y*strideY] >> 24 & 0xFF;
+        return pixels[origin+x*strideX+y*strideY] >> 24 & 0xFF;
     }
     
     /**
@@ -1130,7 +1285,7 @@ public class FastBitmap {
      * @param offset Offset.
      */
     public int getAlpha(int offset){
-        return pixels[offset] >> 24 & 0xFF;
+        return pixels[index(offset)] >> 24 & 0xFF;
     }
     
     /**
@@ -1139,7 +1294,7 @@ public class FastBitmap {
      * @param value Alpha channel's value.
      */
     public void setAlpha(int offset, int value){
-        pixels[offset] = pixels[offset] & 0x00ffffff | value << 24;
+        pixels[index(offset)] = pixels[index(offset)] & 0x00ffffff | value << 24;
     }
     
     /**
@@ -1149,7 +1304,7 @@ public class FastBitmap {
      * @param value Alpha channel's value.
      */
     public void setAlpha(int x, int y, int value){
-        pixels[x*strideX+y*strideY] = pixels[x*strideX+y*strideY] & 0x00ffffff | value << 24;
+        pixels[origin+x*strideX+y*strideY] = pixels[origin+x*strideX+y*strideY] & 0x00ffffff | value << 24;
     }
     
     /**
@@ -1159,7 +1314,7 @@ public class FastBitmap {
      * @return Red channel's value.
      */
     public int getRed(int x, int y){
-        return pixels[x*strideX+y*strideY] >> 16 & 0xFF;
+        return pixels[origin+x*strideX+y*strideY] >> 16 & 0xFF;
     }
     
     /**
@@ -1176,7 +1331,7 @@ public class FastBitmap {
      * @param offset Offset.
      */
     public int getRed(int offset){
-        return pixels[offset] >> 16 & 0xFF;
+        return pixels[index(offset)] >> 16 & 0xFF;
     }
     
     /**
@@ -1185,7 +1340,7 @@ public class FastBitmap {
      * @param value Red channel's value.
      */
     public void setRed(int offset, int value){
-        pixels[offset] = pixels[offset] & 0xff00ffff | value << 16;
+        pixels[index(offset)] = pixels[index(offset)] & 0xff00ffff | value << 16;
     }
     
     /**
@@ -1195,7 +1350,7 @@ public class FastBitmap {
      * @param value Red channel's value.
      */
     public void setRed(int x, int y, int value){
-        pixels[x*strideX+y*strideY] = pixels[x*strideX+y*strideY] & 0xff00ffff | value << 16;
+        pixels[origin+x*strideX+y*strideY] = pixels[origin+x*strideX+y*strideY] & 0xff00ffff | value << 16;
     }
     
     /**
@@ -1214,7 +1369,7 @@ public class FastBitmap {
      * @return Green channel's value.
      */
     public int getGreen(int x, int y){
-        return pixels[x*strideX+y*strideY] >> 8 & 0xFF;
+        return pixels[origin+x*strideX+y*strideY] >> 8 & 0xFF;
     }
     
     /**
@@ -1231,7 +1386,7 @@ public class FastBitmap {
      * @param offset Offset.
      */
     public int getGreen(int offset){
-        return pixels[offset] >> 8 & 0xFF;
+        return pixels[index(offset)] >> 8 & 0xFF;
     }
     
     /**
@@ -1240,7 +1395,7 @@ public class FastBitmap {
      * @param value Green channel's value.
      */
     public void setGreen(int offset, int value){
-        pixels[offset] = pixels[offset] & 0xffff00ff | value << 8;
+        pixels[index(offset)] = pixels[index(offset)] & 0xffff00ff | value << 8;
     }
     
     /**
@@ -1250,7 +1405,7 @@ public class FastBitmap {
      * @param value Green channel's value.
      */
     public void setGreen(int x, int y, int value){
-        pixels[x*strideX+y*strideY] = pixels[x*strideX+y*strideY] & 0xffff00ff | value << 8;
+        pixels[origin+x*strideX+y*strideY] = pixels[origin+x*strideX+y*strideY] & 0xffff00ff | value << 8;
     }
     
     /**
@@ -1269,7 +1424,7 @@ public class FastBitmap {
      * @return Blue channel's value.
      */
     public int getBlue(int x, int y){
-        return pixels[x*strideX+y*strideY] & 0xFF;
+        return pixels[origin+x*strideX+y*strideY] & 0xFF;
     }
     
     /**
@@ -1286,7 +1441,7 @@ public class FastBitmap {
      * @param offset Offset.
      */
     public int getBlue(int offset){
-        return pixels[offset] & 0xFF;
+        return pixels[index(offset)] & 0xFF;
     }
     
     /**
@@ -1295,7 +1450,7 @@ public class FastBitmap {
      * @param value Blue channel's value.
      */
     public void setBlue(int offset, int value){
-        pixels[offset] = pixels[offset] & 0xffffff00 | value;
+        pixels[index(offset)] = pixels[index(offset)] & 0xffffff00 | value;
     }
     
     /**
@@ -1305,7 +1460,7 @@ public class FastBitmap {
      * @param value Blue channel's value.
      */
     public void setBlue(int x, int y, int value){
-        pixels[x*strideX+y*strideY] = pixels[x*strideX+y*strideY] & 0xffffff00 | value;
+        pixels[origin+x*strideX+y*strideY] = pixels[origin+x*strideX+y*strideY] & 0xffffff00 | value;
     }
     
     /**
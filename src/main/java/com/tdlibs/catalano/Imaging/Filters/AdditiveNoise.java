@@ -27,6 +27,7 @@ package com.tdlibs.catalano.Imaging.Filters;
 import com.tdlibs.catalano.Core.IntRange;
 import com.tdlibs.catalano.Imaging.FastBitmap;
 import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Math.Random.Xoshiro256StarStar;
 
 /**
  * Additive noise filter.
@@ -103,30 +104,43 @@ public class AdditiveNoise implements IApplyInPlace{
     @Override
     public void applyInPlace(FastBitmap fastBitmap) {
         
+        // The values are drawn in blocks, uniform in [lo, hi].
+        Xoshiro256StarStar rng = new Xoshiro256StarStar();
+        int lo = Math.min(min, max);
+        int range = Math.abs(max - min) + 1;
+        int size = fastBitmap.getSize();
+        
         if (fastBitmap.isGrayscale()){
             
-            int size = fastBitmap.getSize();
-            
-            for (int i = 0; i < size; i++) {
-                int g = fastBitmap.getGray(i);
-                g = Math.min(255, Math.max(0, g + generateNumber(min, max)));
-                fastBitmap.setGray(i, g);
+            int[] noise = new int[Math.min(size, 4096)];
+            for (int i = 0; i < size; i += noise.length) {
+                rng.nextInts(noise, range);
+                int n = Math.min(noise.length, size - i);
+                for (int k = 0; k < n; k++) {
+                    int g = fastBitmap.getGray(i + k);
+                    g = Math.min(255, Math.max(0, g + lo + noise[k]));
+                    fastBitmap.setGray(i + k, g);
+                }
             }
             
         }
         else if (fastBitmap.isRGB()){
-            int size = fastBitmap.getSize();
             
-            for (int i = 0; i < size; i++) {
-                int r = fastBitmap.getRed(i);
-                int g = fastBitmap.getGreen(i);
-                int b = fastBitmap.getBlue(i);
+            int[] noise = new int[3 * Math.min(size, 4096)];
+            for (int i = 0; i < size; i += noise.length / 3) {
+                rng.nextInts(noise, range);
+                int n = Math.min(noise.length / 3, size - i);
+                for (int k = 0, j = 0; k < n; k++, j += 3) {
+                    int r = fastBitmap.getRed(i + k);
+                    int g = fastBitmap.getGreen(i + k);
+                    int b = fastBitmap.getBlue(i + k);
 
-                r = Math.min(255, Math.max(0, r + generateNumber(min, max)));
-                g = Math.min(255, Math.max(0, g + generateNumber(min, max)));
-                b = Math.min(255, Math.max(0, b + generateNumber(min, max)));
+                    r = Math.min(255, Math.max(0, r + lo + noise[j]));
+                    g = Math.min(255, Math.max(0, g + lo + noise[j + 1]));
+                    b = Math.min(255, Math.max(0, b + lo + noise[j + 2]));
 
-                fastBitmap.setRGB(i, r, g, b);
+                    fastBitmap.setRGB(i + k, r, g, b);
+                }
             }
         }
         else{
@@ -135,13 +149,4 @@ public class AdditiveNoise implements IApplyInPlace{
         
     }
     
-    /**
-     * Generate a number between min and max value.
-     * @param range Range.
-     * @return Number generated.
-     */
-    private int generateNumber(int min, int max){
-        return Math.min(min, max) + (int)Math.round(-0.5f+(1+Math.abs(min - max))*Math.random());
-    }
-    
-}
\ No newline at end of file
+}
@@ -26,7 +26,7 @@ package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Core.IntRange;
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Imaging.IPointOperation;
 
 /**
  * Brightness adjusting in RGB color space.
@@ -36,7 +36,7 @@ import com.tdlibs.catalano.Imaging.IApplyInPlace;
  * 
  * @author Diego catalano
  */
-public class BrightnessCorrection implements IApplyInPlace{
+public class BrightnessCorrection implements IPointOperation{
     
     private LevelsLinear baseFilter = new LevelsLinear( );
     private int adjustValue;
@@ -98,4 +98,9 @@ public class BrightnessCorrection implements IApplyInPlace{
     public void applyInPlace(FastBitmap fastBitmap) {
         baseFilter.applyInPlace(fastBitmap);
     }
+
+    @Override
+    public int[][] getLookupTable(FastBitmap.ColorSpace colorSpace) {
+        return baseFilter.getLookupTable(colorSpace);
+    }
 }
\ No newline at end of file
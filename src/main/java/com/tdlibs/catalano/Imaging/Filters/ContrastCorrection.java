@@ -26,7 +26,7 @@ package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Core.IntRange;
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Imaging.IPointOperation;
 
 /**
  * Contrast adjusting in RGB color space.
@@ -36,7 +36,7 @@ import com.tdlibs.catalano.Imaging.IApplyInPlace;
  * 
  * @author Diego catalano
  */
-public class ContrastCorrection implements IApplyInPlace{
+public class ContrastCorrection implements IPointOperation{
     
     private LevelsLinear baseFilter = new LevelsLinear();
     private int factor = 10;
@@ -99,5 +99,10 @@ public class ContrastCorrection implements IApplyInPlace{
     public void applyInPlace(FastBitmap fastBitmap) {
         baseFilter.applyInPlace(fastBitmap);
     }
+
+    @Override
+    public int[][] getLookupTable(FastBitmap.ColorSpace colorSpace) {
+        return baseFilter.getLookupTable(colorSpace);
+    }
     
 }
@@ -148,51 +148,26 @@ public class Crop implements IApply, IApplyInPlace{
 
     @Override
     public FastBitmap apply(FastBitmap fastBitmap) {
+        return new FastBitmap(getRegionOfInterest(fastBitmap));
+    }
+    
+    /**
+     * Get the cropped region without copy the pixels.
+     * <p>The region is a view over the buffer of the image, see {@link FastBitmap#getRegionOfInterest(int, int, int, int)}.</p>
+     * @param fastBitmap FastBitmap.
+     * @return Region of interest.
+     */
+    public FastBitmap getRegionOfInterest(FastBitmap fastBitmap){
+        boolean matrix = fastBitmap.getCoordinateSystem() == FastBitmap.CoordinateSystem.Matrix;
+        int row = matrix ? this.x : this.y;
+        int col = matrix ? this.y : this.x;
         
-        if((this.x + height > fastBitmap.getHeight()) ||
-                this.y + width > fastBitmap.getWidth()){
+        if((row + height > fastBitmap.getHeight()) ||
+                col + width > fastBitmap.getWidth()){
             throw new IllegalArgumentException("The size is higher than original image.");
         }
         
-        FastBitmap l = new FastBitmap(width, height, fastBitmap.getColorSpace());
-        
-        if (fastBitmap.isGrayscale()) {
-            if(fastBitmap.getCoordinateSystem() == FastBitmap.CoordinateSystem.Matrix){
-                for (int r = 0; r < height; r++) {
-                    for (int c = 0; c < width; c++) {
-                        l.setGray(r, c, fastBitmap.getGray(r + this.x, c + this.y));
-                    }
-                }
-            }
-            else{
-                for (int r = 0; r < height; r++) {
-                    for (int c = 0; c < width; c++) {
-                        l.setGray(c, r, fastBitmap.getGray(r + this.y, c + this.x));
-                    }
-                }
-            }
-        }
-        else{
-            if(fastBitmap.getCoordinateSystem() == FastBitmap.CoordinateSystem.Matrix){
-                for (int r = 0; r < height; r++) {
-                    for (int c = 0; c < width; c++) {
-                        l.setRed(r, c, fastBitmap.getRed(r + this.x, c + this.y));
-                        l.setGreen(r, c, fastBitmap.getGreen(r + this.x, c + this.y));
-                        l.setBlue(r, c, fastBitmap.getBlue(r + this.x, c + this.y));
-                    }
-                }
-            }
-            else{
-                for (int r = 0; r < height; r++) {
-                    for (int c = 0; c < width; c++) {
-                        l.setRed(c, r, fastBitmap.getRed(r + this.y, c + this.x));
-                        l.setGreen(c, r, fastBitmap.getGreen(r + this.y, c + this.x));
-                        l.setBlue(c, r, fastBitmap.getBlue(r + this.y, c + this.x));
-                    }
-                }
-            }
-        }
-        return l;
+        return fastBitmap.getRegionOfInterest(x, y, width, height);
     }
     
     /**
@@ -201,7 +176,6 @@ public class Crop implements IApply, IApplyInPlace{
      */
     @Override
     public void applyInPlace(FastBitmap fastBitmap){
-        FastBitmap temp = apply(fastBitmap);
-        fastBitmap.setImage(temp);
+        fastBitmap.setImage(getRegionOfInterest(fastBitmap));
     }
 }
\ No newline at end of file
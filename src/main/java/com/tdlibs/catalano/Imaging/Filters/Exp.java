@@ -22,7 +22,8 @@
 package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Imaging.IPointOperation;
+import com.tdlibs.catalano.Imaging.Tools.ImageUtils;
 import com.tdlibs.catalano.Math.Approximation;
 
 /**
@@ -34,7 +35,7 @@ import com.tdlibs.catalano.Math.Approximation;
  * 
  * @author Diego catalano
  */
-public class Exp implements IApplyInPlace{
+public class Exp implements IPointOperation{
 
     /**
      * Initialize a new instance of the Exp class.
@@ -43,49 +44,29 @@ public class Exp implements IApplyInPlace{
 
     @Override
     public void applyInPlace(FastBitmap fastBitmap) {
+        if (fastBitmap.isGrayscale() || fastBitmap.isRGB())
+            ImageUtils.ApplyLookupTable(fastBitmap, getLookupTable(fastBitmap.getColorSpace()));
+    }
+
+    @Override
+    public int[][] getLookupTable(FastBitmap.ColorSpace colorSpace) {
         
         // Scale log
         double scale = 255 / Math.log(255);
-        if (fastBitmap.isGrayscale()){
-            byte[] pixels = fastBitmap.getGrayData();
-            for (int i = 0; i < pixels.length; i++) {
-                
-                double v = pixels[i] & 0xFF;
-                v = Approximation.Highprecision_Exp(v/scale);
-
-                // Clip value
-                if (v < 0) v = 0;
-                if (v > 255) v = 255;
-                
-                pixels[i] = (byte)v;
-                
-            }
-        }
-        if (fastBitmap.isRGB()){
-            int[] pixels = fastBitmap.getRGBData();
-            for (int i = 0; i < pixels.length; i++) {
-                
-                double r = pixels[i] >> 16 & 0xFF;
-                double g = pixels[i] >> 8 & 0xFF;
-                double b = pixels[i] & 0xFF;
-                
-                r = Approximation.Highprecision_Exp(r/scale);
-                g = Approximation.Highprecision_Exp(g/scale);
-                b = Approximation.Highprecision_Exp(b/scale);
-
-                //Clip value
-                if (r < 0) r = 0;
-                if (r > 255) r = 255;
-
-                if (g < 0) g = 0;
-                if (g > 255) g = 255;
-
-                if (b < 0) b = 0;
-                if (b > 255) b = 255;
-                
-                pixels[i] = (int)r << 16 | (int)g << 8 | (int)b;
-                
-            }
+        int[] map = new int[256];
+        for (int i = 0; i < map.length; i++) {
+            
+            double v = Approximation.Highprecision_Exp(i / scale);
+            
+            // Clip value
+            if (v < 0) v = 0;
+            if (v > 255) v = 255;
+            
+            map[i] = (int)v;
         }
+        
+        if (colorSpace == FastBitmap.ColorSpace.Grayscale)
+            return new int[][] {map};
+        return new int[][] {map, map, map};
     }
 }
\ No newline at end of file
@@ -22,13 +22,14 @@
 package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Imaging.IPointOperation;
+import com.tdlibs.catalano.Imaging.Tools.ImageUtils;
 
 /**
  * The filter performs gamma correction of specified image in RGB color space.
  * @author Diego catalano
  */
-public class GammaCorrection implements IApplyInPlace{
+public class GammaCorrection implements IPointOperation{
     
     private double gamma;
 
@@ -63,33 +64,17 @@ public class GammaCorrection implements IApplyInPlace{
     
     @Override
     public void applyInPlace(FastBitmap fastBitmap) {
-        
-        if (fastBitmap.isRGB()){
-            
-            int[] gamma_LUT = gamma_LUT(gamma);
-
-            int r, g, b;
-            int size = fastBitmap.getSize();
-            for(int i = 0; i < size; i++) {
-
-                r = gamma_LUT[fastBitmap.getRed(i)];
-                g = gamma_LUT[fastBitmap.getGreen(i)];
-                b = gamma_LUT[fastBitmap.getBlue(i)];
+        if (fastBitmap.isGrayscale() || fastBitmap.isRGB())
+            ImageUtils.ApplyLookupTable(fastBitmap, getLookupTable(fastBitmap.getColorSpace()));
+    }
 
-                fastBitmap.setRGB(i, r,g,b);
-            }
-            
-        }
-        else if(fastBitmap.isGrayscale()){
-            
-            int[] gamma_LUT = gamma_LUT(gamma);
-            
-            int size = fastBitmap.getSize();
-            for (int i = 0; i < size; i++) {
-                fastBitmap.setGray(i, gamma_LUT[fastBitmap.getGray(i)]);
-            }
-        }
-}
+    @Override
+    public int[][] getLookupTable(FastBitmap.ColorSpace colorSpace) {
+        int[] map = gamma_LUT(gamma);
+        if (colorSpace == FastBitmap.ColorSpace.Grayscale)
+            return new int[][] {map};
+        return new int[][] {map, map, map};
+    }
  
     /**
      * Create the gamma correction lookup table
@@ -24,7 +24,8 @@ package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
 import com.tdlibs.catalano.Imaging.IApplyInPlace;
-import java.util.Random;
+import com.tdlibs.catalano.Math.Random.Xoshiro256StarStar;
+import com.tdlibs.catalano.Statistics.Distributions.RandomSampler;
 
 /**
  * Gaussian Noise.
@@ -66,49 +67,53 @@ public class GaussianNoise implements IApplyInPlace{
     @Override
     public void applyInPlace(FastBitmap fastBitmap) {
         
+        // The samples are drawn in blocks by the ziggurat.
+        Xoshiro256StarStar rng = new Xoshiro256StarStar();
+        int size = fastBitmap.getSize();
+        
         if(fastBitmap.isGrayscale()){
             
-            int size = fastBitmap.getSize();
-            
-            Random r = new Random();
-            for (int i = 0; i < size; i++) {
-                int g = fastBitmap.getGray(i);
-                g += stdDev * r.nextGaussian();
+            double[] noise = new double[Math.min(size, 4096)];
+            for (int i = 0; i < size; i += noise.length) {
+                RandomSampler.Normal(noise, rng);
+                int n = Math.min(noise.length, size - i);
+                for (int k = 0; k < n; k++) {
+                    int g = (int)(fastBitmap.getGray(i + k) + stdDev * noise[k]);
 
-                g = g > 255 ? 255 : g;
-                g = g < 0 ? 0 : g;
+                    g = g > 255 ? 255 : g;
+                    g = g < 0 ? 0 : g;
 
-                fastBitmap.setGray(i, g);
+                    fastBitmap.setGray(i + k, g);
+                }
             }
             
         }
         else if(fastBitmap.isRGB()){
-            int size = fastBitmap.getSize();
             
-            Random rand = new Random();
-            for (int i = 0; i < size; i++) {
-                int r = fastBitmap.getRed(i);
-                int g = fastBitmap.getGreen(i);
-                int b = fastBitmap.getBlue(i);
-
-                r += stdDev * rand.nextGaussian();
-                g += stdDev * rand.nextGaussian();
-                b += stdDev * rand.nextGaussian();
+            double[] noise = new double[3 * Math.min(size, 4096)];
+            for (int i = 0; i < size; i += noise.length / 3) {
+                RandomSampler.Normal(noise, rng);
+                int n = Math.min(noise.length / 3, size - i);
+                for (int k = 0, j = 0; k < n; k++, j += 3) {
+                    int r = (int)(fastBitmap.getRed(i + k) + stdDev * noise[j]);
+                    int g = (int)(fastBitmap.getGreen(i + k) + stdDev * noise[j + 1]);
+                    int b = (int)(fastBitmap.getBlue(i + k) + stdDev * noise[j + 2]);
 
-                r = r > 255 ? 255 : r;
-                r = r < 0 ? 0 : r;
+                    r = r > 255 ? 255 : r;
+                    r = r < 0 ? 0 : r;
 
-                g = g > 255 ? 255 : g;
-                g = g < 0 ? 0 : g;
+                    g = g > 255 ? 255 : g;
+                    g = g < 0 ? 0 : g;
 
-                b = b > 255 ? 255 : b;
-                b = b < 0 ? 0 : b;
+                    b = b > 255 ? 255 : b;
+                    b = b < 0 ? 0 : b;
 
-                fastBitmap.setRGB(i, r, g, b);
+                    fastBitmap.setRGB(i + k, r, g, b);
+                }
             }
         }
         else{
             throw new IllegalArgumentException("Gaussian noise only works in grayscale and rgb images.");
         }
     }
-}
\ No newline at end of file
+}
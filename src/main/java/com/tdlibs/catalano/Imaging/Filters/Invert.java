@@ -22,13 +22,14 @@
 package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Imaging.IPointOperation;
+import com.tdlibs.catalano.Imaging.Tools.ImageUtils;
 
 /**
  * Invert image.
  * @author Diego catalano
  */
-public class Invert implements IApplyInPlace{
+public class Invert implements IPointOperation{
     
     
     /**
@@ -38,24 +39,19 @@ public class Invert implements IApplyInPlace{
     
     @Override
     public void applyInPlace(FastBitmap fastBitmap){
-        
-        int size = fastBitmap.getSize();
-        
-        if (fastBitmap.isGrayscale()){
-            int l;
-            for (int i = 0; i < size; i++) {
-                l = 255 - fastBitmap.getGray(i);
-                fastBitmap.setGray(i, l);
-            }
-        }
-        else if(fastBitmap.isRGB()){
-            int r,g,b;
-            for (int i = 0; i < size; i++) {
-                r = 255 - fastBitmap.getRed(i);
-                g = 255 - fastBitmap.getGreen(i);
-                b = 255 - fastBitmap.getBlue(i);
-                fastBitmap.setRGB(i, r, g, b);
-            }
+        if (fastBitmap.isGrayscale() || fastBitmap.isRGB())
+            ImageUtils.ApplyLookupTable(fastBitmap, getLookupTable(fastBitmap.getColorSpace()));
+    }
+
+    @Override
+    public int[][] getLookupTable(FastBitmap.ColorSpace colorSpace) {
+        int[] map = new int[256];
+        for (int i = 0; i < map.length; i++) {
+            map[i] = 255 - i;
         }
+        
+        if (colorSpace == FastBitmap.ColorSpace.Grayscale)
+            return new int[][] {map};
+        return new int[][] {map, map, map};
     }
 }
\ No newline at end of file
@@ -26,7 +26,8 @@ package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Core.IntRange;
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Imaging.IPointOperation;
+import com.tdlibs.catalano.Imaging.Tools.ImageUtils;
 
 /**
  * Linear correction of RGB channels.
@@ -37,7 +38,7 @@ import com.tdlibs.catalano.Imaging.IApplyInPlace;
  * 
  * @author Diego catalano
  */
-public class LevelsLinear implements IApplyInPlace{
+public class LevelsLinear implements IPointOperation{
     
     private IntRange inRed = new IntRange(0, 255);
     private IntRange inGreen = new IntRange(0, 255);
@@ -225,32 +226,21 @@ public class LevelsLinear implements IApplyInPlace{
     
     @Override
     public void applyInPlace(FastBitmap fastBitmap){
+        ImageUtils.ApplyLookupTable(fastBitmap, getLookupTable(fastBitmap.getColorSpace()));
+    }
+
+    @Override
+    public int[][] getLookupTable(FastBitmap.ColorSpace colorSpace) {
         
-        int size = fastBitmap.getSize();
-        
-        if (fastBitmap.isGrayscale()) {
-            
+        if (colorSpace == FastBitmap.ColorSpace.Grayscale) {
             CalculateMap( inGray, outGray, mapGray );
-            
-            for (int i = 0; i < size; i++) {
-                fastBitmap.setGray(i, mapGray[fastBitmap.getGray(i)]);
-            }
-        }
-        else{
-            
-            CalculateMap( inRed, outRed, mapRed );
-            CalculateMap( inGreen, outGreen, mapGreen );
-            CalculateMap( inBlue, outBlue, mapBlue );
-            
-            for (int i = 0; i < size; i++) {
-                int r = mapRed[fastBitmap.getRed(i)];
-                int g = mapGreen[fastBitmap.getGreen(i)];
-                int b = mapBlue[fastBitmap.getBlue(i)];
-
-                fastBitmap.setRGB(i, r, g, b);
-            }
+            return new int[][] {mapGray.clone()};
         }
         
+        CalculateMap( inRed, outRed, mapRed );
+        CalculateMap( inGreen, outGreen, mapGreen );
+        CalculateMap( inBlue, outBlue, mapBlue );
+        return new int[][] {mapRed.clone(), mapGreen.clone(), mapBlue.clone()};
     }
     
     /**
@@ -279,7 +269,7 @@ public class LevelsLinear implements IApplyInPlace{
             else
                 v = (int) ( k * v + b );
 
-            map[i] = v;
+            map[i] = Math.max(0, Math.min(255, v));
         }
     }
 }
\ No newline at end of file
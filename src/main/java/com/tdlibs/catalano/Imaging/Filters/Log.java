@@ -22,7 +22,8 @@
 package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Imaging.IPointOperation;
+import com.tdlibs.catalano.Imaging.Tools.ImageUtils;
 
 /**
  * Log filter.
@@ -32,7 +33,7 @@ import com.tdlibs.catalano.Imaging.IApplyInPlace;
  * 
  * @author Diego catalano
  */
-public class Log implements IApplyInPlace{
+public class Log implements IPointOperation{
 
     /**
      * Initialize a new instance of the Log class.
@@ -41,49 +42,30 @@ public class Log implements IApplyInPlace{
 
     @Override
     public void applyInPlace(FastBitmap fastBitmap) {
+        if (fastBitmap.isGrayscale() || fastBitmap.isRGB())
+            ImageUtils.ApplyLookupTable(fastBitmap, getLookupTable(fastBitmap.getColorSpace()));
+    }
+
+    @Override
+    public int[][] getLookupTable(FastBitmap.ColorSpace colorSpace) {
         
         // Scale log
         double scale = 256 / Math.log(256);
-        if (fastBitmap.isGrayscale()){
-            byte[] pixels = fastBitmap.getGrayData();
-            for (int i = 0; i < pixels.length; i++) {
-                double v = pixels[i] & 0xFF;
-                
-                //Compute log
-                v = Math.log(1+v) * scale;
-
-                // Clip value
-                if (v < 0) v = 0;
-                if (v > 255) v = 255;
-                
-                pixels[i] = (byte)v;
-            }
-        }
-        if (fastBitmap.isRGB()){
-            int[] pixelsRGB = fastBitmap.getRGBData();
-            for (int i = 0; i < pixelsRGB.length; i++) {
-                double r = pixelsRGB[i] >> 16 & 0xff;
-                double g = pixelsRGB[i] >> 8 & 0xff;
-                double b = pixelsRGB[i] & 0xff;
-
-                //Compute log
-                r = Math.log(r+1) * scale;
-                g = Math.log(g+1) * scale;
-                b = Math.log(b+1) * scale;
-
-                //Clip value
-                if (r < 0) r = 0;
-                if (r > 255) r = 255;
-
-                if (g < 0) g = 0;
-                if (g > 255) g = 255;
-
-                if (b < 0) b = 0;
-                if (b > 255) b = 255;
-
-
-                pixelsRGB[i] = (int)r << 16 | (int)g << 8 | (int)b;
-            }
+        int[] map = new int[256];
+        for (int i = 0; i < map.length; i++) {
+            
+            //Compute log
+            double v = Math.log(1 + i) * scale;
+            
+            // Clip value
+            if (v < 0) v = 0;
+            if (v > 255) v = 255;
+            
+            map[i] = (int)v;
         }
+        
+        if (colorSpace == FastBitmap.ColorSpace.Grayscale)
+            return new int[][] {map};
+        return new int[][] {map, map, map};
     }
 }
\ No newline at end of file
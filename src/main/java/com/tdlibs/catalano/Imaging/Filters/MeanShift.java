@@ -24,19 +24,76 @@
 
 package com.tdlibs.catalano.Imaging.Filters;
 
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
 import com.tdlibs.catalano.Imaging.FastBitmap;
 import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Mean Shift filter.
  * <br /> Mean Shift filter can be used for edge-preserving smoothing or for segmentation. Important edges of an image might be easier detected after mean shift filtering.
  * <br /> It uses a circular flat kernel and the color distance is calculated in the YIQ-color space.
+ * <br /> The rows are processed in parallel. In the grid mode, the pixels are binned in a joint spatial-color grid
+ * (cells of radius x color distance) and each iteration visits the occupied bins of the neighborhood instead of every pixel.
+ * The grid mode is an approximation: each bin is included or excluded as a whole, by its centroid.
  * @author Diego catalano
  */
 public class MeanShift implements IApplyInPlace{
     
     private int radius;
     private float colorDistance;
+    private boolean useGrid = false;
+
+    /**
+     * Get radius.
+     * @return Radius.
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Set radius.
+     * @param radius Radius.
+     */
+    public void setRadius(int radius) {
+        this.radius = radius;
+    }
+
+    /**
+     * Get color distance.
+     * @return Color distance.
+     */
+    public float getColorDistance() {
+        return colorDistance;
+    }
+
+    /**
+     * Set color distance.
+     * @param colorDistance Color distance.
+     */
+    public void setColorDistance(float colorDistance) {
+        this.colorDistance = colorDistance;
+    }
+
+    /**
+     * Check if uses the spatial-color grid.
+     * @return True if uses the grid, otherwise false.
+     */
+    public boolean isUseGrid() {
+        return useGrid;
+    }
+
+    /**
+     * Set if uses the spatial-color grid.
+     * @param useGrid True for the approximated grid mode.
+     */
+    public void setUseGrid(boolean useGrid) {
+        this.useGrid = useGrid;
+    }
 
     /**
      * Initialize a new instance of the MeanShift class.
@@ -52,181 +109,357 @@ public class MeanShift implements IApplyInPlace{
         this.radius = radius;
         this.colorDistance = colorDistance;
     }
+    
+    /**
+     * Initialize a new instance of the MeanShift class.
+     * @param radius Radius.
+     * @param colorDistance Color distance.
+     * @param useGrid True for the approximated grid mode.
+     */
+    public MeanShift(int radius, float colorDistance, boolean useGrid) {
+        this.radius = radius;
+        this.colorDistance = colorDistance;
+        this.useGrid = useGrid;
+    }
 
     @Override
-    public void applyInPlace(FastBitmap fastBitmap) {
+    public void applyInPlace(final FastBitmap fastBitmap) {
         
-        int width = fastBitmap.getWidth();
-        int height = fastBitmap.getHeight();
+        final int width = fastBitmap.getWidth();
+        final int height = fastBitmap.getHeight();
+        final boolean color = fastBitmap.isRGB();
         
-        if (fastBitmap.isRGB()) {
-            float[][][] pixelsF = new float[height][width][3];
-
-            int r,g,b;
-            for (int x = 0; x < height; x++) {
-                for (int y = 0; y < width; y++) {
+        if (!color && !fastBitmap.isGrayscale()) return;
+        
+        final float[] Y = new float[width * height];
+        final float[] I = color ? new float[width * height] : null;
+        final float[] Q = color ? new float[width * height] : null;
+        
+        int r,g,b;
+        for (int x = 0, k = 0; x < height; x++) {
+            for (int y = 0; y < width; y++, k++) {
+                if (color) {
                     r = fastBitmap.getRed(x, y);
                     g = fastBitmap.getGreen(x, y);
                     b = fastBitmap.getBlue(x, y);
 
                     // You can use ColorConverter.RGBtoYIQ but you need to multiply the result with 255.
                     // In this way its more fast because we spend less processor.
-                    pixelsF[x][y][0] = 0.299f  *r + 0.587f *g + 0.114f  *b;
-                    pixelsF[x][y][1] = 0.5957f *r - 0.2744f*g - 0.3212f *b;
-                    pixelsF[x][y][2] = 0.2114f *r - 0.5226f*g + 0.3111f *b;
+                    Y[k] = 0.299f  *r + 0.587f *g + 0.114f  *b;
+                    I[k] = 0.5957f *r - 0.2744f*g - 0.3212f *b;
+                    Q[k] = 0.2114f *r - 0.5226f*g + 0.3111f *b;
+                }
+                else{
+                    Y[k] = fastBitmap.getGray(x, y);
                 }
             }
-
-            float shift;
-            int iters;
-
-            for (int x = 0; x < height; x++) {
-                for (int y = 0; y < width; y++) {
-                    int yc = y;
-                    int xc = x;
-                    int xcOld, ycOld;
-                    float YcOld, IcOld, QcOld;
-                    float[] yiq = pixelsF[x][y];
-                    float Yc = yiq[0];
-                    float Ic = yiq[1];
-                    float Qc = yiq[2];
-
-                    iters = 0;
-                    do {
-                        xcOld = xc;
-                        ycOld = yc;
-                        YcOld = Yc;
-                        IcOld = Ic;
-                        QcOld = Qc;
-
-                        float mx = 0;
-                        float my = 0;
-                        float mY = 0;
-                        float mI = 0;
-                        float mQ = 0;
-                        int num=0;
-
-                        int radius2 = radius * radius;
-                        float colorDistance2 = colorDistance * colorDistance;
-                        for (int rx=-radius; rx <= radius; rx++) {
-                                int x2 = xc + rx; 
-                                if (x2 >= 0 && x2 < height) {
-                                        for (int ry=-radius; ry <= radius; ry++) {
-                                                int y2 = yc + ry; 
-                                                if (y2 >= 0 && y2 < width) {
-                                                        if (rx*rx + ry*ry <= radius2) {
-                                                                yiq = pixelsF[x2][y2];
-
-                                                                float Y2 = yiq[0];
-                                                                float I2 = yiq[1];
-                                                                float Q2 = yiq[2];
-
-                                                                float dY = Yc - Y2;
-                                                                float dI = Ic - I2;
-                                                                float dQ = Qc - Q2;
-
-                                                                if (dY*dY+dI*dI+dQ*dQ <= colorDistance2) {
-                                                                        mx += x2;
-                                                                        my += y2;
-                                                                        mY += Y2;
-                                                                        mI += I2;
-                                                                        mQ += Q2;
-                                                                        num++;
-                                                                }
-                                                        }
-                                                }
-                                        }
-                                }
+        }
+        
+        final Grid grid = useGrid ? new Grid(Y, I, Q, width, height) : null;
+        
+        // circular flat kernel, same order of the window scan
+        int count = 0;
+        int[] kx = new int[(2 * radius + 1) * (2 * radius + 1)];
+        int[] ky = new int[kx.length];
+        for (int rx = -radius; rx <= radius; rx++) {
+            for (int ry = -radius; ry <= radius; ry++) {
+                if (rx*rx + ry*ry <= radius * radius) {
+                    kx[count] = rx;
+                    ky[count] = ry;
+                    count++;
+                }
+            }
+        }
+        final int[] kernelX = Arrays.copyOf(kx, count);
+        final int[] kernelY = Arrays.copyOf(ky, count);
+        
+        int tasks = Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize(), height));
+        List<Callable<Void>> lst = new ArrayList<Callable<Void>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int start = t * height / tasks;
+            final int end = (t + 1) * height / tasks;
+            lst.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int x = start; x < end; x++) {
+                        for (int y = 0; y < width; y++) {
+                            float[] yiq = grid == null
+                                    ? Shift(Y, I, Q, width, height, kernelX, kernelY, x, y)
+                                    : grid.Shift(x, y);
+                            if (color) {
+                                int r_ = (int)(yiq[0] + 0.9563f*yiq[1] + 0.6210f*yiq[2]);
+                                int g_ = (int)(yiq[0] - 0.2721f*yiq[1] - 0.6473f*yiq[2]);
+                                int b_ = (int)(yiq[0] - 1.1070f*yiq[1] + 1.7046f*yiq[2]);
+                                fastBitmap.setRGB(x, y, Clamp(r_), Clamp(g_), Clamp(b_));
+                            }
+                            else{
+                                fastBitmap.setGray(x, y, Clamp((int)yiq[0]));
+                            }
                         }
-                        float num_ = 1f/num;
-                        Yc = mY*num_;
-                        Ic = mI*num_;
-                        Qc = mQ*num_;
-                        xc = (int) (mx*num_+0.5);
-                        yc = (int) (my*num_+0.5);
-                        int dx = xc-xcOld;
-                        int dy = yc-ycOld;
-                        float dY = Yc-YcOld;
-                        float dI = Ic-IcOld;
-                        float dQ = Qc-QcOld;
-
-                        shift = dx*dx+dy*dy+dY*dY+dI*dI+dQ*dQ; 
-                        iters++;
                     }
-                    while (shift > 3 && iters < 100);
+                    return null;
+                }
+            });
+        }
+        
+        try {
+            MulticoreExecutor.run(lst);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+    
+    /**
+     * Mean shift of one pixel, visiting every pixel of the kernel.
+     * @return Converged color.
+     */
+    private float[] Shift(float[] Y, float[] I, float[] Q, int width, int height, int[] kernelX, int[] kernelY, int x, int y){
+        boolean color = I != null;
+        float colorDistance2 = colorDistance * colorDistance;
+        
+        int k = x * width + y;
+        int yc = y;
+        int xc = x;
+        int xcOld, ycOld;
+        float YcOld, IcOld, QcOld;
+        float Yc = Y[k];
+        float Ic = color ? I[k] : 0;
+        float Qc = color ? Q[k] : 0;
+        
+        float shift;
+        int iters = 0;
+        do {
+            xcOld = xc;
+            ycOld = yc;
+            YcOld = Yc;
+            IcOld = Ic;
+            QcOld = Qc;
 
-                    int r_ = (int)(Yc + 0.9563f*Ic + 0.6210f*Qc);
-                    int g_ = (int)(Yc - 0.2721f*Ic - 0.6473f*Qc);
-                    int b_ = (int)(Yc - 1.1070f*Ic + 1.7046f*Qc);
+            float mx = 0;
+            float my = 0;
+            float mY = 0;
+            float mI = 0;
+            float mQ = 0;
+            int num=0;
+            
+            boolean inside = xc - radius >= 0 && xc + radius < height && yc - radius >= 0 && yc + radius < width;
+            for (int i = 0; i < kernelX.length; i++) {
+                int x2 = xc + kernelX[i];
+                int y2 = yc + kernelY[i];
+                if (!inside && (x2 < 0 || x2 >= height || y2 < 0 || y2 >= width)) continue;
+                
+                int k2 = x2 * width + y2;
+                float Y2 = Y[k2];
+                float dY = Yc - Y2;
+                
+                if (color) {
+                    float I2 = I[k2];
+                    float Q2 = Q[k2];
+                    float dI = Ic - I2;
+                    float dQ = Qc - Q2;
+                    if (dY*dY+dI*dI+dQ*dQ <= colorDistance2) {
+                        mx += x2;
+                        my += y2;
+                        mY += Y2;
+                        mI += I2;
+                        mQ += Q2;
+                        num++;
+                    }
+                }
+                else if (dY*dY <= colorDistance2) {
+                    mx += x2;
+                    my += y2;
+                    mY += Y2;
+                    num++;
+                }
+            }
+            if (num == 0) break;
+            
+            float num_ = 1f/num;
+            Yc = mY*num_;
+            Ic = mI*num_;
+            Qc = mQ*num_;
+            xc = (int) (mx*num_+0.5);
+            yc = (int) (my*num_+0.5);
+            int dx = xc-xcOld;
+            int dy = yc-ycOld;
+            float dY = Yc-YcOld;
+            float dI = Ic-IcOld;
+            float dQ = Qc-QcOld;
 
-                    fastBitmap.setRGB(x, y, r_, g_, b_);
+            shift = dx*dx+dy*dy+dY*dY+dI*dI+dQ*dQ;
+            iters++;
+        }
+        while (shift > 3 && iters < 100);
+        
+        return new float[] {Yc, Ic, Qc};
+    }
+    
+    private static int Clamp(int value){
+        return value < 0 ? 0 : value > 255 ? 255 : value;
+    }
+    
+    /**
+     * Joint spatial-color grid.
+     * Each occupied bin keeps the sums of the coordinates and colors of its pixels.
+     */
+    private class Grid {
+        
+        private final float[] Y, I, Q;
+        private final int width;
+        private final int height;
+        private final int cellSize;
+        private final float binSize;
+        private final int cellsW;
+        
+        // bins of each spatial cell: [cellStart[c], cellStart[c + 1])
+        private final int[] cellStart;
+        private final float[] sumX, sumY, sumL, sumI, sumQ;
+        private final int[] count;
+        
+        Grid(float[] Y, float[] I, float[] Q, int width, int height){
+            this.Y = Y;
+            this.I = I;
+            this.Q = Q;
+            this.width = width;
+            this.height = height;
+            this.cellSize = Math.max(1, radius);
+            this.binSize = Math.max(1f, colorDistance);
+            this.cellsW = (width + cellSize - 1) / cellSize;
+            int cellsH = (height + cellSize - 1) / cellSize;
+            int cells = cellsW * cellsH;
+            
+            // counting sort of the pixels by spatial cell
+            int[] start = new int[cells + 1];
+            for (int x = 0; x < height; x++)
+                for (int y = 0; y < width; y++)
+                    start[(x / cellSize) * cellsW + y / cellSize + 1]++;
+            for (int c = 0; c < cells; c++)
+                start[c + 1] += start[c];
+            
+            // key: color bin (upper bits) and pixel (lower bits)
+            long[] keys = new long[width * height];
+            int[] next = Arrays.copyOf(start, cells);
+            for (int x = 0, k = 0; x < height; x++) {
+                for (int y = 0; y < width; y++, k++) {
+                    long bin = (long)Bin(Y[k]) << 20;
+                    if (I != null) bin |= (long)(Bin(I[k]) + 512) << 10 | (Bin(Q[k]) + 512);
+                    keys[next[(x / cellSize) * cellsW + y / cellSize]++] = bin << 32 | k;
+                }
+            }
+            
+            // sort by color bin inside each cell and count the bins
+            int bins = 0;
+            for (int c = 0; c < cells; c++) {
+                Arrays.sort(keys, start[c], start[c + 1]);
+                for (int i = start[c]; i < start[c + 1]; i++)
+                    if (i == start[c] || keys[i] >>> 32 != keys[i - 1] >>> 32) bins++;
+            }
+            
+            cellStart = new int[cells + 1];
+            sumX = new float[bins];
+            sumY = new float[bins];
+            sumL = new float[bins];
+            sumI = new float[bins];
+            sumQ = new float[bins];
+            count = new int[bins];
+            
+            int idx = -1;
+            for (int c = 0; c < cells; c++) {
+                cellStart[c] = idx + 1;
+                for (int i = start[c]; i < start[c + 1]; i++) {
+                    if (i == start[c] || keys[i] >>> 32 != keys[i - 1] >>> 32) idx++;
+                    int k = (int)keys[i];
+                    sumX[idx] += k / width;
+                    sumY[idx] += k % width;
+                    sumL[idx] += Y[k];
+                    if (I != null) {
+                        sumI[idx] += I[k];
+                        sumQ[idx] += Q[k];
+                    }
+                    count[idx]++;
                 }
             }
+            cellStart[cells] = bins;
         }
-        if (fastBitmap.isGrayscale()) {
+        
+        private int Bin(float value){
+            return (int)Math.floor(value / binSize);
+        }
+        
+        /**
+         * Mean shift of one pixel, visiting the occupied bins of the neighborhood.
+         * @return Converged color.
+         */
+        float[] Shift(int x, int y){
+            float colorDistance2 = colorDistance * colorDistance;
+            float radius2 = radius * radius;
+            
+            int k = x * width + y;
+            float xc = x;
+            float yc = y;
+            float Yc = Y[k];
+            float Ic = I != null ? I[k] : 0;
+            float Qc = Q != null ? Q[k] : 0;
+            
             float shift;
-            int iters;
-
-            for (int x = 0; x < height; x++) {
-                for (int y = 0; y < width; y++) {
-                    int yc = y;
-                    int xc = x;
-                    int xcOld, ycOld;
-                    float YcOld;
-                    float Yc = fastBitmap.getGray(x, y);
-
-                    iters = 0;
-                    do {
-                        xcOld = xc;
-                        ycOld = yc;
-                        YcOld = Yc;
-
-                        float mx = 0;
-                        float my = 0;
-                        float mY = 0;
-                        int num=0;
-
-                        int radius2 = radius * radius;
-                        float colorDistance2 = colorDistance * colorDistance;
-                        for (int rx=-radius; rx <= radius; rx++) {
-                                int x2 = xc + rx; 
-                                if (x2 >= 0 && x2 < height) {
-                                        for (int ry=-radius; ry <= radius; ry++) {
-                                                int y2 = yc + ry; 
-                                                if (y2 >= 0 && y2 < width) {
-                                                        if (rx*rx + ry*ry <= radius2) {
-
-                                                                float Y2 = fastBitmap.getGray(x2, y2);
-
-                                                                float dY = Yc - Y2;
-
-                                                                if (dY*dY <= colorDistance2) {
-                                                                        mx += x2;
-                                                                        my += y2;
-                                                                        mY += Y2;
-                                                                        num++;
-                                                                }
-                                                        }
-                                                }
-                                        }
-                                }
+            int iters = 0;
+            do {
+                float mx = 0;
+                float my = 0;
+                float mY = 0;
+                float mI = 0;
+                float mQ = 0;
+                int num = 0;
+                
+                int cx0 = Math.max(0, (int)Math.floor((xc - radius) / cellSize));
+                int cx1 = Math.min((height - 1) / cellSize, (int)Math.floor((xc + radius) / cellSize));
+                int cy0 = Math.max(0, (int)Math.floor((yc - radius) / cellSize));
+                int cy1 = Math.min(cellsW - 1, (int)Math.floor((yc + radius) / cellSize));
+                
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    for (int cy = cy0; cy <= cy1; cy++) {
+                        int c = cx * cellsW + cy;
+                        for (int b = cellStart[c]; b < cellStart[c + 1]; b++) {
+                            float n = count[b];
+                            float dx = sumX[b] / n - xc;
+                            float dy = sumY[b] / n - yc;
+                            if (dx*dx + dy*dy > radius2) continue;
+                            
+                            float dY = Yc - sumL[b] / n;
+                            float dI = Ic - sumI[b] / n;
+                            float dQ = Qc - sumQ[b] / n;
+                            if (dY*dY+dI*dI+dQ*dQ <= colorDistance2) {
+                                mx += sumX[b];
+                                my += sumY[b];
+                                mY += sumL[b];
+                                mI += sumI[b];
+                                mQ += sumQ[b];
+                                num += count[b];
+                            }
                         }
-                        float num_ = 1f/num;
-                        Yc = mY*num_;
-                        xc = (int) (mx*num_+0.5);
-                        yc = (int) (my*num_+0.5);
-                        int dx = xc-xcOld;
-                        int dy = yc-ycOld;
-                        float dY = Yc-YcOld;
-
-                        shift = dx*dx+dy*dy+dY*dY;
-                        iters++;
                     }
-                    while (shift > 3 && iters < 100);
-
-                    fastBitmap.setGray(x, y, (int)Yc);
                 }
+                if (num == 0) break;
+                
+                float num_ = 1f/num;
+                float dx = mx*num_ - xc;
+                float dy = my*num_ - yc;
+                float dY = mY*num_ - Yc;
+                float dI = mI*num_ - Ic;
+                float dQ = mQ*num_ - Qc;
+                xc += dx;
+                yc += dy;
+                Yc += dY;
+                Ic += dI;
+                Qc += dQ;
+                
+                shift = dx*dx+dy*dy+dY*dY+dI*dI+dQ*dQ;
+                iters++;
             }
+            while (shift > 3 && iters < 100);
+            
+            return new float[] {Yc, Ic, Qc};
         }
     }
-}
\ No newline at end of file
+}
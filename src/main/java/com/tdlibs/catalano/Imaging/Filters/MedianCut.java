@@ -74,6 +74,27 @@ public class MedianCut implements IApplyInPlace{
         setNumberOfCubes(nCubes);
     }
 
+    /**
+     * Compute the palette of the image, without modifying it.
+     * @param fastBitmap Image.
+     * @return Palette, colors as int representation.
+     */
+    public int[] CreatePalette(FastBitmap fastBitmap){
+        
+        if (fastBitmap.isRGB()) {
+            int ncubes = Partition(fastBitmap.getRGBData());
+            makeInverseMap(hist, ncubes);
+            
+            int[] palette = new int[ncubes];
+            for (int k = 0; k < ncubes; k++) {
+                palette[k] = (rLUT[k] & 0xFF) << 16 | (gLUT[k] & 0xFF) << 8 | (bLUT[k] & 0xFF);
+            }
+            return palette;
+        } else {
+            throw new IllegalArgumentException("Median cut only works in RGB images.");
+        }
+    }
+
     @Override
     public void applyInPlace(FastBitmap fastBitmap) {
         
@@ -82,105 +103,7 @@ public class MedianCut implements IApplyInPlace{
             
             int[] pixels = fastBitmap.getRGBData();
             
-            hist = new int[HSIZE];
-            for (int i = 0; i < pixels.length; i++) {
-                int color16 = rgb(pixels[i]);
-                hist[color16]++;
-            }
-            
-            int lr, lg, lb;
-            int i, median, color;
-            int count;
-            int k, level, ncubes, splitpos;
-            int longdim = 0;	//longest dimension of cube
-            Cube cube, cubeA, cubeB;
-
-            // Create initial cube
-            list = new Cube[256];
-            histPtr = new int[HSIZE];
-            ncubes = 0;
-            cube = new Cube();
-            for (i = 0, color = 0; i <= HSIZE - 1; i++) {
-                if (hist[i] != 0) {
-                    histPtr[color++] = i;
-                    cube.count = cube.count + hist[i];
-                }
-            }
-            cube.lower = 0;
-            cube.upper = color - 1;
-            cube.level = 0;
-            Shrink(cube);
-            list[ncubes++] = cube;
-
-            //Main loop
-            while (ncubes < nCubes) {
-
-                // Search the list of cubes for next cube to split, the lowest level cube
-                level = 255;
-                splitpos = -1;                
-                for (k = 0; k <= ncubes - 1; k++) {
-                    if (list[k].lower == list[k].upper)  
-                                ; // single color; cannot be split
-                    else if (list[k].level < level) {
-                        level = list[k].level;
-                        splitpos = k;
-                    }
-                }
-                if (splitpos == -1) // no more cubes to split
-                {
-                    break;
-                }
-
-                // Find longest dimension of this cube
-                cube = list[splitpos];
-                lr = cube.rmax - cube.rmin;
-                lg = cube.gmax - cube.gmin;
-                lb = cube.bmax - cube.bmin;
-                if (lr >= lg && lr >= lb) {
-                    longdim = 0;
-                }
-                if (lg >= lr && lg >= lb) {
-                    longdim = 1;
-                }
-                if (lb >= lr && lb >= lg) {
-                    longdim = 2;
-                }
-
-                // Sort along "longdim"
-                reorderColors(histPtr, cube.lower, cube.upper, longdim);
-                quickSort(histPtr, cube.lower, cube.upper);
-                restoreColorOrder(histPtr, cube.lower, cube.upper, longdim);
-
-                // Find median
-                count = 0;
-                for (i = cube.lower; i <= cube.upper - 1; i++) {
-                    if (count >= cube.count / 2) {
-                        break;
-                    }
-                    color = histPtr[i];
-                    count = count + hist[color];
-                }
-                median = i;
-
-                // Now split "cube" at the median and add the two new
-                // cubes to the list of cubes.
-                cubeA = new Cube();
-                cubeA.lower = cube.lower;                
-                cubeA.upper = median - 1;
-                cubeA.count = count;
-                cubeA.level = cube.level + 1;
-                Shrink(cubeA);
-                list[splitpos] = cubeA;				// add in old slot
-
-                cubeB = new Cube();
-                cubeB.lower = median;                
-                cubeB.upper = cube.upper;                
-                cubeB.count = cube.count - count;
-                cubeB.level = cube.level + 1;
-                Shrink(cubeB);
-                list[ncubes++] = cubeB;				// add in new slot */
-
-            }
+            int ncubes = Partition(pixels);
             
             makeInverseMap(hist, ncubes);
             
@@ -203,6 +126,116 @@ public class MedianCut implements IApplyInPlace{
         
     }
     
+    /**
+     * Split the color histogram of the pixels into cubes.
+     * @param pixels RGB pixels.
+     * @return Number of cubes.
+     */
+    private int Partition(int[] pixels){
+        
+        hist = new int[HSIZE];
+        for (int i = 0; i < pixels.length; i++) {
+            int color16 = rgb(pixels[i]);
+            hist[color16]++;
+        }
+        
+        int lr, lg, lb;
+        int i, median, color;
+        int count;
+        int k, level, ncubes, splitpos;
+        int longdim = 0;	//longest dimension of cube
+        Cube cube, cubeA, cubeB;
+
+        // Create initial cube
+        list = new Cube[256];
+        histPtr = new int[HSIZE];
+        ncubes = 0;
+        cube = new Cube();
+        for (i = 0, color = 0; i <= HSIZE - 1; i++) {
+            if (hist[i] != 0) {
+                histPtr[color++] = i;
+                cube.count = cube.count + hist[i];
+            }
+        }
+        cube.lower = 0;
+        cube.upper = color - 1;
+        cube.level = 0;
+        Shrink(cube);
+        list[ncubes++] = cube;
+
+        //Main loop
+        while (ncubes < nCubes) {
+
+            // Search the list of cubes for next cube to split, the lowest level cube
+            level = 255;
+            splitpos = -1;                
+            for (k = 0; k <= ncubes - 1; k++) {
+                if (list[k].lower == list[k].upper)  
+                            ; // single color; cannot be split
+                else if (list[k].level < level) {
+                    level = list[k].level;
+                    splitpos = k;
+                }
+            }
+            if (splitpos == -1) // no more cubes to split
+            {
+                break;
+            }
+
+            // Find longest dimension of this cube
+            cube = list[splitpos];
+            lr = cube.rmax - cube.rmin;
+            lg = cube.gmax - cube.gmin;
+            lb = cube.bmax - cube.bmin;
+            if (lr >= lg && lr >= lb) {
+                longdim = 0;
+            }
+            if (lg >= lr && lg >= lb) {
+                longdim = 1;
+            }
+            if (lb >= lr && lb >= lg) {
+                longdim = 2;
+            }
+
+            // Sort along "longdim"
+            reorderColors(histPtr, cube.lower, cube.upper, longdim);
+            quickSort(histPtr, cube.lower, cube.upper);
+            restoreColorOrder(histPtr, cube.lower, cube.upper, longdim);
+
+            // Find median
+            count = 0;
+            for (i = cube.lower; i <= cube.upper - 1; i++) {
+                if (count >= cube.count / 2) {
+                    break;
+                }
+                color = histPtr[i];
+                count = count + hist[color];
+            }
+            median = i;
+
+            // Now split "cube" at the median and add the two new
+            // cubes to the list of cubes.
+            cubeA = new Cube();
+            cubeA.lower = cube.lower;                
+            cubeA.upper = median - 1;
+            cubeA.count = count;
+            cubeA.level = cube.level + 1;
+            Shrink(cubeA);
+            list[splitpos] = cubeA;				// add in old slot
+
+            cubeB = new Cube();
+            cubeB.lower = median;                
+            cubeB.upper = cube.upper;                
+            cubeB.count = cube.count - count;
+            cubeB.level = cube.level + 1;
+            Shrink(cubeB);
+            list[ncubes++] = cubeB;				// add in new slot */
+
+        }
+        
+        return ncubes;
+    }
+    
     // Convert from 24-bit to 15-bit color
     private final int rgb(int c) {
         int r = (c&0xf80000)>>19;
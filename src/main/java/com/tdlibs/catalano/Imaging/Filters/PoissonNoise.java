@@ -27,6 +27,8 @@ package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
 import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Math.Random.Xoshiro256StarStar;
+import com.tdlibs.catalano.Statistics.Distributions.RandomSampler;
 
 /**
  * Poisson Noise.
@@ -39,13 +41,17 @@ public class PoissonNoise implements IApplyInPlace{
     @Override
     public void applyInPlace(FastBitmap fastBitmap) {
         
+        // Each value is drawn from a Poisson distribution with the pixel value as mean.
+        Xoshiro256StarStar rng = new Xoshiro256StarStar();
+        
         if(fastBitmap.isGrayscale()){
             
             int size = fastBitmap.getSize();
             
             for (int i = 0; i < size; i++) {
                 int g = fastBitmap.getGray(i);
-                g = Poisson(g);
+                g = RandomSampler.Poisson(g, rng);
+                g = g > 255 ? 255 : g;
                 fastBitmap.setGray(i, g);
             }
             
@@ -58,18 +64,14 @@ public class PoissonNoise implements IApplyInPlace{
                 int g = fastBitmap.getGreen(i);
                 int b = fastBitmap.getBlue(i);
 
-                r = Poisson(r);
-                g = Poisson(g);
-                b = Poisson(b);
+                r = RandomSampler.Poisson(r, rng);
+                g = RandomSampler.Poisson(g, rng);
+                b = RandomSampler.Poisson(b, rng);
 
                 r = r > 255 ? 255 : r;
                 g = g > 255 ? 255 : g;
                 b = b > 255 ? 255 : b;
 
-                r = r < 0 ? 0 : r;
-                g = g < 0 ? 0 : g;
-                b = b < 0 ? 0 : b;
-
                 fastBitmap.setRGB(i, r, g, b);
             }
         }
@@ -78,17 +80,4 @@ public class PoissonNoise implements IApplyInPlace{
         }
         
     }
-    
-   private int Poisson(float value) {
-
-      double L = Math.exp(-(value));
-      int k = 0;
-      double p = 1;
-      do {
-         k++;
-         // Generate uniform random number u in [0,1] and let p ← p × u.
-         p *= Math.random();
-      } while (p >= L);
-      return (k - 1);
-   }
-}
\ No newline at end of file
+}
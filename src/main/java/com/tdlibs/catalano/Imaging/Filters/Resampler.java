@@ -0,0 +1,553 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Filters;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.Tools.Interpolation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Resampling engine shared by the resize, rotate and pyramid filters.
+ *
+ * <p>The separable resampling precomputes, for each axis, the source indexes and the fixed point weights of every
+ * destination row and column. The image is filtered first along the rows and then along the columns.
+ * The rotation precomputes the bicubic weights for 1/256 pixel steps and walks the source coordinates in fixed point.
+ * The rows are processed in parallel.</p>
+ *
+ * <p>Supported types: Grayscale, RGB and ARGB (the alpha is resampled as a channel).</p>
+ *
+ * @author Diego catalano
+ */
+final class Resampler {
+
+    /**
+     * Resampling kernel.
+     */
+    static enum Kernel {
+        /**
+         * Bilinear, samples at (i * scale).
+         */
+        Bilinear,
+        /**
+         * Bicubic (a = -0.5), samples at (i * scale - 0.5).
+         */
+        Bicubic,
+        /**
+         * Lanczos with 3 lobes, stretched by the scale when downscaling.
+         */
+        Lanczos,
+        /**
+         * Area average, each destination pixel is the mean of the source pixels that it covers.
+         */
+        Area
+    };
+
+    // fixed point precision of the weights
+    private static final int BITS = 14;
+    private static final int ONE = 1 << BITS;
+
+    // extra precision of the intermediate rows
+    private static final int EXTRA = 7;
+
+    // fixed point precision of the rotated coordinates
+    private static final int COORD = 16;
+
+    // bicubic weights of the 4 taps, for 1/256 pixel steps
+    private static final int[][] BICUBIC = new int[257][4];
+
+    // minimum number of pixels to process the rows in parallel
+    private static final int PARALLEL_SIZE = 128 * 128;
+
+    static {
+        for (int f = 0; f <= 256; f++) {
+            double d = f / 256D;
+            double[] w = new double[4];
+            for (int m = -1; m < 3; m++) {
+                w[m + 1] = Interpolation.BiCubicKernel(m - d);
+            }
+            BICUBIC[f] = Normalize(w);
+        }
+    }
+
+    private Resampler() {}
+
+    /**
+     * Index and weight tables of one axis.
+     */
+    static final class Table {
+
+        /**
+         * Number of taps of each destination pixel.
+         */
+        final int taps;
+
+        /**
+         * Source indexes, [destination * taps + tap].
+         */
+        final int[] index;
+
+        /**
+         * Fixed point weights, [destination * taps + tap]. The weights of each destination sum 1 &lt;&lt; 14.
+         */
+        final int[] weight;
+
+        Table(int size, int taps) {
+            this.taps = taps;
+            this.index = new int[size * taps];
+            this.weight = new int[size * taps];
+        }
+
+        int size(){
+            return index.length / taps;
+        }
+    }
+
+    /**
+     * Create the table to resample an axis.
+     * @param srcSize Source size.
+     * @param dstSize Destination size.
+     * @param kernel Kernel.
+     * @return Table.
+     */
+    static Table Table(int srcSize, int dstSize, Kernel kernel){
+        double scale = (double)srcSize / (double)dstSize;
+        int max = srcSize - 1;
+
+        switch(kernel){
+            case Bilinear: {
+                Table t = new Table(dstSize, 2);
+                for (int i = 0; i < dstSize; i++) {
+                    double o = (double) i * scale;
+                    int o1 = (int) o;
+                    int o2 = ( o1 == max ) ? o1 : o1 + 1;
+                    int[] w = Normalize(new double[] {1.0 - (o - o1), o - o1});
+                    Set(t, i, 0, o1, w[0]);
+                    Set(t, i, 1, o2, w[1]);
+                }
+                return t;
+            }
+            case Bicubic: {
+                Table t = new Table(dstSize, 4);
+                for (int i = 0; i < dstSize; i++) {
+                    double o = (double) i * scale - 0.5;
+                    int o1 = (int) o;
+                    double d = o - o1;
+                    double[] k = new double[4];
+                    for (int m = -1; m < 3; m++) {
+                        k[m + 1] = Interpolation.BiCubicKernel(m - d);
+                    }
+                    int[] w = Normalize(k);
+                    for (int m = -1; m < 3; m++) {
+                        Set(t, i, m + 1, Math.max(0, Math.min(max, o1 + m)), w[m + 1]);
+                    }
+                }
+                return t;
+            }
+            case Lanczos: {
+                double stretch = Math.max(1, scale);
+                double support = 3 * stretch;
+                int taps = (int)Math.ceil(support) * 2 + 1;
+                Table t = new Table(dstSize, taps);
+                for (int i = 0; i < dstSize; i++) {
+                    double center = (i + 0.5) * scale - 0.5;
+                    int first = (int)Math.floor(center - support) + 1;
+                    double[] k = new double[taps];
+                    for (int n = 0; n < taps; n++) {
+                        k[n] = Lanczos((first + n - center) / stretch, 3);
+                    }
+                    int[] w = Normalize(k);
+                    for (int n = 0; n < taps; n++) {
+                        Set(t, i, n, Math.max(0, Math.min(max, first + n)), w[n]);
+                    }
+                }
+                return t;
+            }
+            default: {
+                int taps = (int)Math.ceil(scale) + 1;
+                Table t = new Table(dstSize, taps);
+                for (int i = 0; i < dstSize; i++) {
+                    double start = i * scale;
+                    double end = Math.min(srcSize, (i + 1) * scale);
+                    int first = (int)Math.floor(start);
+                    double[] k = new double[taps];
+                    for (int n = 0; n < taps; n++) {
+                        double a = Math.max(start, first + n);
+                        double b = Math.min(end, first + n + 1);
+                        k[n] = Math.max(0, b - a);
+                    }
+                    int[] w = Normalize(k);
+                    for (int n = 0; n < taps; n++) {
+                        Set(t, i, n, Math.max(0, Math.min(max, first + n)), w[n]);
+                    }
+                }
+                return t;
+            }
+        }
+    }
+
+    /**
+     * Create the table to filter with a kernel and keep one of each factor samples.
+     * The borders are replicated.
+     * @param srcSize Source size.
+     * @param factor Decimation factor.
+     * @param kernel Kernel, centered.
+     * @return Table.
+     */
+    static Table Decimate(int srcSize, int factor, double[] kernel){
+        int dstSize = srcSize / factor;
+        int radius = kernel.length / 2;
+        int[] w = Normalize(kernel);
+
+        Table t = new Table(dstSize, kernel.length);
+        for (int i = 0; i < dstSize; i++) {
+            for (int n = 0; n < kernel.length; n++) {
+                Set(t, i, n, Math.max(0, Math.min(srcSize - 1, i * factor + n - radius)), w[n]);
+            }
+        }
+        return t;
+    }
+
+    private static void Set(Table t, int i, int tap, int index, int weight){
+        t.index[i * t.taps + tap] = index;
+        t.weight[i * t.taps + tap] = weight;
+    }
+
+    /**
+     * Convert the weights to fixed point, the sum is exactly one.
+     */
+    private static int[] Normalize(double[] k){
+        double sum = 0;
+        for (double v : k) sum += v;
+        if (sum == 0) sum = 1;
+
+        int[] w = new int[k.length];
+        int total = 0, largest = 0;
+        for (int i = 0; i < k.length; i++) {
+            w[i] = (int)Math.round(k[i] / sum * ONE);
+            total += w[i];
+            if (Math.abs(k[i]) > Math.abs(k[largest])) largest = i;
+        }
+        w[largest] += ONE - total;
+        return w;
+    }
+
+    private static double Lanczos(double x, int lobes){
+        if (x == 0) return 1;
+        if (x <= -lobes || x >= lobes) return 0;
+        double px = Math.PI * x;
+        return lobes * Math.sin(px) * Math.sin(px / lobes) / (px * px);
+    }
+
+    /**
+     * Resample the image.
+     * @param fastBitmap Image to be resampled.
+     * @param rows Table of the rows (height).
+     * @param cols Table of the columns (width).
+     * @return Resampled image.
+     */
+    static FastBitmap Resample(final FastBitmap fastBitmap, final Table rows, final Table cols){
+        final int height = fastBitmap.getHeight();
+        final int newWidth = cols.size();
+        final int newHeight = rows.size();
+        final int channels = Channels(fastBitmap);
+        final int origin = fastBitmap.getOrigin();
+        final int stride = fastBitmap.getStride();
+        final boolean gray = channels == 1;
+        final byte[] srcGray = gray ? fastBitmap.getGrayBuffer() : null;
+        final int[] srcRGB = gray ? null : fastBitmap.getRGBBuffer();
+        final int rowLength = newWidth * channels;
+
+        // first pass: rows, with extra precision
+        final int[] tmp = new int[height * rowLength];
+        Rows(height, (long)height * newWidth, new Band() {
+            @Override
+            public void Process(int start, int end) {
+                int round = 1 << (BITS - EXTRA - 1);
+                int shift = BITS - EXTRA;
+                for (int x = start; x < end; x++) {
+                    int src = origin + x * stride;
+                    int dst = x * rowLength;
+                    for (int y = 0, k = 0; y < newWidth; y++, k += cols.taps) {
+                        if (gray){
+                            int acc = 0;
+                            for (int n = 0; n < cols.taps; n++) {
+                                acc += cols.weight[k + n] * (srcGray[src + cols.index[k + n]] & 0xFF);
+                            }
+                            tmp[dst++] = (acc + round) >> shift;
+                        }
+                        else{
+                            int r = 0, g = 0, b = 0, a = 0;
+                            for (int n = 0; n < cols.taps; n++) {
+                                int w = cols.weight[k + n];
+                                int p = srcRGB[src + cols.index[k + n]];
+                                r += w * (p >> 16 & 0xFF);
+                                g += w * (p >> 8 & 0xFF);
+                                b += w * (p & 0xFF);
+                                a += w * (p >>> 24);
+                            }
+                            tmp[dst++] = (r + round) >> shift;
+                            tmp[dst++] = (g + round) >> shift;
+                            tmp[dst++] = (b + round) >> shift;
+                            if (channels == 4) tmp[dst++] = (a + round) >> shift;
+                        }
+                    }
+                }
+            }
+        });
+
+        // second pass: columns
+        final FastBitmap dest = new FastBitmap(newWidth, newHeight, fastBitmap.getColorSpace());
+        final byte[] dstGray = gray ? dest.getGrayData() : null;
+        final int[] dstRGB = gray ? null : dest.getRGBData();
+        Rows(newHeight, (long)newHeight * newWidth, new Band() {
+            @Override
+            public void Process(int start, int end) {
+                int round = 1 << (BITS + EXTRA - 1);
+                int shift = BITS + EXTRA;
+                int[] offset = new int[rows.taps];
+                int[] weight = new int[rows.taps];
+                int[] v = new int[4];
+                for (int x = start; x < end; x++) {
+                    for (int n = 0; n < rows.taps; n++) {
+                        offset[n] = rows.index[x * rows.taps + n] * rowLength;
+                        weight[n] = rows.weight[x * rows.taps + n];
+                    }
+                    int dst = x * newWidth;
+                    for (int y = 0, t = 0; y < newWidth; y++) {
+                        for (int c = 0; c < channels; c++, t++) {
+                            int acc = 0;
+                            for (int n = 0; n < rows.taps; n++) {
+                                acc += weight[n] * tmp[offset[n] + t];
+                            }
+                            v[c] = Clamp((acc + round) >> shift);
+                        }
+                        if (gray)
+                            dstGray[dst + y] = (byte)v[0];
+                        else
+                            dstRGB[dst + y] = (channels == 4 ? v[3] << 24 : 0) | v[0] << 16 | v[1] << 8 | v[2];
+                    }
+                }
+            }
+        });
+
+        return dest;
+    }
+
+    /**
+     * Rotate the image around its center.
+     * @param fastBitmap Image to be rotated.
+     * @param angle Angle in degrees.
+     * @param newWidth Width of the destination.
+     * @param newHeight Height of the destination.
+     * @param bicubic True for bicubic interpolation, false for bilinear.
+     * @param fill Fill color of each channel.
+     * @return Rotated image.
+     */
+    static FastBitmap Rotate(final FastBitmap fastBitmap, double angle, final int newWidth, final int newHeight, final boolean bicubic, final int[] fill){
+        final int width = fastBitmap.getWidth();
+        final int height = fastBitmap.getHeight();
+        final int channels = Channels(fastBitmap);
+        final int origin = fastBitmap.getOrigin();
+        final int stride = fastBitmap.getStride();
+        final boolean gray = channels == 1;
+        final byte[] srcGray = gray ? fastBitmap.getGrayBuffer() : null;
+        final int[] srcRGB = gray ? null : fastBitmap.getRGBBuffer();
+        final int filler = gray ? fill[0] : (channels == 4 ? fill[3] << 24 : 0) | fill[0] << 16 | fill[1] << 8 | fill[2];
+
+        final double oldIradius = (double) ( height  - 1 ) / 2;
+        final double oldJradius = (double) ( width - 1 ) / 2;
+        final double newIradius = (double) ( newHeight  - 1 ) / 2;
+        final double newJradius = (double) ( newWidth - 1 ) / 2;
+
+        // angle's sine and cosine
+        double angleRad = -angle * Math.PI / 180;
+        final double angleCos = Math.cos( angleRad );
+        final double angleSin = Math.sin( angleRad );
+        final int stepI = (int)Math.round(angleSin * (1 << COORD));
+        final int stepJ = (int)Math.round(angleCos * (1 << COORD));
+
+        final FastBitmap dest = new FastBitmap(newWidth, newHeight, fastBitmap.getColorSpace());
+        final byte[] dstGray = gray ? dest.getGrayData() : null;
+        final int[] dstRGB = gray ? null : dest.getRGBData();
+
+        Rows(newHeight, (long)newHeight * newWidth, new Band() {
+            @Override
+            public void Process(int start, int end) {
+                int imax = height - 1;
+                int jmax = width - 1;
+                int mask = (1 << COORD) - 1;
+                int[] v = new int[4];
+                int[] p = new int[4];
+
+                for (int i = start; i < end; i++) {
+                    double ci = i - newIradius;
+                    double cj = -newJradius;
+
+                    // source coordinates of the first pixel of the row
+                    long oi = Math.round((angleCos * ci + angleSin * cj + oldIradius) * (1 << COORD));
+                    long oj = Math.round((-angleSin * ci + angleCos * cj + oldJradius) * (1 << COORD));
+
+                    int dst = i * newWidth;
+                    for (int j = 0; j < newWidth; j++, oi += stepI, oj += stepJ, dst++) {
+                        // truncation towards zero, as (int) of the coordinate
+                        int oi1 = (int)(oi >= 0 ? oi >> COORD : -((-oi) >> COORD));
+                        int oj1 = (int)(oj >= 0 ? oj >> COORD : -((-oj) >> COORD));
+
+                        if ( ( oi1 < 0 ) || ( oj1 < 0 ) || ( oi1 >= height ) || ( oj1 >= width ) ){
+                            if (gray) dstGray[dst] = (byte)filler;
+                            else dstRGB[dst] = filler;
+                            continue;
+                        }
+
+                        // fraction in 1/256 pixel, zero in (-1, 0)
+                        int fi = oi < 0 ? 0 : (int)((oi & mask) >> (COORD - 8));
+                        int fj = oj < 0 ? 0 : (int)((oj & mask) >> (COORD - 8));
+
+                        if (bicubic){
+                            int[] wi = BICUBIC[fi];
+                            int[] wj = BICUBIC[fj];
+                            long r = 0, g = 0, b = 0, a = 0;
+                            for (int m = -1; m < 3; m++) {
+                                int row = origin + Math.max(0, Math.min(imax, oi1 + m)) * stride;
+                                int rr = 0, rg = 0, rb = 0, ra = 0;
+                                for (int n = -1; n < 3; n++) {
+                                    int w = wj[n + 1];
+                                    int col = Math.max(0, Math.min(jmax, oj1 + n));
+                                    if (gray){
+                                        rr += w * (srcGray[row + col] & 0xFF);
+                                    }
+                                    else{
+                                        int px = srcRGB[row + col];
+                                        rr += w * (px >> 16 & 0xFF);
+                                        rg += w * (px >> 8 & 0xFF);
+                                        rb += w * (px & 0xFF);
+                                        ra += w * (px >>> 24);
+                                    }
+                                }
+                                int w = wi[m + 1];
+                                r += (long)w * rr;
+                                g += (long)w * rg;
+                                b += (long)w * rb;
+                                a += (long)w * ra;
+                            }
+                            long round = 1L << (2 * BITS - 1);
+                            v[0] = Clamp((int)((r + round) >> (2 * BITS)));
+                            v[1] = Clamp((int)((g + round) >> (2 * BITS)));
+                            v[2] = Clamp((int)((b + round) >> (2 * BITS)));
+                            v[3] = Clamp((int)((a + round) >> (2 * BITS)));
+                        }
+                        else{
+                            int oi2 = ( oi1 == imax ) ? oi1 : oi1 + 1;
+                            int oj2 = ( oj1 == jmax ) ? oj1 : oj1 + 1;
+                            int r1 = origin + oi1 * stride;
+                            int r2 = origin + oi2 * stride;
+                            if (gray){
+                                p[0] = srcGray[r1 + oj1] & 0xFF;
+                                p[1] = srcGray[r1 + oj2] & 0xFF;
+                                p[2] = srcGray[r2 + oj1] & 0xFF;
+                                p[3] = srcGray[r2 + oj2] & 0xFF;
+                                v[0] = Bilinear(p[0], p[1], p[2], p[3], fi, fj);
+                            }
+                            else{
+                                p[0] = srcRGB[r1 + oj1];
+                                p[1] = srcRGB[r1 + oj2];
+                                p[2] = srcRGB[r2 + oj1];
+                                p[3] = srcRGB[r2 + oj2];
+                                for (int c = 0, s = 16; c < 4; c++, s -= 8) {
+                                    // s = -8 is the alpha
+                                    int sh = s < 0 ? 24 : s;
+                                    v[c] = Bilinear(p[0] >>> sh & 0xFF, p[1] >>> sh & 0xFF, p[2] >>> sh & 0xFF, p[3] >>> sh & 0xFF, fi, fj);
+                                }
+                            }
+                        }
+
+                        if (gray)
+                            dstGray[dst] = (byte)v[0];
+                        else
+                            dstRGB[dst] = (channels == 4 ? v[3] << 24 : 0) | v[0] << 16 | v[1] << 8 | v[2];
+                    }
+                }
+            }
+        });
+
+        return dest;
+    }
+
+    /**
+     * Bilinear interpolation with the fractions in 1/256 pixel.
+     */
+    private static int Bilinear(int p1, int p2, int p3, int p4, int fi, int fj){
+        int top = p1 * (256 - fj) + p2 * fj;
+        int bottom = p3 * (256 - fj) + p4 * fj;
+        return (top * (256 - fi) + bottom * fi + (1 << 15)) >> 16;
+    }
+
+    private static int Channels(FastBitmap fastBitmap){
+        if (fastBitmap.isGrayscale()) return 1;
+        if (fastBitmap.isARGB()) return 4;
+        return 3;
+    }
+
+    private static int Clamp(int value){
+        return value < 0 ? 0 : value > 255 ? 255 : value;
+    }
+
+    /**
+     * Work over a band of rows.
+     */
+    private interface Band {
+        void Process(int start, int end);
+    }
+
+    /**
+     * Process the rows, in parallel for large images.
+     */
+    private static void Rows(int rows, long size, final Band band){
+        int tasks = size >= PARALLEL_SIZE ? Math.min(MulticoreExecutor.getThreadPoolSize(), rows) : 1;
+        if (tasks <= 1){
+            band.Process(0, rows);
+            return;
+        }
+
+        List<Callable<Void>> lst = new ArrayList<Callable<Void>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int start = t * rows / tasks;
+            final int end = (t + 1) * rows / tasks;
+            lst.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    band.Process(start, end);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            MulticoreExecutor.run(lst);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
@@ -47,7 +47,15 @@ public class Resize implements IApply, IApplyInPlace{
         /**
          * Nearest Neighbor.
          */
-        NEAREST_NEIGHBOR};
+        NEAREST_NEIGHBOR,
+        /**
+         * Lanczos (3 lobes), the kernel is stretched when downscaling.
+         */
+        LANCZOS,
+        /**
+         * Area average, recommended for large reductions.
+         */
+        AREA};
     
     private Algorithm algorithm;
     private int newWidth, newHeight;
@@ -126,6 +134,10 @@ public class Resize implements IApply, IApplyInPlace{
             case BICUBIC:
                 ResizeBicubic rBicubic = new ResizeBicubic(newWidth, newHeight);
                 return rBicubic.apply(fastBitmap);
+            case LANCZOS:
+                return Resample(fastBitmap, Resampler.Kernel.Lanczos);
+            case AREA:
+                return Resample(fastBitmap, Resampler.Kernel.Area);
             default:
                 ResizeNearestNeighbor rNearest = new ResizeNearestNeighbor(newWidth, newHeight);
                 return rNearest.apply(fastBitmap);
@@ -148,7 +160,16 @@ public class Resize implements IApply, IApplyInPlace{
                 ResizeNearestNeighbor rNearest = new ResizeNearestNeighbor(newWidth, newHeight);
                 rNearest.applyInPlace(fastBitmap);
                 break;
+            default:
+                fastBitmap.setImage(apply(fastBitmap));
+                break;
         }
         
     }
+    
+    private FastBitmap Resample(FastBitmap fastBitmap, Resampler.Kernel kernel){
+        return Resampler.Resample(fastBitmap,
+                Resampler.Table(fastBitmap.getHeight(), newHeight, kernel),
+                Resampler.Table(fastBitmap.getWidth(), newWidth, kernel));
+    }
 }
\ No newline at end of file
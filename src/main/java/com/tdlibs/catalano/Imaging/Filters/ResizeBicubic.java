@@ -28,7 +28,6 @@ package com.tdlibs.catalano.Imaging.Filters;
 import com.tdlibs.catalano.Imaging.FastBitmap;
 import com.tdlibs.catalano.Imaging.IApply;
 import com.tdlibs.catalano.Imaging.IApplyInPlace;
-import com.tdlibs.catalano.Imaging.Tools.Interpolation;
 
 /**
  * Resize image using bicubic interpolation algorithm.
@@ -99,142 +98,9 @@ public class ResizeBicubic implements IApply, IApplyInPlace{
 
     @Override
     public FastBitmap apply(FastBitmap fastBitmap) {
-        
-        FastBitmap dest = new FastBitmap(newWidth, newHeight, fastBitmap.getColorSpace());
-        
-        if (fastBitmap.isGrayscale()){
-            
-            int width = fastBitmap.getWidth();
-            int height = fastBitmap.getHeight();
-            double jFactor = (double)width / (double)newWidth;
-            double iFactor = (double)height / (double)newHeight;
-            
-            // coordinates of source points
-            double  ox, oy, dx, dy, k1, k2;
-            int     ox1, oy1, ox2, oy2;
-            
-            // width and height decreased by 1
-            int imax = height - 1;
-            int jmax = width - 1;
-            
-            for (int i = 0; i < newHeight; i++) {
-                
-                // Y coordinates
-                oy  = (double) i * iFactor - 0.5;
-                oy1 = (int) oy;
-                dy  = oy - (double) oy1;
-                
-                for (int j = 0; j < newWidth; j++) {
-                    
-                    // X coordinates
-                    ox  = (double) j * jFactor - 0.5f;
-                    ox1 = (int) ox;
-                    dx  = ox - (double) ox1;
-                    
-                    int g = 0;
-                    
-                    for ( int n = -1; n < 3; n++ ){
-                        // get Y cooefficient
-                        k1 = Interpolation.BiCubicKernel( dy - (double) n );
-
-                        oy2 = oy1 + n;
-                        if ( oy2 < 0 )
-                            oy2 = 0;
-                        if ( oy2 > imax )
-                            oy2 = imax;
-
-                        for ( int m = -1; m < 3; m++ )
-                        {
-                            // get X cooefficient
-                            k2 = k1 * Interpolation.BiCubicKernel( (double) m - dx );
-
-                            ox2 = ox1 + m;
-                            if ( ox2 < 0 )
-                                ox2 = 0;
-                            if ( ox2 > jmax )
-                                ox2 = jmax;
-
-                            g += k2 * fastBitmap.getGray(oy2, ox2);
-                        }
-                    }
-                    
-                    g = Math.max( 0, Math.min( 255, g ) );
-                    
-                    dest.setGray(i, j, g);
-                }
-                
-            }
-            
-            return dest;
-        }
-        else{
-            int width = fastBitmap.getWidth();
-            int height = fastBitmap.getHeight();
-            double jFactor = (double)width / (double)newWidth;
-            double iFactor = (double)height / (double)newHeight;
-            
-            // coordinates of source points
-            double  ox, oy, dx, dy, k1, k2;
-            int     ox1, oy1, ox2, oy2;
-            
-            // width and height decreased by 1
-            int imax = height - 1;
-            int jmax = width - 1;
-            
-            for (int i = 0; i < newHeight; i++) {
-                
-                // Y coordinates
-                oy  = (double) i * iFactor - 0.5;
-                oy1 = (int) oy;
-                dy  = oy - (double) oy1;
-                
-                for (int j = 0; j < newWidth; j++) {
-                    
-                    // X coordinates
-                    ox  = (double) j * jFactor - 0.5f;
-                    ox1 = (int) ox;
-                    dx  = ox - (double) ox1;
-                    
-                    int r, g, b;
-                    r = g = b = 0;
-                    
-                    for ( int n = -1; n < 3; n++ ){
-                        
-                        // get Y cooefficient
-                        k1 = Interpolation.BiCubicKernel( dy - (double) n );
-
-                        oy2 = oy1 + n;
-                        if ( oy2 < 0 )
-                            oy2 = 0;
-                        if ( oy2 > imax )
-                            oy2 = imax;
-
-                        for ( int m = -1; m < 3; m++ ){
-                            
-                            // get X cooefficient
-                            k2 = k1 * Interpolation.BiCubicKernel( (double) m - dx );
-
-                            ox2 = ox1 + m;
-                            if ( ox2 < 0 )
-                                ox2 = 0;
-                            if ( ox2 > jmax )
-                                ox2 = jmax;
-
-                            r += k2 * fastBitmap.getRed(oy2, ox2);
-                            g += k2 * fastBitmap.getGreen(oy2, ox2);
-                            b += k2 * fastBitmap.getBlue(oy2, ox2);
-                        }
-                    }
-                    
-                    r = Math.max( 0, Math.min( 255, r ) );
-                    g = Math.max( 0, Math.min( 255, g ) );
-                    b = Math.max( 0, Math.min( 255, b ) );
-                    
-                    dest.setRGB(i, j, r, g, b);
-                }
-            }
-            return dest;
-        }
+        return Resampler.Resample(fastBitmap,
+                Resampler.Table(fastBitmap.getHeight(), newHeight, Resampler.Kernel.Bicubic),
+                Resampler.Table(fastBitmap.getWidth(), newWidth, Resampler.Kernel.Bicubic));
     }
 
     @Override
@@ -96,136 +96,9 @@ public class ResizeBilinear implements IApply, IApplyInPlace{
 
     @Override
     public FastBitmap apply(FastBitmap fastBitmap) {
-        
-        FastBitmap dest = new FastBitmap(newWidth, newHeight, fastBitmap.getColorSpace());
-        
-        if (fastBitmap.isGrayscale()){
-            
-            int width = fastBitmap.getWidth();
-            int height = fastBitmap.getHeight();
-            double jFactor = (double)width / (double)newWidth;
-            double iFactor = (double)height / (double)newHeight;
-            
-            // coordinates of source points
-            double  ox, oy, dx1, dy1, dx2, dy2;
-            int     ox1, oy1, ox2, oy2;
-            // width and height decreased by 1
-            int imax = height - 1;
-            int jmax = width - 1;
-            // temporary values
-            int tp1, tp2;
-            int p1, p2, p3, p4;
-            
-            for (int i = 0; i < newHeight; i++) {
-                
-                // Y coordinates
-                oy  = (double) i * iFactor;
-                oy1 = (int) oy;
-                oy2 = ( oy1 == imax ) ? oy1 : oy1 + 1;
-                dy1 = oy - (double) oy1;
-                dy2 = 1.0 - dy1;
-
-                // get temp pointers
-                tp1 = oy1;
-                tp2 = oy2;
-                
-                for (int j = 0; j < newWidth; j++) {
-                    // X coordinates
-                    ox  = (double) j * jFactor;
-                    ox1 = (int) ox;
-                    ox2 = ( ox1 == jmax ) ? ox1 : ox1 + 1;
-                    dx1 = ox - (double) ox1;
-                    dx2 = 1.0 - dx1;
-
-                    // get four points
-                    p1 = fastBitmap.getGray(tp1, ox1);//tp1 + ox1;
-                    p2 = fastBitmap.getGray(tp1, ox2);//tp1 + ox2;
-                    p3 = fastBitmap.getGray(tp2, ox1);//tp2 + ox1;
-                    p4 = fastBitmap.getGray(tp2, ox2);//tp2 + ox2;
-                    
-                    int g = (int)(
-                            dy2 * ( dx2 * ( p1 ) + dx1 * ( p2 ) ) +
-                            dy1 * ( dx2 * ( p3 ) + dx1 * ( p4 ) ) );
-                    
-                    dest.setGray(i, j, g);
-                }
-            }
-            return dest;
-        }
-        else{
-            int width = fastBitmap.getWidth();
-            int height = fastBitmap.getHeight();
-            double jFactor = (double)width / (double)newWidth;
-            double iFactor = (double)height / (double)newHeight;
-            
-            // coordinates of source points
-            double  ox, oy, dx1, dy1, dx2, dy2;
-            int     ox1, oy1, ox2, oy2;
-            // width and height decreased by 1
-            int imax = height - 1;
-            int jmax = width - 1;
-            // temporary values
-            int tp1, tp2;
-            int p1, p2, p3, p4;
-            
-            for (int i = 0; i < newHeight; i++) {
-                
-                // Y coordinates
-                oy  = (double) i * iFactor;
-                oy1 = (int) oy;
-                oy2 = ( oy1 == imax ) ? oy1 : oy1 + 1;
-                dy1 = oy - (double) oy1;
-                dy2 = 1.0 - dy1;
-
-                // get temp pointers
-                tp1 = oy1;
-                tp2 = oy2;
-                
-                for (int j = 0; j < newWidth; j++) {
-                    // X coordinates
-                    ox  = (double) j * jFactor;
-                    ox1 = (int) ox;
-                    ox2 = ( ox1 == jmax ) ? ox1 : ox1 + 1;
-                    dx1 = ox - (double) ox1;
-                    dx2 = 1.0 - dx1;
-
-                    // get four points in red channel
-                    p1 = fastBitmap.getRed(tp1, ox1);
-                    p2 = fastBitmap.getRed(tp1, ox2);
-                    p3 = fastBitmap.getRed(tp2, ox1);
-                    p4 = fastBitmap.getRed(tp2, ox2);
-                    
-                    int r = (int)(
-                            dy2 * ( dx2 * ( p1 ) + dx1 * ( p2 ) ) +
-                            dy1 * ( dx2 * ( p3 ) + dx1 * ( p4 ) ) );
-                    
-                    // get four points in green channel
-                    p1 = fastBitmap.getGreen(tp1, ox1);
-                    p2 = fastBitmap.getGreen(tp1, ox2);
-                    p3 = fastBitmap.getGreen(tp2, ox1);
-                    p4 = fastBitmap.getGreen(tp2, ox2);
-                    
-                    int g = (int)(
-                            dy2 * ( dx2 * ( p1 ) + dx1 * ( p2 ) ) +
-                            dy1 * ( dx2 * ( p3 ) + dx1 * ( p4 ) ) );
-                    
-                    // get four points in blue channel
-                    p1 = fastBitmap.getBlue(tp1, ox1);
-                    p2 = fastBitmap.getBlue(tp1, ox2);
-                    p3 = fastBitmap.getBlue(tp2, ox1);
-                    p4 = fastBitmap.getBlue(tp2, ox2);
-                    
-                    int b = (int)(
-                            dy2 * ( dx2 * ( p1 ) + dx1 * ( p2 ) ) +
-                            dy1 * ( dx2 * ( p3 ) + dx1 * ( p4 ) ) );
-                    
-                    
-                    
-                    dest.setRGB(i, j, r, g, b);
-                }
-            }
-            return dest;
-        }
+        return Resampler.Resample(fastBitmap,
+                Resampler.Table(fastBitmap.getHeight(), newHeight, Resampler.Kernel.Bilinear),
+                Resampler.Table(fastBitmap.getWidth(), newWidth, Resampler.Kernel.Bilinear));
     }
 
     @Override
@@ -125,203 +125,17 @@ public class RotateBilinear implements IApply, IApplyInPlace {
 
     @Override
     public FastBitmap apply(FastBitmap fastBitmap) {
-        
-        if (fastBitmap.isGrayscale()){
-            
-            int width = fastBitmap.getWidth();
-            int height = fastBitmap.getHeight();
-            double oldIradius = (double) ( height  - 1 ) / 2;
-            double oldJradius = (double) ( width - 1 ) / 2;
-            
-            CalculateNewSize(fastBitmap);
-            FastBitmap destinationData = new FastBitmap(newWidth, newHeight, FastBitmap.ColorSpace.Grayscale);
-            
-            // get destination image size
-            double newIradius = (double) ( newHeight  - 1 ) / 2;
-            double newJradius = (double) ( newWidth - 1 ) / 2;
+        CalculateNewSize(fastBitmap);
 
-            // angle's sine and cosine
-            double angleRad = -angle * Math.PI / 180;
-            double angleCos = Math.cos( angleRad );
-            double angleSin = Math.sin( angleRad );
-            
-            // destination pixel's coordinate relative to image center
-            double ci, cj;
-            
-            // coordinates of source points
-            double  oi, oj, ti, tj, di1, dj1, di2, dj2;
-            int     oi1, oj1, oi2, oj2;
-            
-            // width and height decreased by 1
-            int imax = height - 1;
-            int jmax = width - 1;
-            
-            ci = -newIradius;
-            for (int i = 0; i < newHeight; i++) {
-                
-                // do some pre-calculations of source points' coordinates
-                // (calculate the part which depends on y-loop, but does not
-                // depend on x-loop)
-                ti = angleCos * ci + oldIradius;
-                tj = -angleSin * ci + oldJradius;
-                
-                cj = -newJradius;
-                for (int j = 0; j < newWidth; j++) {
-                    
-                    // coordinates of source point
-                    oi = ti + angleSin * cj;
-                    oj = tj + angleCos * cj;
-                    
-                    // top-left coordinate
-                    oi1 = (int) oi;
-                    oj1 = (int) oj;
-                    
-                    // validate source pixel's coordinates
-                    if ( ( oi1 < 0 ) || ( oj1 < 0 ) || ( oi1 >= height ) || ( oj1 >= width ) ){
-                        // fill destination image with filler
-                        destinationData.setGray(i, j, fillGray);
-                    }
-                    else{
-                        // bottom-right coordinate
-                        oi2 = ( oi1 == imax ) ? oi1 : oi1 + 1;
-                        oj2 = ( oj1 == jmax ) ? oj1 : oj1 + 1;
+        int[] fill;
+        if (fastBitmap.isGrayscale())
+            fill = new int[] {fillGray};
+        else if (fastBitmap.isARGB())
+            fill = new int[] {fillRed, fillGreen, fillBlue, 0};
+        else
+            fill = new int[] {fillRed, fillGreen, fillBlue};
 
-                        if ( ( di1 = oi - (double) oi1 ) < 0 )
-                            di1 = 0;
-                        di2 = 1.0 - di1;
-
-                        if ( ( dj1 = oj - (double) oj1 ) < 0 )
-                            dj1 = 0;
-                        dj2 = 1.0 - dj1;
-                        
-                        // get four points
-                        int p1 = fastBitmap.getGray(oi1, oj1);
-                        int p2 = fastBitmap.getGray(oi1, oj2);
-                        int p3 = fastBitmap.getGray(oi2, oj1);
-                        int p4 = fastBitmap.getGray(oi2, oj2);
-                    
-                        int g = (int)(
-                                di2 * ( dj2 * ( p1 ) + dj1 * ( p2 ) ) +
-                                di1 * ( dj2 * ( p3 ) + dj1 * ( p4 ) ) );
-                        
-                        destinationData.setGray(i, j, g);
-                    }
-                    cj++;
-                }
-                ci++;
-            }
-            
-            return destinationData;
-            
-        }
-        else if (fastBitmap.isRGB()){
-            int width = fastBitmap.getWidth();
-            int height = fastBitmap.getHeight();
-            double oldIradius = (double) ( height  - 1 ) / 2;
-            double oldJradius = (double) ( width - 1 ) / 2;
-            
-            CalculateNewSize(fastBitmap);
-            FastBitmap destinationData = new FastBitmap(newWidth, newHeight, FastBitmap.ColorSpace.RGB);
-            
-            // get destination image size
-            double newIradius = (double) ( newHeight  - 1 ) / 2;
-            double newJradius = (double) ( newWidth - 1 ) / 2;
-
-            // angle's sine and cosine
-            double angleRad = -angle * Math.PI / 180;
-            double angleCos = Math.cos( angleRad );
-            double angleSin = Math.sin( angleRad );
-            
-            // destination pixel's coordinate relative to image center
-            double ci, cj;
-            
-            // coordinates of source points
-            double  oi, oj, ti, tj, di1, dj1, di2, dj2;
-            int     oi1, oj1, oi2, oj2;
-            
-            // width and height decreased by 1
-            int imax = height - 1;
-            int jmax = width - 1;
-            
-            ci = -newIradius;
-            for (int i = 0; i < newHeight; i++) {
-                
-                // do some pre-calculations of source points' coordinates
-                // (calculate the part which depends on y-loop, but does not
-                // depend on x-loop)
-                ti = angleSin * ci + oldIradius;
-                tj = angleCos * ci + oldJradius;
-                
-                cj = -newJradius;
-                for (int j = 0; j < newWidth; j++) {
-                    
-                    // coordinates of source point
-                    oi = ti + angleCos * cj;
-                    oj = tj - angleSin * cj;
-
-                    // top-left coordinate
-                    oi1 = (int) oi;
-                    oj1 = (int) oj;
-                    
-                    // validate source pixel's coordinates
-                    if ( ( oi1 < 0 ) || ( oj1 < 0 ) || ( oi1 >= height ) || ( oj1 >= width ) ){
-                        // fill destination image with filler
-                        destinationData.setRGB(i, j, fillRed, fillGreen, fillBlue);
-                    }
-                    else{
-                        // bottom-right coordinate
-                        oi2 = ( oi1 == imax ) ? oi1 : oi1 + 1;
-                        oj2 = ( oj1 == jmax ) ? oj1 : oj1 + 1;
-
-                        if ( ( di1 = oi - (double) oi1 ) < 0 )
-                            di1 = 0;
-                        di2 = 1.0 - di1;
-
-                        if ( ( dj1 = oj - (double) oj1 ) < 0 )
-                            dj1 = 0;
-                        dj2 = 1.0 - dj1;
-                        
-                        // get four points (red)
-                        int p1 = fastBitmap.getRed(oi1, oj1);
-                        int p2 = fastBitmap.getRed(oi1, oj2);
-                        int p3 = fastBitmap.getRed(oi2, oj1);
-                        int p4 = fastBitmap.getRed(oi2, oj2);
-                    
-                        int r = (int)(
-                                di2 * ( dj2 * ( p1 ) + dj1 * ( p2 ) ) +
-                                di1 * ( dj2 * ( p3 ) + dj1 * ( p4 ) ) );
-                        
-                        // get four points (green)
-                        p1 = fastBitmap.getGreen(oi1, oj1);
-                        p2 = fastBitmap.getGreen(oi1, oj2);
-                        p3 = fastBitmap.getGreen(oi2, oj1);
-                        p4 = fastBitmap.getGreen(oi2, oj2);
-                    
-                        int g = (int)(
-                                di2 * ( dj2 * ( p1 ) + dj1 * ( p2 ) ) +
-                                di1 * ( dj2 * ( p3 ) + dj1 * ( p4 ) ) );
-                        
-                        // get four points (blue)
-                        p1 = fastBitmap.getBlue(oi1, oj1);
-                        p2 = fastBitmap.getBlue(oi1, oj2);
-                        p3 = fastBitmap.getBlue(oi2, oj1);
-                        p4 = fastBitmap.getBlue(oi2, oj2);
-                    
-                        int b = (int)(
-                                di2 * ( dj2 * ( p1 ) + dj1 * ( p2 ) ) +
-                                di1 * ( dj2 * ( p3 ) + dj1 * ( p4 ) ) );
-                        
-                        
-                        
-                        destinationData.setRGB(i, j, r, g, b);
-                    }
-                    cj++;
-                }
-                ci++;
-            }
-            return destinationData;
-        }
-        return null;
+        return Resampler.Rotate(fastBitmap, angle, newWidth, newHeight, false, fill);
     }
 
     @Override
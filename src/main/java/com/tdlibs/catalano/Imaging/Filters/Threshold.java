@@ -22,7 +22,8 @@
 package com.tdlibs.catalano.Imaging.Filters;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Imaging.IPointOperation;
+import com.tdlibs.catalano.Imaging.Tools.ImageUtils;
 
 /**
  * Threshold.
@@ -33,7 +34,7 @@ import com.tdlibs.catalano.Imaging.IApplyInPlace;
  * 
  * @author Diego catalano
  */
-public class Threshold implements IApplyInPlace{
+public class Threshold implements IPointOperation{
 
     private int value = 128;
     private boolean invert = false;
@@ -83,21 +84,22 @@ public class Threshold implements IApplyInPlace{
         if (!fastBitmap.isGrayscale())
             throw new IllegalArgumentException("Threshold works only with Grayscale images.");
         
-        int size = fastBitmap.getSize();
-        for (int i = 0; i < size; i++) {
-            int g = fastBitmap.getGray(i);
-            if(!invert){
-                if(g >= value)
-                    fastBitmap.setGray(i, 255);
-                else
-                    fastBitmap.setGray(i, 0);
-            }
-            else{
-                if(g >= value)
-                    fastBitmap.setGray(i, 0);
-                else
-                    fastBitmap.setGray(i, 255);
-            }
+        ImageUtils.ApplyLookupTable(fastBitmap, getLookupTable(fastBitmap.getColorSpace()));
+    }
+
+    @Override
+    public int[][] getLookupTable(FastBitmap.ColorSpace colorSpace) {
+        
+        if (colorSpace != FastBitmap.ColorSpace.Grayscale)
+            throw new IllegalArgumentException("Threshold works only with Grayscale images.");
+        
+        int[] map = new int[256];
+        for (int i = 0; i < map.length; i++) {
+            if (!invert)
+                map[i] = i >= value ? 255 : 0;
+            else
+                map[i] = i >= value ? 0 : 255;
         }
+        return new int[][] {map};
     }
 }
\ No newline at end of file
@@ -85,7 +85,7 @@ public class ZhangSuenThinning implements IApplyInPlace{
 
         byte[] pixels = fastBitmap.getGrayData();
         byte[] pixels2 = new byte[width * height];
-        System.arraycopy(fastBitmap.getGrayData(), 0, pixels2, 0, width * height);
+        System.arraycopy(pixels, 0, pixels2, 0, width * height);
         int v, index, code;
         int offset, rowOffset = width;
         int pixelsRemoved = 0;
@@ -128,6 +128,8 @@ public class ZhangSuenThinning implements IApplyInPlace{
                 pixels[offset++] = (byte)v;
             }
         }
+        // in a region of interest the raw data is a copy
+        fastBitmap.setGrayData(pixels);
         return pixelsRemoved;
     }
 }
\ No newline at end of file
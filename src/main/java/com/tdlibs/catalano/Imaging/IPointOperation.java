@@ -0,0 +1,37 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging;
+
+/**
+ * Common interface to point operations.
+ * <p>A point operation maps each intensity independently of its position, so it can be described
+ * by a lookup table of 256 entries per channel. Adjacent point operations can be composed in a single table.</p>
+ * @author Diego catalano
+ */
+public interface IPointOperation extends IApplyInPlace {
+    /**
+     * Get the lookup table of the operation.
+     * @param colorSpace Color space of the image.
+     * @return One table of 256 entries for Grayscale, three tables (red, green, blue) for RGB and ARGB.
+     */
+    int[][] getLookupTable(FastBitmap.ColorSpace colorSpace);
+}
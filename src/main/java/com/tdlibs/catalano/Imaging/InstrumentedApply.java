@@ -0,0 +1,98 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2018
+// diego.catalano at live.com
+//
+// Copyright © Andrew Kirillov, 2005-2008
+// andrew.kirillov@gmail.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+
+package com.tdlibs.catalano.Imaging;
+
+import com.tdlibs.catalano.Core.Instrumentation.Metric;
+import com.tdlibs.catalano.Core.Instrumentation.MetricsRegistry;
+import com.tdlibs.catalano.Core.Instrumentation.ThreadAllocation;
+
+/**
+ * Instrumented filter.
+ * 
+ * <p>Decorates a filter and records the calls, the latency, the pixels and rows of the source image
+ * and the bytes allocated by the calling thread.</p>
+ * 
+ * @see MetricsRegistry
+ * @author Diego catalano
+ */
+public class InstrumentedApply implements IApply {
+    
+    private final IApply filter;
+    private final Metric metric;
+
+    /**
+     * Get the decorated filter.
+     * @return Filter.
+     */
+    public IApply getFilter() {
+        return filter;
+    }
+
+    /**
+     * Get the metric.
+     * @return Metric.
+     */
+    public Metric getMetric() {
+        return metric;
+    }
+
+    /**
+     * Initializes a new instance of the InstrumentedApply class.
+     * The metric is named by the class of the filter and recorded in the default registry.
+     * @param filter Filter.
+     */
+    public InstrumentedApply(IApply filter) {
+        this(filter, MetricsRegistry.getDefault(), filter.getClass().getSimpleName());
+    }
+    
+    /**
+     * Initializes a new instance of the InstrumentedApply class.
+     * @param filter Filter.
+     * @param registry Registry of the metrics.
+     * @param name Name of the metric.
+     */
+    public InstrumentedApply(IApply filter, MetricsRegistry registry, String name) {
+        if (filter == null) throw new IllegalArgumentException("The filter can't be null.");
+        this.filter = filter;
+        this.metric = registry.getMetric(name);
+    }
+
+    @Override
+    public FastBitmap apply(FastBitmap fastBitmap) {
+        long rows = fastBitmap.getHeight();
+        long pixels = rows * fastBitmap.getWidth();
+        
+        long allocated = ThreadAllocation.CurrentThread();
+        long start = metric.Start();
+        FastBitmap result = null;
+        boolean done = false;
+        try {
+            result = filter.apply(fastBitmap);
+            done = true;
+        } finally {
+            if (done) metric.Stop(start, allocated, pixels, rows);
+            else metric.RecordError();
+        }
+        return result;
+    }
+}
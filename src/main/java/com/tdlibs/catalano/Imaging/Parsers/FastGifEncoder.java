@@ -0,0 +1,585 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Parsers;
+
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.Filters.MedianCut;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streaming GIF Animated Encoder.
+ *
+ * <p>Quantizes the frames directly from the pixel arrays of the FastBitmap and LZW encodes
+ * them into a buffered channel, without converting the frames to BufferedImage.
+ * Grayscale frames use a 256 gray levels palette. RGB frames use a median cut palette
+ * (computed from the first frame and reused, or computed for each frame) or an uniform
+ * 3-3-2 palette.</p>
+ *
+ * <p>When the background mode is enabled, the LZW encoding runs in another thread and
+ * addFrame only quantizes the frame into an index buffer, so the frame can be modified
+ * as soon as addFrame returns.</p>
+ *
+ * @author Diego catalano
+ */
+public class FastGifEncoder {
+
+    /**
+     * Palette used in RGB frames.
+     */
+    public static enum Palette {
+        /**
+         * Median cut palette.
+         */
+        MedianCut,
+
+        /**
+         * Uniform palette, 3 bits for red and green, 2 bits for blue.
+         */
+        Uniform
+    };
+
+    // number of index buffers that can be waiting for the background thread
+    private static final int BUFFERS = 3;
+
+    private WritableByteChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    private int delay;
+    private int repeat = 0;
+
+    private Palette palette = Palette.MedianCut;
+    private int colors = 256;
+    private boolean reusePalette = true;
+
+    private int width;
+    private int height;
+    private boolean started = false;
+    private int frameIndex = 0;
+
+    // color tables and lookup from 15 bits color to index
+    private int[] firstTable;
+    private int[] grayTable;
+    private int[] colorTable;
+    private byte[] colorLUT;
+    private int[] uniformTable;
+    private byte[] uniformLUT;
+
+    private ExecutorService executor;
+    private Semaphore permits;
+    private LinkedBlockingQueue<byte[]> freeBuffers;
+    private volatile IOException error;
+
+    /**
+     * Initializes a new instance of the FastGifEncoder class.
+     * @param saveToFile Path where the file will be saved.
+     */
+    public FastGifEncoder(String saveToFile) {
+        this(saveToFile, 100);
+    }
+
+    /**
+     * Initializes a new instance of the FastGifEncoder class.
+     * @param saveToFile Path where the file will be saved.
+     * @param milliseconds Milliseconds between the frames.
+     */
+    public FastGifEncoder(String saveToFile, int milliseconds) {
+        this(saveToFile, milliseconds, false);
+    }
+
+    /**
+     * Initializes a new instance of the FastGifEncoder class.
+     * @param saveToFile Path where the file will be saved.
+     * @param milliseconds Milliseconds between the frames.
+     * @param background Encode the frames in a background thread.
+     */
+    public FastGifEncoder(String saveToFile, int milliseconds, boolean background) {
+        try {
+            init(new FileOutputStream(saveToFile).getChannel(), milliseconds, background);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    /**
+     * Initializes a new instance of the FastGifEncoder class.
+     * @param out Output stream, closed when finish is called.
+     * @param milliseconds Milliseconds between the frames.
+     * @param background Encode the frames in a background thread.
+     */
+    public FastGifEncoder(OutputStream out, int milliseconds, boolean background) {
+        init(Channels.newChannel(out), milliseconds, background);
+    }
+
+    private void init(WritableByteChannel channel, int milliseconds, boolean background){
+        this.channel = channel;
+        this.delay = milliseconds / 10;
+        if (background){
+            executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "FastGifEncoder");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            permits = new Semaphore(BUFFERS);
+            freeBuffers = new LinkedBlockingQueue<byte[]>();
+        }
+    }
+
+    /**
+     * Get the palette used in RGB frames.
+     * @return Palette.
+     */
+    public Palette getPalette() {
+        return palette;
+    }
+
+    /**
+     * Set the palette used in RGB frames.
+     * @param palette Palette.
+     */
+    public void setPalette(Palette palette) {
+        this.palette = palette;
+    }
+
+    /**
+     * Get the number of colors of the median cut palette.
+     * @return Number of colors.
+     */
+    public int getNumberOfColors() {
+        return colors;
+    }
+
+    /**
+     * Set the number of colors of the median cut palette.
+     * @param colors Number of colors [2..256].
+     */
+    public void setNumberOfColors(int colors) {
+        this.colors = Math.max(2, Math.min(256, colors));
+    }
+
+    /**
+     * Check if the median cut palette of the first frame is reused in all frames.
+     * @return True if the palette is reused.
+     */
+    public boolean isReusePalette() {
+        return reusePalette;
+    }
+
+    /**
+     * Reuse the median cut palette of the first frame in all frames.
+     * @param reusePalette True to reuse the palette, false to compute one palette per frame.
+     */
+    public void setReusePalette(boolean reusePalette) {
+        this.reusePalette = reusePalette;
+    }
+
+    /**
+     * Set the number of times the animation is played.
+     * @param repeat Number of repetitions, 0 means forever.
+     */
+    public void setRepeat(int repeat) {
+        this.repeat = Math.max(0, repeat);
+    }
+
+    /**
+     * Add frame in the sequence.
+     * @param fastBitmap Image.
+     */
+    public void addFrame(FastBitmap fastBitmap){
+        if (error != null) return;
+
+        if (!started){
+            width = fastBitmap.getWidth();
+            height = fastBitmap.getHeight();
+        }
+        else if (fastBitmap.getWidth() != width || fastBitmap.getHeight() != height){
+            throw new IllegalArgumentException("All the frames must have the same size.");
+        }
+
+        // choose the color table of the frame
+        final int[] table;
+        final boolean local;
+        byte[] lut = null;
+        if (fastBitmap.isGrayscale()){
+            if (grayTable == null){
+                grayTable = new int[256];
+                for (int i = 0; i < 256; i++) grayTable[i] = i << 16 | i << 8 | i;
+            }
+            table = grayTable;
+        }
+        else{
+            if (palette == Palette.Uniform){
+                if (uniformTable == null) BuildUniform();
+                table = uniformTable;
+                lut = uniformLUT;
+            }
+            else if (colorTable == null || !reusePalette){
+                MedianCut mc = new MedianCut(colors);
+                colorTable = mc.CreatePalette(fastBitmap);
+                colorLUT = NearestLUT(colorTable);
+                table = colorTable;
+                lut = colorLUT;
+            }
+            else{
+                table = colorTable;
+                lut = colorLUT;
+            }
+        }
+
+        if (!started){
+            // the color table of the first frame is the global one
+            started = true;
+            firstTable = table;
+            local = false;
+        }
+        else{
+            local = table != firstTable;
+        }
+
+        try {
+            if (executor == null){
+                if (frameIndex == 0) WriteHeader(firstTable);
+                byte[] indices = fastBitmap.isGrayscale() ? fastBitmap.getGrayData() : Quantize(fastBitmap, lut, new byte[width * height]);
+                WriteFrame(indices, table, local);
+            }
+            else{
+                permits.acquireUninterruptibly();
+                byte[] indices = freeBuffers.poll();
+                if (indices == null || indices.length != width * height)
+                    indices = new byte[width * height];
+
+                if (fastBitmap.isGrayscale())
+                    System.arraycopy(fastBitmap.getGrayData(), 0, indices, 0, indices.length);
+                else
+                    Quantize(fastBitmap, lut, indices);
+
+                final byte[] frame = indices;
+                final boolean first = frameIndex == 0;
+                final int[] global = firstTable;
+                executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            if (error == null){
+                                if (first) WriteHeader(global);
+                                WriteFrame(frame, table, local);
+                            }
+                        } catch (IOException ex) {
+                            error = ex;
+                            Logger.getLogger(FastGifEncoder.class.getName()).log(Level.SEVERE, null, ex);
+                        } finally {
+                            freeBuffers.offer(frame);
+                            permits.release();
+                        }
+                    }
+                });
+            }
+            frameIndex++;
+        } catch (IOException ex) {
+            error = ex;
+            Logger.getLogger(FastGifEncoder.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * End the sequence and save the animated gif.
+     */
+    public void finish(){
+        try {
+            if (executor != null){
+                executor.shutdown();
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+            if (error == null && started){
+                Put(0x3B); // trailer
+                Flush();
+            }
+            channel.close();
+        } catch (IOException ex) {
+            Logger.getLogger(FastGifEncoder.class.getName()).log(Level.SEVERE, null, ex);
+        } catch (InterruptedException ex) {
+            Logger.getLogger(FastGifEncoder.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * Quantize the RGB pixels using the lookup table of the current palette.
+     */
+    private byte[] Quantize(FastBitmap fastBitmap, byte[] lut, byte[] indices){
+        int[] pixels = fastBitmap.getRGBData();
+        for (int i = 0; i < indices.length; i++) {
+            int c = pixels[i];
+            indices[i] = lut[(c & 0xf80000) >> 19 | (c & 0xf800) >> 6 | (c & 0xf8) << 7];
+        }
+        return indices;
+    }
+
+    /**
+     * Lookup table from 15 bits colors to the nearest color of the palette.
+     */
+    private byte[] NearestLUT(int[] table){
+        byte[] lut = new byte[32768];
+        for (int c = 0; c < lut.length; c++) {
+            int r = (c & 31) << 3 | 4;
+            int g = (c >> 2 & 0xf8) | 4;
+            int b = (c >> 7 & 0xf8) | 4;
+
+            int best = 0;
+            int min = Integer.MAX_VALUE;
+            for (int k = 0; k < table.length; k++) {
+                int dr = r - (table[k] >> 16 & 0xFF);
+                int dg = g - (table[k] >> 8 & 0xFF);
+                int db = b - (table[k] & 0xFF);
+                int d = dr * dr + dg * dg + db * db;
+                if (d < min){
+                    min = d;
+                    best = k;
+                }
+            }
+            lut[c] = (byte)best;
+        }
+        return lut;
+    }
+
+    private void BuildUniform(){
+        uniformTable = new int[256];
+        for (int i = 0; i < 256; i++) {
+            int r = (i >> 5) * 255 / 7;
+            int g = (i >> 2 & 7) * 255 / 7;
+            int b = (i & 3) * 255 / 3;
+            uniformTable[i] = r << 16 | g << 8 | b;
+        }
+        uniformLUT = new byte[32768];
+        for (int c = 0; c < uniformLUT.length; c++) {
+            int r = (c & 31) << 3;
+            int g = c >> 2 & 0xf8;
+            int b = c >> 7 & 0xf8;
+            uniformLUT[c] = (byte)((r >> 5) << 5 | (g >> 5) << 2 | b >> 6);
+        }
+    }
+
+    // Bits needed to index the color table, at least 1.
+    private int TableBits(int[] table){
+        int bits = 1;
+        while ((1 << bits) < table.length) bits++;
+        return bits;
+    }
+
+    private void WriteHeader(int[] table) throws IOException{
+        int bits = TableBits(table);
+
+        PutString("GIF89a");
+        PutShort(width);
+        PutShort(height);
+        Put(0x80 | 0x70 | (bits - 1));
+        Put(0); // background color
+        Put(0); // pixel aspect ratio
+        PutTable(table, bits);
+
+        // Netscape extension, repetition
+        Put(0x21);
+        Put(0xFF);
+        Put(11);
+        PutString("NETSCAPE2.0");
+        Put(3);
+        Put(1);
+        PutShort(repeat);
+        Put(0);
+    }
+
+    private void WriteFrame(byte[] indices, int[] table, boolean local) throws IOException{
+        int bits = TableBits(table);
+
+        // Graphic control extension
+        Put(0x21);
+        Put(0xF9);
+        Put(4);
+        Put(0x04); // disposal: do not dispose
+        PutShort(delay);
+        Put(0); // transparent color
+        Put(0);
+
+        // Image descriptor
+        Put(0x2C);
+        PutShort(0);
+        PutShort(0);
+        PutShort(width);
+        PutShort(height);
+        if (local){
+            Put(0x80 | (bits - 1));
+            PutTable(table, bits);
+        }
+        else{
+            Put(0);
+        }
+
+        Compress(indices, width * height, Math.max(2, bits));
+    }
+
+    // LZW compression, the variable length codes are packed in sub-blocks of 255 bytes.
+    private static final int HSIZE = 5003;
+    private final int[] htab = new int[HSIZE];
+    private final int[] codetab = new int[HSIZE];
+    private final byte[] block = new byte[256];
+    private int blockSize;
+    private int bitBuffer;
+    private int bitCount;
+
+    private void Compress(byte[] indices, int n, int minCodeSize) throws IOException{
+        Put(minCodeSize);
+
+        int clearCode = 1 << minCodeSize;
+        int eofCode = clearCode + 1;
+        int codeSize = minCodeSize + 1;
+        int nextCode = clearCode + 2;
+
+        blockSize = 0;
+        bitBuffer = 0;
+        bitCount = 0;
+        Arrays.fill(htab, -1);
+
+        Output(clearCode, codeSize);
+
+        int ent = indices[0] & 0xFF;
+        for (int p = 1; p < n; p++) {
+            int c = indices[p] & 0xFF;
+            int fcode = (c << 12) + ent;
+            int i = (c << 4) ^ ent;
+
+            if (htab[i] == fcode){
+                ent = codetab[i];
+                continue;
+            }
+            if (htab[i] >= 0){
+                int disp = (i == 0) ? 1 : HSIZE - i;
+                boolean found = false;
+                do {
+                    if ((i -= disp) < 0) i += HSIZE;
+                    if (htab[i] == fcode){
+                        found = true;
+                        break;
+                    }
+                } while (htab[i] >= 0);
+                if (found){
+                    ent = codetab[i];
+                    continue;
+                }
+            }
+
+            Output(ent, codeSize);
+            if (nextCode > (1 << codeSize) - 1 && codeSize < 12) codeSize++;
+            ent = c;
+
+            if (nextCode < 4096){
+                codetab[i] = nextCode++;
+                htab[i] = fcode;
+            }
+            else{
+                Arrays.fill(htab, -1);
+                Output(clearCode, codeSize);
+                codeSize = minCodeSize + 1;
+                nextCode = clearCode + 2;
+            }
+        }
+
+        Output(ent, codeSize);
+        if (nextCode > (1 << codeSize) - 1 && codeSize < 12) codeSize++;
+        Output(eofCode, codeSize);
+
+        if (bitCount > 0) PutBlockByte(bitBuffer & 0xFF);
+        FlushBlock();
+        Put(0); // block terminator
+    }
+
+    private void Output(int code, int codeSize) throws IOException{
+        bitBuffer |= code << bitCount;
+        bitCount += codeSize;
+        while (bitCount >= 8){
+            PutBlockByte(bitBuffer & 0xFF);
+            bitBuffer >>>= 8;
+            bitCount -= 8;
+        }
+    }
+
+    private void PutBlockByte(int b) throws IOException{
+        block[blockSize++] = (byte)b;
+        if (blockSize == 255) FlushBlock();
+    }
+
+    private void FlushBlock() throws IOException{
+        if (blockSize > 0){
+            Put(blockSize);
+            Put(block, blockSize);
+            blockSize = 0;
+        }
+    }
+
+    private void PutTable(int[] table, int bits) throws IOException{
+        int size = 1 << bits;
+        for (int i = 0; i < size; i++) {
+            int c = i < table.length ? table[i] : 0;
+            Put(c >> 16 & 0xFF);
+            Put(c >> 8 & 0xFF);
+            Put(c & 0xFF);
+        }
+    }
+
+    private void PutShort(int v) throws IOException{
+        Put(v & 0xFF);
+        Put(v >> 8 & 0xFF);
+    }
+
+    private void PutString(String s) throws IOException{
+        for (int i = 0; i < s.length(); i++) Put(s.charAt(i));
+    }
+
+    private void Put(int b) throws IOException{
+        if (!buffer.hasRemaining()) Flush();
+        buffer.put((byte)b);
+    }
+
+    private void Put(byte[] b, int n) throws IOException{
+        if (buffer.remaining() < n) Flush();
+        buffer.put(b, 0, n);
+    }
+
+    private void Flush() throws IOException{
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -42,6 +42,7 @@
 package com.tdlibs.catalano.Imaging.Parsers;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.logging.Level;
@@ -66,6 +67,7 @@ public class GifEncoder {
     private boolean firstFrame = true;
     private ImageTypeSpecifier spec;
     private ImageWriter wr;
+    private IIOMetadata metadata;
 
     /**
      * Initializes a new instance of the GifEncoder class.
@@ -91,18 +93,18 @@ public class GifEncoder {
      */
     public void addFrame(FastBitmap fastBitmap){
         try {
+            BufferedImage image = fastBitmap.toBufferedImage();
             if(firstFrame){
                 firstFrame = false;
-                spec = new ImageTypeSpecifier(fastBitmap.toBufferedImage());
+                spec = new ImageTypeSpecifier(image);
                 
                 wr = ImageIO.getImageWriters(spec, "GIF").next();
                 wr.setOutput(ImageIO.createImageOutputStream(new File(saveFile)));
                 
-                IIOMetadata metadata = getMetadata(wr, fastBitmap.toBufferedImage().getType(), milliseconds);
+                metadata = getMetadata(wr, image.getType(), milliseconds);
                 wr.prepareWriteSequence(metadata);
-                wr.writeToSequence(new IIOImage(fastBitmap.toBufferedImage(), null, metadata), null);
             }
-            wr.writeToSequence(new IIOImage(fastBitmap.toBufferedImage(), null, null), null);
+            wr.writeToSequence(new IIOImage(image, null, metadata), null);
         } catch (IOException ex) {
             Logger.getLogger(GifEncoder.class.getName()).log(Level.SEVERE, null, ex);
         }
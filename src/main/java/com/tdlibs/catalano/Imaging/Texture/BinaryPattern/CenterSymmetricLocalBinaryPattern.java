@@ -73,15 +73,16 @@ public class CenterSymmetricLocalBinaryPattern implements IBinaryPattern{
         int height = fastBitmap.getHeight() - 1;
         
         int sum;
+        int center;
         int[] g = new int[16];
         for (int x = 1; x < height; x++) {
             for (int y = 1; y < width; y++) {
                 sum = 0;
-                threshold = fastBitmap.getGray(x, y);
-                if (Math.abs(fastBitmap.getGray(x - 1, y - 1) - fastBitmap.getGray(x + 1, y + 1)) >= threshold)    sum += 8;
-                if (Math.abs(fastBitmap.getGray(x - 1, y) - fastBitmap.getGray(x + 1, y)) >= threshold)            sum += 4;
-                if (Math.abs(fastBitmap.getGray(x - 1, y + 1) - fastBitmap.getGray(x + 1, y - 1)) >= threshold)    sum += 2;
-                if (Math.abs(fastBitmap.getGray(x, y + 1) - fastBitmap.getGray(x, y - 1)) >= threshold)            sum += 1;
+                center = fastBitmap.getGray(x, y);
+                if (Math.abs(fastBitmap.getGray(x - 1, y - 1) - fastBitmap.getGray(x + 1, y + 1)) >= center)    sum += 8;
+                if (Math.abs(fastBitmap.getGray(x - 1, y) - fastBitmap.getGray(x + 1, y)) >= center)            sum += 4;
+                if (Math.abs(fastBitmap.getGray(x - 1, y + 1) - fastBitmap.getGray(x + 1, y - 1)) >= center)    sum += 2;
+                if (Math.abs(fastBitmap.getGray(x, y + 1) - fastBitmap.getGray(x, y - 1)) >= center)            sum += 1;
                 g[sum]++;
             }
         }
@@ -0,0 +1,444 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Texture.BinaryPattern;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.Tools.ImageHistogram;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Computes several binary patterns in a single pass over the image.
+ *
+ * <p>Each 3x3 neighborhood is read once from the raw data and all the requested codes are computed from it.
+ * The uniform mappings are precomputed lookup tables. Large images are processed by rows in parallel.</p>
+ *
+ * <p>The histograms are the same of the respective classes: {@link LocalBinaryPattern}, {@link UniformLocalBinaryPattern},
+ * {@link CenterSymmetricLocalBinaryPattern}, {@link LocalTernaryPattern} (upper and lower), {@link MedianBinaryPattern}
+ * and {@link ImprovedLocalBinaryPattern}. The rotation invariant uniform LBP (LBPriu2) has 10 labels.</p>
+ *
+ * <p><li>Supported types: Grayscale.
+ * <br><li>Coordinate System: Matrix.
+ *
+ * @author Diego catalano
+ */
+public class FusedBinaryPatterns implements IBinaryPattern{
+
+    /**
+     * Binary patterns.
+     */
+    public static enum Pattern {
+        /**
+         * Local Binary Pattern, 256 labels.
+         */
+        LBP,
+        /**
+         * Uniform Local Binary Pattern, 59 labels (58 without the non uniform label).
+         */
+        UniformLBP,
+        /**
+         * Rotation invariant uniform Local Binary Pattern, 10 labels.
+         */
+        RotationInvariantUniformLBP,
+        /**
+         * Center symmetric Local Binary Pattern, 16 labels.
+         */
+        CenterSymmetricLBP,
+        /**
+         * Local Ternary Pattern, upper and lower histograms of 256 labels.
+         */
+        LocalTernaryPattern,
+        /**
+         * Median Binary Pattern, 511 labels.
+         */
+        MedianBinaryPattern,
+        /**
+         * Improved Local Binary Pattern, 511 labels.
+         */
+        ImprovedLBP
+    };
+
+    private static final int[] UNIFORM = new int[256];
+    private static final int[] ROTATION_INVARIANT = new int[256];
+
+    static {
+        int idx = 0;
+        for (int i = 0; i < 256; i++) {
+            if (Transitions(i) <= 2){
+                UNIFORM[i] = idx++;
+                ROTATION_INVARIANT[i] = Integer.bitCount(i);
+            }
+            else{
+                UNIFORM[i] = 58;
+                ROTATION_INVARIANT[i] = 9;
+            }
+        }
+    }
+
+    // minimum number of pixels to process the rows in parallel
+    private static final int PARALLEL_SIZE = 256 * 256;
+
+    private Pattern[] patterns;
+    private boolean nonUniform = true;
+    private int ternaryThreshold = 5;
+    private boolean parallel = true;
+
+    /**
+     * Check if the uniform LBP has the non uniform label.
+     * @return True if has the non uniform label, otherwise return false.
+     */
+    public boolean isNonUniform() {
+        return nonUniform;
+    }
+
+    /**
+     * Set if the uniform LBP has the non uniform label.
+     * @param nonUniform True if needs the non uniform label.
+     */
+    public void setNonUniform(boolean nonUniform) {
+        this.nonUniform = nonUniform;
+    }
+
+    /**
+     * Get threshold of the local ternary pattern.
+     * @return Threshold value.
+     */
+    public int getTernaryThreshold() {
+        return ternaryThreshold;
+    }
+
+    /**
+     * Set threshold of the local ternary pattern.
+     * @param ternaryThreshold Threshold value.
+     */
+    public void setTernaryThreshold(int ternaryThreshold) {
+        this.ternaryThreshold = ternaryThreshold;
+    }
+
+    /**
+     * Check if large images are processed in parallel.
+     * @return True if process in parallel.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Set if large images are processed in parallel.
+     * Disable it when the caller already runs in parallel (e.g. spatial histograms).
+     * @param parallel True if process in parallel.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Get the patterns.
+     * @return Patterns.
+     */
+    public Pattern[] getPatterns() {
+        return patterns.clone();
+    }
+
+    /**
+     * Initializes a new instance of the FusedBinaryPatterns class.
+     * @param patterns Patterns to be computed.
+     */
+    public FusedBinaryPatterns(Pattern... patterns) {
+        if (patterns.length == 0)
+            throw new IllegalArgumentException("At least one pattern must be specified.");
+        this.patterns = patterns.clone();
+    }
+
+    /**
+     * Get the number of labels of the pattern.
+     * @param pattern Pattern.
+     * @return Length of the histogram.
+     */
+    public int getLength(Pattern pattern){
+        switch(pattern){
+            case LBP: return 256;
+            case UniformLBP: return nonUniform ? 59 : 58;
+            case RotationInvariantUniformLBP: return 10;
+            case CenterSymmetricLBP: return 16;
+            case LocalTernaryPattern: return 512;
+            default: return 511;
+        }
+    }
+
+    /**
+     * Compute the concatenated histograms of all the patterns.
+     * @param fastBitmap Image to be processed.
+     * @return Concatenated histograms, in the order of the patterns.
+     */
+    @Override
+    public ImageHistogram ComputeFeatures(FastBitmap fastBitmap) {
+        ImageHistogram[] h = ComputeHistograms(fastBitmap);
+
+        int size = 0;
+        for (ImageHistogram hist : h) size += hist.getValues().length;
+
+        int[] all = new int[size];
+        int idx = 0;
+        for (ImageHistogram hist : h) {
+            int[] v = hist.getValues();
+            System.arraycopy(v, 0, all, idx, v.length);
+            idx += v.length;
+        }
+
+        return new ImageHistogram(all);
+    }
+
+    /**
+     * Compute the histograms of all the patterns.
+     * @param fastBitmap Image to be processed.
+     * @return Histogram of each pattern, in the order of the patterns.
+     */
+    public ImageHistogram[] ComputeHistograms(final FastBitmap fastBitmap){
+        if (!fastBitmap.isGrayscale())
+            throw new IllegalArgumentException("Binary patterns only works in grayscale images.");
+
+        final int rows = fastBitmap.getHeight() - 2;
+        int[][] acc;
+
+        int tasks = parallel && (long)fastBitmap.getSize() >= PARALLEL_SIZE ? Math.min(MulticoreExecutor.getThreadPoolSize(), rows) : 1;
+        if (tasks <= 1 || rows <= 0){
+            acc = new int[7][];
+            Process(fastBitmap, 1, rows + 1, acc);
+        }
+        else{
+            List<Callable<int[][]>> lst = new ArrayList<Callable<int[][]>>(tasks);
+            for (int t = 0; t < tasks; t++) {
+                final int start = 1 + t * rows / tasks;
+                final int end = 1 + (t + 1) * rows / tasks;
+                lst.add(new Callable<int[][]>() {
+                    @Override
+                    public int[][] call() {
+                        int[][] local = new int[7][];
+                        Process(fastBitmap, start, end, local);
+                        return local;
+                    }
+                });
+            }
+
+            List<int[][]> results;
+            try {
+                results = MulticoreExecutor.run(lst);
+            } catch (Exception ex) {
+                System.err.println(ex);
+                results = new ArrayList<int[][]>();
+                int[][] local = new int[7][];
+                Process(fastBitmap, 1, rows + 1, local);
+                results.add(local);
+            }
+
+            acc = results.get(0);
+            for (int r = 1; r < results.size(); r++) {
+                int[][] local = results.get(r);
+                for (int p = 0; p < acc.length; p++) {
+                    if (acc[p] == null) continue;
+                    for (int i = 0; i < acc[p].length; i++) {
+                        acc[p][i] += local[p][i];
+                    }
+                }
+            }
+        }
+
+        ImageHistogram[] h = new ImageHistogram[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            int[] values = acc[patterns[i].ordinal()];
+            if (values == null) values = new int[getLength(patterns[i])];
+            if (patterns[i] == Pattern.UniformLBP && !nonUniform){
+                int[] v = new int[58];
+                System.arraycopy(values, 0, v, 0, 58);
+                values = v;
+            }
+            h[i] = new ImageHistogram(values.clone());
+        }
+
+        return h;
+    }
+
+    /**
+     * Process the rows from start to end.
+     * @param fastBitmap Image.
+     * @param start First row.
+     * @param end Last row (exclusive).
+     * @param acc Histograms, indexed by the ordinal of the pattern.
+     */
+    private void Process(FastBitmap fastBitmap, int start, int end, int[][] acc){
+
+        boolean lbp = false, ulbp = false, riu = false, cs = false, ltp = false, mbp = false, ilbp = false;
+        for (Pattern p : patterns) {
+            switch(p){
+                case LBP: lbp = true; break;
+                case UniformLBP: ulbp = true; break;
+                case RotationInvariantUniformLBP: riu = true; break;
+                case CenterSymmetricLBP: cs = true; break;
+                case LocalTernaryPattern: ltp = true; break;
+                case MedianBinaryPattern: mbp = true; break;
+                case ImprovedLBP: ilbp = true; break;
+            }
+        }
+        boolean code = lbp || ulbp || riu;
+
+        int[] hLBP = lbp ? new int[256] : null;
+        int[] hULBP = ulbp ? new int[59] : null;
+        int[] hRIU = riu ? new int[10] : null;
+        int[] hCS = cs ? new int[16] : null;
+        int[] hLTP = ltp ? new int[512] : null;
+        int[] hMBP = mbp ? new int[511] : null;
+        int[] hILBP = ilbp ? new int[511] : null;
+
+        byte[] data = fastBitmap.getGrayBuffer();
+        int origin = fastBitmap.getOrigin();
+        int stride = fastBitmap.getStride();
+        int width = fastBitmap.getWidth();
+        int t = ternaryThreshold;
+
+        for (int x = start; x < end; x++) {
+            int up = origin + (x - 1) * stride;
+            int mid = up + stride;
+            int down = mid + stride;
+
+            for (int y = 1; y < width - 1; y++) {
+                // neighborhood
+                int a = data[up + y - 1] & 0xFF;
+                int b = data[up + y] & 0xFF;
+                int c = data[up + y + 1] & 0xFF;
+                int h = data[mid + y - 1] & 0xFF;
+                int p = data[mid + y] & 0xFF;
+                int d = data[mid + y + 1] & 0xFF;
+                int g = data[down + y - 1] & 0xFF;
+                int f = data[down + y] & 0xFF;
+                int e = data[down + y + 1] & 0xFF;
+
+                if (code){
+                    int sum = Code(a, b, c, d, e, f, g, h, p);
+                    if (lbp) hLBP[sum]++;
+                    if (ulbp) hULBP[UNIFORM[sum]]++;
+                    if (riu) hRIU[ROTATION_INVARIANT[sum]]++;
+                }
+
+                if (cs){
+                    // the threshold is the center pixel, as in CenterSymmetricLocalBinaryPattern
+                    int sum = 0;
+                    if (Math.abs(a - e) >= p) sum += 8;
+                    if (Math.abs(b - f) >= p) sum += 4;
+                    if (Math.abs(c - g) >= p) sum += 2;
+                    if (Math.abs(d - h) >= p) sum += 1;
+                    hCS[sum]++;
+                }
+
+                if (ltp){
+                    hLTP[Code(a, b, c, d, e, f, g, h, p + t + 1)]++;
+                    hLTP[256 + (255 - Code(a, b, c, d, e, f, g, h, p - t))]++;
+                }
+
+                if (mbp){
+                    int sum = Code(a, b, c, d, e, f, g, h, Median(a, b, c, d, e, f, g, h, p));
+                    if (p >= Median(a, b, c, d, e, f, g, h, p)) sum += 256;
+                    if (sum == 511) sum = 0;
+                    hMBP[sum]++;
+                }
+
+                if (ilbp){
+                    int mean = (a + b + c + d + e + f + g + h + p) / 9;
+                    int sum = Code(a, b, c, d, e, f, g, h, mean);
+                    if (p >= mean) sum += 256;
+                    if (sum == 511) sum = 0;
+                    hILBP[sum]++;
+                }
+            }
+        }
+
+        acc[Pattern.LBP.ordinal()] = hLBP;
+        acc[Pattern.UniformLBP.ordinal()] = hULBP;
+        acc[Pattern.RotationInvariantUniformLBP.ordinal()] = hRIU;
+        acc[Pattern.CenterSymmetricLBP.ordinal()] = hCS;
+        acc[Pattern.LocalTernaryPattern.ordinal()] = hLTP;
+        acc[Pattern.MedianBinaryPattern.ordinal()] = hMBP;
+        acc[Pattern.ImprovedLBP.ordinal()] = hILBP;
+    }
+
+    /**
+     * Binary code of the neighbors greater or equal than the reference, clockwise from the top left.
+     */
+    private static int Code(int a, int b, int c, int d, int e, int f, int g, int h, int ref){
+        int sum = 0;
+        if (a >= ref) sum += 128;
+        if (b >= ref) sum += 64;
+        if (c >= ref) sum += 32;
+        if (d >= ref) sum += 16;
+        if (e >= ref) sum += 8;
+        if (f >= ref) sum += 4;
+        if (g >= ref) sum += 2;
+        if (h >= ref) sum += 1;
+        return sum;
+    }
+
+    /**
+     * Median of nine values by a selection network.
+     */
+    private static int Median(int p0, int p1, int p2, int p3, int p4, int p5, int p6, int p7, int p8){
+        int tmp;
+        if (p1 > p2) { tmp = p1; p1 = p2; p2 = tmp; }
+        if (p4 > p5) { tmp = p4; p4 = p5; p5 = tmp; }
+        if (p7 > p8) { tmp = p7; p7 = p8; p8 = tmp; }
+        if (p0 > p1) { tmp = p0; p0 = p1; p1 = tmp; }
+        if (p3 > p4) { tmp = p3; p3 = p4; p4 = tmp; }
+        if (p6 > p7) { tmp = p6; p6 = p7; p7 = tmp; }
+        if (p1 > p2) { tmp = p1; p1 = p2; p2 = tmp; }
+        if (p4 > p5) { tmp = p4; p4 = p5; p5 = tmp; }
+        if (p7 > p8) { tmp = p7; p7 = p8; p8 = tmp; }
+        if (p0 > p3) { p3 = p0; }
+        if (p5 > p8) { p5 = p8; }
+        if (p4 > p7) { tmp = p4; p4 = p7; p7 = tmp; }
+        if (p3 > p6) { p6 = p3; }
+        if (p1 > p4) { p4 = p1; }
+        if (p2 > p5) { p2 = p5; }
+        if (p4 > p7) { p4 = p7; }
+        if (p4 > p2) { tmp = p4; p4 = p2; p2 = tmp; }
+        if (p6 > p4) { p4 = p6; }
+        if (p4 > p2) { p4 = p2; }
+        return p4;
+    }
+
+    /**
+     * Number of circular bit transitions of a 8 bits code.
+     */
+    private static int Transitions(int x){
+        int rotated = ((x << 1) | (x >> 7)) & 0xFF;
+        return Integer.bitCount(x ^ rotated);
+    }
+
+    /**
+     * Label of the code in the uniform LBP.
+     * @param code LBP code.
+     * @return Uniform label, 58 for non uniform codes.
+     */
+    static int UniformLabel(int code){
+        return UNIFORM[code];
+    }
+}
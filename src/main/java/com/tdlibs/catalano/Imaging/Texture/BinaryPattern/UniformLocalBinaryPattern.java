@@ -96,19 +96,8 @@ public class UniformLocalBinaryPattern implements IBinaryPattern{
         int[] h = new int[59];
         int[] values = hist.getValues();
         
-        int idx = 0;
-        int nonU = 0;
-        for (int i = 0; i < 256; i++) {
-            if(isUniform(i)){
-                h[idx] = values[i];
-                idx++;
-            }
-            else{
-                nonU += values[i];
-            }
-        }
-        
-        h[58] = nonU;
+        for (int i = 0; i < 256; i++)
+            h[FusedBinaryPatterns.UniformLabel(i)] += values[i];
         
         if(!nonUniform){
             h = Matrix.RemoveColumn(h, 58);
@@ -118,21 +107,4 @@ public class UniformLocalBinaryPattern implements IBinaryPattern{
         
     }
     
-    private static boolean isUniform(int x){
-        int n = trans(x);
-        return n <= 2;
-    }
-    
-    private static int trans(int x){
-        
-        String a = String.format("%8s", Integer.toBinaryString(x)).replace(' ', '0');
-        int dif = 0;
-        for (int i = 1; i < a.length(); i++) 
-            if(a.charAt(i-1) != a.charAt(i)) dif++;
-        
-        if(a.charAt(7) != a.charAt(0)) dif++;
-        
-        return dif;
-    }
-    
 }
\ No newline at end of file
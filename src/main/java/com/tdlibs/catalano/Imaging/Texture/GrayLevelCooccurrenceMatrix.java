@@ -21,7 +21,11 @@
 
 package com.tdlibs.catalano.Imaging.Texture;
 
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
 import com.tdlibs.catalano.Imaging.FastBitmap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Gray Level Coocurrence Matrix (GLCM).
@@ -55,6 +59,9 @@ public class GrayLevelCooccurrenceMatrix {
          */
         Degree_135 };
     
+    // minimum number of pair visits to count in parallel
+    private static final long PARALLEL_SIZE = 512 * 512;
+    
     private Degree degree;
     
     private int levels = 8;
@@ -178,80 +185,179 @@ public class GrayLevelCooccurrenceMatrix {
      */
     public double[][] Compute(FastBitmap fastBitmap){
         
-        int maxGray = getMax(fastBitmap);
-        if(maxGray < levels) maxGray = levels;
-        int div = maxGray / (levels - 1);
+        int[][] glcm = Compute(fastBitmap, new Degree[] {degree}, distance)[0];
         
         this.numPairs = 0;
-        
         double[][] coocurrence = new double[levels][levels];
+        for (int i = 0; i < levels; i++) {
+            for (int j = 0; j < levels; j++) {
+                coocurrence[i][j] = glcm[i][j];
+                numPairs += glcm[i][j];
+            }
+        }
         
-        int height = fastBitmap.getHeight();
-        int width = fastBitmap.getWidth();
+        if (normalize) Normalize(coocurrence, numPairs == 0 ? 1 : numPairs);
+        return coocurrence;
         
-        switch(degree){
-            case Degree_0:
-                for (int i = 0; i < height; i++) {
-                    for (int j = distance; j < width; j++) {
-                        int g1 = fastBitmap.getGray(i, j - distance) / div;
-                        int g2 = fastBitmap.getGray(i, j) / div;
-                        
-                        if(g1 >= levels) g1 = levels - 1;
-                        if(g2 >= levels) g2 = levels - 1;
-                        
-                        coocurrence[g1][g2]++;
-                        numPairs++;
-                    }
-                }
-            break;
-            case Degree_45:
-                for (int x = distance; x < height; x++) {
-                    for (int y = 0; y < width - distance; y++) {
-                        int g1 = fastBitmap.getGray(x, y) / div;
-                        int g2 = fastBitmap.getGray(x - distance, y + distance) / div;
-                        
-                        if(g1 >= levels) g1 = levels - 1;
-                        if(g2 >= levels) g2 = levels - 1;
-                        
-                        coocurrence[g1][g2]++;
-                        numPairs++;
-                    }
+    }
+    
+    /**
+     * Compute the GLCM of several offsets in a single scan of the image.
+     * The matrices are not normalized, see {@link #Normalize(int[][])}.
+     * @param fastBitmap Image to be processed.
+     * @param degrees Directions where the coocurrences are found.
+     * @param distances Scales at which the texture is analysed.
+     * @return GLCM of each offset, ordered by degree and then by distance.
+     */
+    public int[][][] Compute(final FastBitmap fastBitmap, Degree[] degrees, int... distances){
+        
+        if (!fastBitmap.isGrayscale())
+            throw new IllegalArgumentException("GLCM only works in grayscale images.");
+        if (levels < 2)
+            throw new IllegalArgumentException("The number of levels must be at least 2.");
+        
+        final int height = fastBitmap.getHeight();
+        final int width = fastBitmap.getWidth();
+        final int[] gray = Quantize(fastBitmap, levels);
+        
+        final int n = degrees.length * distances.length;
+        final int[][] offsets = new int[n][];
+        int k = 0;
+        for (Degree d : degrees) {
+            for (int dist : distances) {
+                offsets[k++] = Offset(d, dist);
+            }
+        }
+        
+        // each task counts its band of rows in its own matrices
+        int tasks = Math.min(MulticoreExecutor.getThreadPoolSize(), (int)Math.min(height, (long)height * width * n / PARALLEL_SIZE));
+        if (tasks <= 1)
+            return Count(gray, width, height, offsets, 0, height);
+        
+        List<Callable<int[][][]>> lst = new ArrayList<Callable<int[][][]>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int start = t * height / tasks;
+            final int end = (t + 1) * height / tasks;
+            lst.add(new Callable<int[][][]>() {
+                @Override
+                public int[][][] call() {
+                    return Count(gray, width, height, offsets, start, end);
                 }
-            break;
-            case Degree_90:
-                for (int i = distance; i < height; i++) {
-                    for (int j = 0; j < width; j++) {
-                        int g1 = fastBitmap.getGray(i - distance, j) / div;
-                        int g2 = fastBitmap.getGray(i, j) / div;
-                        
-                        if(g1 >= levels) g1 = levels - 1;
-                        if(g2 >= levels) g2 = levels - 1;
-                        
-                        coocurrence[g1][g2]++;
-                        numPairs++;
+            });
+        }
+        
+        List<int[][][]> results;
+        try {
+            results = MulticoreExecutor.run(lst);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+        
+        int[][][] glcm = results.get(0);
+        for (int r = 1; r < results.size(); r++) {
+            int[][][] local = results.get(r);
+            for (int o = 0; o < n; o++) {
+                for (int i = 0; i < levels; i++) {
+                    for (int j = 0; j < levels; j++) {
+                        glcm[o][i][j] += local[o][i][j];
                     }
                 }
-            break;
-            case Degree_135:
-                for (int x = distance; x < height; x++) {
-                    int steps = width - 1;
-                    for (int y = 0; y < width - distance; y++) {
-                        int g1 = fastBitmap.getGray(x, steps - y) / div;
-                        int g2 = fastBitmap.getGray(x - distance, steps -distance - y) / div;
-                        
-                        if(g1 >= levels) g1 = levels - 1;
-                        if(g2 >= levels) g2 = levels - 1;
-                        
-                        coocurrence[g1][g2]++;
-                        numPairs++;
-                    }
+            }
+        }
+        
+        return glcm;
+    }
+    
+    /**
+     * Count the coocurrences whose first pixel is in the rows from start to end.
+     */
+    private int[][][] Count(int[] gray, int width, int height, int[][] offsets, int start, int end){
+        int[][][] glcm = new int[offsets.length][levels][levels];
+        
+        for (int x = start; x < end; x++) {
+            int row = x * width;
+            for (int o = 0; o < offsets.length; o++) {
+                int dx = offsets[o][0];
+                int dy = offsets[o][1];
+                if (x + dx < 0 || x + dx >= height) continue;
+                
+                int[][] m = glcm[o];
+                int shift = dx * width + dy;
+                int y0 = Math.max(0, -dy);
+                int y1 = Math.min(width, width - dy);
+                for (int y = y0; y < y1; y++) {
+                    m[gray[row + y]][gray[row + y + shift]]++;
                 }
-            break;
+            }
         }
         
-        if (normalize) Normalize(coocurrence, numPairs == 0 ? 1 : numPairs);
-        return coocurrence;
+        return glcm;
+    }
+    
+    /**
+     * Normalize GLCM. Divides each element per number of pairs.
+     * @param coocurrence GLCM.
+     * @return Normalized GLCM.
+     */
+    public static double[][] Normalize(int[][] coocurrence){
+        double sum = 0;
+        for (int[] row : coocurrence)
+            for (int v : row)
+                sum += v;
+        if (sum == 0) sum = 1;
         
+        double[][] r = new double[coocurrence.length][coocurrence[0].length];
+        for (int i = 0; i < r.length; i++) {
+            for (int j = 0; j < r[0].length; j++) {
+                r[i][j] = coocurrence[i][j] / sum;
+            }
+        }
+        return r;
+    }
+    
+    /**
+     * Displacement (rows, columns) from the first to the second pixel of a pair.
+     * @param degree Degree.
+     * @param distance Distance.
+     * @return Offset.
+     */
+    static int[] Offset(Degree degree, int distance){
+        switch(degree){
+            case Degree_0: return new int[] {0, distance};
+            case Degree_45: return new int[] {-distance, distance};
+            case Degree_90: return new int[] {distance, 0};
+            case Degree_135: return new int[] {-distance, -distance};
+            default: throw new IllegalArgumentException("Degree must be specified.");
+        }
+    }
+    
+    /**
+     * Quantize the image in the specified number of levels, using the maximum gray of the image.
+     * @param fastBitmap Image to be processed.
+     * @param levels Number of levels.
+     * @return Levels, packed by rows.
+     */
+    static int[] Quantize(FastBitmap fastBitmap, int levels){
+        int height = fastBitmap.getHeight();
+        int width = fastBitmap.getWidth();
+        
+        int[] gray = new int[height * width];
+        int maxGray = 0;
+        for (int i = 0, k = 0; i < height; i++) {
+            for (int j = 0; j < width; j++, k++) {
+                gray[k] = fastBitmap.getGray(i, j);
+                if (gray[k] > maxGray) maxGray = gray[k];
+            }
+        }
+        
+        if(maxGray < levels) maxGray = levels;
+        int div = maxGray / (levels - 1);
+        
+        for (int k = 0; k < gray.length; k++) {
+            int g = gray[k] / div;
+            gray[k] = g >= levels ? levels - 1 : g;
+        }
+        return gray;
     }
     
     /**
@@ -266,22 +372,4 @@ public class GrayLevelCooccurrenceMatrix {
             }
         }
     }
-    
-    /**
-     * Gets maximum gray in the image.
-     * @param fastBitmap Image to be processed.
-     * @return Max intensity.
-     */
-    private int getMax(FastBitmap fastBitmap){
-        int max = 0;
-        for (int i = 0; i < fastBitmap.getHeight(); i++) {
-            for (int j = 0; j < fastBitmap.getWidth(); j++) {
-                int gray = fastBitmap.getGray(i, j);
-                if (gray > max) {
-                    max = gray;
-                }
-            }
-        }
-        return max;
-    }
 }
@@ -0,0 +1,369 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Texture;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.Texture.GrayLevelCooccurrenceMatrix.Degree;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Haralick feature maps.
+ * Computes the Haralick descriptors of the GLCM in a window around each pixel.
+ *
+ * <p>The window slides along the rows and the coocurrences are updated incrementally,
+ * only the pairs of the column that leaves and of the column that enters the window are counted.
+ * The pairs of all the offsets (degrees x distances) are accumulated in the same matrix.
+ * The windows are clipped at the borders of the image.</p>
+ *
+ * @see GrayLevelCooccurrenceMatrix
+ * @see HaralickDescriptors
+ * @author Diego catalano
+ */
+public class HaralickFeatureMap {
+
+    /**
+     * Haralick descriptors.
+     */
+    public static enum Feature {
+
+        /**
+         * Cluster prominence.
+         */
+        ClusterProminence,
+
+        /**
+         * Cluster shade.
+         */
+        ClusterShade,
+
+        /**
+         * Cluster tendency.
+         */
+        ClusterTendency,
+
+        /**
+         * Contrast.
+         */
+        Contrast,
+
+        /**
+         * Correlation.
+         */
+        Correlation,
+
+        /**
+         * Energy.
+         */
+        Energy,
+
+        /**
+         * Entropy.
+         */
+        Entropy,
+
+        /**
+         * Inertia.
+         */
+        Inertia,
+
+        /**
+         * Inverse difference.
+         */
+        InverseDifference,
+
+        /**
+         * Inverse difference moment.
+         */
+        InverseDifferenceMoment,
+
+        /**
+         * Texture homogeneity.
+         */
+        TextureHomogeneity };
+
+    private int radius = 3;
+    private int levels = 8;
+    private Degree[] degrees = Degree.values();
+    private int[] distances = {1};
+    private Feature[] features = Feature.values();
+
+    /**
+     * Get radius of the window.
+     * @return Radius.
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Set radius of the window.
+     * @param radius Radius.
+     */
+    public void setRadius(int radius) {
+        this.radius = Math.max(1, radius);
+    }
+
+    /**
+     * Get number of gray levels.
+     * @return Levels.
+     */
+    public int getLevels() {
+        return levels;
+    }
+
+    /**
+     * Set number of gray levels.
+     * @param levels Levels.
+     */
+    public void setLevels(int levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Get the degrees.
+     * @return Degrees.
+     */
+    public Degree[] getDegrees() {
+        return degrees;
+    }
+
+    /**
+     * Set the degrees.
+     * @param degrees Degrees.
+     */
+    public void setDegrees(Degree... degrees) {
+        this.degrees = degrees;
+    }
+
+    /**
+     * Get the distances.
+     * @return Distances.
+     */
+    public int[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * Set the distances.
+     * @param distances Distances.
+     */
+    public void setDistances(int... distances) {
+        this.distances = distances;
+    }
+
+    /**
+     * Get the features.
+     * @return Features.
+     */
+    public Feature[] getFeatures() {
+        return features;
+    }
+
+    /**
+     * Set the features.
+     * @param features Features.
+     */
+    public void setFeatures(Feature... features) {
+        this.features = features;
+    }
+
+    /**
+     * Initialize a new instance of the HaralickFeatureMap class.
+     */
+    public HaralickFeatureMap() {}
+
+    /**
+     * Initialize a new instance of the HaralickFeatureMap class.
+     * @param radius Radius of the window.
+     */
+    public HaralickFeatureMap(int radius) {
+        setRadius(radius);
+    }
+
+    /**
+     * Initialize a new instance of the HaralickFeatureMap class.
+     * @param radius Radius of the window.
+     * @param levels Number of gray levels.
+     * @param features Features, all the features if none is specified.
+     */
+    public HaralickFeatureMap(int radius, int levels, Feature... features) {
+        setRadius(radius);
+        this.levels = levels;
+        if (features.length > 0) this.features = features;
+    }
+
+    /**
+     * Compute the feature maps.
+     * @param fastBitmap Image to be processed.
+     * @return Feature maps, indexed by [feature][x][y].
+     */
+    public double[][][] Compute(FastBitmap fastBitmap){
+
+        if (!fastBitmap.isGrayscale())
+            throw new IllegalArgumentException("Haralick feature map only works in grayscale images.");
+        if (levels < 2)
+            throw new IllegalArgumentException("The number of levels must be at least 2.");
+        if (features.length == 0)
+            throw new IllegalArgumentException("At least one feature must be specified.");
+
+        final int height = fastBitmap.getHeight();
+        final int width = fastBitmap.getWidth();
+        final int[] gray = GrayLevelCooccurrenceMatrix.Quantize(fastBitmap, levels);
+
+        final int[][] offsets = new int[degrees.length * distances.length][];
+        int k = 0;
+        for (Degree d : degrees) {
+            for (int dist : distances) {
+                offsets[k++] = GrayLevelCooccurrenceMatrix.Offset(d, dist);
+            }
+        }
+
+        final double[][][] maps = new double[features.length][height][width];
+
+        int tasks = Math.min(MulticoreExecutor.getThreadPoolSize(), height);
+        List<Callable<Void>> lst = new ArrayList<Callable<Void>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int start = t * height / tasks;
+            final int end = (t + 1) * height / tasks;
+            lst.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    Process(gray, width, height, offsets, start, end, maps);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            MulticoreExecutor.run(lst);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+
+        return maps;
+    }
+
+    /**
+     * Compute the rows from start to end.
+     */
+    private void Process(int[] gray, int width, int height, int[][] offsets, int start, int end, double[][][] maps){
+
+        int[] glcm = new int[levels * levels];
+        int[] pairs = new int[1];
+        double[][] p = new double[levels][levels];
+
+        for (int x = start; x < end; x++) {
+            int rlo = Math.max(0, x - radius);
+            int rhi = Math.min(height - 1, x + radius);
+
+            // first window of the row
+            Arrays.fill(glcm, 0);
+            pairs[0] = 0;
+            int clo = 0;
+            int chi = Math.min(width - 1, radius);
+            for (int c = clo; c <= chi; c++) {
+                Column(gray, width, offsets, c, rlo, rhi, clo, c, 1, glcm, pairs);
+            }
+            Features(glcm, pairs[0], p, maps, x, 0);
+
+            for (int y = 1; y < width; y++) {
+                // remove the pairs of the column that leaves the window
+                if (y - radius > clo){
+                    Column(gray, width, offsets, clo, rlo, rhi, clo, chi, -1, glcm, pairs);
+                    clo++;
+                }
+
+                // add the pairs of the column that enters the window
+                if (y + radius < width){
+                    chi++;
+                    Column(gray, width, offsets, chi, rlo, rhi, clo, chi, 1, glcm, pairs);
+                }
+
+                Features(glcm, pairs[0], p, maps, x, y);
+            }
+        }
+    }
+
+    /**
+     * Add (or remove) the pairs of the window that have at least one pixel in the column.
+     */
+    private void Column(int[] gray, int width, int[][] offsets, int col, int rlo, int rhi, int clo, int chi, int sign, int[] glcm, int[] pairs){
+        for (int[] offset : offsets) {
+            int dx = offset[0];
+            int dy = offset[1];
+
+            // first pixel in the column
+            int c2 = col + dy;
+            if (c2 >= clo && c2 <= chi){
+                for (int r = Math.max(rlo, rlo - dx); r <= Math.min(rhi, rhi - dx); r++) {
+                    glcm[gray[r * width + col] * levels + gray[(r + dx) * width + c2]] += sign;
+                    pairs[0] += sign;
+                }
+            }
+
+            // second pixel in the column, the pairs inside the column were already counted
+            int c1 = col - dy;
+            if (dy != 0 && c1 >= clo && c1 <= chi){
+                for (int r = Math.max(rlo, rlo + dx); r <= Math.min(rhi, rhi + dx); r++) {
+                    glcm[gray[(r - dx) * width + c1] * levels + gray[r * width + col]] += sign;
+                    pairs[0] += sign;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the features of the window.
+     */
+    private void Features(int[] glcm, int pairs, double[][] p, double[][][] maps, int x, int y){
+        double n = pairs == 0 ? 1 : pairs;
+        for (int i = 0, k = 0; i < levels; i++) {
+            for (int j = 0; j < levels; j++, k++) {
+                p[i][j] = glcm[k] / n;
+            }
+        }
+
+        for (int f = 0; f < features.length; f++) {
+            maps[f][x][y] = Feature(features[f], p);
+        }
+    }
+
+    private static double Feature(Feature feature, double[][] p){
+        switch(feature){
+            case ClusterProminence: return HaralickDescriptors.ClusterProminence(p);
+            case ClusterShade: return HaralickDescriptors.ClusterShade(p);
+            case ClusterTendency: return HaralickDescriptors.ClusterTendency(p);
+            case Contrast: return HaralickDescriptors.Contrast(p);
+            case Correlation: return HaralickDescriptors.Correlation(p);
+            case Energy: return HaralickDescriptors.Energy(p);
+            case Entropy: return HaralickDescriptors.Entropy(p);
+            case Inertia: return HaralickDescriptors.Inertia(p);
+            case InverseDifference: return HaralickDescriptors.InverseDifference(p);
+            case InverseDifferenceMoment: return HaralickDescriptors.InverseDifferenceMoment(p);
+            default: return HaralickDescriptors.TextureHomogeneity(p);
+        }
+    }
+}
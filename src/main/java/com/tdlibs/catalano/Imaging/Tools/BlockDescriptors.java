@@ -0,0 +1,246 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Tools;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.Texture.BinaryPattern.IBinaryPattern;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Extraction of block descriptors.
+ * Every block is a region of interest of the image, without copy (the raw data of a region is a compact copy),
+ * only the blocks changed by the filters are copied before. The descriptor of each block is written in a preallocated vector,
+ * at the offset of the block. All the blocks must have descriptors with the same length.
+ * @author Diego catalano
+ */
+final class BlockDescriptors {
+
+    private BlockDescriptors() {}
+
+    /**
+     * Grid of non overlapped blocks, as used by the block processing and the spatial histogram.
+     * @param width Width of the image.
+     * @param height Height of the image.
+     * @param wBlock Number of width blocks.
+     * @param hBlock Number of height blocks.
+     * @return Blocks, packed as (x, y, width, height).
+     */
+    static int[] Grid(int width, int height, int wBlock, int hBlock){
+        int wDiv = (int)Math.round((double)width / (double)wBlock) - 1;
+        int hDiv = (int)Math.round((double)height / (double)hBlock) - 1;
+
+        int[] blocks = new int[4 * wBlock * hBlock];
+        int idx = 0;
+        for (int i = 0; i < hBlock; i++) {
+            for (int j = 0; j < wBlock; j++) {
+                blocks[idx++] = i * hDiv;
+                blocks[idx++] = j * wDiv;
+                blocks[idx++] = wDiv;
+                blocks[idx++] = hDiv;
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Concatenate several lists of blocks.
+     * @param grids Blocks.
+     * @return All the blocks.
+     */
+    static int[] Concatenate(List<int[]> grids){
+        int size = 0;
+        for (int[] g : grids) size += g.length;
+
+        int[] blocks = new int[size];
+        int idx = 0;
+        for (int[] g : grids) {
+            System.arraycopy(g, 0, blocks, idx, g.length);
+            idx += g.length;
+        }
+        return blocks;
+    }
+
+    /**
+     * Compute the histograms of the blocks.
+     * @param fastBitmap Image to be processed.
+     * @param blocks Blocks.
+     * @param pattern Binary pattern.
+     * @param parallel Compute the blocks in parallel.
+     * @return Concatenated histograms.
+     */
+    static int[] Compute(final FastBitmap fastBitmap, final int[] blocks, final IBinaryPattern pattern, boolean parallel){
+        final int n = blocks.length / 4;
+
+        // the first block gives the length of the descriptors
+        int[] first = Histogram(fastBitmap, blocks, 0, pattern);
+        final int length = first.length;
+        final int[] all = new int[n * length];
+        System.arraycopy(first, 0, all, 0, length);
+
+        Run(1, n, parallel, new Block() {
+            @Override
+            public void Compute(int b) {
+                int[] h = Histogram(fastBitmap, blocks, b, pattern);
+                Check(h.length, length);
+                System.arraycopy(h, 0, all, b * length, length);
+            }
+        });
+
+        return all;
+    }
+
+    /**
+     * Compute the descriptors of the blocks.
+     * @param fastBitmap Image to be processed.
+     * @param blocks Blocks.
+     * @param filters Filters applied in a copy of each block, can be null.
+     * @param function Function to compute the descriptors.
+     * @param parallel Compute the blocks in parallel.
+     * @return Concatenated descriptors.
+     */
+    static double[] Compute(final FastBitmap fastBitmap, final int[] blocks, final FiltersSequence filters, final IAggregateVectors function, boolean parallel){
+        final int n = blocks.length / 4;
+
+        // the first block gives the length of the descriptors
+        double[] first = Descriptor(fastBitmap, blocks, 0, filters, function);
+        final int length = first.length;
+        final double[] all = new double[n * length];
+        System.arraycopy(first, 0, all, 0, length);
+
+        Run(1, n, parallel, new Block() {
+            @Override
+            public void Compute(int b) {
+                double[] v = Descriptor(fastBitmap, blocks, b, filters, function);
+                Check(v.length, length);
+                System.arraycopy(v, 0, all, b * length, length);
+            }
+        });
+
+        return all;
+    }
+
+    /**
+     * Process a batch of images in parallel, each image is processed by one thread.
+     * @param images Images.
+     * @param blocks Blocks of each image.
+     * @param pattern Binary pattern.
+     * @return Concatenated histograms of each image.
+     */
+    static int[][] Compute(final List<FastBitmap> images, final List<int[]> blocks, final IBinaryPattern pattern){
+        final int[][] result = new int[images.size()][];
+        Run(0, images.size(), true, new Block() {
+            @Override
+            public void Compute(int i) {
+                result[i] = BlockDescriptors.Compute(images.get(i), blocks.get(i), pattern, false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Process a batch of images in parallel, each image is processed by one thread.
+     * @param images Images.
+     * @param blocks Blocks of each image.
+     * @param filters Filters applied in a copy of each block, can be null.
+     * @param function Function to compute the descriptors.
+     * @return Concatenated descriptors of each image.
+     */
+    static double[][] Compute(final List<FastBitmap> images, final List<int[]> blocks, final FiltersSequence filters, final IAggregateVectors function){
+        final double[][] result = new double[images.size()][];
+        Run(0, images.size(), true, new Block() {
+            @Override
+            public void Compute(int i) {
+                result[i] = BlockDescriptors.Compute(images.get(i), blocks.get(i), filters, function, false);
+            }
+        });
+        return result;
+    }
+
+    private static int[] Histogram(FastBitmap fastBitmap, int[] blocks, int b, IBinaryPattern pattern){
+        int k = 4 * b;
+        FastBitmap block = fastBitmap.getRegionOfInterest(blocks[k], blocks[k + 1], blocks[k + 2], blocks[k + 3]);
+        return pattern.ComputeFeatures(block).getValues();
+    }
+
+    private static double[] Descriptor(FastBitmap fastBitmap, int[] blocks, int b, FiltersSequence filters, IAggregateVectors function){
+        int k = 4 * b;
+        FastBitmap block = fastBitmap.getRegionOfInterest(blocks[k], blocks[k + 1], blocks[k + 2], blocks[k + 3]);
+        if (filters != null){
+            // the filters must not change the image
+            block = new FastBitmap(block);
+            filters.applyInPlace(block);
+        }
+        return function.Compute(block);
+    }
+
+    private static void Check(int length, int expected){
+        if (length != expected)
+            throw new IllegalArgumentException("All the blocks must have descriptors with the same length.");
+    }
+
+    /**
+     * Work of one block.
+     */
+    private interface Block {
+        void Compute(int b);
+    }
+
+    /**
+     * Run the blocks from start to n, interleaved between the threads.
+     */
+    private static void Run(final int start, final int n, boolean parallel, final Block block){
+        int threads = parallel ? Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize(), n - start)) : 1;
+        if (threads == 1){
+            for (int b = start; b < n; b++) block.Compute(b);
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threads);
+        for (int t = 0; t < threads; t++) {
+            final int first = start + t;
+            final int step = threads;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int b = first; b < n; b += step) block.Compute(b);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            MulticoreExecutor.run(tasks);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException)
+                throw (RuntimeException)ex.getCause();
+            throw new RuntimeException(ex.getCause());
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
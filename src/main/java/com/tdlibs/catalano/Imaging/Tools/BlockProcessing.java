@@ -21,9 +21,7 @@
 
 package com.tdlibs.catalano.Imaging.Tools;
 
-import com.tdlibs.catalano.Core.ArraysUtil;
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.Filters.Crop;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -38,6 +36,25 @@ public class BlockProcessing {
     
     private int wBlock;
     private int hBlock;
+    private boolean parallel = false;
+
+    /**
+     * Check if the blocks of one image are computed in parallel.
+     * @return True if the blocks are computed in parallel.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Set if the blocks of one image are computed in parallel, disabled by default.
+     * The filters and the function are shared by the threads and must be thread safe, MedianCut, LocalTernaryPattern
+     * and LocalAdaptiveTernaryPattern keep state in fields and are not.
+     * @param parallel True to compute the blocks in parallel.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
 
     /**
      * Initializes a new instance of the BlockProcessing class.
@@ -58,65 +75,60 @@ public class BlockProcessing {
     
     /**
      * Compute the block processing.
+     * <p>Each block is copied before the filters, the image is not changed.
+     * The blocks are computed in parallel only if enabled by {@link #setParallel(boolean)}.</p>
      * @param fastBitmap Image to be processed.
      * @param filters List of filters to be used.
      * @param function Function to compute the descriptors.
      * @return Concatenate descriptors.
      */
     public double[] Compute(FastBitmap fastBitmap, FiltersSequence filters, IAggregateVectors function){
-        int width = fastBitmap.getWidth();
-        int height = fastBitmap.getHeight();
-        
-        int wDiv = (int)Math.round((double)width / (double)wBlock) - 1;
-        int hDiv = (int)Math.round((double)height / (double)hBlock) - 1;
-        
-        List<double[]> vectors = new ArrayList<double[]>();
-        
-        for (int i = 0; i < hBlock; i++) {
-            for (int j = 0; j < wBlock; j++) {
-                FastBitmap copy = getSubimage(fastBitmap, i*hDiv, j*wDiv, wDiv, hDiv);
-                filters.applyInPlace(copy);
-                vectors.add(function.Compute(copy));
-            }
-        }
-        
-        //Concatenate all the histograms
-        return ArraysUtil.ConcatenateDouble(vectors);
+        int[] blocks = BlockDescriptors.Grid(fastBitmap.getWidth(), fastBitmap.getHeight(), wBlock, hBlock);
+        return BlockDescriptors.Compute(fastBitmap, blocks, filters, function, parallel);
     }
 
     /**
      * Compute the block processing.
+     * <p>The blocks are regions of interest of the image, they are copied only if the raw data
+     * (getGrayData, getRGBData) is read, and the changes in a block are written in the image.
+     * The blocks are computed in parallel only if enabled by {@link #setParallel(boolean)}.</p>
      * @param fastBitmap Image to be processed.
      * @param function Function to compute the descriptors.
      * @return Concatenate descriptors.
      */
     public double[] Compute(FastBitmap fastBitmap, IAggregateVectors function) {
-        int width = fastBitmap.getWidth();
-        int height = fastBitmap.getHeight();
-        
-        int wDiv = (int)Math.round((double)width / (double)wBlock) - 1;
-        int hDiv = (int)Math.round((double)height / (double)hBlock) - 1;
-        
-        List<double[]> vectors = new ArrayList<double[]>();
-        
-        for (int i = 0; i < hBlock; i++) {
-            for (int j = 0; j < wBlock; j++) {
-                FastBitmap copy = getSubimage(fastBitmap, i*hDiv, j*wDiv, wDiv, hDiv);
-                vectors.add(function.Compute(copy));
-            }
-        }
-        
-        //Concatenate all the histograms
-        return ArraysUtil.ConcatenateDouble(vectors);
+        int[] blocks = BlockDescriptors.Grid(fastBitmap.getWidth(), fastBitmap.getHeight(), wBlock, hBlock);
+        return BlockDescriptors.Compute(fastBitmap, blocks, null, function, parallel);
     }
     
-    private FastBitmap getSubimage(FastBitmap fastBitmap, int x, int y, int width, int height){
-        FastBitmap copy = new FastBitmap(fastBitmap);
-        
-        Crop crop = new Crop(x, y, width, height);
-        crop.applyInPlace(copy);
-        
-        return copy;
+    /**
+     * Compute the block processing of several images.
+     * <p>The images are computed in parallel, the filters and the function must be thread safe (MedianCut is not).</p>
+     * @param images Images to be processed.
+     * @param filters List of filters to be used.
+     * @param function Function to compute the descriptors.
+     * @return Concatenate descriptors of each image.
+     */
+    public double[][] ComputeAll(List<FastBitmap> images, FiltersSequence filters, IAggregateVectors function){
+        return BlockDescriptors.Compute(images, Grids(images), filters, function);
+    }
+    
+    /**
+     * Compute the block processing of several images.
+     * <p>The images are computed in parallel, the function must be thread safe.</p>
+     * @param images Images to be processed.
+     * @param function Function to compute the descriptors.
+     * @return Concatenate descriptors of each image.
+     */
+    public double[][] ComputeAll(List<FastBitmap> images, IAggregateVectors function){
+        return BlockDescriptors.Compute(images, Grids(images), null, function);
     }
     
+    private List<int[]> Grids(List<FastBitmap> images){
+        List<int[]> grids = new ArrayList<int[]>(images.size());
+        for (FastBitmap fb : images) {
+            grids.add(BlockDescriptors.Grid(fb.getWidth(), fb.getHeight(), wBlock, hBlock));
+        }
+        return grids;
+    }
 }
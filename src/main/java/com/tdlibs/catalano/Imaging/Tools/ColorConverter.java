@@ -1653,6 +1653,27 @@ public class ColorConverter {
         }
     }
     
+    /**
+     * LMS transformation matrix, multiplied by a row vector.
+     * @param matrix LMS matrix.
+     * @param forward True for XYZ to LMS, false for LMS to XYZ.
+     * @return Matrix.
+     */
+    static double[][] LMSMatrix(LMS matrix, boolean forward){
+        switch(matrix){
+            case HPE:
+                return forward ? hpe_f : hpe_b;
+            case Bradford:
+                return forward ? bradford_f : bradford_b;
+            case VonKries:
+                return forward ? vonkries_f : vonkries_b;
+            case CAT97:
+                return forward ? cat97_f : cat97_b;
+            default:
+                return forward ? cat02_f : cat02_b;
+        }
+    }
+    
     /**
      * RGB -> C1C2C3.
      * @param color Color.
@@ -0,0 +1,342 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Tools;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Dense Histograms of Oriented Gradients.
+ *
+ * <p>Computes one integral histogram per orientation bin over the whole image, so the
+ * descriptor of any window is extracted in O(cells * bins), independent of the window area.
+ * The gradients are the same of {@link HistogramOfOrientedGradients} (3x3 differences divided by 6),
+ * the orientation bin comes from a lookup table indexed by the integer differences, so no
+ * trigonometric function is evaluated per pixel.</p>
+ *
+ * <p>The descriptor layout is the same of {@link HistogramOfOrientedGradients}: non overlapping
+ * blocks in row order, the cells of each block in row order and the bins of each cell, every
+ * block L2 normalized.</p>
+ *
+ * <p>Memory: the integral histograms use (width + 1) * (height + 1) * numberOfBins doubles.
+ * Compute keeps the integral histograms of the last image, it must not be called concurrently.</p>
+ *
+ * @author Diego catalano
+ */
+public class DenseHistogramOfOrientedGradients {
+
+    private int numberOfBins = 9;
+    private int cellSize = 6;  // size of the cell, in number of pixels
+    private int blockSize = 3; // size of the block, in number of cells
+
+    private float epsilon = 1e-10f;
+
+    // Orientation bin indexed by the differences, shared by the instances with the same number of bins.
+    private static final byte[][] binTables = new byte[128][];
+    private static final int RANGE = 3 * 255;
+    private static final int SIDE = 2 * RANGE + 1;
+    private byte[] binTable;
+
+    // Integral histograms, bins interleaved: ((i * (width + 1)) + j) * numberOfBins + bin
+    private double[] integral;
+    private int width;
+    private int height;
+
+    /**
+     * Gets the number of histogram bins.
+     * @return Number of histogram bins.
+     */
+    public int getNumberOfBins() {
+        return numberOfBins;
+    }
+
+    /**
+     * Gets the size of a cell, in pixels.
+     * @return Size of a cell.
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Gets the size of a block, in cells.
+     * @return Size of a block.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Gets the width of the last computed image.
+     * @return Width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the last computed image.
+     * @return Height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Initializes a new instance of the DenseHistogramOfOrientedGradients class.
+     */
+    public DenseHistogramOfOrientedGradients() {
+        this(9, 3, 6);
+    }
+
+    /**
+     * Initializes a new instance of the DenseHistogramOfOrientedGradients class.
+     * @param numberOfBins The number of histogram bins.
+     * @param blockSize The size of a block, measured in cells.
+     * @param cellSize The size of a cell, measured in pixels.
+     */
+    public DenseHistogramOfOrientedGradients(int numberOfBins, int blockSize, int cellSize){
+        if (numberOfBins < 1 || numberOfBins > 127)
+            throw new IllegalArgumentException("Number of bins must be in the range [1,127].");
+        if (blockSize < 1 || cellSize < 1)
+            throw new IllegalArgumentException("Block size and cell size must be greater than 0.");
+
+        this.numberOfBins = numberOfBins;
+        this.blockSize = blockSize;
+        this.cellSize = cellSize;
+        BuildTables();
+    }
+
+    /**
+     * Build the orientation lookup table.
+     */
+    private void BuildTables(){
+        synchronized(binTables){
+            binTable = binTables[numberOfBins];
+            if (binTable != null) return;
+            
+            double binWidth = (2.0 * Math.PI) / numberOfBins; // 0 to 360
+            binTable = new byte[SIDE * SIDE];
+            for (int dv = -RANGE; dv <= RANGE; dv++) {
+                for (int dh = -RANGE; dh <= RANGE; dh++) {
+                    float h = dh * 0.166666667f;
+                    float v = dv * 0.166666667f;
+                    double ang = (float)Math.atan2(v, h);
+                    int bin = (int)Math.floor((ang + Math.PI) / binWidth);
+                    if (bin >= numberOfBins) bin = numberOfBins - 1;
+                    binTable[(dv + RANGE) * SIDE + dh + RANGE] = (byte)bin;
+                }
+            }
+            binTables[numberOfBins] = binTable;
+        }
+    }
+
+    /**
+     * Compute the integral histograms of the image.
+     * After this call, descriptors of any window can be extracted with getDescriptor.
+     * @param fastBitmap Image to be processed.
+     */
+    public void Compute(FastBitmap fastBitmap){
+
+        if (!fastBitmap.isGrayscale())
+            throw new IllegalArgumentException("DenseHistogramOfOrientedGradients only works in grayscale images.");
+
+        this.width = fastBitmap.getWidth();
+        this.height = fastBitmap.getHeight();
+        this.integral = new double[(width + 1) * (height + 1) * numberOfBins];
+
+        final byte[] data = fastBitmap.getGrayData();
+
+        // 1. Horizontal prefix sums of each bin, row by row.
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        int bands = Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize(), height));
+        for (int k = 0; k < bands; k++) {
+            final int start = k * height / bands;
+            final int end = (k + 1) * height / bands;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = start; i < end; i++) RowPrefix(data, i);
+                    return null;
+                }
+            });
+        }
+        RunAll(tasks);
+
+        // 2. Vertical accumulation, split by columns.
+        tasks.clear();
+        bands = Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize(), width));
+        for (int k = 0; k < bands; k++) {
+            final int start = 1 + k * width / bands;
+            final int end = 1 + (k + 1) * width / bands;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    ColumnAccumulate(start, end);
+                    return null;
+                }
+            });
+        }
+        RunAll(tasks);
+    }
+
+    private void RowPrefix(byte[] data, int i){
+        int bins = numberOfBins;
+        int rowStride = (width + 1) * bins;
+        int idx = (i + 1) * rowStride + bins;
+
+        double[] sum = new double[bins];
+        for (int j = 0; j < width; j++) {
+            if (i > 0 && i < height - 1 && j > 0 && j < width - 1){
+                int p = i * width + j;
+                int up = p - width;
+                int down = p + width;
+                int dh = (data[up + 1] & 0xFF) + (data[p + 1] & 0xFF) + (data[down + 1] & 0xFF)
+                       - (data[up - 1] & 0xFF) - (data[p - 1] & 0xFF) - (data[down - 1] & 0xFF);
+                int dv = (data[down - 1] & 0xFF) + (data[down] & 0xFF) + (data[down + 1] & 0xFF)
+                       - (data[up - 1] & 0xFF) - (data[up] & 0xFF) - (data[up + 1] & 0xFF);
+                float h = dh * 0.166666667f;
+                float v = dv * 0.166666667f;
+                sum[binTable[(dv + RANGE) * SIDE + dh + RANGE]] += (float)Math.sqrt(h * h + v * v);
+            }
+            System.arraycopy(sum, 0, integral, idx, bins);
+            idx += bins;
+        }
+    }
+
+    private void ColumnAccumulate(int startColumn, int endColumn){
+        int bins = numberOfBins;
+        int rowStride = (width + 1) * bins;
+        int from = startColumn * bins;
+        int to = endColumn * bins;
+
+        for (int i = 2; i <= height; i++) {
+            int cur = i * rowStride;
+            int prev = cur - rowStride;
+            for (int k = from; k < to; k++) {
+                integral[cur + k] += integral[prev + k];
+            }
+        }
+    }
+
+    private void RunAll(List<Callable<Void>> tasks){
+        try {
+            MulticoreExecutor.run(tasks);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Gets the length of the descriptor of a window.
+     * @param windowWidth Width of the window.
+     * @param windowHeight Height of the window.
+     * @return Descriptor length.
+     */
+    public int getDescriptorLength(int windowWidth, int windowHeight){
+        int blocksX = (windowHeight / cellSize) / blockSize;
+        int blocksY = (windowWidth / cellSize) / blockSize;
+        return blocksX * blocksY * blockSize * blockSize * numberOfBins;
+    }
+
+    /**
+     * Process the whole image.
+     * @param fastBitmap Image to be processed.
+     * @return HOG descriptor.
+     */
+    public float[] ProcessImage(FastBitmap fastBitmap){
+        Compute(fastBitmap);
+        return getDescriptor(0, 0, width, height);
+    }
+
+    /**
+     * Gets the descriptor of a window. Compute must be called before.
+     * @param x X axis coordinate of the window (row).
+     * @param y Y axis coordinate of the window (column).
+     * @param windowWidth Width of the window.
+     * @param windowHeight Height of the window.
+     * @return HOG descriptor.
+     */
+    public float[] getDescriptor(int x, int y, int windowWidth, int windowHeight){
+        float[] descriptor = new float[getDescriptorLength(windowWidth, windowHeight)];
+        getDescriptor(x, y, windowWidth, windowHeight, descriptor, 0);
+        return descriptor;
+    }
+
+    /**
+     * Gets the descriptor of a window. Compute must be called before.
+     * This method is thread safe, allowing different windows to be extracted concurrently.
+     * @param x X axis coordinate of the window (row).
+     * @param y Y axis coordinate of the window (column).
+     * @param windowWidth Width of the window.
+     * @param windowHeight Height of the window.
+     * @param descriptor Output vector.
+     * @param offset Offset in the output vector.
+     */
+    public void getDescriptor(int x, int y, int windowWidth, int windowHeight, float[] descriptor, int offset){
+
+        if (integral == null)
+            throw new IllegalStateException("Compute must be called before extracting descriptors.");
+        if (x < 0 || y < 0 || x + windowHeight > height || y + windowWidth > width)
+            throw new IllegalArgumentException("The window must be inside the image.");
+
+        int bins = numberOfBins;
+        int rowStride = (width + 1) * bins;
+        int blocksX = (windowHeight / cellSize) / blockSize;
+        int blocksY = (windowWidth / cellSize) / blockSize;
+
+        int c = offset;
+        for (int bi = 0; bi < blocksX; bi++) {
+            for (int bj = 0; bj < blocksY; bj++) {
+                int start = c;
+                double norm = 0;
+
+                for (int ci = 0; ci < blockSize; ci++) {
+                    int r0 = x + (bi * blockSize + ci) * cellSize;
+                    int r1 = r0 + cellSize;
+                    for (int cj = 0; cj < blockSize; cj++) {
+                        int c0 = y + (bj * blockSize + cj) * cellSize;
+                        int c1 = c0 + cellSize;
+
+                        int a = r0 * rowStride + c0 * bins;
+                        int b = r0 * rowStride + c1 * bins;
+                        int d = r1 * rowStride + c0 * bins;
+                        int e = r1 * rowStride + c1 * bins;
+                        for (int k = 0; k < bins; k++) {
+                            float v = (float)(integral[e + k] - integral[b + k] - integral[d + k] + integral[a + k]);
+                            descriptor[c++] = v;
+                            norm += v * v;
+                        }
+                    }
+                }
+
+                float div = (float)Math.sqrt(norm) + epsilon;
+                for (int k = start; k < c; k++) {
+                    descriptor[k] /= div;
+                }
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ package com.tdlibs.catalano.Imaging.Tools;
 
 import com.tdlibs.catalano.Imaging.FastBitmap;
 import com.tdlibs.catalano.Imaging.IApplyInPlace;
+import com.tdlibs.catalano.Imaging.IPointOperation;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -70,10 +71,35 @@ public class FiltersSequence implements IApplyInPlace{
         this.lst.clear();
     }
 
+    /**
+     * Apply the filters in the sequence.
+     * <p>Adjacent point operations are composed in a single lookup table and applied in one pass over the image.</p>
+     * @param fastBitmap Image to be processed.
+     */
     @Override
     public void applyInPlace(FastBitmap fastBitmap) {
-        for (IApplyInPlace f : lst) {
-            f.applyInPlace(fastBitmap);
+        int i = 0;
+        while (i < lst.size()) {
+            IApplyInPlace f = lst.get(i);
+            
+            int end = i + 1;
+            if (f instanceof IPointOperation && (fastBitmap.isGrayscale() || fastBitmap.isRGB())) {
+                while (end < lst.size() && lst.get(end) instanceof IPointOperation) end++;
+            }
+            
+            if (end - i == 1) {
+                f.applyInPlace(fastBitmap);
+            }
+            else {
+                FastBitmap.ColorSpace colorSpace = fastBitmap.getColorSpace();
+                int[][] lut = ((IPointOperation)f).getLookupTable(colorSpace);
+                for (int k = i + 1; k < end; k++) {
+                    lut = ImageUtils.ComposeLookupTable(lut, ((IPointOperation)lst.get(k)).getLookupTable(colorSpace));
+                }
+                ImageUtils.ApplyLookupTable(fastBitmap, lut);
+            }
+            
+            i = end;
         }
     }
 }
\ No newline at end of file
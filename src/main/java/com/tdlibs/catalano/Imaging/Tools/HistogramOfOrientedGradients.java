@@ -150,7 +150,8 @@ public class HistogramOfOrientedGradients {
                             double mag = magnitude[startCellX + x][startCellY + y];
 
                             // Get its angular bin
-                            int bin = (int)Math.floor((ang + Math.PI) * binWidth);
+                            int bin = (int)Math.floor((ang + Math.PI) / binWidth);
+                            if (bin >= numberOfBins) bin = numberOfBins - 1;
 
                             histogram[bin] += mag;
                         }
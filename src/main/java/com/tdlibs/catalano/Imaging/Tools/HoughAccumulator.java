@@ -0,0 +1,220 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Tools;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Common routines of the Hough transformations.
+ * Edge point extraction, gradient orientation, parallel execution and
+ * non maximum suppression by separable maximum filters.
+ * @author Diego catalano
+ */
+final class HoughAccumulator {
+
+    private HoughAccumulator() {}
+
+    /**
+     * Extract the edge points (pixels equal to 255) of a grayscale image.
+     * @param edges Edge image.
+     * @return Packed offsets (x * width + y) of the edge points.
+     */
+    static int[] EdgePoints(FastBitmap edges){
+        byte[] data = edges.getGrayData();
+        int count = 0;
+        for (int i = 0; i < data.length; i++) {
+            if ((data[i] & 0xFF) == 255) count++;
+        }
+
+        int[] points = new int[count];
+        int k = 0;
+        for (int i = 0; i < data.length; i++) {
+            if ((data[i] & 0xFF) == 255) points[k++] = i;
+        }
+        return points;
+    }
+
+    /**
+     * Gradient orientation of the edge points, using the Sobel operator.
+     * @param source Grayscale image used to compute the gradient.
+     * @param points Packed offsets of the edge points.
+     * @return Orientation, in radians [-PI, PI], measured from the X axis (rows) to the Y axis (columns).
+     */
+    static float[] Orientation(FastBitmap source, int[] points){
+        if (!source.isGrayscale())
+            throw new IllegalArgumentException("The gradient source must be a grayscale image.");
+
+        byte[] data = source.getGrayData();
+        int width = source.getWidth();
+        int height = source.getHeight();
+
+        float[] orientation = new float[points.length];
+        for (int k = 0; k < points.length; k++) {
+            int x = points[k] / width;
+            int y = points[k] % width;
+            if (x < 1 || y < 1 || x >= height - 1 || y >= width - 1){
+                orientation[k] = Float.NaN;
+                continue;
+            }
+
+            int p = points[k];
+            int p1 = data[p - width - 1] & 0xFF;
+            int p2 = data[p - width] & 0xFF;
+            int p3 = data[p - width + 1] & 0xFF;
+            int p4 = data[p - 1] & 0xFF;
+            int p6 = data[p + 1] & 0xFF;
+            int p7 = data[p + width - 1] & 0xFF;
+            int p8 = data[p + width] & 0xFF;
+            int p9 = data[p + width + 1] & 0xFF;
+
+            int gx = (p7 + 2 * p8 + p9) - (p1 + 2 * p2 + p3);
+            int gy = (p3 + 2 * p6 + p9) - (p1 + 2 * p4 + p7);
+
+            orientation[k] = (gx == 0 && gy == 0) ? Float.NaN : (float)Math.atan2(gy, gx);
+        }
+        return orientation;
+    }
+
+    /**
+     * Run the tasks in the thread pool.
+     * @param tasks Tasks.
+     * @return Results of each task.
+     */
+    static <T> List<T> Run(List<Callable<T>> tasks){
+        try {
+            return MulticoreExecutor.run(tasks);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Number of tasks to split a work of the specified size.
+     * @param size Size of the work.
+     * @param minimum Minimum size of each task.
+     * @return Number of tasks.
+     */
+    static int Tasks(int size, int minimum){
+        return Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize(), size / Math.max(1, minimum)));
+    }
+
+    /**
+     * Maximum filter over a line of the accumulator.
+     * Van Herk / Gil-Werman algorithm, constant cost per element whatever the radius.
+     * @param src Source.
+     * @param dst Destination.
+     * @param offset Offset of the first element.
+     * @param stride Distance between two elements.
+     * @param n Number of elements.
+     * @param radius Radius of the filter.
+     * @param wrap Circular line.
+     * @param g Buffer with at least n + 2 * radius elements.
+     * @param h Buffer with at least n + 2 * radius elements.
+     */
+    static void MaxLine(int[] src, int[] dst, int offset, int stride, int n, int radius, boolean wrap, int[] g, int[] h){
+        int window = 2 * radius + 1;
+        int len = n + 2 * radius;
+
+        // padded line, -1 outside of the borders (votes are never negative)
+        for (int i = 0; i < len; i++) {
+            int idx = i - radius;
+            if (idx < 0 || idx >= n){
+                if (!wrap){
+                    g[i] = -1;
+                    continue;
+                }
+                idx = ((idx % n) + n) % n;
+            }
+            g[i] = src[offset + idx * stride];
+        }
+        System.arraycopy(g, 0, h, 0, len);
+
+        // prefix maximum inside blocks, suffix maximum inside blocks
+        for (int i = 1; i < len; i++) {
+            if (i % window != 0 && g[i - 1] > g[i]) g[i] = g[i - 1];
+        }
+        for (int i = len - 2; i >= 0; i--) {
+            if ((i + 1) % window != 0 && h[i + 1] > h[i]) h[i] = h[i + 1];
+        }
+
+        for (int i = 0; i < n; i++) {
+            dst[offset + i * stride] = Math.max(h[i], g[i + window - 1]);
+        }
+    }
+
+    /**
+     * Separable maximum filter of a 2D accumulator.
+     * @param acc Accumulator, rows x cols.
+     * @param rows Number of rows.
+     * @param cols Number of columns.
+     * @param radius Radius.
+     * @param wrapRows Rows are circular.
+     * @return Maximum of the neighborhood of each element.
+     */
+    static int[] Dilate(int[] acc, int rows, int cols, int radius, boolean wrapRows){
+        int[] tmp = new int[acc.length];
+        int[] dst = new int[acc.length];
+        int size = Math.max(rows, cols) + 2 * radius;
+        int[] g = new int[size];
+        int[] h = new int[size];
+
+        for (int i = 0; i < rows; i++)
+            MaxLine(acc, tmp, i * cols, 1, cols, radius, false, g, h);
+        for (int j = 0; j < cols; j++)
+            MaxLine(tmp, dst, j, cols, rows, radius, wrapRows, g, h);
+
+        return dst;
+    }
+
+    /**
+     * Separable maximum filter of a 3D accumulator.
+     * @param acc Accumulator, depth x rows x cols.
+     * @param depth Depth.
+     * @param rows Number of rows.
+     * @param cols Number of columns.
+     * @param radius Radius in rows and columns.
+     * @param depthRadius Radius in depth.
+     * @return Maximum of the neighborhood of each element.
+     */
+    static int[] Dilate(int[] acc, int depth, int rows, int cols, int radius, int depthRadius){
+        int plane = rows * cols;
+        int[] tmp = new int[acc.length];
+        int[] dst = new int[acc.length];
+        int size = Math.max(depth, Math.max(rows, cols)) + 2 * Math.max(radius, depthRadius);
+        int[] g = new int[size];
+        int[] h = new int[size];
+
+        for (int d = 0; d < depth; d++) {
+            for (int i = 0; i < rows; i++)
+                MaxLine(acc, dst, d * plane + i * cols, 1, cols, radius, false, g, h);
+            for (int j = 0; j < cols; j++)
+                MaxLine(dst, tmp, d * plane + j, cols, rows, radius, false, g, h);
+        }
+        for (int p = 0; p < plane; p++)
+            MaxLine(tmp, dst, p, plane, depth, depthRadius, false, g, h);
+
+        return dst;
+    }
+}
@@ -0,0 +1,125 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Tools;
+
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.FastGraphics;
+
+/**
+ * Circle found by the Hough circle transformation.
+ * @author Diego catalano
+ */
+public class HoughCircle implements Comparable<HoughCircle>{
+    
+    private int x;
+    private int y;
+    private int radius;
+    private int intensity;
+    private double relativeIntensity;
+
+    /**
+     * Get X axis coordinate of the center.
+     * @return X axis coordinate.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Get Y axis coordinate of the center.
+     * @return Y axis coordinate.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Get radius.
+     * @return Radius.
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Get intensity.
+     * @return Intensity.
+     */
+    public int getIntensity() {
+        return intensity;
+    }
+
+    /**
+     * Get relative intensity.
+     * @return Relative intensity.
+     */
+    public double getRelativeIntensity() {
+        return relativeIntensity;
+    }
+
+    /**
+     * Initialize a new instance of the HoughCircle class.
+     * @param x X axis coordinate of the center.
+     * @param y Y axis coordinate of the center.
+     * @param radius Radius.
+     * @param intensity Intensity.
+     * @param relativeIntensity Relative intensity.
+     */
+    public HoughCircle(int x, int y, int radius, int intensity, double relativeIntensity) {
+        this.x = x;
+        this.y = y;
+        this.radius = radius;
+        this.intensity = intensity;
+        this.relativeIntensity = relativeIntensity;
+    }
+    
+    /**
+     * Draw circle.
+     * @param fastBitmap Image to be processed.
+     * @param gray Gray channel.
+     */
+    public void DrawCircle(FastBitmap fastBitmap, int gray){
+        FastGraphics g = new FastGraphics(fastBitmap);
+        g.setColor(gray);
+        g.DrawCircle(x, y, radius);
+    }
+    
+    /**
+     * Draw circle.
+     * @param fastBitmap Image to be processed.
+     * @param red Red channel.
+     * @param green Green channel.
+     * @param blue Blue channel.
+     */
+    public void DrawCircle(FastBitmap fastBitmap, int red, int green, int blue){
+        FastGraphics g = new FastGraphics(fastBitmap);
+        g.setColor(red, green, blue);
+        g.DrawCircle(x, y, radius);
+    }
+
+    @Override
+    public int compareTo(HoughCircle o) {
+        if (this.intensity > o.intensity) return -1;
+        if (this.intensity < o.intensity) return 1;
+        return 0;
+    }
+}
@@ -0,0 +1,337 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Tools;
+
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Hough circle transformation.
+ * <p>Finds circles with radius in the range [minRadius, maxRadius]. The accumulator has one plane
+ * per radius and the planes are voted in parallel. When a grayscale source image is provided,
+ * each edge point only votes along its gradient direction (both senses), with the tolerance
+ * specified by {@link #setAngleTolerance(int)}.</p>
+ * <p>Memory: (maxRadius - minRadius + 1) * width * height integers.</p>
+ * @author Diego catalano
+ */
+public class HoughCircleTransformation {
+    
+    // The size of the neighbourhood in which to search for other local maxima 
+    private int radius = 4;
+    
+    private int minRadius;
+    private int maxRadius;
+    
+    private int minIntensity = 0;
+    
+    // Tolerance, in degrees, of the gradient orientation voting
+    private int angleTolerance = 5;
+    
+    private boolean sort = true;
+    
+    private int width, height;
+    
+    // the hough array, one plane per radius
+    private int[] houghArray;
+    
+    // the number of points that have been added 
+    private int numPoints;
+    
+    // circle offsets for each radius and degree
+    private int[][] offsetX;
+    private int[][] offsetY;
+    
+    // distinct circle offsets for each radius, packed by Pack
+    private int[][] circle;
+
+    /**
+     * Initialize a new instance of the HoughCircleTransformation class.
+     * @param minRadius Minimum radius of the circles.
+     * @param maxRadius Maximum radius of the circles.
+     */
+    public HoughCircleTransformation(int minRadius, int maxRadius) {
+        this(minRadius, maxRadius, 0);
+    }
+    
+    /**
+     * Initialize a new instance of the HoughCircleTransformation class.
+     * @param minRadius Minimum radius of the circles.
+     * @param maxRadius Maximum radius of the circles.
+     * @param minIntensity Minimum intensity.
+     */
+    public HoughCircleTransformation(int minRadius, int maxRadius, int minIntensity) {
+        if (minRadius < 1 || maxRadius < minRadius)
+            throw new IllegalArgumentException("The radius range must be 1 <= minRadius <= maxRadius.");
+        
+        this.minRadius = minRadius;
+        this.maxRadius = maxRadius;
+        this.minIntensity = Math.max(1, minIntensity);
+        
+        int depth = maxRadius - minRadius + 1;
+        offsetX = new int[depth][360];
+        offsetY = new int[depth][360];
+        for (int d = 0; d < depth; d++) {
+            int r = minRadius + d;
+            for (int a = 0; a < 360; a++) {
+                double theta = a * Math.PI / 180;
+                offsetX[d][a] = (int)Math.round(r * Math.cos(theta));
+                offsetY[d][a] = (int)Math.round(r * Math.sin(theta));
+            }
+        }
+        
+        circle = new int[depth][];
+        int[] keys = new int[360];
+        for (int d = 0; d < depth; d++) {
+            for (int a = 0; a < 360; a++)
+                keys[a] = Pack(offsetX[d][a], offsetY[d][a]);
+            circle[d] = Arrays.copyOf(keys, Unique(keys, 360));
+        }
+    }
+
+    /**
+     * Get the size of the neighbourhood of the local maxima.
+     * @return Radius.
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Set the size of the neighbourhood of the local maxima.
+     * @param radius Radius.
+     */
+    public void setRadius(int radius) {
+        this.radius = Math.max(0, radius);
+    }
+
+    /**
+     * Get Intensity.
+     * @return Intensity.
+     */
+    public int getIntensity() {
+        return minIntensity;
+    }
+
+    /**
+     * Set Intensity.
+     * @param intensity Intensity.
+     */
+    public void setIntensity(int intensity) {
+        this.minIntensity = Math.max(1, intensity);
+    }
+
+    /**
+     * Get the tolerance of the gradient orientation voting.
+     * @return Tolerance in degrees.
+     */
+    public int getAngleTolerance() {
+        return angleTolerance;
+    }
+
+    /**
+     * Set the tolerance of the gradient orientation voting.
+     * Each edge point votes once in each distinct center of the two windows of 2 * tolerance + 1 degrees, 90 degrees votes in all the circle.
+     * @param angleTolerance Tolerance in degrees.
+     */
+    public void setAngleTolerance(int angleTolerance) {
+        this.angleTolerance = Math.max(0, Math.min(90, angleTolerance));
+    }
+
+    /**
+     * Check if the circles are sorted per intensity.
+     * @return True if sorted.
+     */
+    public boolean isSort() {
+        return sort;
+    }
+
+    /**
+     * Sort circles per intensity.
+     * @param sort Sort.
+     */
+    public void setSort(boolean sort) {
+        this.sort = sort;
+    }
+    
+    /**
+     * Process Image.
+     * @param fastBitmap Edge image, the edge points have intensity 255.
+     */
+    public void ProcessImage(FastBitmap fastBitmap){
+        if (!fastBitmap.isGrayscale())
+            throw new IllegalArgumentException("HoughCircleTransformation only works with grayscale images.");
+        
+        init(fastBitmap.getWidth(), fastBitmap.getHeight());
+        Vote(HoughAccumulator.EdgePoints(fastBitmap), null);
+    }
+    
+    /**
+     * Process Image, voting only along the gradient direction of each edge point.
+     * @param edges Edge image, the edge points have intensity 255.
+     * @param source Grayscale image used to compute the gradient orientation.
+     */
+    public void ProcessImage(FastBitmap edges, FastBitmap source){
+        if (!edges.isGrayscale())
+            throw new IllegalArgumentException("HoughCircleTransformation only works with grayscale images.");
+        if (edges.getWidth() != source.getWidth() || edges.getHeight() != source.getHeight())
+            throw new IllegalArgumentException("The edge image and the source must have the same size.");
+        
+        init(edges.getWidth(), edges.getHeight());
+        int[] points = HoughAccumulator.EdgePoints(edges);
+        Vote(points, HoughAccumulator.Orientation(source, points));
+    }
+    
+    private void init(int width, int height){
+        this.width = width;
+        this.height = height;
+        this.houghArray = new int[(maxRadius - minRadius + 1) * width * height];
+        this.numPoints = 0;
+    }
+    
+    /**
+     * Vote the edge points, each task fills its own radius planes.
+     * @param points Packed offsets of the edge points.
+     * @param orientation Gradient orientation of each point, null to vote in all angles.
+     */
+    private void Vote(final int[] points, final float[] orientation){
+        int depth = maxRadius - minRadius + 1;
+        int parts = HoughAccumulator.Tasks(depth, 1);
+        
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int p = 0; p < parts; p++) {
+            final int from = p * depth / parts;
+            final int to = (p + 1) * depth / parts;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int d = from; d < to; d++)
+                        VotePlane(d, points, orientation);
+                    return null;
+                }
+            });
+        }
+        HoughAccumulator.Run(tasks);
+        numPoints = points.length;
+    }
+    
+    private void VotePlane(int d, int[] points, float[] orientation){
+        int plane = d * width * height;
+        int[] ox = offsetX[d];
+        int[] oy = offsetY[d];
+        int[] all = circle[d];
+        int[] keys = new int[360];
+        
+        // the two windows of the gradient voting, half open and at most 180 degrees each
+        int span = Math.min(2 * angleTolerance + 1, 180);
+        
+        for (int k = 0; k < points.length; k++) {
+            int x = points[k] / width;
+            int y = points[k] % width;
+            
+            if (orientation == null || Float.isNaN(orientation[k])){
+                for (int i = 0; i < all.length; i++)
+                    Vote(plane, x - UnpackX(all[i]), y - UnpackY(all[i]));
+            }
+            else{
+                // the center lies along the gradient direction, in one of the two senses
+                int a0 = (int)Math.round(orientation[k] * 180 / Math.PI);
+                int n = 0;
+                for (int s = 0; s < 360; s += 180) {
+                    int from = a0 + s - angleTolerance;
+                    for (int a = from; a < from + span; a++) {
+                        int idx = ((a % 360) + 360) % 360;
+                        keys[n++] = Pack(ox[idx], oy[idx]);
+                    }
+                }
+                n = Unique(keys, n);
+                for (int i = 0; i < n; i++)
+                    Vote(plane, x - UnpackX(keys[i]), y - UnpackY(keys[i]));
+            }
+        }
+    }
+    
+    private int Pack(int ox, int oy){
+        return (ox + maxRadius) * (2 * maxRadius + 1) + oy + maxRadius;
+    }
+    
+    private int UnpackX(int key){
+        return key / (2 * maxRadius + 1) - maxRadius;
+    }
+    
+    private int UnpackY(int key){
+        return key % (2 * maxRadius + 1) - maxRadius;
+    }
+    
+    /**
+     * Sort the keys and remove the duplicates.
+     * @return Number of distinct keys, stored at the start of the array.
+     */
+    private static int Unique(int[] keys, int n){
+        Arrays.sort(keys, 0, n);
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (m == 0 || keys[i] != keys[m - 1])
+                keys[m++] = keys[i];
+        }
+        return m;
+    }
+    
+    private void Vote(int plane, int x, int y){
+        if (x < 0 || y < 0 || x >= height || y >= width) return;
+        houghArray[plane + x * width + y]++;
+    }
+    
+    /**
+     * Get the circles found in the image.
+     * @return List of circles.
+     */
+    public List<HoughCircle> getCircles(){
+        List<HoughCircle> circles = new ArrayList<HoughCircle>();
+        if (numPoints == 0) return circles;
+        
+        int depth = maxRadius - minRadius + 1;
+        int[] dilated = HoughAccumulator.Dilate(houghArray, depth, height, width, radius, radius);
+        
+        int max = 0;
+        for (int i = 0; i < houghArray.length; i++)
+            if (houghArray[i] > max) max = houghArray[i];
+        
+        int plane = width * height;
+        for (int d = 0; d < depth; d++) {
+            for (int x = 0; x < height; x++) {
+                int off = d * plane + x * width;
+                for (int y = 0; y < width; y++) {
+                    int peak = houghArray[off + y];
+                    if (peak > minIntensity && peak == dilated[off + y])
+                        circles.add(new HoughCircle(x, y, minRadius + d, peak, (double)peak / max));
+                }
+            }
+        }
+        
+        if (sort) Collections.sort(circles);
+        return circles;
+    }
+}
@@ -30,9 +30,13 @@ import com.tdlibs.catalano.Imaging.FastBitmap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Hough line transfomation.
+ * <p>The edge points are voted in parallel, each thread with its own accumulator merged at the end.
+ * When a grayscale source image is provided, each point only votes in the angles close to its
+ * gradient orientation (see {@link #setAngleTolerance(int)}).</p>
  * @author Diego catalano
  */
 public class HoughLineTransformation {
@@ -53,6 +57,9 @@ public class HoughLineTransformation {
     int maxIntensity = Integer.MAX_VALUE;
     
     boolean sort = true;
+    
+    // Tolerance, in degrees, of the gradient orientation voting
+    int angleTolerance = 5;
  
     // the width and height of the image 
     protected int width, height;
@@ -143,6 +150,23 @@ public class HoughLineTransformation {
         this.minIntensity = Math.max(1,intensity);
     }
 
+    /**
+     * Get the tolerance of the gradient orientation voting.
+     * @return Tolerance in degrees.
+     */
+    public int getAngleTolerance() {
+        return angleTolerance;
+    }
+
+    /**
+     * Set the tolerance of the gradient orientation voting.
+     * Each edge point only votes once in each angle of [orientation - tolerance, orientation + tolerance], 90 degrees votes in all the angles.
+     * @param angleTolerance Tolerance in degrees.
+     */
+    public void setAngleTolerance(int angleTolerance) {
+        this.angleTolerance = Math.max(0, Math.min(90, angleTolerance));
+    }
+
     public int getStepsPerDegree() {
         return stepsPerDegree;
     }
@@ -204,14 +228,7 @@ public class HoughLineTransformation {
 
             init();
             // Now find edge points and update the hough array 
-            for (int x = 0; x < height; x++) {
-                for (int y = 0; y < width; y++) {
-                    // Find non-black pixels
-                    if (fastBitmap.getGray(x, y) == 255) {
-                        addPoint(x, y);
-                    }
-                }
-            }
+            Vote(HoughAccumulator.EdgePoints(fastBitmap), null);
         }
         else{
             try {
@@ -222,6 +239,89 @@ public class HoughLineTransformation {
         }
     }
     
+    /**
+     * Process Image, voting only near the gradient orientation of each edge point.
+     * @param edges Edge image, the edge points have intensity 255.
+     * @param source Grayscale image used to compute the gradient orientation.
+     */
+    public void ProcessImage(FastBitmap edges, FastBitmap source) {
+        
+        if (!edges.isGrayscale())
+            throw new IllegalArgumentException("HoughLineTransformation only works with grayscale images.");
+        if (edges.getWidth() != source.getWidth() || edges.getHeight() != source.getHeight())
+            throw new IllegalArgumentException("The edge image and the source must have the same size.");
+        
+        this.width = edges.getWidth();
+        this.height = edges.getHeight();
+
+        init();
+        int[] points = HoughAccumulator.EdgePoints(edges);
+        Vote(points, HoughAccumulator.Orientation(source, points));
+    }
+    
+    /**
+     * Vote the edge points in parallel, each task with its own accumulator.
+     * @param points Packed offsets of the edge points.
+     * @param orientation Gradient orientation of each point, null to vote in all angles.
+     */
+    private void Vote(final int[] points, final float[] orientation){
+        
+        final int n = points.length;
+        int parts = HoughAccumulator.Tasks(n, 1024);
+        
+        List<Callable<int[]>> tasks = new ArrayList<Callable<int[]>>();
+        for (int p = 0; p < parts; p++) {
+            final int from = p * n / parts;
+            final int to = (p + 1) * n / parts;
+            tasks.add(new Callable<int[]>() {
+                @Override
+                public int[] call() {
+                    int[] acc = new int[maxTheta * doubleHeight];
+                    // half open window of at most maxTheta bins, each bin is voted once
+                    int tol = (int)Math.round(angleTolerance * Math.PI / 180 / thetaStep);
+                    int span = Math.min(2 * tol + 1, maxTheta);
+                    for (int k = from; k < to; k++) {
+                        int x = points[k] / width;
+                        int y = points[k] % width;
+                        
+                        if (orientation == null || Float.isNaN(orientation[k])){
+                            for (int t = 0; t < maxTheta; t++)
+                                Vote(acc, x, y, t);
+                        }
+                        else{
+                            // the normal of the line is the gradient direction, theta in [0,PI)
+                            double phi = orientation[k];
+                            if (phi < 0) phi += Math.PI;
+                            int t0 = (int)Math.round(phi / thetaStep);
+                            for (int t = t0 - tol; t < t0 - tol + span; t++)
+                                Vote(acc, x, y, ((t % maxTheta) + maxTheta) % maxTheta);
+                        }
+                    }
+                    return acc;
+                }
+            });
+        }
+        
+        // merge the accumulators
+        for (int[] acc : HoughAccumulator.Run(tasks)) {
+            for (int t = 0; t < maxTheta; t++) {
+                int[] row = houghArray[t];
+                int off = t * doubleHeight;
+                for (int r = 0; r < doubleHeight; r++) {
+                    row[r] += acc[off + r];
+                }
+            }
+        }
+        numPoints += n;
+    }
+    
+    private void Vote(int[] acc, int x, int y, int t){
+        int r = (int) (((x - centerX) * cosCache[t]) + ((y - centerY) * sinCache[t]));
+        r += houghHeight;
+        if (r < 0 || r >= doubleHeight) return;
+        acc[t * doubleHeight + r]++;
+    }
+    
     public void addEdgePoints(ArrayList<IntPoint> edgePoints){
         for (IntPoint point : edgePoints) {
             addPoint(point.x, point.y);
@@ -260,29 +360,21 @@ public class HoughLineTransformation {
         // Used for set relative intensity.
         double max = getMaximumValue();
         
+        // Maximum of the neighbourhood of each cell, theta is circular
+        int[] acc = new int[maxTheta * doubleHeight];
+        for (int t = 0; t < maxTheta; t++)
+            System.arraycopy(houghArray[t], 0, acc, t * doubleHeight, doubleHeight);
+        int[] dilated = HoughAccumulator.Dilate(acc, maxTheta, doubleHeight, radius, true);
+        
         // Search for local peaks above threshold to draw 
         for (int t = 0; t < maxTheta; t++) { 
-            loop: 
+            int off = t * doubleHeight;
             for (int r = radius; r < doubleHeight - radius; r++) { 
  
-                // Only consider points above threshold 
-                if (houghArray[t][r] > minIntensity && houghArray[t][r] < maxIntensity) { 
- 
-                    int peak = houghArray[t][r]; 
- 
-                    // Check that this peak is indeed the local maxima 
-                    for (int dx = -radius; dx <= radius; dx++) {
-                        for (int dy = -radius; dy <= radius; dy++) {
-                            int dt = t + dx;
-                            int dr = r + dy;
-                            if (dt < 0) dt = dt + maxTheta;
-                            else if (dt >= maxTheta) dt = dt - maxTheta;
-                            if (houghArray[dt][dr] > peak) {
-                                // found a bigger point nearby, skip 
-                                continue loop;
-                            }
-                        }
-                    }
+                int peak = acc[off + r];
+                
+                // Only consider local maxima above threshold 
+                if (peak > minIntensity && peak < maxIntensity && peak == dilated[off + r]) { 
  
                     // calculate the true value of theta 
                     double theta = t * thetaStep;
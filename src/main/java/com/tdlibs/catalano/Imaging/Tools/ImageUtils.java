@@ -21,6 +21,7 @@
 //
 package com.tdlibs.catalano.Imaging.Tools;
 
+import com.tdlibs.catalano.Imaging.FastBitmap;
 import com.tdlibs.catalano.Math.Matrix;
 
 /**
@@ -425,4 +426,55 @@ public class ImageUtils {
             }
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Apply a lookup table in the image.
+     * @param fastBitmap Image to be processed.
+     * @param lut One table of 256 entries for Grayscale, three tables (red, green, blue) for RGB and ARGB.
+     */
+    public static void ApplyLookupTable(FastBitmap fastBitmap, int[][] lut){
+        int width = fastBitmap.getWidth();
+        int height = fastBitmap.getHeight();
+        int origin = fastBitmap.getOrigin();
+        int stride = fastBitmap.getStride();
+        
+        if (fastBitmap.isGrayscale()){
+            int[] map = lut[0];
+            byte[] pixels = fastBitmap.getGrayBuffer();
+            for (int x = 0; x < height; x++) {
+                for (int i = origin + x * stride, end = i + width; i < end; i++) {
+                    pixels[i] = (byte)map[pixels[i] & 0xFF];
+                }
+            }
+        }
+        else{
+            int[] mapR = lut[0];
+            int[] mapG = lut[1];
+            int[] mapB = lut[2];
+            int[] pixels = fastBitmap.getRGBBuffer();
+            for (int x = 0; x < height; x++) {
+                for (int i = origin + x * stride, end = i + width; i < end; i++) {
+                    int p = pixels[i];
+                    pixels[i] = (p & 0xFF000000) | mapR[p >> 16 & 0xFF] << 16 | mapG[p >> 8 & 0xFF] << 8 | mapB[p & 0xFF];
+                }
+            }
+        }
+    }
+    
+    /**
+     * Compose two lookup tables, the result is equivalent to apply the first and then the second.
+     * @param first First lookup table.
+     * @param second Second lookup table.
+     * @return Composed lookup table, clamped in [0, 255].
+     */
+    public static int[][] ComposeLookupTable(int[][] first, int[][] second){
+        int[][] lut = new int[first.length][256];
+        for (int c = 0; c < lut.length; c++) {
+            for (int i = 0; i < 256; i++) {
+                int v = Math.max(0, Math.min(255, first[c][i]));
+                lut[c][i] = Math.max(0, Math.min(255, second[c][v]));
+            }
+        }
+        return lut;
+    }
+}
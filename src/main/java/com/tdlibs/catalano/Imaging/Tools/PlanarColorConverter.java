@@ -0,0 +1,899 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Tools;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Whole image color space conversions.
+ *
+ * <p>Converts a RGB image to planes (one array per channel, packed by rows) and back, without allocating per pixel.
+ * The values are in the same units of the {@link ColorConverter} methods. The normalization and the sRGB gamma
+ * are lookup tables (exact), the cube root of the CIE-LAB is interpolated in a lookup table (error below 1e-4)
+ * and the inverse sRGB gamma is a search in the 256 quantization thresholds. The rows are processed in parallel.</p>
+ *
+ * <p>The conversion back to RGB clamps the values in [0..255], the alpha of ARGB images is preserved.</p>
+ *
+ * @see ColorConverter
+ * @author Diego catalano
+ */
+public final class PlanarColorConverter {
+
+    /**
+     * Color spaces.
+     */
+    public static enum ColorSpace {
+
+        /**
+         * RGB [0..255].
+         */
+        RGB,
+
+        /**
+         * YUV.
+         */
+        YUV,
+
+        /**
+         * YIQ.
+         */
+        YIQ,
+
+        /**
+         * YCbCr ITU-BT.601.
+         */
+        YCbCr_601,
+
+        /**
+         * YCbCr ITU-BT.709 (HDTV).
+         */
+        YCbCr_709,
+
+        /**
+         * HSV.
+         */
+        HSV,
+
+        /**
+         * HSL.
+         */
+        HSL,
+
+        /**
+         * CIE XYZ.
+         */
+        XYZ,
+
+        /**
+         * CIE L*a*b*.
+         */
+        LAB,
+
+        /**
+         * CIE L*C*h.
+         */
+        LCH,
+
+        /**
+         * Hunter LAB.
+         */
+        HunterLAB,
+
+        /**
+         * LMS.
+         */
+        LMS,
+
+        /**
+         * YCC.
+         */
+        YCC,
+
+        /**
+         * YCoCg.
+         */
+        YCoCg,
+
+        /**
+         * YES.
+         */
+        YES,
+
+        /**
+         * IHS.
+         */
+        IHS,
+
+        /**
+         * CMYK, four planes.
+         */
+        CMYK
+    };
+
+    // minimum number of pixels to process the rows in parallel
+    private static final int PARALLEL_SIZE = 128 * 128;
+
+    // value / 255 in double and float precision
+    private static final double[] NORM_D = new double[256];
+    private static final double[] NORM_F = new double[256];
+
+    // linear sRGB * 100
+    private static final double[] LINEAR = new double[256];
+
+    // inverse gamma: smallest linear value (x 100) of each 8 bits value
+    private static final double[] THRESHOLD = new double[256];
+
+    // cube root of the CIE-LAB
+    private static final int CBRT_SIZE = 16384;
+    private static final double[] CBRT = new double[CBRT_SIZE + 2];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            NORM_D[i] = i / 255D;
+            NORM_F[i] = i / 255f;
+
+            double v = i / 255D;
+            if ( v > 0.04045)
+                v = Math.pow(( ( v + 0.055D ) / 1.055D ), 2.4D);
+            else
+                v /= 12.92D;
+            LINEAR[i] = v * 100;
+
+            if (i > 0){
+                double y = (i - 0.5) / 255D;
+                THRESHOLD[i] = 100 * (y > 0.04045 ? Math.pow((y + 0.055D) / 1.055D, 2.4D) : y / 12.92D);
+            }
+        }
+
+        for (int i = 0; i < CBRT.length; i++) {
+            CBRT[i] = Math.pow((double)i / CBRT_SIZE, 1 / 3D);
+        }
+    }
+
+    //Used in CIE-LAB conversions
+    private static final double k = 903.2962962962963; //24389/27
+    private static final double e = 0.0088564516790356; //216/24389
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private PlanarColorConverter() {}
+
+    /**
+     * Convert a RGB image to planes.
+     * @param fastBitmap RGB image.
+     * @param colorSpace Color space.
+     * @return Planes, indexed by [channel][x * width + y].
+     */
+    public static float[][] Convert(FastBitmap fastBitmap, ColorSpace colorSpace){
+        return Convert(fastBitmap, colorSpace, Illuminant.CIE2.D65, ColorConverter.LMS.CAT02);
+    }
+
+    /**
+     * Convert a RGB image to planes.
+     * @param fastBitmap RGB image.
+     * @param colorSpace Color space.
+     * @param tristimulus Tristimulus of the CIE-LAB and CIE-LCH.
+     * @param matrix LMS matrix.
+     * @return Planes, indexed by [channel][x * width + y].
+     */
+    public static float[][] Convert(final FastBitmap fastBitmap, final ColorSpace colorSpace, final double[] tristimulus, final ColorConverter.LMS matrix){
+        if (!fastBitmap.isRGB() && !fastBitmap.isARGB())
+            throw new IllegalArgumentException("Planar color conversion only works in RGB images.");
+
+        final int width = fastBitmap.getWidth();
+        int height = fastBitmap.getHeight();
+        final float[][] planes = new float[colorSpace == ColorSpace.CMYK ? 4 : 3][width * height];
+        final double[][] lms = ColorConverter.LMSMatrix(matrix, true);
+
+        Rows(height, width, new Band() {
+            @Override
+            public void Process(int start, int end) {
+                ToPlanes(fastBitmap, colorSpace, planes, tristimulus, lms, start, end);
+            }
+        });
+
+        return planes;
+    }
+
+    /**
+     * Convert planes to a RGB image.
+     * @param planes Planes, indexed by [channel][x * width + y].
+     * @param colorSpace Color space of the planes.
+     * @param fastBitmap RGB image to store the result.
+     */
+    public static void Convert(float[][] planes, ColorSpace colorSpace, FastBitmap fastBitmap){
+        Convert(planes, colorSpace, fastBitmap, Illuminant.CIE2.D65, ColorConverter.LMS.CAT02);
+    }
+
+    /**
+     * Convert planes to a RGB image.
+     * @param planes Planes, indexed by [channel][x * width + y].
+     * @param colorSpace Color space of the planes.
+     * @param fastBitmap RGB image to store the result.
+     * @param tristimulus Tristimulus of the CIE-LAB and CIE-LCH.
+     * @param matrix LMS matrix.
+     */
+    public static void Convert(final float[][] planes, final ColorSpace colorSpace, final FastBitmap fastBitmap, final double[] tristimulus, final ColorConverter.LMS matrix){
+        if (!fastBitmap.isRGB() && !fastBitmap.isARGB())
+            throw new IllegalArgumentException("Planar color conversion only works in RGB images.");
+
+        int width = fastBitmap.getWidth();
+        int height = fastBitmap.getHeight();
+        if (planes.length < (colorSpace == ColorSpace.CMYK ? 4 : 3) || planes[0].length != width * height)
+            throw new IllegalArgumentException("The planes must have the size of the image.");
+
+        final double[][] lms = ColorConverter.LMSMatrix(matrix, false);
+
+        Rows(height, width, new Band() {
+            @Override
+            public void Process(int start, int end) {
+                FromPlanes(planes, colorSpace, fastBitmap, tristimulus, lms, start, end);
+            }
+        });
+    }
+
+    /**
+     * Split a RGB image in 8 bits planes.
+     * @param fastBitmap RGB image.
+     * @return Red, green and blue planes.
+     */
+    public static byte[][] Split(FastBitmap fastBitmap){
+        return Split(fastBitmap, false);
+    }
+
+    /**
+     * Merge 8 bits planes in a RGB image.
+     * @param planes Red, green and blue planes.
+     * @param fastBitmap RGB image to store the result.
+     */
+    public static void Merge(byte[][] planes, FastBitmap fastBitmap){
+        Merge(planes, fastBitmap, false);
+    }
+
+    /**
+     * Convert a RGB image to 8 bits YCbCr planes (ITU-BT.601 full range, as in JPEG), using fixed point.
+     * @param fastBitmap RGB image.
+     * @return Y, Cb and Cr planes.
+     */
+    public static byte[][] RGBtoYCbCr(FastBitmap fastBitmap){
+        return Split(fastBitmap, true);
+    }
+
+    /**
+     * Convert 8 bits YCbCr planes (ITU-BT.601 full range, as in JPEG) to a RGB image, using fixed point.
+     * @param planes Y, Cb and Cr planes.
+     * @param fastBitmap RGB image to store the result.
+     */
+    public static void YCbCrtoRGB(byte[][] planes, FastBitmap fastBitmap){
+        Merge(planes, fastBitmap, true);
+    }
+
+    private static byte[][] Split(final FastBitmap fastBitmap, final boolean ycbcr){
+        if (!fastBitmap.isRGB() && !fastBitmap.isARGB())
+            throw new IllegalArgumentException("Planar color conversion only works in RGB images.");
+
+        final int width = fastBitmap.getWidth();
+        int height = fastBitmap.getHeight();
+        final byte[][] planes = new byte[3][width * height];
+        final int[] data = fastBitmap.getRGBBuffer();
+        final int origin = fastBitmap.getOrigin();
+        final int stride = fastBitmap.getStride();
+
+        Rows(height, width, new Band() {
+            @Override
+            public void Process(int start, int end) {
+                for (int x = start; x < end; x++) {
+                    int src = origin + x * stride;
+                    int dst = x * width;
+                    for (int y = 0; y < width; y++) {
+                        int rgb = data[src + y];
+                        int r = rgb >> 16 & 0xFF;
+                        int g = rgb >> 8 & 0xFF;
+                        int b = rgb & 0xFF;
+                        if (ycbcr){
+                            planes[0][dst + y] = (byte)((19595 * r + 38470 * g + 7471 * b + 32768) >> 16);
+                            planes[1][dst + y] = (byte)((-11059 * r - 21709 * g + 32768 * b + (128 << 16) + 32767) >> 16);
+                            planes[2][dst + y] = (byte)((32768 * r - 27439 * g - 5329 * b + (128 << 16) + 32767) >> 16);
+                        }
+                        else{
+                            planes[0][dst + y] = (byte)r;
+                            planes[1][dst + y] = (byte)g;
+                            planes[2][dst + y] = (byte)b;
+                        }
+                    }
+                }
+            }
+        });
+
+        return planes;
+    }
+
+    private static void Merge(final byte[][] planes, final FastBitmap fastBitmap, final boolean ycbcr){
+        if (!fastBitmap.isRGB() && !fastBitmap.isARGB())
+            throw new IllegalArgumentException("Planar color conversion only works in RGB images.");
+
+        final int width = fastBitmap.getWidth();
+        int height = fastBitmap.getHeight();
+        if (planes.length < 3 || planes[0].length != width * height)
+            throw new IllegalArgumentException("The planes must have the size of the image.");
+
+        final int[] data = fastBitmap.getRGBBuffer();
+        final int origin = fastBitmap.getOrigin();
+        final int stride = fastBitmap.getStride();
+
+        Rows(height, width, new Band() {
+            @Override
+            public void Process(int start, int end) {
+                for (int x = start; x < end; x++) {
+                    int dst = origin + x * stride;
+                    int src = x * width;
+                    for (int y = 0; y < width; y++) {
+                        int c0 = planes[0][src + y] & 0xFF;
+                        int c1 = planes[1][src + y] & 0xFF;
+                        int c2 = planes[2][src + y] & 0xFF;
+                        if (ycbcr){
+                            int cb = c1 - 128;
+                            int cr = c2 - 128;
+                            int r = c0 + ((91881 * cr + 32768) >> 16);
+                            int g = c0 + ((-22554 * cb - 46802 * cr + 32768) >> 16);
+                            int b = c0 + ((116130 * cb + 32768) >> 16);
+                            c0 = Clamp(r);
+                            c1 = Clamp(g);
+                            c2 = Clamp(b);
+                        }
+                        data[dst + y] = (data[dst + y] & 0xFF000000) | c0 << 16 | c1 << 8 | c2;
+                    }
+                }
+            }
+        });
+    }
+
+    private static void ToPlanes(FastBitmap fastBitmap, ColorSpace colorSpace, float[][] planes, double[] tristimulus, double[][] lms, int start, int end){
+        int width = fastBitmap.getWidth();
+        int[] data = fastBitmap.getRGBBuffer();
+        int origin = fastBitmap.getOrigin();
+        int stride = fastBitmap.getStride();
+
+        float[] p0 = planes[0];
+        float[] p1 = planes[1];
+        float[] p2 = planes[2];
+        float[] p3 = planes.length > 3 ? planes[3] : null;
+
+        for (int x = start; x < end; x++) {
+            int src = origin + x * stride;
+            int dst = x * width;
+            for (int y = 0; y < width; y++) {
+                int rgb = data[src + y];
+                int red = rgb >> 16 & 0xFF;
+                int green = rgb >> 8 & 0xFF;
+                int blue = rgb & 0xFF;
+                int i = dst + y;
+
+                double r, g, b;
+                switch(colorSpace){
+                    case RGB:
+                        p0[i] = red;
+                        p1[i] = green;
+                        p2[i] = blue;
+                        break;
+                    case YUV:
+                        r = NORM_D[red]; g = NORM_D[green]; b = NORM_D[blue];
+                        p0[i] = (float)(0.299 * r + 0.587 * g + 0.114 * b);
+                        p1[i] = (float)(-0.14713 * r - 0.28886 * g + 0.436 * b);
+                        p2[i] = (float)(0.615 * r - 0.51499 * g - 0.10001 * b);
+                        break;
+                    case YIQ:
+                        r = NORM_D[red]; g = NORM_D[green]; b = NORM_D[blue];
+                        p0[i] = (float)(0.299 * r + 0.587 * g + 0.114 * b);
+                        p1[i] = (float)(0.596 * r - 0.275 * g - 0.322 * b);
+                        p2[i] = (float)(0.212 * r - 0.523 * g + 0.311 * b);
+                        break;
+                    case YCbCr_601:
+                        r = NORM_D[red]; g = NORM_D[green]; b = NORM_D[blue];
+                        p0[i] = (float)(0.299 * r + 0.587 * g + 0.114 * b);
+                        p1[i] = (float)(-0.169 * r - 0.331 * g + 0.500 * b);
+                        p2[i] = (float)(0.500 * r - 0.419 * g - 0.081 * b);
+                        break;
+                    case YCbCr_709:
+                        r = NORM_D[red]; g = NORM_D[green]; b = NORM_D[blue];
+                        p0[i] = (float)(0.2215 * r + 0.7154 * g + 0.0721 * b);
+                        p1[i] = (float)(-0.1145 * r - 0.3855 * g + 0.5000 * b);
+                        p2[i] = (float)(0.5016 * r - 0.4556 * g - 0.0459 * b);
+                        break;
+                    case HSV:
+                        HSV(NORM_F[red], NORM_F[green], NORM_F[blue], p0, p1, p2, i);
+                        break;
+                    case HSL:
+                        HSL(NORM_F[red], NORM_F[green], NORM_F[blue], p0, p1, p2, i);
+                        break;
+                    case YCC:
+                        r = NORM_F[red]; g = NORM_F[green]; b = NORM_F[blue];
+                        p0[i] = (float)(0.213f * r + 0.419f * g + 0.081f * b);
+                        p1[i] = (float)(-0.131f * r - 0.256f * g + 0.387f * b + 0.612f);
+                        p2[i] = (float)(0.373f * r - 0.312f * r - 0.061f * b + 0.537f);
+                        break;
+                    case YCoCg:
+                        r = NORM_F[red]; g = NORM_F[green]; b = NORM_F[blue];
+                        p0[i] = (float)(r / 4f + g / 2f + b / 4f);
+                        p1[i] = (float)(r / 2f - b / 2f);
+                        p2[i] = (float)(-r / 4f + g / 2f - b / 4f);
+                        break;
+                    case YES:
+                        r = NORM_F[red]; g = NORM_F[green]; b = NORM_F[blue];
+                        p0[i] = (float)(r * 0.253 + g * 0.684 + b * 0.063);
+                        p1[i] = (float)(r * 0.500 + g * -0.500);
+                        p2[i] = (float)(r * 0.250 + g * 0.250 + b * -0.5);
+                        break;
+                    case IHS:
+                        IHS(NORM_F[red], NORM_F[green], NORM_F[blue], p0, p1, p2, i);
+                        break;
+                    case CMYK:
+                        r = NORM_F[red]; g = NORM_F[green]; b = NORM_F[blue];
+                        double kk = 1.0f - Math.max(r, Math.max(g, b));
+                        p0[i] = (float)((1f-r-kk) / (1f-kk));
+                        p1[i] = (float)((1f-g-kk) / (1f-kk));
+                        p2[i] = (float)((1f-b-kk) / (1f-kk));
+                        p3[i] = (float)kk;
+                        break;
+                    default:
+                        // XYZ based
+                        r = LINEAR[red]; g = LINEAR[green]; b = LINEAR[blue];
+                        double X = 0.412453D * r + 0.35758D * g + 0.180423D * b;
+                        double Y = 0.212671D * r + 0.71516D * g + 0.072169D * b;
+                        double Z = 0.019334D * r + 0.119193D * g + 0.950227D * b;
+                        XYZto(colorSpace, X, Y, Z, tristimulus, lms, p0, p1, p2, i);
+                        break;
+                }
+            }
+        }
+    }
+
+    private static void XYZto(ColorSpace colorSpace, double X, double Y, double Z, double[] tristimulus, double[][] lms, float[] p0, float[] p1, float[] p2, int i){
+        switch(colorSpace){
+            case XYZ:
+                p0[i] = (float)X;
+                p1[i] = (float)Y;
+                p2[i] = (float)Z;
+                break;
+            case HunterLAB:
+                double sqrt = Math.sqrt(Y);
+                p0[i] = (float)(10 * sqrt);
+                p1[i] = (float)(17.5f * (((1.02f * X) - Y) / sqrt));
+                p2[i] = (float)(7f * ((Y - (0.847f * Z)) / sqrt));
+                break;
+            case LMS:
+                p0[i] = (float)(X * lms[0][0] + Y * lms[1][0] + Z * lms[2][0]);
+                p1[i] = (float)(X * lms[0][1] + Y * lms[1][1] + Z * lms[2][1]);
+                p2[i] = (float)(X * lms[0][2] + Y * lms[1][2] + Z * lms[2][2]);
+                break;
+            default:
+                // LAB and LCH
+                double fx = F(X / tristimulus[0]);
+                double fy = F(Y / tristimulus[1]);
+                double fz = F(Z / tristimulus[2]);
+                double l = ( 116 * fy ) - 16;
+                double a = 500 * ( fx - fy );
+                double b = 200 * ( fy - fz );
+                if (colorSpace == ColorSpace.LAB){
+                    p0[i] = (float)l;
+                    p1[i] = (float)a;
+                    p2[i] = (float)b;
+                }
+                else{
+                    double h = Math.toDegrees(Math.atan2(b, a));
+                    if(h < 0) h += 360;
+                    p0[i] = (float)l;
+                    p1[i] = (float)Math.sqrt(a*a + b*b);
+                    p2[i] = (float)h;
+                }
+                break;
+        }
+    }
+
+    /**
+     * CIE-LAB function, the cube root is interpolated in the lookup table.
+     */
+    private static double F(double t){
+        if (t <= 0.008856)
+            return 7.787036 * t + 0.1379310344827586;
+        if (t >= 1)
+            return Math.pow(t, 1 / 3D);
+
+        double pos = t * CBRT_SIZE;
+        int idx = (int)pos;
+        double frac = pos - idx;
+        return CBRT[idx] + (CBRT[idx + 1] - CBRT[idx]) * frac;
+    }
+
+    private static void HSV(double r, double g, double b, float[] p0, float[] p1, float[] p2, int i){
+        double max = Math.max(r, Math.max(g, b));
+        double min = Math.min(r, Math.min(g, b));
+        double delta = max - min;
+
+        // Hue
+        double h = 0;
+        if (max == min){
+            h = 0;
+        }
+        else if (max == r){
+            h = ((g - b) / delta) * 60f;
+        }
+        else if (max == g){
+            h = ((b - r) / delta + 2f) * 60f;
+        }
+        else if (max == b){
+            h = ((r - g) / delta + 4f) * 60f;
+        }
+
+        p0[i] = (float)h;
+        p1[i] = delta == 0 ? 0 : (float)(delta / max);
+        p2[i] = (float)max;
+    }
+
+    private static void HSL(double r, double g, double b, float[] p0, float[] p1, float[] p2, int i){
+        double max = Math.max(r,Math.max(g,b));
+        double min = Math.min(r,Math.min(g,b));
+        double delta = max - min;
+
+        double h = 0;
+        double s = 0;
+        double l = (max + min) / 2;
+
+        if ( delta != 0 ){
+            // get saturation value
+            s = ( l <= 0.5 ) ? ( delta / ( max + min ) ) : ( delta / ( 2f - max - min ) );
+
+            // get hue value
+            double hue;
+            if ( r == max )
+                hue = ( ( g - b ) / 6f ) / delta;
+            else if ( g == max )
+                hue = ( 1.0f / 3f ) + ( ( b - r ) / 6f ) / delta;
+            else
+                hue = ( 2.0f / 3f ) + ( ( r - g ) / 6f ) / delta;
+
+            // correct hue if needed
+            if ( hue < 0 )
+                hue += 1;
+            if ( hue > 1 )
+                hue -= 1;
+
+            h = (int) ( hue * 360f );
+        }
+
+        p0[i] = (float)h;
+        p1[i] = (float)s;
+        p2[i] = (float)l;
+    }
+
+    private static void IHS(double r, double g, double b, float[] p0, float[] p1, float[] p2, int i){
+        double in = r+g+b;
+
+        double h;
+        if(b == Math.min(Math.min(r, g), b)){
+            h = (g-b) / (in-3*b);
+        }
+        else if (r == Math.min(Math.min(r, g), b)){
+            h = (b-r) / (in-3*r) + 1;
+        }
+        else{
+            h = (r-g) / (in-3*g) + 2;
+        }
+
+        double s;
+        if(h >= 0 && h <= 1){
+            s = (in-3*b) / in;
+        }
+        else if(h >= 1 && h <= 2){
+            s = (in-3*r) / in;
+        }
+        else{
+            s = (in-3*g) / in;
+        }
+
+        p0[i] = (float)in;
+        p1[i] = (float)h;
+        p2[i] = (float)s;
+    }
+
+    private static void FromPlanes(float[][] planes, ColorSpace colorSpace, FastBitmap fastBitmap, double[] tristimulus, double[][] lms, int start, int end){
+        int width = fastBitmap.getWidth();
+        int[] data = fastBitmap.getRGBBuffer();
+        int origin = fastBitmap.getOrigin();
+        int stride = fastBitmap.getStride();
+
+        float[] p0 = planes[0];
+        float[] p1 = planes[1];
+        float[] p2 = planes[2];
+        float[] p3 = planes.length > 3 ? planes[3] : null;
+
+        int[] rgb = new int[3];
+        for (int x = start; x < end; x++) {
+            int dst = origin + x * stride;
+            int src = x * width;
+            for (int y = 0; y < width; y++) {
+                int i = src + y;
+                double c0 = p0[i];
+                double c1 = p1[i];
+                double c2 = p2[i];
+
+                switch(colorSpace){
+                    case RGB:
+                        rgb[0] = (int)c0;
+                        rgb[1] = (int)c1;
+                        rgb[2] = (int)c2;
+                        break;
+                    case YUV:
+                        rgb[0] = (int)((c0 + 0.000 * c1 + 1.140 * c2) * 255);
+                        rgb[1] = (int)((c0 - 0.396 * c1 - 0.581 * c2) * 255);
+                        rgb[2] = (int)((c0 + 2.029 * c1 + 0.000 * c2) * 255);
+                        break;
+                    case YIQ:
+                        rgb[0] = (int)((c0 + 0.956 * c1 + 0.621 * c2) * 255);
+                        rgb[1] = (int)((c0 - 0.272 * c1 - 0.647 * c2) * 255);
+                        rgb[2] = (int)((c0 - 1.105 * c1 + 1.702 * c2) * 255);
+                        break;
+                    case YCbCr_601:
+                        rgb[0] = (int)((c0 + 0.000 * c1 + 1.403 * c2) * 255);
+                        rgb[1] = (int)((c0 - 0.344 * c1 - 0.714 * c2) * 255);
+                        rgb[2] = (int)((c0 + 1.773 * c1 + 0.000 * c2) * 255);
+                        break;
+                    case YCbCr_709:
+                        rgb[0] = (int)((c0 + 0.000 * c1 + 1.5701 * c2) * 255);
+                        rgb[1] = (int)((c0 - 0.1870 * c1 - 0.4664 * c2) * 255);
+                        rgb[2] = (int)((c0 + 1.8556 * c1 + 0.000 * c2) * 255);
+                        break;
+                    case HSV:
+                        HSVtoRGB(c0, c1, c2, rgb);
+                        break;
+                    case HSL:
+                        HSLtoRGB(c0, c1, c2, rgb);
+                        break;
+                    case YCC:
+                        rgb[0] = (int)((0.981f * c0 + 1.315f * (c2 - 0.537f)) * 255f);
+                        rgb[1] = (int)((0.981f * c0 - 0.311f * (c1 - 0.612f)- 0.669f * (c2 - 0.537f)) * 255f);
+                        rgb[2] = (int)((0.981f * c0 + 1.601f * (c1 - 0.612f)) * 255f);
+                        break;
+                    case YCoCg:
+                        rgb[0] = (int)((c0 + c1 - c2) * 255f);
+                        rgb[1] = (int)((c0 + c2) * 255f);
+                        rgb[2] = (int)((c0 - c1 - c2) * 255f);
+                        break;
+                    case YES:
+                        rgb[0] = (int)((c0 + c1 * 1.431 + c2 * 0.126) * 255);
+                        rgb[1] = (int)((c0 + c1 * -0.569 + c2 * 0.126) * 255);
+                        rgb[2] = (int)((c0 + c1 * 0.431 + c2 * -1.874) * 255);
+                        break;
+                    case IHS:
+                        IHStoRGB(c0, c1, c2, rgb);
+                        break;
+                    case CMYK:
+                        double kk = p3[i];
+                        rgb[0] = (int)(255 * (1-c0) * (1-kk));
+                        rgb[1] = (int)(255 * (1-c1) * (1-kk));
+                        rgb[2] = (int)(255 * (1-c2) * (1-kk));
+                        break;
+                    default:
+                        ToXYZ(colorSpace, c0, c1, c2, tristimulus, lms, rgb);
+                        break;
+                }
+
+                data[dst + y] = (data[dst + y] & 0xFF000000) | Clamp(rgb[0]) << 16 | Clamp(rgb[1]) << 8 | Clamp(rgb[2]);
+            }
+        }
+    }
+
+    /**
+     * Convert to XYZ, then to RGB.
+     */
+    private static void ToXYZ(ColorSpace colorSpace, double c0, double c1, double c2, double[] tristimulus, double[][] lms, int[] rgb){
+        double X, Y, Z;
+        switch(colorSpace){
+            case XYZ:
+                X = c0; Y = c1; Z = c2;
+                break;
+            case HunterLAB:
+                double tempY = c0 / 10f;
+                double tempX = c1 / 17.5f * c0 / 10f;
+                double tempZ = c2 / 7f * c0 / 10f;
+                Y = tempY * tempY;
+                X = (tempX + Y) / 1.02f;
+                Z = -(tempZ - Y) / 0.847f;
+                break;
+            case LMS:
+                X = c0 * lms[0][0] + c1 * lms[1][0] + c2 * lms[2][0];
+                Y = c0 * lms[0][1] + c1 * lms[1][1] + c2 * lms[2][1];
+                Z = c0 * lms[0][2] + c1 * lms[1][2] + c2 * lms[2][2];
+                break;
+            default:
+                // LAB and LCH
+                double l = c0, a = c1, b = c2;
+                if (colorSpace == ColorSpace.LCH){
+                    a = c1 * Math.cos(Math.toRadians(c2));
+                    b = c1 * Math.sin(Math.toRadians(c2));
+                }
+                double fy = ( l + 16D ) / 116D;
+                double fx = (a / 500D) + fy;
+                double fz = fy - (b / 200D);
+
+                double x3 = fx * fx * fx;
+                double z3 = fz * fz * fz;
+                X = (x3 > e ? x3 : (116 * fx - 16) / k) * tristimulus[0];
+                Y = (l > 8 ? fy * fy * fy : l / k) * tristimulus[1];
+                Z = (z3 > e ? z3 : (116 * fz - 16) / k) * tristimulus[2];
+                break;
+        }
+
+        rgb[0] = Gamma(3.240479D * X - 1.53715D * Y - 0.498535D * Z);
+        rgb[1] = Gamma(-0.969256D * X + 1.875991D * Y + 0.041556D * Z);
+        rgb[2] = Gamma(0.055648D * X - 0.204043D * Y + 1.057311D * Z);
+    }
+
+    /**
+     * Inverse sRGB gamma, by binary search in the quantization thresholds.
+     * @param linear Linear value, x 100.
+     * @return 8 bits value.
+     */
+    private static int Gamma(double linear){
+        int lo = 0, hi = 255;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (linear >= THRESHOLD[mid]) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private static void HSVtoRGB(double hue, double saturation, double value, int[] rgb){
+        double hi = Math.floor(hue / 60.0) % 6;
+        double f = (hue / 60.0) - Math.floor(hue / 60.0);
+        double p = value * (1.0 - saturation);
+        double q = value * (1.0 - (f * saturation));
+        double t = value * (1.0 - ((1.0 - f) * saturation));
+
+        double r = 0, g = 0, b = 0;
+        if (hi == 0){
+            r = value; g = t; b = p;
+        }
+        else if (hi == 1){
+            r = q; g = value; b = p;
+        }
+        else if (hi == 2){
+            r = p; g = value; b = t;
+        }
+        else if (hi == 3){
+            r = p; g = value; b = q;
+        }
+        else if (hi == 4){
+            r = t; g = value; b = p;
+        }
+        else if (hi == 5){
+            r = value; g = p; b = q;
+        }
+
+        rgb[0] = (int)(r * 255);
+        rgb[1] = (int)(g * 255);
+        rgb[2] = (int)(b * 255);
+    }
+
+    private static void HSLtoRGB(double hue, double saturation, double luminance, int[] rgb){
+        if ( saturation == 0 ){
+            // gray values
+            rgb[0] = rgb[1] = rgb[2] = (int) ( luminance * 255 );
+        }
+        else{
+            double v1, v2;
+            double h = hue / 360;
+
+            v2 = ( luminance < 0.5 ) ?
+                ( luminance * ( 1 + saturation ) ) :
+                ( ( luminance + saturation ) - ( luminance * saturation ) );
+            v1 = 2 * luminance - v2;
+
+            rgb[0] = (int) ( 255 * Hue_2_RGB( v1, v2, h + ( 1.0f / 3 ) ) );
+            rgb[1] = (int) ( 255 * Hue_2_RGB( v1, v2, h ) );
+            rgb[2] = (int) ( 255 * Hue_2_RGB( v1, v2, h - ( 1.0f / 3 ) ) );
+        }
+    }
+
+    private static double Hue_2_RGB( double v1, double v2, double vH ){
+        if ( vH < 0 )
+            vH += 1;
+        if ( vH > 1 )
+            vH -= 1;
+        if ( ( 6 * vH ) < 1 )
+            return ( v1 + ( v2 - v1 ) * 6 * vH );
+        if ( ( 2 * vH ) < 1 )
+            return v2;
+        if ( ( 3 * vH ) < 2 )
+            return ( v1 + ( v2 - v1 ) * ( ( 2.0f / 3 ) - vH ) * 6 );
+        return v1;
+    }
+
+    private static void IHStoRGB(double i, double h, double s, int[] rgb){
+        double r, g, b;
+        if(h >= 0 && h <= 1){
+            r = i * (1 + 2*s-3*s*h) / 3;
+            g = i * (1 - s+3*s*h) / 3;
+            b = i * (1 - s) / 3;
+        }
+        else if(h >= 1 && h <= 2){
+            r = i * (1 - s) / 3;
+            g = i * (1 + 2*s - 3*s*(h - 1)) / 3;
+            b = i * (1 - s + 3*s*(h - 1)) / 3;
+        }
+        else{
+            r = i * (1 - s + 3*s*(h - 2)) / 3;
+            g = i * (1 - s) / 3;
+            b = i * (1 + 2*s - 3*s*(h - 2)) / 3;
+        }
+        rgb[0] = (int)(r * 255);
+        rgb[1] = (int)(g * 255);
+        rgb[2] = (int)(b * 255);
+    }
+
+    private static int Clamp(int value){
+        return value < 0 ? 0 : value > 255 ? 255 : value;
+    }
+
+    /**
+     * Work over a band of rows.
+     */
+    private interface Band {
+        void Process(int start, int end);
+    }
+
+    /**
+     * Process the rows, in parallel for large images.
+     */
+    private static void Rows(int height, int width, final Band band){
+        int tasks = (long)height * width >= PARALLEL_SIZE ? Math.min(MulticoreExecutor.getThreadPoolSize(), height) : 1;
+        if (tasks <= 1){
+            band.Process(0, height);
+            return;
+        }
+
+        List<Callable<Void>> lst = new ArrayList<Callable<Void>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int start = t * height / tasks;
+            final int end = (t + 1) * height / tasks;
+            lst.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    band.Process(start, end);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            MulticoreExecutor.run(lst);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
@@ -0,0 +1,623 @@
+// catalano Imaging Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Imaging.Tools;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Gaussian scale space of an image.
+ *
+ * <p>The scale space is divided in octaves, each octave has half of the size of the previous one.
+ * Each octave is divided in intervals, the level (o, s) is the image smoothed by a gaussian with
+ * sigma * 2^(s / intervals), relative to the size of the octave. The last level of an octave
+ * is the base of the next one.</p>
+ *
+ * <p>All the levels, gradients, difference of gaussians and integral images are computed only when
+ * requested and kept in a cache limited by a memory budget. When the budget is exceeded, the least
+ * recently used entries are evicted and computed again if requested later. Several detectors can
+ * share the same instance to avoid repeating the preprocessing of a frame.</p>
+ *
+ * <p>The arrays returned by this class are shared by the cache and must not be modified.</p>
+ *
+ * <p><li>Supported types: Grayscale, RGB.
+ * <br><li>Coordinate System: Matrix.
+ *
+ * @author Diego catalano
+ */
+public class ScaleSpace {
+
+    private static final int GAUSSIAN = 0;
+    private static final int DOG = 1;
+    private static final int DX = 2;
+    private static final int DY = 3;
+    private static final int MAGNITUDE = 4;
+    private static final int ORIENTATION = 5;
+    private static final int IMAGE = 6;
+    private static final int INTEGRAL = 7;
+
+    // blur already present in the source image
+    private static final double SOURCE_SIGMA = 0.5;
+
+    private FastBitmap source;
+    private int octaves;
+    private int intervals;
+    private double sigma;
+    private long memoryBudget;
+    private long memoryUsage = 0;
+    private int[] widths;
+    private int[] heights;
+
+    private IntegralImage sourceIntegral;
+    private LinkedHashMap<Long, Entry> cache = new LinkedHashMap<Long, Entry>(16, 0.75f, true);
+
+    /**
+     * Get number of octaves.
+     * @return Number of octaves.
+     */
+    public int getOctaves() {
+        return octaves;
+    }
+
+    /**
+     * Get number of intervals per octave.
+     * @return Number of intervals.
+     */
+    public int getIntervals() {
+        return intervals;
+    }
+
+    /**
+     * Get sigma of the first level of each octave.
+     * @return Sigma.
+     */
+    public double getSigma() {
+        return sigma;
+    }
+
+    /**
+     * Get memory budget of the cache, in bytes.
+     * @return Memory budget.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Set memory budget of the cache, in bytes.
+     * @param memoryBudget Memory budget.
+     */
+    public synchronized void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = Math.max(0, memoryBudget);
+        Evict(-1);
+    }
+
+    /**
+     * Get memory used by the cache, in bytes.
+     * @return Memory usage.
+     */
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Initializes a new instance of the ScaleSpace class.
+     * <br>
+     * <br> Default:
+     * <br> Octaves: as many as possible with at least 16 pixels.
+     * <br> Intervals: 2
+     * <br> Sigma: 1.6
+     * <br> Memory budget: 64 MB
+     * @param fastBitmap Image to be processed.
+     */
+    public ScaleSpace(FastBitmap fastBitmap) {
+        this(fastBitmap, 0, 2, 1.6);
+    }
+
+    /**
+     * Initializes a new instance of the ScaleSpace class.
+     * @param fastBitmap Image to be processed.
+     * @param octaves Number of octaves (0 = as many as possible with at least 16 pixels).
+     * @param intervals Number of intervals per octave.
+     * @param sigma Sigma of the first level of each octave.
+     */
+    public ScaleSpace(FastBitmap fastBitmap, int octaves, int intervals, double sigma) {
+        this(fastBitmap, octaves, intervals, sigma, 64L * 1024 * 1024);
+    }
+
+    /**
+     * Initializes a new instance of the ScaleSpace class.
+     * @param fastBitmap Image to be processed.
+     * @param octaves Number of octaves (0 = as many as possible with at least 16 pixels).
+     * @param intervals Number of intervals per octave.
+     * @param sigma Sigma of the first level of each octave.
+     * @param memoryBudget Memory budget of the cache, in bytes.
+     */
+    public ScaleSpace(FastBitmap fastBitmap, int octaves, int intervals, double sigma, long memoryBudget) {
+        if (intervals < 1)
+            throw new IllegalArgumentException("The number of intervals must be at least 1.");
+        if (sigma <= 0)
+            throw new IllegalArgumentException("Sigma must be greater than 0.");
+
+        this.source = new FastBitmap(fastBitmap);
+        if (!source.isGrayscale())
+            source.toGrayscale();
+
+        int maxOctaves = 1;
+        int size = Math.min(source.getWidth(), source.getHeight());
+        while ((size >> maxOctaves) >= 16) maxOctaves++;
+
+        this.octaves = octaves <= 0 ? maxOctaves : Math.min(octaves, maxOctaves);
+        this.intervals = intervals;
+        this.sigma = sigma;
+        this.memoryBudget = Math.max(0, memoryBudget);
+
+        widths = new int[this.octaves];
+        heights = new int[this.octaves];
+        widths[0] = source.getWidth();
+        heights[0] = source.getHeight();
+        for (int o = 1; o < this.octaves; o++) {
+            widths[o] = (widths[o - 1] + 1) / 2;
+            heights[o] = (heights[o - 1] + 1) / 2;
+        }
+    }
+
+    /**
+     * Get the grayscale source image.
+     * @return Source image.
+     */
+    public FastBitmap getSource() {
+        return source;
+    }
+
+    /**
+     * Get the integral image of the source image.
+     * @return Integral image.
+     */
+    public synchronized IntegralImage getIntegralImage() {
+        if (sourceIntegral == null)
+            sourceIntegral = Integral(source.getGrayData(), widths[0], heights[0]);
+        return sourceIntegral;
+    }
+
+    /**
+     * Get width of the octave.
+     * @param octave Octave.
+     * @return Width.
+     */
+    public int getWidth(int octave) {
+        CheckOctave(octave);
+        return widths[octave];
+    }
+
+    /**
+     * Get height of the octave.
+     * @param octave Octave.
+     * @return Height.
+     */
+    public int getHeight(int octave) {
+        CheckOctave(octave);
+        return heights[octave];
+    }
+
+    /**
+     * Get the factor to map coordinates of the octave to the source image.
+     * @param octave Octave.
+     * @return Scale factor.
+     */
+    public int getScale(int octave) {
+        CheckOctave(octave);
+        return 1 << octave;
+    }
+
+    /**
+     * Get the sigma of the level, relative to the source image.
+     * @param octave Octave.
+     * @param interval Interval.
+     * @return Sigma.
+     */
+    public double getSigma(int octave, int interval) {
+        CheckLevel(octave, interval);
+        return sigma * Math.pow(2, octave + (double)interval / intervals);
+    }
+
+    /**
+     * Get the gaussian smoothed level.
+     * @param octave Octave.
+     * @param interval Interval, from 0 to the number of intervals.
+     * @return Row-major plane with width x height of the octave.
+     */
+    public synchronized float[] getGaussian(int octave, int interval) {
+        CheckLevel(octave, interval);
+        float[] plane = (float[])Get(GAUSSIAN, octave, interval);
+        if (plane != null) return plane;
+
+        int width = widths[octave];
+        int height = heights[octave];
+
+        if (interval > 0) {
+            float[] previous = getGaussian(octave, interval - 1);
+            double s0 = sigma * Math.pow(2, (double)(interval - 1) / intervals);
+            double s1 = sigma * Math.pow(2, (double)interval / intervals);
+            plane = Blur(previous, width, height, Math.sqrt(s1 * s1 - s0 * s0));
+        }
+        else if (octave > 0) {
+            // base of the octave: subsample the last level of the previous octave
+            float[] previous = getGaussian(octave - 1, intervals);
+            int pw = widths[octave - 1];
+            plane = new float[width * height];
+            for (int i = 0; i < height; i++) {
+                int offset = 2 * i * pw;
+                for (int j = 0; j < width; j++) {
+                    plane[i * width + j] = previous[offset + 2 * j];
+                }
+            }
+        }
+        else {
+            byte[] data = source.getGrayData();
+            float[] image = new float[data.length];
+            for (int i = 0; i < data.length; i++) {
+                image[i] = data[i] & 0xFF;
+            }
+            double s = Math.sqrt(Math.max(sigma * sigma - SOURCE_SIGMA * SOURCE_SIGMA, 0.01));
+            plane = Blur(image, width, height, s);
+        }
+
+        Put(GAUSSIAN, octave, interval, plane, 4L * plane.length);
+        return plane;
+    }
+
+    /**
+     * Get the difference of gaussians between the levels (o, s + 1) and (o, s).
+     * @param octave Octave.
+     * @param interval Interval, from 0 to the number of intervals - 1.
+     * @return Row-major plane with width x height of the octave.
+     */
+    public synchronized float[] getDifferenceOfGaussian(int octave, int interval) {
+        if (interval >= intervals)
+            throw new IllegalArgumentException("The interval of the difference of gaussians must be less than " + intervals + ".");
+        CheckLevel(octave, interval);
+
+        float[] dog = (float[])Get(DOG, octave, interval);
+        if (dog != null) return dog;
+
+        float[] g1 = getGaussian(octave, interval + 1);
+        float[] g0 = getGaussian(octave, interval);
+        dog = new float[g0.length];
+        for (int i = 0; i < dog.length; i++) {
+            dog[i] = g1[i] - g0[i];
+        }
+
+        Put(DOG, octave, interval, dog, 4L * dog.length);
+        return dog;
+    }
+
+    /**
+     * Get the derivative of the level in the X axis (rows), computed by central differences.
+     * @param octave Octave.
+     * @param interval Interval.
+     * @return Row-major plane with width x height of the octave.
+     */
+    public synchronized float[] getDerivativeX(int octave, int interval) {
+        CheckLevel(octave, interval);
+        float[] d = (float[])Get(DX, octave, interval);
+        if (d != null) return d;
+
+        float[] g = getGaussian(octave, interval);
+        int width = widths[octave];
+        int height = heights[octave];
+        d = new float[g.length];
+        for (int i = 0; i < height; i++) {
+            int up = Math.max(i - 1, 0) * width;
+            int down = Math.min(i + 1, height - 1) * width;
+            for (int j = 0; j < width; j++) {
+                d[i * width + j] = (g[down + j] - g[up + j]) * 0.5f;
+            }
+        }
+
+        Put(DX, octave, interval, d, 4L * d.length);
+        return d;
+    }
+
+    /**
+     * Get the derivative of the level in the Y axis (columns), computed by central differences.
+     * @param octave Octave.
+     * @param interval Interval.
+     * @return Row-major plane with width x height of the octave.
+     */
+    public synchronized float[] getDerivativeY(int octave, int interval) {
+        CheckLevel(octave, interval);
+        float[] d = (float[])Get(DY, octave, interval);
+        if (d != null) return d;
+
+        float[] g = getGaussian(octave, interval);
+        int width = widths[octave];
+        int height = heights[octave];
+        d = new float[g.length];
+        for (int i = 0; i < height; i++) {
+            int offset = i * width;
+            for (int j = 0; j < width; j++) {
+                int left = Math.max(j - 1, 0);
+                int right = Math.min(j + 1, width - 1);
+                d[offset + j] = (g[offset + right] - g[offset + left]) * 0.5f;
+            }
+        }
+
+        Put(DY, octave, interval, d, 4L * d.length);
+        return d;
+    }
+
+    /**
+     * Get the gradient magnitude of the level.
+     * @param octave Octave.
+     * @param interval Interval.
+     * @return Row-major plane with width x height of the octave.
+     */
+    public synchronized float[] getGradientMagnitude(int octave, int interval) {
+        CheckLevel(octave, interval);
+        float[] magnitude = (float[])Get(MAGNITUDE, octave, interval);
+        if (magnitude != null) return magnitude;
+
+        float[] dx = getDerivativeX(octave, interval);
+        float[] dy = getDerivativeY(octave, interval);
+        magnitude = new float[dx.length];
+        for (int i = 0; i < magnitude.length; i++) {
+            magnitude[i] = (float)Math.sqrt(dx[i] * dx[i] + dy[i] * dy[i]);
+        }
+
+        Put(MAGNITUDE, octave, interval, magnitude, 4L * magnitude.length);
+        return magnitude;
+    }
+
+    /**
+     * Get the gradient orientation of the level.
+     * @param octave Octave.
+     * @param interval Interval.
+     * @return Row-major plane with the orientation in radians [-PI, PI], measured from the X axis (rows) to the Y axis (columns).
+     */
+    public synchronized float[] getGradientOrientation(int octave, int interval) {
+        CheckLevel(octave, interval);
+        float[] orientation = (float[])Get(ORIENTATION, octave, interval);
+        if (orientation != null) return orientation;
+
+        float[] dx = getDerivativeX(octave, interval);
+        float[] dy = getDerivativeY(octave, interval);
+        orientation = new float[dx.length];
+        for (int i = 0; i < orientation.length; i++) {
+            orientation[i] = (float)Math.atan2(dy[i], dx[i]);
+        }
+
+        Put(ORIENTATION, octave, interval, orientation, 4L * orientation.length);
+        return orientation;
+    }
+
+    /**
+     * Get the level as a grayscale image.
+     * @param octave Octave.
+     * @param interval Interval.
+     * @return Grayscale image.
+     */
+    public synchronized FastBitmap getImage(int octave, int interval) {
+        CheckLevel(octave, interval);
+        FastBitmap fb = (FastBitmap)Get(IMAGE, octave, interval);
+        if (fb != null) return fb;
+
+        float[] g = getGaussian(octave, interval);
+        fb = new FastBitmap(widths[octave], heights[octave], FastBitmap.ColorSpace.Grayscale);
+        byte[] data = fb.getGrayData();
+        for (int i = 0; i < data.length; i++) {
+            int v = (int)(g[i] + 0.5f);
+            data[i] = (byte)(v < 0 ? 0 : v > 255 ? 255 : v);
+        }
+
+        Put(IMAGE, octave, interval, fb, (long)data.length);
+        return fb;
+    }
+
+    /**
+     * Get the integral image of the level.
+     * @param octave Octave.
+     * @param interval Interval.
+     * @return Integral image.
+     */
+    public synchronized IntegralImage getIntegralImage(int octave, int interval) {
+        CheckLevel(octave, interval);
+        IntegralImage ii = (IntegralImage)Get(INTEGRAL, octave, interval);
+        if (ii != null) return ii;
+
+        FastBitmap fb = getImage(octave, interval);
+        ii = Integral(fb.getGrayData(), widths[octave], heights[octave]);
+
+        Put(INTEGRAL, octave, interval, ii, 4L * (widths[octave] + 1) * (heights[octave] + 1));
+        return ii;
+    }
+
+    /**
+     * Remove all the entries of the cache.
+     */
+    public synchronized void Clear() {
+        cache.clear();
+        memoryUsage = 0;
+    }
+
+    private void CheckOctave(int octave) {
+        if (octave < 0 || octave >= octaves)
+            throw new IllegalArgumentException("The octave must be between 0 and " + (octaves - 1) + ".");
+    }
+
+    private void CheckLevel(int octave, int interval) {
+        CheckOctave(octave);
+        if (interval < 0 || interval > intervals)
+            throw new IllegalArgumentException("The interval must be between 0 and " + intervals + ".");
+    }
+
+    private static long Key(int type, int octave, int interval) {
+        return ((long)type << 40) | ((long)octave << 20) | interval;
+    }
+
+    private Object Get(int type, int octave, int interval) {
+        Entry e = cache.get(Key(type, octave, interval));
+        return e == null ? null : e.value;
+    }
+
+    private void Put(int type, int octave, int interval, Object value, long bytes) {
+        long key = Key(type, octave, interval);
+        Entry old = cache.put(key, new Entry(value, bytes));
+        if (old != null) memoryUsage -= old.bytes;
+        memoryUsage += bytes;
+        Evict(key);
+    }
+
+    /**
+     * Evict the least recently used entries until the cache fits in the budget.
+     * @param keep Key of the entry that must be kept.
+     */
+    private void Evict(long keep) {
+        Iterator<Map.Entry<Long, Entry>> it = cache.entrySet().iterator();
+        while (memoryUsage > memoryBudget && it.hasNext()) {
+            Map.Entry<Long, Entry> e = it.next();
+            if (e.getKey() == keep) continue;
+            memoryUsage -= e.getValue().bytes;
+            it.remove();
+        }
+    }
+
+    private static IntegralImage Integral(byte[] data, int width, int height) {
+        IntegralImage im = new IntegralImage(width, height);
+        int[][] ii = im.integralImage;
+        for (int i = 1; i <= height; i++) {
+            int rowSum = 0;
+            int offset = (i - 1) * width;
+            int[] prev = ii[i - 1];
+            int[] row = ii[i];
+            for (int j = 1; j <= width; j++) {
+                rowSum += data[offset + j - 1] & 0xFF;
+                row[j] = rowSum + prev[j];
+            }
+        }
+        return im;
+    }
+
+    /**
+     * Separable gaussian blur with replicated borders, rows are processed in parallel.
+     */
+    private static float[] Blur(final float[] image, final int width, final int height, double sigma) {
+        int radius = Math.max(1, (int)Math.ceil(3 * sigma));
+        final float[] kernel = new float[2 * radius + 1];
+        float sum = 0;
+        for (int i = 0; i < kernel.length; i++) {
+            double x = i - radius;
+            kernel[i] = (float)Math.exp(-(x * x) / (2 * sigma * sigma));
+            sum += kernel[i];
+        }
+        for (int i = 0; i < kernel.length; i++) {
+            kernel[i] /= sum;
+        }
+
+        final float[] temp = new float[image.length];
+        final float[] result = new float[image.length];
+
+        int tasks = Math.max(1, Math.min(MulticoreExecutor.getThreadPoolSize(), height / 32));
+        final int r = radius;
+        List<Callable<Void>> horizontal = new ArrayList<Callable<Void>>(tasks);
+        List<Callable<Void>> vertical = new ArrayList<Callable<Void>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int start = t * height / tasks;
+            final int end = (t + 1) * height / tasks;
+            horizontal.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = start; i < end; i++) {
+                        int offset = i * width;
+                        for (int j = 0; j < width; j++) {
+                            float v = 0;
+                            for (int k = -r; k <= r; k++) {
+                                int y = j + k;
+                                y = y < 0 ? 0 : y >= width ? width - 1 : y;
+                                v += image[offset + y] * kernel[k + r];
+                            }
+                            temp[offset + j] = v;
+                        }
+                    }
+                    return null;
+                }
+            });
+            vertical.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = start; i < end; i++) {
+                        int offset = i * width;
+                        for (int j = 0; j < width; j++) {
+                            result[offset + j] = 0;
+                        }
+                        for (int k = -r; k <= r; k++) {
+                            int x = i + k;
+                            x = x < 0 ? 0 : x >= height ? height - 1 : x;
+                            float w = kernel[k + r];
+                            int src = x * width;
+                            for (int j = 0; j < width; j++) {
+                                result[offset + j] += temp[src + j] * w;
+                            }
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+
+        Run(horizontal);
+        Run(vertical);
+        return result;
+    }
+
+    private static void Run(List<Callable<Void>> tasks) {
+        try {
+            MulticoreExecutor.run(tasks);
+        } catch (Exception ex) {
+            System.err.println(ex);
+            try {
+                for (Callable<Void> task : tasks) task.call();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Entry of the cache.
+     */
+    private static class Entry {
+        final Object value;
+        final long bytes;
+
+        Entry(Object value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -21,9 +21,7 @@
 
 package com.tdlibs.catalano.Imaging.Tools;
 
-import com.tdlibs.catalano.Core.ArraysUtil;
 import com.tdlibs.catalano.Imaging.FastBitmap;
-import com.tdlibs.catalano.Imaging.Filters.Crop;
 import com.tdlibs.catalano.Imaging.Texture.BinaryPattern.IBinaryPattern;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,6 +34,25 @@ public class SpatialHistogram {
     
     private int wBlock;
     private int hBlock;
+    private boolean parallel = false;
+
+    /**
+     * Check if the blocks of one image are computed in parallel.
+     * @return True if the blocks are computed in parallel.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Set if the blocks of one image are computed in parallel, disabled by default.
+     * The pattern and the features are shared by the threads and must be thread safe, MedianCut, LocalTernaryPattern
+     * and LocalAdaptiveTernaryPattern keep state in fields and are not.
+     * @param parallel True to compute the blocks in parallel.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
 
     /**
      * Initializes a new instance of the SpatialHistogram class.
@@ -56,78 +73,59 @@ public class SpatialHistogram {
     
     /**
      * Compute the spatial histogram.
+     * <p>The blocks are regions of interest of the image, they are copied only if the raw data
+     * (getGrayData, getRGBData) is read, and the changes in a block are written in the image.
+     * The blocks are computed in parallel only if enabled by {@link #setParallel(boolean)}.</p>
      * @param fastBitmap Image to be processed.
      * @param pattern Binary pattern.
      * @return Spatial Histogram.
      */
     public int[] Compute(FastBitmap fastBitmap, IBinaryPattern pattern){
-        
-        int width = fastBitmap.getWidth();
-        int height = fastBitmap.getHeight();
-        
-        int wDiv = (int)Math.round((double)width / (double)wBlock) - 1;
-        int hDiv = (int)Math.round((double)height / (double)hBlock) - 1;
-        
-        ImageHistogram[] hist = new ImageHistogram[wBlock * hBlock];
-        int idx = 0;
-        
-        for (int i = 0; i < hBlock; i++) {
-            for (int j = 0; j < wBlock; j++) {
-                FastBitmap copy = getSubimage(fastBitmap, i*hDiv, j*wDiv, wDiv, hDiv);
-                hist[idx++] = pattern.ComputeFeatures(copy);
-            }
-        }
-        
-        //Concatenate all the histograms
-        int[] all = new int[hist.length * hist[0].getValues().length];
-        
-        idx = 0;
-        for (int i = 0; i < hist.length; i++) {
-            int[] values = hist[i].getValues();
-            for (int j = 0; j < values.length; j++) {
-                all[idx++] = values[j];
-            }
-        }
-        
-        return all;
-        
+        int[] blocks = BlockDescriptors.Grid(fastBitmap.getWidth(), fastBitmap.getHeight(), wBlock, hBlock);
+        return BlockDescriptors.Compute(fastBitmap, blocks, pattern, parallel);
     }
     
     /**
      * Compute the spatial histogram.
+     * <p>The blocks are regions of interest of the image, they are copied only if the raw data
+     * (getGrayData, getRGBData) is read, and the changes in a block are written in the image.
+     * The blocks are computed in parallel only if enabled by {@link #setParallel(boolean)}.</p>
      * @param fastBitmap Image to be processed.
      * @param features Aggregate vectors.
      * @return Spatial features.
      */
     public double[] Compute(FastBitmap fastBitmap, IAggregateVectors features){
-        
-        int width = fastBitmap.getWidth();
-        int height = fastBitmap.getHeight();
-        
-        int wDiv = (int)Math.round((double)width / (double)wBlock) - 1;
-        int hDiv = (int)Math.round((double)height / (double)hBlock) - 1;
-        
-        List<double[]> lst = new ArrayList<double[]>();
-        
-        for (int i = 0; i < hBlock; i++) {
-            for (int j = 0; j < wBlock; j++) {
-                FastBitmap copy = getSubimage(fastBitmap, i*hDiv, j*wDiv, wDiv, hDiv);
-                lst.add(features.Compute(copy));
-            }
-        }
-        
-        //Concatenate all the histograms
-        return ArraysUtil.ConcatenateDouble(lst);
-        
+        int[] blocks = BlockDescriptors.Grid(fastBitmap.getWidth(), fastBitmap.getHeight(), wBlock, hBlock);
+        return BlockDescriptors.Compute(fastBitmap, blocks, null, features, parallel);
     }
     
-    private FastBitmap getSubimage(FastBitmap fastBitmap, int x, int y, int width, int height){
-        FastBitmap copy = new FastBitmap(fastBitmap);
-        
-        Crop crop = new Crop(x, y, width, height);
-        crop.applyInPlace(copy);
-        
-        return copy;
+    /**
+     * Compute the spatial histogram of several images.
+     * <p>The images are computed in parallel, the pattern must be thread safe (LocalTernaryPattern and LocalAdaptiveTernaryPattern are not).</p>
+     * @param images Images to be processed.
+     * @param pattern Binary pattern.
+     * @return Spatial Histogram of each image.
+     */
+    public int[][] ComputeAll(List<FastBitmap> images, IBinaryPattern pattern){
+        return BlockDescriptors.Compute(images, Grids(images), pattern);
+    }
+    
+    /**
+     * Compute the spatial histogram of several images.
+     * <p>The images are computed in parallel, the features must be thread safe.</p>
+     * @param images Images to be processed.
+     * @param features Aggregate vectors.
+     * @return Spatial features of each image.
+     */
+    public double[][] ComputeAllFeatures(List<FastBitmap> images, IAggregateVectors features){
+        return BlockDescriptors.Compute(images, Grids(images), null, features);
     }
     
-}
\ No newline at end of file
+    private List<int[]> Grids(List<FastBitmap> images){
+        List<int[]> grids = new ArrayList<int[]>(images.size());
+        for (FastBitmap fb : images) {
+            grids.add(BlockDescriptors.Grid(fb.getWidth(), fb.getHeight(), wBlock, hBlock));
+        }
+        return grids;
+    }
+}
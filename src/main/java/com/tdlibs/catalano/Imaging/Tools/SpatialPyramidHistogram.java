@@ -21,7 +21,6 @@
 
 package com.tdlibs.catalano.Imaging.Tools;
 
-import com.tdlibs.catalano.Core.ArraysUtil;
 import com.tdlibs.catalano.Imaging.FastBitmap;
 import com.tdlibs.catalano.Imaging.Texture.BinaryPattern.IBinaryPattern;
 import java.util.ArrayList;
@@ -34,6 +33,7 @@ import java.util.List;
 public class SpatialPyramidHistogram {
     
     private int level;
+    private boolean parallel = false;
 
     /**
      * Get level of the pyramid.
@@ -51,6 +51,24 @@ public class SpatialPyramidHistogram {
         this.level = Math.max(1, level);
     }
 
+    /**
+     * Check if the blocks of one image are computed in parallel.
+     * @return True if the blocks are computed in parallel.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Set if the blocks of one image are computed in parallel, disabled by default.
+     * The pattern and the features are shared by the threads and must be thread safe, MedianCut, LocalTernaryPattern
+     * and LocalAdaptiveTernaryPattern keep state in fields and are not.
+     * @param parallel True to compute the blocks in parallel.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     /**
      * Initializes a new instance of the SpatialPyramidHistogram class.
      */
@@ -68,53 +86,66 @@ public class SpatialPyramidHistogram {
     
     /**
      * Compute the Spatial Pyramid Histogram.
+     * <p>The blocks of all the levels are computed in parallel only if enabled by {@link #setParallel(boolean)}.</p>
      * @param fastBitmap Image to be processed.
      * @param pattern Binary pattern.
      * @return Spatial Pyramid Histogram.
      */
     public int[] Compute(FastBitmap fastBitmap, IBinaryPattern pattern){
-        
-        List<int[]> histograms = new ArrayList<int[]>();
-        int elem = 0;
-        int size = 1;
-        for (int i = 0; i < level; i++) {
-            SpatialHistogram sh = new SpatialHistogram(size, size);
-            histograms.add(sh.Compute(fastBitmap, pattern));
-            elem += histograms.get(i).length;
-            size *= 2;
-        }
-        
-        //Concatenate the the histograms
-        int[] all = new int[elem];
-        int idx = 0;
-        for (int i = 0; i < histograms.size(); i++) {
-            int[] h = histograms.get(i);
-            for (int j = 0; j < h.length; j++) {
-                all[idx++] = h[j];
-            }
-        }
-        
-        return all;   
+        return BlockDescriptors.Compute(fastBitmap, Pyramid(fastBitmap), pattern, parallel);
     }
     
     /**
      * Compute the spatial histogram.
+     * <p>The blocks of all the levels are computed in parallel only if enabled by {@link #setParallel(boolean)}.</p>
      * @param fastBitmap Image to be processed.
      * @param features Aggregate vectors.
      * @return Spatial features.
      */
     public double[] Compute(FastBitmap fastBitmap, IAggregateVectors features){
-        
-        List<double[]> lst = new ArrayList<double[]>();
+        return BlockDescriptors.Compute(fastBitmap, Pyramid(fastBitmap), null, features, parallel);
+    }
+    
+    /**
+     * Compute the Spatial Pyramid Histogram of several images.
+     * <p>The images are computed in parallel, the pattern must be thread safe (LocalTernaryPattern and LocalAdaptiveTernaryPattern are not).</p>
+     * @param images Images to be processed.
+     * @param pattern Binary pattern.
+     * @return Spatial Pyramid Histogram of each image.
+     */
+    public int[][] ComputeAll(List<FastBitmap> images, IBinaryPattern pattern){
+        return BlockDescriptors.Compute(images, Pyramids(images), pattern);
+    }
+    
+    /**
+     * Compute the spatial histogram of several images.
+     * <p>The images are computed in parallel, the features must be thread safe.</p>
+     * @param images Images to be processed.
+     * @param features Aggregate vectors.
+     * @return Spatial features of each image.
+     */
+    public double[][] ComputeAllFeatures(List<FastBitmap> images, IAggregateVectors features){
+        return BlockDescriptors.Compute(images, Pyramids(images), null, features);
+    }
+    
+    /**
+     * Blocks of all the levels, level 0 has 1 block, level 1 has 2x2 blocks, level 2 has 4x4 blocks...
+     */
+    private int[] Pyramid(FastBitmap fastBitmap){
+        List<int[]> grids = new ArrayList<int[]>(level);
         int size = 1;
         for (int i = 0; i < level; i++) {
-            SpatialHistogram sh = new SpatialHistogram(size, size);
-            lst.add(sh.Compute(fastBitmap, features));
+            grids.add(BlockDescriptors.Grid(fastBitmap.getWidth(), fastBitmap.getHeight(), size, size));
             size *= 2;
         }
-        
-        //Concatenate the the histograms
-        return ArraysUtil.ConcatenateDouble(lst);   
-        
+        return BlockDescriptors.Concatenate(grids);
+    }
+    
+    private List<int[]> Pyramids(List<FastBitmap> images){
+        List<int[]> pyramids = new ArrayList<int[]>(images.size());
+        for (FastBitmap fb : images) {
+            pyramids.add(Pyramid(fb));
+        }
+        return pyramids;
     }
 }
@@ -22,6 +22,9 @@
 
 package com.tdlibs.catalano.MachineLearning.Classification;
 
+import com.tdlibs.catalano.Core.Instrumentation.Metric;
+import com.tdlibs.catalano.Core.Instrumentation.MetricsRegistry;
+import com.tdlibs.catalano.Core.Instrumentation.ThreadAllocation;
 import com.tdlibs.catalano.MachineLearning.Codebook;
 import com.tdlibs.catalano.MachineLearning.Dataset.DecisionVariable;
 import com.tdlibs.catalano.MachineLearning.FeatureScaling.IFeatureScaling;
@@ -41,6 +44,9 @@ public class ClassifierPipeline implements Serializable{
     private DecisionVariable[] variables;
     
     private Codebook codebook;
+    
+    private transient Metric scaleMetric;
+    private transient Metric predictMetric;
 
     /**
      * Get Classifier.
@@ -74,6 +80,23 @@ public class ClassifierPipeline implements Serializable{
         return codebook;
     }
     
+    /**
+     * Record the latency of each stage of the prediction.
+     * The feature scaling is recorded in "name.Scale" and the classifier in "name.Predict".
+     * @param registry Registry of the metrics, null to disable.
+     * @param name Name of the pipeline.
+     */
+    public void setMetrics(MetricsRegistry registry, String name){
+        if (registry == null){
+            this.scaleMetric = null;
+            this.predictMetric = null;
+        }
+        else{
+            this.scaleMetric = registry.getMetric(name + ".Scale");
+            this.predictMetric = registry.getMetric(name + ".Predict");
+        }
+    }
+    
     /**
      * Classifier pipeline.
      * @param classifier Classifier.
@@ -122,26 +145,42 @@ public class ClassifierPipeline implements Serializable{
      */
     public int Predict(double[] sample){
         
+        if (predictMetric == null)
+            return classifier.Predict(Scale(sample));
+        
+        long allocated = ThreadAllocation.CurrentThread();
+        long start = scaleMetric.Start();
         double[] v;
-        if(variables == null){
-            if(featureScale != null){
-                v = featureScale.Compute(sample);
-                return classifier.Predict(v);
-            }
-            else{
-                return classifier.Predict(sample);
-            }
+        boolean done = false;
+        try {
+            v = Scale(sample);
+            done = true;
+        } finally {
+            if (done) scaleMetric.Stop(start, allocated, 1, 0);
+            else scaleMetric.RecordError();
         }
-        else{
-            if(featureScale != null){
-                v = featureScale.Compute(variables, sample);
-                return classifier.Predict(v);
-            }
-            else{
-                return classifier.Predict(sample);
-            }
+        
+        allocated = ThreadAllocation.CurrentThread();
+        start = predictMetric.Start();
+        done = false;
+        try {
+            int label = classifier.Predict(v);
+            done = true;
+            return label;
+        } finally {
+            if (done) predictMetric.Stop(start, allocated, 1, 0);
+            else predictMetric.RecordError();
         }
+    }
+    
+    private double[] Scale(double[] sample){
+        if(featureScale == null)
+            return sample;
         
+        if(variables == null)
+            return featureScale.Compute(sample);
+        else
+            return featureScale.Compute(variables, sample);
     }
     
     public String Translate(int code){
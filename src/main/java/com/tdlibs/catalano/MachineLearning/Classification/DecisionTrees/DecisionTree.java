@@ -30,6 +30,7 @@ import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
 import com.tdlibs.catalano.MachineLearning.Classification.IClassifier;
 import com.tdlibs.catalano.MachineLearning.Dataset.DatasetClassification;
 import com.tdlibs.catalano.Math.Matrix;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
 import com.tdlibs.catalano.Math.Tools;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -163,6 +164,12 @@ public class DecisionTree implements IClassifier, Serializable {
      * attributes will be sorted.
      */
     private transient int[][] order;
+    
+    /**
+     * The random number generator of the feature sampling (random forest),
+     * the shared generator of Tools is used when null.
+     */
+    private transient IRandomNumberGenerator random;
 
     /**
      * Get number maximum of leafs.
@@ -381,8 +388,17 @@ public class DecisionTree implements IClassifier, Serializable {
             }
             
             if (M < p) {
-                synchronized (DecisionTree.class) {
-                    Tools.Permutate(variables);
+                if (random != null) {
+                    for (int i = 0; i < M; i++) {
+                        int j = i + random.nextInt(p - i);
+                        int v = variables[i];
+                        variables[i] = variables[j];
+                        variables[j] = v;
+                    }
+                } else {
+                    synchronized (DecisionTree.class) {
+                        Tools.Permutate(variables);
+                    }
                 }
 
                 // Random forest already runs on parallel.
@@ -899,6 +915,27 @@ public class DecisionTree implements IClassifier, Serializable {
      * samples[i] is the number of sampling for instance i.
      */
     public DecisionTree(DecisionVariable[] attributes, double[][] x, int[] y, int M, int[] samples, int[][] order, SplitRule rule) {
+        this(attributes, x, y, M, samples, order, rule, null);
+    }
+    
+    /**
+     * Initialize a new instance of the DecisionTree class (Random Forest).
+     * 
+     * Learns a classification tree for random forest.
+     *
+     * @param attributes the attribute properties.
+     * @param x the training instances. 
+     * @param y the response variable.
+     * @param M the number of input variables to pick to split on at each
+     * node. It seems that dim/3 give generally good performance, where dim
+     * is the number of variables.
+     * @param order the index of training values in ascending order. Note
+     * that only numeric attributes need be sorted.
+     * @param samples the sample set of instances for stochastic learning.
+     * samples[i] is the number of sampling for instance i.
+     * @param random the random number generator of the feature sampling, the shared generator is used when null.
+     */
+    public DecisionTree(DecisionVariable[] attributes, double[][] x, int[] y, int M, int[] samples, int[][] order, SplitRule rule, IRandomNumberGenerator random) {
         if (x.length != y.length) {
             throw new IllegalArgumentException(String.format("The sizes of X and Y don't match: %d != %d", x.length, y.length));
         }
@@ -928,6 +965,7 @@ public class DecisionTree implements IClassifier, Serializable {
         this.attributes = attributes;
         this.J = Integer.MAX_VALUE;
         this.M = M;
+        this.random = random;
         this.order = order;
         this.rule = rule;
         importance = new double[attributes.length];
@@ -32,12 +32,13 @@ import com.tdlibs.catalano.MachineLearning.Dataset.DecisionVariable;
 import com.tdlibs.catalano.MachineLearning.Classification.IClassifier;
 import com.tdlibs.catalano.MachineLearning.Dataset.DatasetClassification;
 import com.tdlibs.catalano.Math.Matrix;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
+import com.tdlibs.catalano.Math.Random.Xoshiro256StarStar;
 import com.tdlibs.catalano.Math.Tools;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.Callable;
 
 /**
@@ -101,7 +102,7 @@ public class RandomForest implements IClassifier, Serializable {
     private int T;
     private int M;
     private RandomSelection rs;
-    //private long seed = 1;
+    private long seed;
     private SplitRule rule;
     
     /**
@@ -181,23 +182,23 @@ public class RandomForest implements IClassifier, Serializable {
         this.rule = rule;
     }
 
-//    /**
-//     * Random seed.
-//     * @return Random seed.
-//     */
-//    public long getSeed() {
-//        if(seed == 0)
-//            return Thread.currentThread().getId() * System.currentTimeMillis();
-//        return seed;
-//    }
-//
-//    /**
-//     * Set Random seed.
-//     * @param seed Seed.
-//     */
-//    public void setSeed(long seed) {
-//        this.seed = seed;
-//    }
+    /**
+     * Get random seed.
+     * @return Random seed, 0 if the seed is taken from the clock.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Set random seed.
+     * Each tree draws from its own stream, split from the seed in the order of the trees,
+     * so the same seed gives the same forest regardless of the number of threads.
+     * @param seed Seed, 0 to take the seed from the clock.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
     
     /**
      * Trains a regression tree.
@@ -232,11 +233,15 @@ public class RandomForest implements IClassifier, Serializable {
          * Split rule decision tree.
          */
         SplitRule rule;
+        /**
+         * Random number generator of the tree.
+         */
+        IRandomNumberGenerator random;
 
         /**
          * Constructor.
          */
-        TrainingTask(DecisionVariable[] attributes, double[][] x, int[] y, int M, int[][] order, int[][] prediction, SplitRule rule) {
+        TrainingTask(DecisionVariable[] attributes, double[][] x, int[] y, int M, int[][] order, int[][] prediction, SplitRule rule, IRandomNumberGenerator random) {
             this.attributes = attributes;
             this.x = x;
             this.y = y;
@@ -244,18 +249,20 @@ public class RandomForest implements IClassifier, Serializable {
             this.M = M;
             this.prediction = prediction;
             this.rule = rule;
+            this.random = random;
         }
 
         @Override
         public DecisionTree call() {            
             int n = x.length;
-            Random random = new Random(Thread.currentThread().getId() * System.currentTimeMillis());
+            int[] draws = new int[n];
+            random.nextInts(draws, n);
             int[] samples = new int[n]; // Training samples draw with replacement.
             for (int i = 0; i < n; i++) {
-                samples[random.nextInt(n)]++;
+                samples[draws[i]]++;
             }
             
-            DecisionTree tree = new DecisionTree(attributes, x, y, M, samples, order, rule);
+            DecisionTree tree = new DecisionTree(attributes, x, y, M, samples, order, rule, random);
             
             for (int i = 0; i < n; i++) {
                 if (samples[i] == 0) {
@@ -370,7 +377,6 @@ public class RandomForest implements IClassifier, Serializable {
         this.attributes = attributes;
         this.T = T;
         this.M = M;
-        //this.seed = seed;
         this.rule = rule;
     }
     
@@ -459,9 +465,12 @@ public class RandomForest implements IClassifier, Serializable {
         int n = x.length;
         int[][] prediction = new int[n][k]; // out-of-bag prediction
         int[][] order = sort(attributes, x);
+        
+        // The streams are split here, in the order of the trees.
+        Xoshiro256StarStar random = new Xoshiro256StarStar(seed == 0 ? System.nanoTime() : seed);
         List<TrainingTask> tasks = new ArrayList<TrainingTask>();
         for (int i = 0; i < T; i++) {
-            tasks.add(new TrainingTask(attributes, x, y, M, order, prediction, rule));
+            tasks.add(new TrainingTask(attributes, x, y, M, order, prediction, rule, random.split()));
         }
         
         try {
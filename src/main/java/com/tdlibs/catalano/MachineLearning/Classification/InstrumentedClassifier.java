@@ -0,0 +1,134 @@
+// catalano Machine Learning Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.MachineLearning.Classification;
+
+import com.tdlibs.catalano.Core.Instrumentation.Metric;
+import com.tdlibs.catalano.Core.Instrumentation.MetricsRegistry;
+import com.tdlibs.catalano.Core.Instrumentation.ThreadAllocation;
+import com.tdlibs.catalano.MachineLearning.Dataset.DatasetClassification;
+
+/**
+ * Instrumented classifier.
+ * 
+ * <p>Decorates a classifier and records the learning in the metric "name.Learn" and the predictions in the metric "name.Predict".
+ * The units are the samples and the rows are not used.</p>
+ * 
+ * @see MetricsRegistry
+ * @author Diego catalano
+ */
+public class InstrumentedClassifier implements IClassifier {
+    
+    private final IClassifier classifier;
+    private final MetricsRegistry registry;
+    private final String name;
+    private final Metric learn;
+    private final Metric predict;
+
+    /**
+     * Get the decorated classifier.
+     * @return Classifier.
+     */
+    public IClassifier getClassifier() {
+        return classifier;
+    }
+
+    /**
+     * Get the metric of the learning.
+     * @return Metric.
+     */
+    public Metric getLearnMetric() {
+        return learn;
+    }
+
+    /**
+     * Get the metric of the predictions.
+     * @return Metric.
+     */
+    public Metric getPredictMetric() {
+        return predict;
+    }
+
+    /**
+     * Initializes a new instance of the InstrumentedClassifier class.
+     * The metric is named by the class of the classifier and recorded in the default registry.
+     * @param classifier Classifier.
+     */
+    public InstrumentedClassifier(IClassifier classifier) {
+        this(classifier, MetricsRegistry.getDefault(), classifier.getClass().getSimpleName());
+    }
+    
+    /**
+     * Initializes a new instance of the InstrumentedClassifier class.
+     * @param classifier Classifier.
+     * @param registry Registry of the metrics.
+     * @param name Name of the metric.
+     */
+    public InstrumentedClassifier(IClassifier classifier, MetricsRegistry registry, String name) {
+        if (classifier == null) throw new IllegalArgumentException("The classifier can't be null.");
+        this.classifier = classifier;
+        this.registry = registry;
+        this.name = name;
+        this.learn = registry.getMetric(name + ".Learn");
+        this.predict = registry.getMetric(name + ".Predict");
+    }
+
+    @Override
+    public void Learn(DatasetClassification dataset) {
+        Learn(dataset.getInput(), dataset.getOutput());
+    }
+
+    @Override
+    public void Learn(double[][] input, int[] output) {
+        long allocated = ThreadAllocation.CurrentThread();
+        long start = learn.Start();
+        boolean done = false;
+        try {
+            classifier.Learn(input, output);
+            done = true;
+        } finally {
+            if (done) learn.Stop(start, allocated, input.length, 0);
+            else learn.RecordError();
+        }
+    }
+
+    @Override
+    public int Predict(double[] feature) {
+        long allocated = ThreadAllocation.CurrentThread();
+        long start = predict.Start();
+        int result = 0;
+        boolean done = false;
+        try {
+            result = classifier.Predict(feature);
+            done = true;
+        } finally {
+            if (done) predict.Stop(start, allocated, 1, 0);
+            else predict.RecordError();
+        }
+        return result;
+    }
+
+    @Override
+    public IClassifier clone() {
+        return new InstrumentedClassifier(classifier.clone(), registry, name);
+    }
+}
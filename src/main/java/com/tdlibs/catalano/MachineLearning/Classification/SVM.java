@@ -24,6 +24,8 @@ package com.tdlibs.catalano.MachineLearning.Classification;
 import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
 import com.tdlibs.catalano.Core.Structs.DoubleArrayList;
 import com.tdlibs.catalano.Math.Matrix;
+import com.tdlibs.catalano.Math.Random.Random;
+import com.tdlibs.catalano.Math.Random.Xoshiro256StarStar;
 import com.tdlibs.catalano.Math.SparseArray;
 import com.tdlibs.catalano.Math.Tools;
 import com.tdlibs.catalano.Statistics.Kernels.IMercerKernel;
@@ -258,6 +260,14 @@ public class SVM <T> implements Serializable {
          * to further process support vectors.
          */
         void learn(T[] x, int[] y, double[] weight) {
+            learn(x, y, weight, Tools.Random());
+        }
+        
+        /**
+         * Trains the SVM with the given dataset for one epoch, the stochastic
+         * order of the instances is drawn from the given random number generator.
+         */
+        void learn(T[] x, int[] y, double[] weight, Random random) {
             if (p == 0 && kernel instanceof Linear) {
                 if (x instanceof double[][]) {
                     double[] x0 = (double[]) x[0];
@@ -306,7 +316,7 @@ public class SVM <T> implements Serializable {
             }
 
             // train SVM in a stochastic order.
-            int[] index = Tools.Random().permutate(n);
+            int[] index = random.permutate(n);
             for (int i = 0; i < n; i++) {
                 if (weight == null) {
                     process(x[index[i]], y[index[i]]);
@@ -988,6 +998,8 @@ public class SVM <T> implements Serializable {
                 svm.learn(x, yi, weight);
             }
         } else if (strategy == Strategy.ONE_VS_ALL) {
+            // A stream for each machine, split in the calling thread.
+            Xoshiro256StarStar random = new Xoshiro256StarStar(Tools.Random().nextLong());
             List<TrainingTask> tasks = new ArrayList<TrainingTask>(k);
             for (int i = 0; i < k; i++) {
                 int[] yi = new int[y.length];
@@ -1007,7 +1019,7 @@ public class SVM <T> implements Serializable {
                     }
                 }
 
-                tasks.add(new TrainingTask(svms.get(i), x, yi, w));
+                tasks.add(new TrainingTask(svms.get(i), x, yi, w, new Random(random.split())));
             }
 
             try {
@@ -1016,6 +1028,7 @@ public class SVM <T> implements Serializable {
                 //System.err.println(e.getMessage());
             }
         } else {
+            Xoshiro256StarStar random = new Xoshiro256StarStar(Tools.Random().nextLong());
             List<TrainingTask> tasks = new ArrayList<TrainingTask>(k * (k - 1) / 2);
             for (int i = 0, m = 0; i < k; i++) {
                 for (int j = i + 1; j < k; j++, m++) {
@@ -1048,7 +1061,7 @@ public class SVM <T> implements Serializable {
                         }
                     }
 
-                    tasks.add(new TrainingTask(svms.get(m), xij, yij, wij));
+                    tasks.add(new TrainingTask(svms.get(m), xij, yij, wij, new Random(random.split())));
                 }
             }
 
@@ -1088,17 +1101,19 @@ public class SVM <T> implements Serializable {
         T[] x;
         int[] y;
         double[] weight; // instance weight
+        Random random;
 
-        TrainingTask(LASVM svm, T[] x, int[] y, double[] weight) {
+        TrainingTask(LASVM svm, T[] x, int[] y, double[] weight, Random random) {
             this.svm = svm;
             this.x = x;
             this.y = y;
             this.weight = weight;
+            this.random = random;
         }
 
         @Override
         public LASVM call() {
-            svm.learn(x, y, weight);
+            svm.learn(x, y, weight, random);
             return svm;
         }
     }
@@ -27,6 +27,9 @@ package com.tdlibs.catalano.MachineLearning.Clustering;
 import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
 import com.tdlibs.catalano.MachineLearning.Dataset.DatasetClassification;
 import com.tdlibs.catalano.Math.Distances.Distance;
+import com.tdlibs.catalano.Math.Random.Random;
+import com.tdlibs.catalano.Math.Random.Xoshiro256StarStar;
+import com.tdlibs.catalano.Math.Tools;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -86,6 +89,8 @@ public class KMeans extends PartitionClustering<double[]> implements ICentroidCl
     private int maxIteration;
     
     private int maxRuns = 0;
+    
+    private long seed;
 
     /**
      * Returns the distortion.
@@ -109,6 +114,24 @@ public class KMeans extends PartitionClustering<double[]> implements ICentroidCl
     public void setCluster(int k) {
         this.k = k;
     }
+    
+    /**
+     * Get random seed.
+     * @return Random seed, 0 if the seed is taken from the clock.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Set random seed.
+     * Each run draws from its own stream, split from the seed in the order of the runs,
+     * so the same seed gives the same clusters regardless of the number of threads.
+     * @param seed Seed, 0 to take the seed from the clock.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
 
     /**
      * Initializes a new instance of the KMeans class.
@@ -157,7 +180,7 @@ public class KMeans extends PartitionClustering<double[]> implements ICentroidCl
         if(maxRuns > 0)
             Perform(input, maxRuns);
         else
-            Perform(input);
+            Perform(input, seed == 0 ? Tools.Random() : new Random(new Xoshiro256StarStar(seed)));
     }
     
     /**
@@ -181,7 +204,7 @@ public class KMeans extends PartitionClustering<double[]> implements ICentroidCl
         return bestCluster;
     }
     
-    private void Perform(double[][] input){
+    private void Perform(double[][] input, Random random){
         
         BBDTree bbd = new BBDTree(input);
 
@@ -189,7 +212,7 @@ public class KMeans extends PartitionClustering<double[]> implements ICentroidCl
         int d = input[0].length;
 
         distortion = Double.MAX_VALUE;
-        y = seed(input, k, DistanceMethod.EUCLIDEAN);
+        y = seed(input, k, DistanceMethod.EUCLIDEAN, random);
         size = new int[k];
         centroids = new double[k][d];
 
@@ -240,9 +263,11 @@ public class KMeans extends PartitionClustering<double[]> implements ICentroidCl
 
         BBDTree bbd = new BBDTree(input);
 
+        // each run draws from its own stream
+        Xoshiro256StarStar random = new Xoshiro256StarStar(seed == 0 ? System.nanoTime() : seed);
         List<KMeansThread> tasks = new ArrayList<KMeansThread>();
         for (int i = 0; i < runs; i++) {
-            tasks.add(new KMeansThread(bbd, input, k, maxIteration));
+            tasks.add(new KMeansThread(bbd, input, k, maxIteration, new Random(random.split())));
         }
 
         KMeans best = new KMeans();
@@ -281,18 +306,20 @@ public class KMeans extends PartitionClustering<double[]> implements ICentroidCl
         final double[][] data;
         final int k;
         final int maxIteration;
+        final Random random;
 
-        KMeansThread(BBDTree bbd, double[][] data, int k, int maxIteration) {
+        KMeansThread(BBDTree bbd, double[][] data, int k, int maxIteration, Random random) {
             this.bbd = bbd;
             this.data = data;
             this.k = k;
             this.maxIteration = maxIteration;
+            this.random = random;
         }
 
         @Override
         public KMeans call() {
             KMeans km = new KMeans(k, maxIteration);
-            km.Compute(data);
+            km.Perform(data, random);
             return km;//new KMeans(data, k, maxIteration);
         }
     }
@@ -23,6 +23,7 @@ package com.tdlibs.catalano.MachineLearning.Clustering;
 
 import com.tdlibs.catalano.Math.Distances.Distance;
 import com.tdlibs.catalano.Math.Distances.IDivergence;
+import com.tdlibs.catalano.Math.Random.Random;
 import com.tdlibs.catalano.Math.Tools;
 import java.io.Serializable;
 import java.util.Arrays;
@@ -151,11 +152,23 @@ public abstract class PartitionClustering <T> implements Serializable {
      * @return the cluster labels.
      */
     static int[] seed(double[][] data, int k, DistanceMethod method) {
+        return seed(data, k, method, Tools.Random());
+    }
+    
+    /**
+     * Initialize cluster membership of input objects with KMeans++ algorithm,
+     * drawing from the given random number generator.
+     * @param data data objects to be clustered.
+     * @param k the number of cluster.
+     * @param random random number generator.
+     * @return the cluster labels.
+     */
+    static int[] seed(double[][] data, int k, DistanceMethod method, Random random) {
         int n = data.length;
         int[] y = new int[n];
         //Random r = new Random(0);
         //double[] centroid = data[r.nextInt(n)];
-        double[] centroid = data[Tools.Random().nextInt(n)];
+        double[] centroid = data[random.nextInt(n)];
 
         double[] d = new double[n];
         for (int i = 0; i < n; i++) {
@@ -187,7 +200,7 @@ public abstract class PartitionClustering <T> implements Serializable {
                 }
             }
 
-            double cutoff = Math.random() * Tools.Sum(d);//Math.random() * Tools.Sum(d);
+            double cutoff = random.nextDouble() * Tools.Sum(d);
             double cost = 0.0;
             int index = 0;
             for (; index < n; index++) {
@@ -263,11 +276,25 @@ public abstract class PartitionClustering <T> implements Serializable {
      * @return the initial cluster distortion.
      */
     static <T> double seed(IDivergence<T> distance, T[] data, T[] medoids, int[] y, double[] d) {
+        return seed(distance, data, medoids, y, d, Tools.Random());
+    }
+    
+    /**
+     * Initialize the medoids with KMeans++ algorithm, drawing from the given random number generator.
+     * @param <T> the type of input object.
+     * @param data data objects array of size n.
+     * @param medoids an array of size k to store cluster medoids on output.
+     * @param y an array of size n to store cluster labels on output.
+     * @param d an array of size n to store the distance of each sample to nearest medoid.
+     * @param random random number generator.
+     * @return the initial cluster distortion.
+     */
+    static <T> double seed(IDivergence<T> distance, T[] data, T[] medoids, int[] y, double[] d, Random random) {
         int n = data.length;
         int k = medoids.length;
         //Random r = new Random(0);
         //T medoid = data[r.nextInt(n)];
-        T medoid = data[Tools.Random().nextInt(n)];
+        T medoid = data[random.nextInt(n)];
         medoids[0] = medoid;
 
         Arrays.fill(d, Double.MAX_VALUE);
@@ -285,7 +312,7 @@ public abstract class PartitionClustering <T> implements Serializable {
                 }
             }
 
-            double cutoff = Math.random() * Tools.Sum(d);//Math.random() * Tools.Sum(d);
+            double cutoff = random.nextDouble() * Tools.Sum(d);
             double cost = 0.0;
             int index = 0;
             for (; index < n; index++) {
@@ -0,0 +1,95 @@
+// catalano Machine Learning Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.MachineLearning.FeatureEncoder;
+
+import com.tdlibs.catalano.Core.Instrumentation.Metric;
+import com.tdlibs.catalano.Core.Instrumentation.MetricsRegistry;
+import com.tdlibs.catalano.Core.Instrumentation.ThreadAllocation;
+
+/**
+ * Instrumented feature encoder.
+ * 
+ * <p>Decorates a feature encoder and records the calls, the latency, the number of encoded descriptors as units
+ * and the bytes allocated by the calling thread.</p>
+ * 
+ * @see MetricsRegistry
+ * @author Diego catalano
+ */
+public class InstrumentedFeatureEncoder implements IFeatureEncoder {
+    
+    private final IFeatureEncoder encoder;
+    private final Metric metric;
+
+    /**
+     * Get the decorated encoder.
+     * @return Encoder.
+     */
+    public IFeatureEncoder getEncoder() {
+        return encoder;
+    }
+
+    /**
+     * Get the metric.
+     * @return Metric.
+     */
+    public Metric getMetric() {
+        return metric;
+    }
+
+    /**
+     * Initializes a new instance of the InstrumentedFeatureEncoder class.
+     * The metric is named by the class of the encoder and recorded in the default registry.
+     * @param encoder Encoder.
+     */
+    public InstrumentedFeatureEncoder(IFeatureEncoder encoder) {
+        this(encoder, MetricsRegistry.getDefault(), encoder.getClass().getSimpleName());
+    }
+    
+    /**
+     * Initializes a new instance of the InstrumentedFeatureEncoder class.
+     * @param encoder Encoder.
+     * @param registry Registry of the metrics.
+     * @param name Name of the metric.
+     */
+    public InstrumentedFeatureEncoder(IFeatureEncoder encoder, MetricsRegistry registry, String name) {
+        if (encoder == null) throw new IllegalArgumentException("The encoder can't be null.");
+        this.encoder = encoder;
+        this.metric = registry.getMetric(name);
+    }
+
+    @Override
+    public double[] Compute(double[][] data) {
+        long allocated = ThreadAllocation.CurrentThread();
+        long start = metric.Start();
+        double[] result = null;
+        boolean done = false;
+        try {
+            result = encoder.Compute(data);
+            done = true;
+        } finally {
+            if (done) metric.Stop(start, allocated, data.length, 0);
+            else metric.RecordError();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+// catalano Machine Learning Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.MachineLearning.Regression;
+
+import com.tdlibs.catalano.Core.Instrumentation.Metric;
+import com.tdlibs.catalano.Core.Instrumentation.MetricsRegistry;
+import com.tdlibs.catalano.Core.Instrumentation.ThreadAllocation;
+import com.tdlibs.catalano.MachineLearning.Dataset.DatasetRegression;
+
+/**
+ * Instrumented regression.
+ * 
+ * <p>Decorates a regression and records the learning in the metric "name.Learn" and the predictions in the metric "name.Predict".
+ * The units are the samples and the rows are not used.</p>
+ * 
+ * @see MetricsRegistry
+ * @author Diego catalano
+ */
+public class InstrumentedRegression implements IRegression {
+    
+    private final IRegression regression;
+    private final MetricsRegistry registry;
+    private final String name;
+    private final Metric learn;
+    private final Metric predict;
+
+    /**
+     * Get the decorated regression.
+     * @return Regression.
+     */
+    public IRegression getRegression() {
+        return regression;
+    }
+
+    /**
+     * Get the metric of the learning.
+     * @return Metric.
+     */
+    public Metric getLearnMetric() {
+        return learn;
+    }
+
+    /**
+     * Get the metric of the predictions.
+     * @return Metric.
+     */
+    public Metric getPredictMetric() {
+        return predict;
+    }
+
+    /**
+     * Initializes a new instance of the InstrumentedRegression class.
+     * The metric is named by the class of the regression and recorded in the default registry.
+     * @param regression Regression.
+     */
+    public InstrumentedRegression(IRegression regression) {
+        this(regression, MetricsRegistry.getDefault(), regression.getClass().getSimpleName());
+    }
+    
+    /**
+     * Initializes a new instance of the InstrumentedRegression class.
+     * @param regression Regression.
+     * @param registry Registry of the metrics.
+     * @param name Name of the metric.
+     */
+    public InstrumentedRegression(IRegression regression, MetricsRegistry registry, String name) {
+        if (regression == null) throw new IllegalArgumentException("The regression can't be null.");
+        this.regression = regression;
+        this.registry = registry;
+        this.name = name;
+        this.learn = registry.getMetric(name + ".Learn");
+        this.predict = registry.getMetric(name + ".Predict");
+    }
+
+    @Override
+    public void Learn(DatasetRegression dataset) {
+        Learn(dataset.getInput(), dataset.getOutput());
+    }
+
+    @Override
+    public void Learn(double[][] input, double[] output) {
+        long allocated = ThreadAllocation.CurrentThread();
+        long start = learn.Start();
+        boolean done = false;
+        try {
+            regression.Learn(input, output);
+            done = true;
+        } finally {
+            if (done) learn.Stop(start, allocated, input.length, 0);
+            else learn.RecordError();
+        }
+    }
+
+    @Override
+    public double Predict(double[] feature) {
+        long allocated = ThreadAllocation.CurrentThread();
+        long start = predict.Start();
+        double result = 0;
+        boolean done = false;
+        try {
+            result = regression.Predict(feature);
+            done = true;
+        } finally {
+            if (done) predict.Stop(start, allocated, 1, 0);
+            else predict.RecordError();
+        }
+        return result;
+    }
+
+    @Override
+    public IRegression clone() {
+        return new InstrumentedRegression(regression.clone(), registry, name);
+    }
+}
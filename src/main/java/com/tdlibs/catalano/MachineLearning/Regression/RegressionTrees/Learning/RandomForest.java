@@ -30,7 +30,8 @@ import com.tdlibs.catalano.MachineLearning.Dataset.DatasetRegression;
 import com.tdlibs.catalano.MachineLearning.Dataset.DecisionVariable;
 import com.tdlibs.catalano.MachineLearning.Regression.IRegression;
 import com.tdlibs.catalano.MachineLearning.Regression.RegressionTrees.RegressionTree;
-import com.tdlibs.catalano.Math.Random.Random;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
+import com.tdlibs.catalano.Math.Random.Xoshiro256StarStar;
 import com.tdlibs.catalano.Math.Tools;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -82,6 +83,7 @@ public class RandomForest implements IRegression, Serializable{
     private int T;
     private int M;
     private int S;
+    private long seed;
     
     
     /**
@@ -140,11 +142,15 @@ public class RandomForest implements IRegression, Serializable{
          * Out-of-bag sample
          */
         int[] oob;
+        /**
+         * Random number generator of the tree.
+         */
+        IRandomNumberGenerator random;
 
         /**
          * Constructor.
          */
-        TrainingTask(DecisionVariable[] attributes, double[][] x, double[] y, int[][] order, int M, int S, double[] prediction, int[] oob) {
+        TrainingTask(DecisionVariable[] attributes, double[][] x, double[] y, int[][] order, int M, int S, double[] prediction, int[] oob, IRandomNumberGenerator random) {
             this.attributes = attributes;
             this.x = x;
             this.y = y;
@@ -153,18 +159,20 @@ public class RandomForest implements IRegression, Serializable{
             this.S = S;
             this.prediction = prediction;
             this.oob = oob;
+            this.random = random;
         }
 
         @Override
         public RegressionTree call() {
             int n = x.length;
-            Random random = new Random(Thread.currentThread().getId() * System.currentTimeMillis());
+            int[] draws = new int[n];
+            random.nextInts(draws, n);
             int[] samples = new int[n]; // Training samples draw with replacement.
             for (int i = 0; i < n; i++) {
-                samples[random.nextInt(n)]++;
+                samples[draws[i]]++;
             }
             
-            RegressionTree tree = new RegressionTree(attributes, x, y, M, S, order, samples);
+            RegressionTree tree = new RegressionTree(attributes, x, y, M, S, order, samples, random);
             
             for (int i = 0; i < n; i++) {
                 if (samples[i] == 0) {
@@ -268,6 +276,24 @@ public class RandomForest implements IRegression, Serializable{
         this.S = S;
     }
     
+    /**
+     * Get random seed.
+     * @return Random seed, 0 if the seed is taken from the clock.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Set random seed.
+     * Each tree draws from its own stream, split from the seed in the order of the trees,
+     * so the same seed gives the same trees regardless of the number of threads.
+     * @param seed Seed, 0 to take the seed from the clock.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
     /**
      * Sorts each variable and returns the index of values in ascending order.
      * Only numeric attributes will be sorted. Note that the order of original
@@ -381,9 +407,12 @@ public class RandomForest implements IRegression, Serializable{
         int[] oob = new int[n];
         
         int[][] order = sort(attributes, x);
+        
+        // The streams are split here, in the order of the trees.
+        Xoshiro256StarStar random = new Xoshiro256StarStar(seed == 0 ? System.nanoTime() : seed);
         List<TrainingTask> tasks = new ArrayList<TrainingTask>();
         for (int i = 0; i < T; i++) {
-            tasks.add(new TrainingTask(attributes, x, y, order, M, S, prediction, oob));
+            tasks.add(new TrainingTask(attributes, x, y, order, M, S, prediction, oob, random.split()));
         }
         
         try {
@@ -30,6 +30,7 @@ import com.tdlibs.catalano.MachineLearning.Dataset.DecisionVariable;
 import com.tdlibs.catalano.MachineLearning.Classification.DecisionTrees.Learning.RandomForest;
 import com.tdlibs.catalano.MachineLearning.Dataset.DatasetRegression;
 import com.tdlibs.catalano.MachineLearning.Regression.IRegression;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
 import com.tdlibs.catalano.Math.Tools;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -127,6 +128,12 @@ public class RegressionTree implements IRegression, Serializable{
      * attributes will be sorted.
      */
     private transient int[][] order;
+    
+    /**
+     * The random number generator of the feature sampling (random forest),
+     * the shared generator of Tools is used when null.
+     */
+    private transient IRandomNumberGenerator random;
 
     /**
      * Get number of maximum leafs.
@@ -343,10 +350,17 @@ public class RegressionTree implements IRegression, Serializable{
             // Loop through features and compute the reduction of squared error,
             // which is trueCount * trueMean^2 + falseCount * falseMean^2 - count * parentMean^2                    
             if (M < p) {
-                // Training of Random Forest will get into this race condition.
-                // smile.math.Math uses a static object of random number generator.
-                synchronized (RegressionTree.class) {
-                    Tools.Permutate(variables);
+                if (random != null) {
+                    for (int i = 0; i < M; i++) {
+                        int j = i + random.nextInt(p - i);
+                        int v = variables[i];
+                        variables[i] = variables[j];
+                        variables[j] = v;
+                    }
+                } else {
+                    synchronized (RegressionTree.class) {
+                        Tools.Permutate(variables);
+                    }
                 }
                 
                 // Random forest already runs on parallel.
@@ -947,6 +961,27 @@ public class RegressionTree implements IRegression, Serializable{
      * samples[i] is the number of sampling for instance i.
      */
     public RegressionTree(DecisionVariable[] attributes, double[][] x, double[] y, int M, int S, int[][] order, int[] samples) {
+        this(attributes, x, y, M, S, order, samples, null);
+    }
+    
+    /**
+     * Constructor. Learns a regression tree for random forest.
+     *
+     * @param attributes the attribute properties.
+     * @param x the training instances. 
+     * @param y the response variable.
+     * @param order the index of training values in ascending order. Note
+     * that only numeric attributes need be sorted.
+     * @param M the number of input variables to pick to split on at each
+     * node. It seems that dim/3 give generally good performance, where dim
+     * is the number of variables.
+     * @param S number of instances in a node below which the tree will
+     * not split, setting S = 5 generally gives good results.
+     * @param samples the sample set of instances for stochastic learning.
+     * samples[i] is the number of sampling for instance i.
+     * @param random the random number generator of the feature sampling, the shared generator is used when null.
+     */
+    public RegressionTree(DecisionVariable[] attributes, double[][] x, double[] y, int M, int S, int[][] order, int[] samples, IRandomNumberGenerator random) {
         if (x.length != y.length) {
             throw new IllegalArgumentException(String.format("The sizes of X and Y don't match: %d != %d", x.length, y.length));
         }
@@ -974,6 +1009,7 @@ public class RegressionTree implements IRegression, Serializable{
         this.attributes = attributes;
         this.J = Integer.MAX_VALUE;
         this.M = M;
+        this.random = random;
         this.S = S;
         this.order = order;
         importance = new double[attributes.length];
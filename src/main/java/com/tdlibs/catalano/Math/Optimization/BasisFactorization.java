@@ -0,0 +1,361 @@
+// catalano Math Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2018
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Math.Optimization;
+
+import java.util.Arrays;
+
+/**
+ * LU factorization of the simplex basis with product form updates.
+ * 
+ * <p>The basis is factorized by a left-looking LU with partial pivoting, the columns
+ * are ordered by the number of nonzeros, so the slack columns are pivoted first without fill.
+ * Each basis change appends an eta column (the entering column in terms of the old basis)
+ * and the basis is factorized again after a number of updates.</p>
+ * 
+ * @author Diego catalano
+ */
+final class BasisFactorization {
+    
+    /**
+     * Maximum number of updates before a new factorization.
+     */
+    static final int MAX_UPDATES = 100;
+    
+    private static final double PIVOT_TOL = 1e-11;
+    private static final double DROP_TOL = 1e-14;
+    
+    private final int m;
+    
+    // L: unit lower triangular, columns in pivot order, original row indexes.
+    private int[] Lp;
+    private int[] Li = new int[16];
+    private double[] Lx = new double[16];
+    
+    // U: upper triangular, columns in pivot order, pivot step indexes.
+    private int[] Up;
+    private int[] Ui = new int[16];
+    private double[] Ux = new double[16];
+    private double[] Ud;
+    
+    // Pivot row and basis position of each step, step of each row.
+    private int[] prow;
+    private int[] pinv;
+    private int[] qpos;
+    
+    // Eta file.
+    private int etas;
+    private int[] Er;
+    private double[] Epiv;
+    private int[] Ep;
+    private int[] Ei = new int[16];
+    private double[] Ex = new double[16];
+    
+    // Singular positions and the rows left without pivot.
+    private int singular;
+    private int[] singularPositions;
+    private int[] singularRows;
+    
+    private final double[] x;
+    private final int[] count;
+    private final int[] order;
+
+    /**
+     * Initialize a new instance of the BasisFactorization class.
+     * @param m Number of rows.
+     */
+    BasisFactorization(int m) {
+        this.m = m;
+        this.Lp = new int[m + 1];
+        this.Up = new int[m + 1];
+        this.Ud = new double[m];
+        this.prow = new int[m];
+        this.pinv = new int[m];
+        this.qpos = new int[m];
+        this.Er = new int[MAX_UPDATES];
+        this.Epiv = new double[MAX_UPDATES];
+        this.Ep = new int[MAX_UPDATES + 1];
+        this.singularPositions = new int[m];
+        this.singularRows = new int[m];
+        this.x = new double[m];
+        this.count = new int[m + 2];
+        this.order = new int[m];
+    }
+    
+    /**
+     * Number of updates since the last factorization.
+     * @return Number of updates.
+     */
+    int getUpdates(){
+        return etas;
+    }
+    
+    /**
+     * Number of dependent columns found in the last factorization.
+     * @return Number of dependent columns.
+     */
+    int getSingular(){
+        return singular;
+    }
+    
+    /**
+     * Basis position of the k-th dependent column.
+     */
+    int getSingularPosition(int k){
+        return singularPositions[k];
+    }
+    
+    /**
+     * The k-th row left without pivot.
+     */
+    int getSingularRow(int k){
+        return singularRows[k];
+    }
+    
+    /**
+     * Factorize the basis.
+     * @param head Variable of each basis position.
+     * @param Ap Column pointers of the constraint matrix.
+     * @param Ai Row indexes of the constraint matrix.
+     * @param Ax Values of the constraint matrix.
+     * @return True if the basis is not singular.
+     */
+    boolean Factorize(int[] head, int[] Ap, int[] Ai, double[] Ax){
+        
+        // Order the columns by the number of nonzeros (counting sort).
+        Arrays.fill(count, 0);
+        for (int k = 0; k < m; k++) {
+            int nz = Math.min(m, Ap[head[k] + 1] - Ap[head[k]]);
+            count[nz + 1]++;
+        }
+        for (int i = 1; i < count.length; i++) {
+            count[i] += count[i - 1];
+        }
+        for (int k = 0; k < m; k++) {
+            int nz = Math.min(m, Ap[head[k] + 1] - Ap[head[k]]);
+            order[count[nz]++] = k;
+        }
+        
+        Arrays.fill(pinv, -1);
+        etas = 0;
+        singular = 0;
+        int lnz = 0, unz = 0;
+        
+        for (int k = 0; k < m; k++) {
+            int pos = order[k];
+            int col = head[pos];
+            qpos[k] = pos;
+            Lp[k] = lnz;
+            Up[k] = unz;
+            
+            for (int p = Ap[col]; p < Ap[col + 1]; p++) {
+                x[Ai[p]] = Ax[p];
+            }
+            
+            // Solve with the previous columns of L.
+            for (int j = 0; j < k; j++) {
+                int r = prow[j];
+                if (r < 0) continue;
+                double xj = x[r];
+                if (xj == 0) continue;
+                x[r] = 0;
+                
+                if (unz == Ui.length) {
+                    Ui = Arrays.copyOf(Ui, 2 * unz);
+                    Ux = Arrays.copyOf(Ux, 2 * unz);
+                }
+                Ui[unz] = j;
+                Ux[unz++] = xj;
+                
+                for (int p = Lp[j]; p < Lp[j + 1]; p++) {
+                    x[Li[p]] -= Lx[p] * xj;
+                }
+            }
+            
+            // Partial pivoting among the rows without pivot.
+            int piv = -1;
+            double max = PIVOT_TOL;
+            for (int i = 0; i < m; i++) {
+                if (pinv[i] < 0 && Math.abs(x[i]) > max) {
+                    max = Math.abs(x[i]);
+                    piv = i;
+                }
+            }
+            
+            if (piv < 0) {
+                prow[k] = -1;
+                Ud[k] = 1;
+                singularPositions[singular++] = pos;
+            }
+            else {
+                double d = x[piv];
+                prow[k] = piv;
+                pinv[piv] = k;
+                Ud[k] = d;
+                x[piv] = 0;
+                
+                for (int i = 0; i < m; i++) {
+                    if (pinv[i] < 0 && x[i] != 0) {
+                        double v = x[i] / d;
+                        if (Math.abs(v) > DROP_TOL) {
+                            if (lnz == Li.length) {
+                                Li = Arrays.copyOf(Li, 2 * lnz);
+                                Lx = Arrays.copyOf(Lx, 2 * lnz);
+                            }
+                            Li[lnz] = i;
+                            Lx[lnz++] = v;
+                        }
+                    }
+                }
+            }
+            
+            for (int i = 0; i < m; i++) {
+                if (pinv[i] < 0) x[i] = 0;
+            }
+        }
+        Lp[m] = lnz;
+        Up[m] = unz;
+        Ep[0] = 0;
+        
+        if (singular > 0) {
+            for (int i = 0, s = 0; i < m; i++) {
+                if (pinv[i] < 0) singularRows[s++] = i;
+            }
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Solve B z = a.
+     * @param a Right side indexed by row, it is overwritten.
+     * @param z Solution indexed by basis position.
+     */
+    void Ftran(double[] a, double[] z){
+        
+        // L y = a
+        for (int k = 0; k < m; k++) {
+            double t = a[prow[k]];
+            if (t != 0) {
+                for (int p = Lp[k]; p < Lp[k + 1]; p++) {
+                    a[Li[p]] -= Lx[p] * t;
+                }
+            }
+        }
+        
+        // U w = y
+        for (int k = m - 1; k >= 0; k--) {
+            int r = prow[k];
+            double w = a[r] / Ud[k];
+            a[r] = w;
+            if (w != 0) {
+                for (int p = Up[k]; p < Up[k + 1]; p++) {
+                    a[prow[Ui[p]]] -= Ux[p] * w;
+                }
+            }
+        }
+        
+        for (int k = 0; k < m; k++) {
+            z[qpos[k]] = a[prow[k]];
+        }
+        
+        // Eta file, in order.
+        for (int e = 0; e < etas; e++) {
+            int r = Er[e];
+            double zr = z[r] / Epiv[e];
+            z[r] = zr;
+            if (zr != 0) {
+                for (int p = Ep[e]; p < Ep[e + 1]; p++) {
+                    z[Ei[p]] -= Ex[p] * zr;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Solve B' y = c.
+     * @param c Right side indexed by basis position, it is overwritten.
+     * @param y Solution indexed by row.
+     */
+    void Btran(double[] c, double[] y){
+        
+        // Eta file, in reverse order.
+        for (int e = etas - 1; e >= 0; e--) {
+            int r = Er[e];
+            double s = c[r];
+            for (int p = Ep[e]; p < Ep[e + 1]; p++) {
+                s -= Ex[p] * c[Ei[p]];
+            }
+            c[r] = s / Epiv[e];
+        }
+        
+        // U' v = c
+        for (int k = 0; k < m; k++) {
+            double s = c[qpos[k]];
+            for (int p = Up[k]; p < Up[k + 1]; p++) {
+                s -= Ux[p] * x[Ui[p]];
+            }
+            x[k] = s / Ud[k];
+        }
+        
+        // L' w = v
+        for (int k = m - 1; k >= 0; k--) {
+            double s = x[k];
+            for (int p = Lp[k]; p < Lp[k + 1]; p++) {
+                s -= Lx[p] * x[pinv[Li[p]]];
+            }
+            x[k] = s;
+        }
+        
+        for (int k = 0; k < m; k++) {
+            y[prow[k]] = x[k];
+            x[k] = 0;
+        }
+    }
+    
+    /**
+     * Replace the column of a basis position.
+     * @param r Basis position.
+     * @param alpha Entering column in terms of the current basis (result of Ftran).
+     * @return True if the basis must be factorized again.
+     */
+    boolean Update(int r, double[] alpha){
+        int enz = Ep[etas];
+        for (int i = 0; i < m; i++) {
+            if (i != r && Math.abs(alpha[i]) > DROP_TOL) {
+                if (enz == Ei.length) {
+                    Ei = Arrays.copyOf(Ei, 2 * enz);
+                    Ex = Arrays.copyOf(Ex, 2 * enz);
+                }
+                Ei[enz] = i;
+                Ex[enz++] = alpha[i];
+            }
+        }
+        Er[etas] = r;
+        Epiv[etas] = alpha[r];
+        Ep[++etas] = enz;
+        
+        return etas == MAX_UPDATES;
+    }
+}
@@ -42,14 +42,53 @@ public class Constraint {
     
     private double[] leftSide;
     private double rightSide;
+    
+    private int[] index;
+    private double[] values;
 
     /**
      * Get left side values.
+     * In a sparse constraint, the length is the last index plus one.
      * @return Left side values.
      */
     public double[] getLeftSide() {
+        if (leftSide == null) {
+            int n = 0;
+            for (int i = 0; i < index.length; i++) {
+                n = Math.max(n, index[i] + 1);
+            }
+            double[] dense = new double[n];
+            for (int i = 0; i < index.length; i++) {
+                dense[index[i]] += values[i];
+            }
+            leftSide = dense;
+        }
         return leftSide;
     }
+    
+    /**
+     * Get the indexes of the variables in the left side.
+     * @return Indexes of the nonzero values, or null if the constraint is dense.
+     */
+    public int[] getIndex() {
+        return index;
+    }
+    
+    /**
+     * Get the nonzero values of the left side.
+     * @return Nonzero values, or null if the constraint is dense.
+     */
+    public double[] getValues() {
+        return values;
+    }
+    
+    /**
+     * Check if the left side is stored as sparse.
+     * @return True if the constraint is sparse, otherwise false.
+     */
+    public boolean isSparse() {
+        return index != null;
+    }
 
     /**
      * Get right side values.
@@ -89,4 +128,24 @@ public class Constraint {
         this.symbol = symbol;
     }
     
+    /**
+     * Initialize a new instance of the Constraint class.
+     * @param index Indexes of the variables in the left side.
+     * @param values Left side values of each index.
+     * @param symbol Symbol.
+     * @param rightSide Right side values.
+     */
+    public Constraint(int[] index, double[] values, Symbol symbol, double rightSide) {
+        if (index.length != values.length)
+            throw new IllegalArgumentException("Index and values must have the same length.");
+        for (int i = 0; i < index.length; i++) {
+            if (index[i] < 0)
+                throw new IllegalArgumentException("Index must be positive.");
+        }
+        this.index = index;
+        this.values = values;
+        this.rightSide = rightSide;
+        this.symbol = symbol;
+    }
+    
 }
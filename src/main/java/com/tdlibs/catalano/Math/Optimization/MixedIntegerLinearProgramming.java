@@ -22,16 +22,22 @@
 
 package com.tdlibs.catalano.Math.Optimization;
 
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Stack;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Mixed Integer Linear Programming.
  * Branch and Bound method.
  * 
+ * <p>The nodes only change the bounds of the variables, so each node starts the dual simplex
+ * from the optimal basis of its parent. The nodes wait in a queue ordered by the bound of the parent,
+ * the threads take the best node and dive in one child while the other goes to the queue.
+ * A node is pruned when its bound is not better than the best integer solution found.</p>
+ * 
  * @author Diego catalano
  */
 public class MixedIntegerLinearProgramming {
@@ -51,6 +57,11 @@ public class MixedIntegerLinearProgramming {
      */
     public static final int UNBOUNDED = 2;
     
+    /**
+     * The maximum number of iterations of the relaxation was reached without a solution.
+     */
+    public static final int ITERATION_LIMIT = 3;
+    
     /**
      * Objective of the function.
      */
@@ -71,12 +82,22 @@ public class MixedIntegerLinearProgramming {
     private double tolU = 1D - 1e-5;
     private Objective objective;
     
-    private LinearProgramming simplex;
-    private int maxIteration = 100;
+    private int maxNodes = 10000;
+    private int maxIterations = 0;
     
     private int[] type;
     
     private Solution sol;
+    
+    // Search state.
+    private final Object lock = new Object();
+    private PriorityQueue<Node> queue;
+    private int active;
+    private int nodes;
+    private boolean stopped;
+    private boolean limited;
+    private volatile double incumbentZ;
+    private double[] incumbent;
 
     /**
      * Set type.
@@ -88,6 +109,48 @@ public class MixedIntegerLinearProgramming {
         this.type = type;
     }
     
+    /**
+     * Get the maximum number of nodes.
+     * @return Maximum number of nodes.
+     */
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Set the maximum number of nodes.
+     * The search stops with the best solution found when the limit is reached.
+     * @param maxNodes Maximum number of nodes.
+     */
+    public void setMaxNodes(int maxNodes) {
+        this.maxNodes = Math.max(1, maxNodes);
+    }
+    
+    /**
+     * Get the maximum number of simplex iterations of each node.
+     * @return Maximum number of iterations, 0 means max(10000, 50 * (variables + constraints)).
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Set the maximum number of simplex iterations of each node.
+     * A node that reaches the limit is discarded, the search returns {@link #ITERATION_LIMIT} if no integer solution is found.
+     * @param maxIterations Maximum number of iterations, 0 means max(10000, 50 * (variables + constraints)).
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = Math.max(0, maxIterations);
+    }
+    
+    /**
+     * Get the number of nodes solved in the last search.
+     * @return Number of nodes.
+     */
+    public int getNodes() {
+        return nodes;
+    }
+    
     /**
      * Get the coefficients.
      * @return Coefficients.
@@ -131,154 +194,221 @@ public class MixedIntegerLinearProgramming {
      */
     public int Solve(double[] function, List<Constraint> constraint){
         
-        int iter = 0;
-        
         if(type == null)
             throw new IllegalArgumentException("The data type must be definied.");
+        if(type.length < function.length)
+            throw new IllegalArgumentException("The data type must have the same length of the function.");
         
+        sol = null;
+        nodes = 0;
         
         //Calculate node 0
-        double value = Double.NaN;
-        if(objective == Objective.Maximize){
-            simplex = new LinearProgramming(LinearProgramming.Objective.Maximize);
+        final RevisedSimplex root = new RevisedSimplex(function, constraint, objective == Objective.Maximize);
+        if(maxIterations > 0) root.setMaxIterations(maxIterations);
+        int status = root.Solve();
+        if(status != OPTIMAL)
+            return status;
+        
+        double[] x = root.getPrimal();
+        if(CheckSolution(x, function.length)){
+            sol = new Solution(x, Evaluate(function, x));
+            return OPTIMAL;
         }
-        else{
-            simplex = new LinearProgramming(LinearProgramming.Objective.Minimize);
+        
+        //Branch and bound
+        queue = new PriorityQueue<Node>();
+        queue.add(new Node(root.getLower(), root.getUpper(), root.getHead(), root.getStatus(), root.getObjective()));
+        active = 0;
+        stopped = false;
+        limited = false;
+        incumbentZ = Double.POSITIVE_INFINITY;
+        incumbent = null;
+        
+        int threads = MulticoreExecutor.getThreadPoolSize();
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threads);
+        for (int i = 0; i < threads; i++) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    Explore(root);
+                    return null;
+                }
+            });
+        }
+        
+        try {
+            MulticoreExecutor.run(tasks);
+        } catch (ExecutionException ex) {
+            if(ex.getCause() instanceof RuntimeException) throw (RuntimeException)ex.getCause();
+            throw new RuntimeException(ex.getCause());
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            queue = null;
         }
         
-        //Initial solution
-        int status = simplex.Solve(function, constraint);
-        if(status == 1){
-            boolean c = CheckSolution(simplex.getCoefficients(), function.length);
-            if(c){
-                return 1;
+        if(incumbent == null) return limited ? ITERATION_LIMIT : INFEASIBLE;
+        
+        sol = new Solution(incumbent, Evaluate(function, incumbent));
+        return OPTIMAL;
+        
+    }
+    
+    /**
+     * Solve the nodes of the queue until the search finishes.
+     * If a node throws, the search is stopped and the error is thrown by Solve after all threads finish.
+     */
+    private void Explore(RevisedSimplex root){
+        RevisedSimplex lp = new RevisedSimplex(root);
+        Node node = null;
+        for(;;){
+            if(node == null){
+                node = Take();
+                if(node == null) return;
             }
-            else{
-                
-                //Initial bb
-                Stack<List<Constraint>> stack = new Stack<List<Constraint>>();
-                BranchAndBound(stack, constraint, simplex.getCoefficients(), function.length);
-                
-                List<Solution> solutions = new ArrayList<Solution>();
-                
-                while(stack.size() > 0){
-                    
-                    if(iter == maxIteration) break;
-                    iter++;
-                    
-                    List<Constraint> p = stack.pop();
-                    int s = simplex.Solve(function, p);
-                    
-                    if(s == 1){
-                        
-                        boolean b = CheckSolution(simplex.getCoefficients(), function.length);
-                        
-                        if(objective == Objective.Maximize){
-                            if(b){
-                                solutions.add(new Solution(simplex.getCoefficients(), simplex.getSolution()));
-                                
-                                if(Double.isNaN(value)){
-                                    value = simplex.getSolution();
-                                }
-                                
-                                value = Math.max(value, simplex.getSolution());
-                                
-                            }
-                            else{
-                                if(Double.isNaN(value))
-                                    BranchAndBound(stack, p, simplex.getCoefficients(), function.length);
-                                
-                                if(Double.isNaN(value) == false && simplex.getSolution() > value){
-                                    BranchAndBound(stack, p, simplex.getCoefficients(), function.length);
-                                }
-                            }
-                        }
-                        else{
-                            if(b){
-                                solutions.add(new Solution(simplex.getCoefficients(), simplex.getSolution()));
-                                
-                                if(Double.isNaN(value)){
-                                    value = simplex.getSolution();
-                                }
-                                
-                                value = Math.min(value, simplex.getSolution());
-                                
-                            }
-                            else{
-                                if(Double.isNaN(value))
-                                    BranchAndBound(stack, p, simplex.getCoefficients(), function.length);
-                                
-                                if(Double.isNaN(value) == false && simplex.getSolution() < value){
-                                    BranchAndBound(stack, p, simplex.getCoefficients(), function.length);
-                                }
-                            }
-                        }
-                    }
-                }
-                
-                if(solutions.isEmpty()) return 0;
-                
-                if(objective == Objective.Maximize){
-                    Collections.sort(solutions, new Comparator<Solution>() {
-                        @Override
-                        public int compare(Solution o1, Solution o2) {
-                            return Double.compare(o2.z, o1.z);
-                        }
-                    });
-                }
-                else{
-                    Collections.sort(solutions, new Comparator<Solution>() {
-                        @Override
-                        public int compare(Solution o1, Solution o2) {
-                            return Double.compare(o1.z, o2.z);
-                        }
-                    });
+            boolean done = false;
+            try {
+                node = Process(node, lp);
+                done = true;
+            } finally {
+                //Stop the other threads, they would wait for this node forever.
+                if(!done) Abort();
+            }
+            if(node == null) Release();
+        }
+    }
+    
+    /**
+     * Take the best node, waits while other threads can create nodes.
+     */
+    private Node Take(){
+        synchronized(lock){
+            while(queue.isEmpty() && active > 0 && !stopped){
+                try {
+                    lock.wait();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
                 }
-                
-                sol = solutions.get(0);
-                
-                return 1;
-                
             }
+            if(queue.isEmpty() || stopped){
+                lock.notifyAll();
+                return null;
+            }
+            active++;
+            return queue.poll();
+        }
+    }
+    
+    private void Release(){
+        synchronized(lock){
+            active--;
+            if(active == 0) lock.notifyAll();
+        }
+    }
+    
+    private void Abort(){
+        synchronized(lock){
+            stopped = true;
+            active--;
+            lock.notifyAll();
+        }
+    }
+    
+    private void Push(Node node){
+        synchronized(lock){
+            queue.add(node);
+            lock.notify();
         }
-        
-        return status;
-        
     }
     
-    private void BranchAndBound(Stack<List<Constraint>> stack, List<Constraint> constraint, double[] solution, int n){
+    /**
+     * Solve a node and branch.
+     * @return Child to dive, or null.
+     */
+    private Node Process(Node node, RevisedSimplex lp){
         
-        int index = GetUpperValue(solution, n);
+        if(node.bound >= Cutoff()) return null;
         
-        double lower = Math.floor(solution[index]);
-        double upper = Math.ceil(solution[index]);
+        synchronized(lock){
+            if(stopped) return null;
+            if(++nodes >= maxNodes){
+                stopped = true;
+                lock.notifyAll();
+            }
+        }
         
-        double[] v = new double[n];
-        v[index] = 1;
+        lp.setBounds(node.lower, node.upper);
+        lp.setBasis(node.head, node.status);
+        int solved = lp.Solve();
+        if(solved == ITERATION_LIMIT){
+            synchronized(lock){
+                limited = true;
+            }
+        }
+        if(solved != OPTIMAL) return null;
+        
+        double z = lp.getObjective();
+        if(z >= Cutoff()) return null;
+        
+        double[] x = lp.getPrimal();
+        int k = Branch(x);
+        if(k < 0){
+            synchronized(lock){
+                if(z < incumbentZ){
+                    incumbentZ = z;
+                    incumbent = x;
+                }
+            }
+            return null;
+        }
         
-        List<Constraint> c1 = new ArrayList<Constraint>(constraint);
-        c1.add(new Constraint(v, Constraint.Symbol.GREATER_THAN, upper));
+        int[] head = lp.getHead();
+        byte[] status = lp.getStatus();
         
-        List<Constraint> c2 = new ArrayList<Constraint>(constraint);
-        c2.add(new Constraint(v, Constraint.Symbol.LESS_THAN, lower));
+        double[] upper = node.upper.clone();
+        upper[k] = Math.floor(x[k]);
+        Node down = new Node(node.lower, upper, head, status, z);
         
-        stack.add(c1);
-        stack.add(c2);
+        double[] lower = node.lower.clone();
+        lower[k] = Math.ceil(x[k]);
+        Node up = new Node(lower, node.upper, head, status, z);
         
+        //Dive on the nearest side
+        if(x[k] - Math.floor(x[k]) >= 0.5){
+            Push(down);
+            return up;
+        }
+        Push(up);
+        return down;
     }
     
-    private int GetUpperValue(double[] solution, int n){
+    /**
+     * Bound of the incumbent, the nodes must be strictly better.
+     */
+    private double Cutoff(){
+        double z = incumbentZ;
+        return z - 1e-9 * Math.max(1, Math.abs(z));
+    }
+    
+    /**
+     * Most fractional integer variable.
+     * @return Index of the variable or -1 if the solution is integer.
+     */
+    private int Branch(double[] solution){
         
-        double min = -Double.MAX_VALUE;
         int index = -1;
-        for (int i = 0; i < n; i++) {
-            if(solution[i] % 1 != 0){
-                if(solution[i] > min){
-                    min = Math.max(min, solution[i]);
+        double max = 0;
+        for (int i = 0; i < solution.length; i++) {
+            if(type[i] == 1 && isInteger(solution[i]) == false){
+                double f = solution[i] - Math.floor(solution[i]);
+                f = Math.min(f, 1 - f);
+                if(f > max){
+                    max = f;
                     index = i;
                 }
             }
-
         }
         
         return index;
@@ -299,6 +429,14 @@ public class MixedIntegerLinearProgramming {
         
     }
     
+    private static double Evaluate(double[] function, double[] x){
+        double z = 0;
+        for (int i = 0; i < function.length; i++) {
+            z += function[i] * x[i];
+        }
+        return z;
+    }
+    
     /**
      * Check if the value is integer within a certain tolerance.
      * @param value Value.
@@ -321,4 +459,28 @@ public class MixedIntegerLinearProgramming {
         }
         
     }
-}
\ No newline at end of file
+    
+    /**
+     * Node of the branch and bound, bounds of the variables and basis of the parent.
+     */
+    static class Node implements Comparable<Node> {
+        private final double[] lower;
+        private final double[] upper;
+        private final int[] head;
+        private final byte[] status;
+        private final double bound;
+
+        Node(double[] lower, double[] upper, int[] head, byte[] status, double bound) {
+            this.lower = lower;
+            this.upper = upper;
+            this.head = head;
+            this.status = status;
+            this.bound = bound;
+        }
+
+        @Override
+        public int compareTo(Node o) {
+            return Double.compare(bound, o.bound);
+        }
+    }
+}
@@ -0,0 +1,715 @@
+// catalano Math Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2018
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Math.Optimization;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounded revised simplex.
+ * 
+ * <p>Each constraint receives a slack variable, a x + s = b, bounded by the symbol
+ * (s &ge; 0, s &le; 0 or s = 0). The matrix [A | I] is stored by columns and shared between
+ * the copies, only the bounds and the basis belong to each instance. The basis is kept
+ * as a LU factorization with eta updates.</p>
+ * 
+ * <p>The primal simplex minimizes the sum of the infeasibilities while the basis is not feasible
+ * (phase 1) and then the objective (phase 2). When the bounds change, as in the nodes of a branch
+ * and bound, the dual simplex restores the feasibility starting from the previous optimal basis.</p>
+ * 
+ * <p>After a sequence of pivots without progress the primal simplex follows the Bland's rule, in the entering
+ * and in the leaving variable, until the objective improves. Each solve stops after a maximum number of iterations.</p>
+ * 
+ * @author Diego catalano
+ */
+final class RevisedSimplex {
+    
+    static final byte BASIC = 0;
+    static final byte AT_LOWER = 1;
+    static final byte AT_UPPER = 2;
+    static final byte AT_ZERO = 3;
+    
+    private static final double FEASIBILITY_TOL = 1e-9;
+    private static final double OPTIMALITY_TOL = 1e-9;
+    private static final double PIVOT_TOL = 1e-9;
+    
+    // Degenerate pivots before switching to the Bland's rule.
+    private static final int MAX_DEGENERATE = 50;
+    
+    // Minimum improvement of the objective to count as progress.
+    private static final double PROGRESS_TOL = 1e-9;
+    
+    // Model, shared between the copies.
+    private final int n;
+    private final int m;
+    private final int[] Ap;
+    private final int[] Ai;
+    private final double[] Ax;
+    private final double[] b;
+    private final double[] cost;
+    private final double[] slackLower;
+    private final double[] slackUpper;
+    
+    // State.
+    private final double[] lower;
+    private final double[] upper;
+    private final double[] x;
+    private final byte[] status;
+    private final int[] head;
+    private final BasisFactorization lu;
+    private int iterations;
+    private int maxIterations;
+    
+    // Work.
+    private final double[] cB;
+    private final double[] y;
+    private final double[] rho;
+    private final double[] alpha;
+    private final double[] col;
+    
+    /**
+     * Initialize a new instance of the RevisedSimplex class.
+     * @param function Objective function.
+     * @param constraints Constraints.
+     * @param maximize True to maximize the function, otherwise minimize.
+     */
+    RevisedSimplex(double[] function, List<Constraint> constraints, boolean maximize){
+        this.n = function.length;
+        this.m = constraints.size();
+        int t = n + m;
+        
+        // Count the nonzeros of each column.
+        int[] nz = new int[t + 1];
+        for (Constraint c : constraints) {
+            if (c.isSparse()) {
+                int[] index = c.getIndex();
+                double[] values = c.getValues();
+                for (int k = 0; k < index.length; k++) {
+                    if (index[k] >= n)
+                        throw new IllegalArgumentException("The constraint index is out of the function length.");
+                    if (values[k] != 0) nz[index[k] + 1]++;
+                }
+            }
+            else{
+                double[] left = c.getLeftSide();
+                for (int j = 0; j < Math.min(n, left.length); j++) {
+                    if (left[j] != 0) nz[j + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < m; i++) {
+            nz[n + i + 1] = 1;
+        }
+        for (int j = 0; j < t; j++) {
+            nz[j + 1] += nz[j];
+        }
+        
+        this.Ap = Arrays.copyOf(nz, t + 1);
+        this.Ai = new int[nz[t]];
+        this.Ax = new double[nz[t]];
+        this.b = new double[m];
+        this.slackLower = new double[m];
+        this.slackUpper = new double[m];
+        
+        // Fill by rows, so each column is sorted by row.
+        for (int i = 0; i < m; i++) {
+            Constraint c = constraints.get(i);
+            if (c.isSparse()) {
+                int[] index = c.getIndex();
+                double[] values = c.getValues();
+                for (int k = 0; k < index.length; k++) {
+                    if (values[k] != 0){
+                        int p = nz[index[k]]++;
+                        Ai[p] = i;
+                        Ax[p] = values[k];
+                    }
+                }
+            }
+            else{
+                double[] left = c.getLeftSide();
+                for (int j = 0; j < Math.min(n, left.length); j++) {
+                    if (left[j] != 0){
+                        int p = nz[j]++;
+                        Ai[p] = i;
+                        Ax[p] = left[j];
+                    }
+                }
+            }
+            
+            int p = nz[n + i]++;
+            Ai[p] = i;
+            Ax[p] = 1;
+            
+            b[i] = c.getRightSide();
+            switch(c.getSymbol()){
+                case LESS_THAN:
+                    slackLower[i] = 0;
+                    slackUpper[i] = Double.POSITIVE_INFINITY;
+                    break;
+                case GREATER_THAN:
+                    slackLower[i] = Double.NEGATIVE_INFINITY;
+                    slackUpper[i] = 0;
+                    break;
+                default:
+                    slackLower[i] = 0;
+                    slackUpper[i] = 0;
+                    break;
+            }
+        }
+        
+        this.cost = new double[t];
+        for (int j = 0; j < n; j++) {
+            cost[j] = maximize ? -function[j] : function[j];
+        }
+        
+        this.lower = new double[t];
+        this.upper = new double[t];
+        Arrays.fill(upper, 0, n, Double.POSITIVE_INFINITY);
+        System.arraycopy(slackLower, 0, lower, n, m);
+        System.arraycopy(slackUpper, 0, upper, n, m);
+        
+        this.x = new double[t];
+        this.status = new byte[t];
+        this.head = new int[m];
+        this.lu = new BasisFactorization(m);
+        this.cB = new double[m];
+        this.y = new double[m];
+        this.rho = new double[m];
+        this.alpha = new double[m];
+        this.col = new double[m];
+        this.maxIterations = DefaultIterations(n, m);
+        
+        SlackBasis();
+    }
+    
+    /**
+     * Initialize a new instance of the RevisedSimplex class.
+     * The model is shared, the bounds and the basis are copied.
+     * @param simplex Revised simplex.
+     */
+    RevisedSimplex(RevisedSimplex simplex){
+        this.n = simplex.n;
+        this.m = simplex.m;
+        this.Ap = simplex.Ap;
+        this.Ai = simplex.Ai;
+        this.Ax = simplex.Ax;
+        this.b = simplex.b;
+        this.cost = simplex.cost;
+        this.slackLower = simplex.slackLower;
+        this.slackUpper = simplex.slackUpper;
+        
+        this.lower = simplex.lower.clone();
+        this.upper = simplex.upper.clone();
+        this.x = simplex.x.clone();
+        this.status = simplex.status.clone();
+        this.head = simplex.head.clone();
+        this.lu = new BasisFactorization(m);
+        this.cB = new double[m];
+        this.y = new double[m];
+        this.rho = new double[m];
+        this.alpha = new double[m];
+        this.col = new double[m];
+        this.maxIterations = simplex.maxIterations;
+    }
+    
+    /**
+     * Default maximum number of iterations of each solve.
+     */
+    static int DefaultIterations(int n, int m){
+        return (int)Math.min(Integer.MAX_VALUE, Math.max(10000L, 50L * (n + m)));
+    }
+    
+    /**
+     * Set the maximum number of iterations of each solve.
+     */
+    void setMaxIterations(int maxIterations){
+        this.maxIterations = maxIterations;
+    }
+    
+    /**
+     * Number of structural variables.
+     */
+    int getVariables(){
+        return n;
+    }
+    
+    /**
+     * Number of iterations (pivots and bound flips) since the creation.
+     */
+    int getIterations(){
+        return iterations;
+    }
+    
+    /**
+     * Objective value of the current point, always as minimization.
+     */
+    double getObjective(){
+        double z = 0;
+        for (int j = 0; j < n; j++) {
+            z += cost[j] * x[j];
+        }
+        return z;
+    }
+    
+    /**
+     * Values of the structural variables.
+     */
+    double[] getPrimal(){
+        return Arrays.copyOf(x, n);
+    }
+    
+    /**
+     * Lower bounds of the structural variables.
+     */
+    double[] getLower(){
+        return Arrays.copyOf(lower, n);
+    }
+    
+    /**
+     * Upper bounds of the structural variables.
+     */
+    double[] getUpper(){
+        return Arrays.copyOf(upper, n);
+    }
+    
+    /**
+     * Set the bounds of the structural variables.
+     * The basis is kept, the nonbasic variables move to the new bounds.
+     * @param lower Lower bounds.
+     * @param upper Upper bounds.
+     */
+    void setBounds(double[] lower, double[] upper){
+        System.arraycopy(lower, 0, this.lower, 0, n);
+        System.arraycopy(upper, 0, this.upper, 0, n);
+        for (int j = 0; j < n; j++) {
+            if (status[j] != BASIC) Nonbasic(j, status[j]);
+        }
+    }
+    
+    /**
+     * Copy of the basis, the variable of each position.
+     */
+    int[] getHead(){
+        return head.clone();
+    }
+    
+    /**
+     * Copy of the status of each variable.
+     */
+    byte[] getStatus(){
+        return status.clone();
+    }
+    
+    /**
+     * Restore a basis.
+     * @param head Variable of each position.
+     * @param status Status of each variable.
+     */
+    void setBasis(int[] head, byte[] status){
+        System.arraycopy(head, 0, this.head, 0, m);
+        System.arraycopy(status, 0, this.status, 0, n + m);
+        for (int j = 0; j < n + m; j++) {
+            if (status[j] != BASIC) Nonbasic(j, status[j]);
+        }
+    }
+    
+    /**
+     * Check if the optimal solution is not unique, some nonbasic variable has zero reduced cost.
+     * Valid after an optimal solve.
+     */
+    boolean hasAlternativeOptima(){
+        Duals();
+        for (int j = 0; j < n + m; j++) {
+            if (status[j] == BASIC || upper[j] - lower[j] <= 0) continue;
+            if (Math.abs(cost[j] - Dot(y, j)) <= OPTIMALITY_TOL) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Solve from the current basis.
+     * @return Status as in the {@link LinearProgramming}.
+     */
+    int Solve(){
+        for (int j = 0; j < n; j++) {
+            if (lower[j] > upper[j] + FEASIBILITY_TOL) return LinearProgramming.INFEASIBLE;
+        }
+        
+        long limit = (long)iterations + maxIterations;
+        Factorize();
+        
+        if (!isPrimalFeasible() && MakeDualFeasible()) {
+            int s = Dual(limit);
+            if (s == LinearProgramming.INFEASIBLE) return s;
+        }
+        
+        return Primal(limit);
+    }
+    
+    /**
+     * Primal simplex, phase 1 while some basic variable is infeasible.
+     * @param limit Iterations to stop.
+     */
+    private int Primal(long limit){
+        int degenerate = 0;
+        
+        for(;;){
+            if (iterations >= limit) return LinearProgramming.ITERATION_LIMIT;
+            
+            // Costs of the basic variables.
+            boolean phase1 = false;
+            for (int k = 0; k < m; k++) {
+                int v = head[k];
+                if (x[v] < lower[v] - FEASIBILITY_TOL){
+                    cB[k] = -1;
+                    phase1 = true;
+                }
+                else if (x[v] > upper[v] + FEASIBILITY_TOL){
+                    cB[k] = 1;
+                    phase1 = true;
+                }
+                else{
+                    cB[k] = 0;
+                }
+            }
+            if (!phase1) {
+                for (int k = 0; k < m; k++) {
+                    cB[k] = cost[head[k]];
+                }
+            }
+            lu.Btran(cB, y);
+            
+            // Pricing: Dantzig, Bland's rule after a sequence of degenerate pivots.
+            boolean bland = degenerate > MAX_DEGENERATE;
+            int q = -1;
+            int dir = 0;
+            double best = 0;
+            for (int j = 0; j < n + m; j++) {
+                if (status[j] == BASIC || upper[j] - lower[j] <= 0) continue;
+                double d = (phase1 ? 0 : cost[j]) - Dot(y, j);
+                int dj = Direction(status[j], d);
+                if (dj != 0 && Math.abs(d) > best){
+                    q = j;
+                    dir = dj;
+                    best = Math.abs(d);
+                    if (bland) break;
+                }
+            }
+            
+            if (q < 0) return phase1 ? LinearProgramming.INFEASIBLE : LinearProgramming.OPTIMAL;
+            
+            Column(q);
+            
+            // Ratio test, the entering variable can reach the other bound.
+            double tmax = upper[q] - lower[q];
+            int leave = -1;
+            boolean toUpper = false;
+            for (int k = 0; k < m; k++) {
+                double a = alpha[k];
+                if (Math.abs(a) <= PIVOT_TOL) continue;
+                int v = head[k];
+                double rate = -dir * a;
+                double xv = x[v];
+                double bound;
+                boolean up;
+                double t;
+                if (rate < 0) {
+                    if (xv > upper[v] + FEASIBILITY_TOL) { bound = upper[v]; up = true; }
+                    else if (xv < lower[v] - FEASIBILITY_TOL || lower[v] == Double.NEGATIVE_INFINITY) continue;
+                    else { bound = lower[v]; up = false; }
+                    t = (xv - bound) / -rate;
+                }
+                else{
+                    if (xv < lower[v] - FEASIBILITY_TOL) { bound = lower[v]; up = false; }
+                    else if (xv > upper[v] + FEASIBILITY_TOL || upper[v] == Double.POSITIVE_INFINITY) continue;
+                    else { bound = upper[v]; up = true; }
+                    t = (bound - xv) / rate;
+                }
+                if (t < 0) t = 0;
+                
+                // Ties: the largest pivot, or the lowest variable in the Bland's rule.
+                boolean take;
+                if (t < tmax - 1e-12) take = true;
+                else if (leave < 0 || t > tmax + 1e-12) take = false;
+                else if (bland) take = v < head[leave];
+                else take = Math.abs(a) > Math.abs(alpha[leave]);
+                
+                if (take) {
+                    tmax = t;
+                    leave = k;
+                    toUpper = up;
+                }
+            }
+            
+            if (tmax == Double.POSITIVE_INFINITY)
+                return phase1 ? LinearProgramming.INFEASIBLE : LinearProgramming.UNBOUNDED;
+            
+            iterations++;
+            // Progress is a real improvement of the objective, not a tiny step.
+            degenerate = tmax * best > PROGRESS_TOL ? 0 : degenerate + 1;
+            
+            double step = dir * tmax;
+            x[q] += step;
+            for (int k = 0; k < m; k++) {
+                x[head[k]] -= step * alpha[k];
+            }
+            
+            if (leave < 0){
+                // Bound flip.
+                status[q] = dir > 0 ? AT_UPPER : AT_LOWER;
+                x[q] = dir > 0 ? upper[q] : lower[q];
+                continue;
+            }
+            
+            int v = head[leave];
+            Nonbasic(v, toUpper ? AT_UPPER : AT_LOWER);
+            Pivot(leave, q);
+        }
+    }
+    
+    /**
+     * Dual simplex, from a dual feasible basis.
+     */
+    private int Dual(long limit){
+        limit = Math.min(limit, (long)iterations + 10L * (n + m));
+        
+        while(iterations < limit){
+            
+            // Leaving row: maximum infeasibility.
+            int r = -1;
+            double max = FEASIBILITY_TOL;
+            for (int k = 0; k < m; k++) {
+                int v = head[k];
+                double inf = Math.max(lower[v] - x[v], x[v] - upper[v]);
+                if (inf > max) {
+                    max = inf;
+                    r = k;
+                }
+            }
+            if (r < 0) return LinearProgramming.OPTIMAL;
+            
+            int v = head[r];
+            boolean low = x[v] < lower[v];
+            
+            Duals();
+            Arrays.fill(cB, 0);
+            cB[r] = 1;
+            lu.Btran(cB, rho);
+            
+            // Ratio test over the row of the leaving variable.
+            int q = -1;
+            double best = Double.POSITIVE_INFINITY;
+            double bestAlpha = 0;
+            for (int j = 0; j < n + m; j++) {
+                byte s = status[j];
+                if (s == BASIC || upper[j] - lower[j] <= 0) continue;
+                double a = Dot(rho, j);
+                if (Math.abs(a) <= PIVOT_TOL) continue;
+                
+                boolean eligible;
+                if (s == AT_ZERO) eligible = true;
+                else if (low) eligible = (s == AT_LOWER) == (a < 0);
+                else eligible = (s == AT_LOWER) == (a > 0);
+                if (!eligible) continue;
+                
+                double d = cost[j] - Dot(y, j);
+                if (s == AT_LOWER) d = Math.max(d, 0);
+                else if (s == AT_UPPER) d = Math.max(-d, 0);
+                else d = Math.abs(d);
+                double ratio = d / Math.abs(a);
+                
+                if (ratio < best - 1e-12 || (ratio <= best + 1e-12 && Math.abs(a) > bestAlpha)) {
+                    best = ratio;
+                    bestAlpha = Math.abs(a);
+                    q = j;
+                }
+            }
+            
+            if (q < 0) return LinearProgramming.INFEASIBLE;
+            
+            Column(q);
+            
+            double bound = low ? lower[v] : upper[v];
+            double t = (x[v] - bound) / alpha[r];
+            x[q] += t;
+            for (int k = 0; k < m; k++) {
+                x[head[k]] -= t * alpha[k];
+            }
+            iterations++;
+            
+            Nonbasic(v, low ? AT_LOWER : AT_UPPER);
+            Pivot(r, q);
+        }
+        
+        // Too many iterations, the primal simplex finishes.
+        return -1;
+    }
+    
+    /**
+     * Direction of an improving nonbasic variable, zero if it doesn't improve.
+     */
+    private static int Direction(byte status, double d){
+        switch(status){
+            case AT_LOWER: return d < -OPTIMALITY_TOL ? 1 : 0;
+            case AT_UPPER: return d > OPTIMALITY_TOL ? -1 : 0;
+            default:
+                if (d < -OPTIMALITY_TOL) return 1;
+                if (d > OPTIMALITY_TOL) return -1;
+                return 0;
+        }
+    }
+    
+    /**
+     * Move the nonbasic variables to the bounds where the reduced cost has the right sign.
+     * @return True if the basis is dual feasible.
+     */
+    private boolean MakeDualFeasible(){
+        Duals();
+        boolean flip = false;
+        for (int j = 0; j < n + m; j++) {
+            byte s = status[j];
+            if (s == BASIC || upper[j] - lower[j] <= 0) continue;
+            double d = cost[j] - Dot(y, j);
+            if (d < -OPTIMALITY_TOL && s != AT_UPPER) {
+                if (upper[j] == Double.POSITIVE_INFINITY) return false;
+                Nonbasic(j, AT_UPPER);
+                flip = true;
+            }
+            else if (d > OPTIMALITY_TOL && s != AT_LOWER) {
+                if (lower[j] == Double.NEGATIVE_INFINITY) return false;
+                Nonbasic(j, AT_LOWER);
+                flip = true;
+            }
+        }
+        if (flip) Basic();
+        return true;
+    }
+    
+    private boolean isPrimalFeasible(){
+        for (int k = 0; k < m; k++) {
+            int v = head[k];
+            if (x[v] < lower[v] - FEASIBILITY_TOL || x[v] > upper[v] + FEASIBILITY_TOL) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Compute the duals of the phase 2 costs.
+     */
+    private void Duals(){
+        for (int k = 0; k < m; k++) {
+            cB[k] = cost[head[k]];
+        }
+        lu.Btran(cB, y);
+    }
+    
+    /**
+     * Dot product of a row vector with the column j.
+     */
+    private double Dot(double[] v, int j){
+        double s = 0;
+        for (int p = Ap[j]; p < Ap[j + 1]; p++) {
+            s += v[Ai[p]] * Ax[p];
+        }
+        return s;
+    }
+    
+    /**
+     * Column j in terms of the basis, in alpha.
+     */
+    private void Column(int j){
+        Arrays.fill(col, 0);
+        for (int p = Ap[j]; p < Ap[j + 1]; p++) {
+            col[Ai[p]] = Ax[p];
+        }
+        lu.Ftran(col, alpha);
+    }
+    
+    /**
+     * The variable q enters in the position r, alpha must be the column of q.
+     */
+    private void Pivot(int r, int q){
+        head[r] = q;
+        status[q] = BASIC;
+        if (lu.Update(r, alpha)) Factorize();
+    }
+    
+    /**
+     * Set a variable as nonbasic, at the given bound when it is finite.
+     */
+    private void Nonbasic(int j, byte s){
+        if (lower[j] == upper[j]) s = AT_LOWER;
+        if (s == AT_UPPER && upper[j] == Double.POSITIVE_INFINITY) s = AT_LOWER;
+        if (s == AT_LOWER && lower[j] == Double.NEGATIVE_INFINITY) s = upper[j] == Double.POSITIVE_INFINITY ? AT_ZERO : AT_UPPER;
+        if (s == AT_ZERO && lower[j] != Double.NEGATIVE_INFINITY) s = AT_LOWER;
+        if (s == AT_ZERO && upper[j] != Double.POSITIVE_INFINITY) s = AT_UPPER;
+        
+        status[j] = s;
+        x[j] = s == AT_LOWER ? lower[j] : s == AT_UPPER ? upper[j] : 0;
+    }
+    
+    private void SlackBasis(){
+        for (int j = 0; j < n; j++) {
+            Nonbasic(j, AT_LOWER);
+        }
+        for (int i = 0; i < m; i++) {
+            head[i] = n + i;
+            status[n + i] = BASIC;
+        }
+    }
+    
+    /**
+     * Factorize the basis, the dependent columns are replaced by slacks.
+     */
+    private void Factorize(){
+        while (!lu.Factorize(head, Ap, Ai, Ax)) {
+            for (int k = 0; k < lu.getSingular(); k++) {
+                int pos = lu.getSingularPosition(k);
+                int slack = n + lu.getSingularRow(k);
+                Nonbasic(head[pos], AT_LOWER);
+                head[pos] = slack;
+                status[slack] = BASIC;
+            }
+        }
+        Basic();
+    }
+    
+    /**
+     * Compute the basic variables from the nonbasic ones.
+     */
+    private void Basic(){
+        System.arraycopy(b, 0, col, 0, m);
+        for (int j = 0; j < n + m; j++) {
+            if (status[j] == BASIC || x[j] == 0) continue;
+            double v = x[j];
+            for (int p = Ap[j]; p < Ap[j + 1]; p++) {
+                col[Ai[p]] -= Ax[p] * v;
+            }
+        }
+        lu.Ftran(col, rho);
+        for (int k = 0; k < m; k++) {
+            x[head[k]] = rho[k];
+        }
+    }
+}
@@ -72,4 +72,24 @@ public interface IRandomNumberGenerator {
      * between 0.0 and 1.0 from this random number generator's sequence.
      */
     public void nextDoubles(double[] d);
+    
+    /**
+     * Returns a vector of pseudorandom, uniformly distributed int values
+     * from this random number generator's sequence.
+     */
+    public void nextInts(int[] d);
+    
+    /**
+     * Returns a vector of pseudorandom, uniformly distributed int values
+     * between 0 (inclusive) and the specified value (exclusive)
+     * from this random number generator's sequence.
+     */
+    public void nextInts(int[] d, int n);
+    
+    /**
+     * Returns a vector of pseudorandom, Gaussian ("normally") distributed
+     * double values with mean 0.0 and standard deviation 1.0
+     * from this random number generator's sequence.
+     */
+    public void nextGaussians(double[] d);
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+// catalano Math Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Math.Random;
+
+/**
+ * Random number generator that can derive independent streams.
+ * 
+ * <p>The child streams are derived deterministically from the state of the parent,
+ * so a single seed reproduces all the streams of a parallel computation,
+ * regardless of the scheduling of the threads. Split the streams in the calling thread
+ * and give one stream to each task.</p>
+ * 
+ * @author Diego catalano
+ */
+public interface ISplittableRandomNumberGenerator extends IRandomNumberGenerator {
+    
+    /**
+     * Returns a new generator with a stream independent of this one.
+     * The state of this generator is advanced.
+     * @return Random number generator.
+     */
+    public ISplittableRandomNumberGenerator split();
+}
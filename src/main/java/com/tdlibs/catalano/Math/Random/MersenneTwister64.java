@@ -163,4 +163,27 @@ public class MersenneTwister64 implements IRandomNumberGenerator {
 
 	return x;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void nextInts(int[] d) {
+        // Both halves of each long.
+        int n = d.length;
+        int i = 0;
+        for (; i + 1 < n; i += 2) {
+            long x = nextLong();
+            d[i] = (int) (x >>> 32);
+            d[i + 1] = (int) x;
+        }
+        if (i < n) d[i] = nextInt();
+    }
+
+    @Override
+    public void nextInts(int[] d, int n) {
+        RandomFill.Ints(this, d, n);
+    }
+
+    @Override
+    public void nextGaussians(double[] d) {
+        RandomFill.Gaussians(this, d);
+    }
+}
@@ -41,9 +41,11 @@ import java.util.concurrent.atomic.AtomicLong;
  * is used; in particular, this is a port of the
  * <a href="https://github.com/imneme/pcg-c-basic/">minimal C implementation</a>.</li>
  * <li>Instances of Pcg32 are not thread-safe and so it doesn't obey {@link java.util.Random} contract.</li>
+ * <li>Independent streams are selected by the increment, see {@link #split()}, and
+ * the state can jump ahead in O(log n) steps, see {@link #advance(long)}.</li>
  * </ul>
  */
-public class Pcg32 implements IRandomNumberGenerator{
+public class Pcg32 implements ISplittableRandomNumberGenerator{
     private long state;
     private long inc;
 
@@ -277,9 +279,71 @@ public class Pcg32 implements IRandomNumberGenerator{
 
     @Override
     public void nextDoubles(double[] d) {
-        int n = d.length;
-        for (int i = 0; i < n; i++) {
-            d[i] = nextDouble();
+        // Same sequence as nextDouble, with the state kept in a local.
+        long s = state;
+        final long c = inc;
+        for (int i = 0; i < d.length; i++) {
+            int hi = Integer.rotateRight((int) (((s >>> 18) ^ s) >>> 27), (int) (s >>> 59));
+            s = s * MULTIPLIER + c;
+            int lo = Integer.rotateRight((int) (((s >>> 18) ^ s) >>> 27), (int) (s >>> 59));
+            s = s * MULTIPLIER + c;
+            d[i] = (((long) (hi >>> 6) << 27) + (lo >>> 5)) / (double) (1L << 53);
         }
+        state = s;
+    }
+
+    @Override
+    public void nextInts(int[] d) {
+        long s = state;
+        final long c = inc;
+        for (int i = 0; i < d.length; i++) {
+            d[i] = Integer.rotateRight((int) (((s >>> 18) ^ s) >>> 27), (int) (s >>> 59));
+            s = s * MULTIPLIER + c;
+        }
+        state = s;
+    }
+
+    @Override
+    public void nextInts(int[] d, int n) {
+        RandomFill.Ints(this, d, n);
+    }
+
+    @Override
+    public void nextGaussians(double[] d) {
+        RandomFill.Gaussians(this, d);
+    }
+
+    /**
+     * Advances the state by {@code delta} steps in O(log delta) time (Brown, "Random Number Generation
+     * with Arbitrary Stride"). The delta is taken as unsigned, so {@code advance(-1)} goes back one step.
+     *
+     * @param delta Number of steps.
+     */
+    public void advance(long delta) {
+        long accMult = 1;
+        long accPlus = 0;
+        long curMult = MULTIPLIER;
+        long curPlus = inc;
+        while (delta != 0) {
+            if ((delta & 1) != 0) {
+                accMult *= curMult;
+                accPlus = accPlus * curMult + curPlus;
+            }
+            curPlus = (curMult + 1) * curPlus;
+            curMult *= curMult;
+            delta >>>= 1;
+        }
+        state = accMult * state + accPlus;
+    }
+
+    /**
+     * Returns a generator on a new stream. The initial state and the stream number are
+     * drawn from this generator, the streams differ by the increment of the LCG.
+     *
+     * @return Random number generator.
+     */
+    @Override
+    public Pcg32 split() {
+        return new Pcg32(nextLong(), nextLong());
     }
 }
\ No newline at end of file
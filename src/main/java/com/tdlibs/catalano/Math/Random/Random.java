@@ -132,6 +132,23 @@ public class Random {
         return rng.nextLong();
     }
 
+    /**
+     * Generate random integers in the range [0, n).
+     * @param d array of random numbers to be generated
+     * @param n upper limit of range
+     */
+    public void nextInts(int[] d, int n) {
+        rng.nextInts(d, n);
+    }
+
+    /**
+     * Generate n standard gaussian random numbers.
+     * @param d array of random numbers to be generated
+     */
+    public void nextGaussians(double[] d) {
+        rng.nextGaussians(d);
+    }
+
     /**
      * Generates a permutation of 0, 1, 2, ..., n-1, which is useful for
      * sampling without replacement.
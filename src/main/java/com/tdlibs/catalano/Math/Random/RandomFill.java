@@ -0,0 +1,93 @@
+// catalano Math Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Math.Random;
+
+/**
+ * Bulk fills shared by the random number generators.
+ * @author Diego catalano
+ */
+final class RandomFill {
+
+    private RandomFill() {}
+
+    /**
+     * Fill the vector with uniformly distributed ints.
+     * @param rng Random number generator.
+     * @param d Vector.
+     */
+    static void Ints(IRandomNumberGenerator rng, int[] d){
+        for (int i = 0; i < d.length; i++) {
+            d[i] = rng.nextInt();
+        }
+    }
+
+    /**
+     * Fill the vector with uniformly distributed ints in [0, n).
+     * Uses the multiply and shift reduction with rejection (Lemire),
+     * the division is only computed when the low part falls in the biased zone.
+     * @param rng Random number generator.
+     * @param d Vector.
+     * @param n Bound.
+     */
+    static void Ints(IRandomNumberGenerator rng, int[] d, int n){
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+
+        long bound = n;
+        for (int i = 0; i < d.length; i++) {
+            long m = (rng.nextInt() & 0xFFFFFFFFL) * bound;
+            long low = m & 0xFFFFFFFFL;
+            if (low < bound) {
+                long threshold = (0x100000000L - bound) % bound;
+                while (low < threshold) {
+                    m = (rng.nextInt() & 0xFFFFFFFFL) * bound;
+                    low = m & 0xFFFFFFFFL;
+                }
+            }
+            d[i] = (int)(m >>> 32);
+        }
+    }
+
+    /**
+     * Fill the vector with standard gaussian values.
+     * Polar method (Knuth, ACP, Section 3.4.1 Algorithm C), both values of each pair are used.
+     * @param rng Random number generator.
+     * @param d Vector.
+     */
+    static void Gaussians(IRandomNumberGenerator rng, double[] d){
+        int n = d.length;
+        int i = 0;
+        while (i < n) {
+            double v1, v2, s;
+            do {
+                v1 = 2 * rng.nextDouble() - 1;
+                v2 = 2 * rng.nextDouble() - 1;
+                s = v1 * v1 + v2 * v2;
+            } while (s >= 1 || s == 0);
+            double multiplier = Math.sqrt(-2 * Math.log(s) / s);
+            d[i++] = v1 * multiplier;
+            if (i < n) d[i++] = v2 * multiplier;
+        }
+    }
+}
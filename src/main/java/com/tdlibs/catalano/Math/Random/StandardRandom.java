@@ -63,4 +63,25 @@ public class StandardRandom implements IRandomNumberGenerator{
             d[i] = nextDouble();
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void nextInts(int[] d) {
+        for (int i = 0; i < d.length; i++) {
+            d[i] = r.nextInt();
+        }
+    }
+
+    @Override
+    public void nextInts(int[] d, int n) {
+        for (int i = 0; i < d.length; i++) {
+            d[i] = r.nextInt(n);
+        }
+    }
+
+    @Override
+    public void nextGaussians(double[] d) {
+        for (int i = 0; i < d.length; i++) {
+            d[i] = r.nextGaussian();
+        }
+    }
+}
@@ -222,4 +222,21 @@ public class UniversalGenerator implements IRandomNumberGenerator {
     public long nextLong() {
         return (long) Math.floor(Long.MAX_VALUE * (2 * nextDouble() - 1.0));        
     }
-}
\ No newline at end of file
+    
+    @Override
+    public void nextInts(int[] d) {
+        RandomFill.Ints(this, d);
+    }
+    
+    @Override
+    public void nextInts(int[] d, int n) {
+        for (int i = 0; i < d.length; i++) {
+            d[i] = nextInt(n);
+        }
+    }
+    
+    @Override
+    public void nextGaussians(double[] d) {
+        RandomFill.Gaussians(this, d);
+    }
+}
@@ -0,0 +1,225 @@
+// catalano Math Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Math.Random;
+
+/**
+ * Xoshiro256** random number generator.
+ * 
+ * <p>All purpose generator of Blackman and Vigna with 256 bits of state and period 2^256 - 1.
+ * The jump function advances the state by 2^128 steps and the long jump by 2^192 steps,
+ * so the sequence can be split in non overlapping streams for parallel computations.</p>
+ * 
+ * <p>References: David Blackman and Sebastiano Vigna, "Scrambled linear pseudorandom number generators", 2018.</p>
+ * 
+ * <p>The instances are not thread safe, use {@link #split()} to give a stream to each thread.</p>
+ * 
+ * @author Diego catalano
+ */
+public class Xoshiro256StarStar implements ISplittableRandomNumberGenerator {
+    
+    private static final long[] JUMP = {
+        0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL };
+    
+    private static final long[] LONG_JUMP = {
+        0x76e15d3efefdcbbfL, 0xc5004e441c522fb3L, 0x77710069854ee241L, 0x39109bb02acbe635L };
+    
+    private long s0, s1, s2, s3;
+
+    /**
+     * Initialize a new instance of the Xoshiro256StarStar class.
+     */
+    public Xoshiro256StarStar() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Initialize a new instance of the Xoshiro256StarStar class.
+     * @param seed Seed.
+     */
+    public Xoshiro256StarStar(long seed) {
+        setSeed(seed);
+    }
+    
+    private Xoshiro256StarStar(long s0, long s1, long s2, long s3) {
+        this.s0 = s0;
+        this.s1 = s1;
+        this.s2 = s2;
+        this.s3 = s3;
+    }
+
+    /**
+     * Set seed.
+     * The state is filled by SplitMix64, so similar seeds give unrelated states.
+     * @param seed Seed.
+     */
+    @Override
+    public void setSeed(long seed) {
+        long z = seed;
+        s0 = SplitMix64(z += 0x9e3779b97f4a7c15L);
+        s1 = SplitMix64(z += 0x9e3779b97f4a7c15L);
+        s2 = SplitMix64(z += 0x9e3779b97f4a7c15L);
+        s3 = SplitMix64(z += 0x9e3779b97f4a7c15L);
+    }
+    
+    private static long SplitMix64(long z){
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    @Override
+    public int nextBits(int numbits) {
+        return (int) (nextLong() >>> (64 - numbits));
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public int nextInt(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        
+        long m = (nextLong() >>> 32) * n;
+        if ((m & 0xFFFFFFFFL) < n) {
+            long threshold = (0x100000000L - n) % n;
+            while ((m & 0xFFFFFFFFL) < threshold) {
+                m = (nextLong() >>> 32) * n;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public void nextDoubles(double[] d) {
+        // The state is kept in locals along the loop.
+        long a = s0, b = s1, c = s2, e = s3;
+        for (int i = 0; i < d.length; i++) {
+            long result = Long.rotateLeft(b * 5, 7) * 9;
+            long t = b << 17;
+            c ^= a;
+            e ^= b;
+            b ^= c;
+            a ^= e;
+            c ^= t;
+            e = Long.rotateLeft(e, 45);
+            d[i] = (result >>> 11) * 0x1.0p-53;
+        }
+        s0 = a; s1 = b; s2 = c; s3 = e;
+    }
+
+    @Override
+    public void nextInts(int[] d) {
+        // Both halves of each output.
+        long a = s0, b = s1, c = s2, e = s3;
+        int n = d.length;
+        for (int i = 0; i < n; i += 2) {
+            long result = Long.rotateLeft(b * 5, 7) * 9;
+            long t = b << 17;
+            c ^= a;
+            e ^= b;
+            b ^= c;
+            a ^= e;
+            c ^= t;
+            e = Long.rotateLeft(e, 45);
+            d[i] = (int) (result >>> 32);
+            if (i + 1 < n) d[i + 1] = (int) result;
+        }
+        s0 = a; s1 = b; s2 = c; s3 = e;
+    }
+
+    @Override
+    public void nextInts(int[] d, int n) {
+        RandomFill.Ints(this, d, n);
+    }
+
+    @Override
+    public void nextGaussians(double[] d) {
+        RandomFill.Gaussians(this, d);
+    }
+    
+    /**
+     * Advance the state by 2^128 steps.
+     * Up to 2^128 non overlapping streams of 2^128 values.
+     */
+    public void jump(){
+        jump(JUMP);
+    }
+    
+    /**
+     * Advance the state by 2^192 steps.
+     * Up to 2^64 starting points, each one can be splitted by {@link #jump()}.
+     */
+    public void longJump(){
+        jump(LONG_JUMP);
+    }
+    
+    private void jump(long[] polynomial){
+        long a = 0, b = 0, c = 0, e = 0;
+        for (long p : polynomial) {
+            for (int bit = 0; bit < 64; bit++) {
+                if ((p & (1L << bit)) != 0) {
+                    a ^= s0;
+                    b ^= s1;
+                    c ^= s2;
+                    e ^= s3;
+                }
+                nextLong();
+            }
+        }
+        s0 = a; s1 = b; s2 = c; s3 = e;
+    }
+
+    /**
+     * Returns a generator at the current state and jumps this one by 2^128 steps.
+     * @return Random number generator.
+     */
+    @Override
+    public Xoshiro256StarStar split() {
+        Xoshiro256StarStar child = new Xoshiro256StarStar(s0, s1, s2, s3);
+        jump();
+        return child;
+    }
+}
@@ -25,6 +25,7 @@
 package com.tdlibs.catalano.Statistics.Distributions;
 
 import com.tdlibs.catalano.Math.Functions.Gamma;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
 
 /**
  * Chi-Square (χ²) probability distribution.
@@ -35,7 +36,7 @@ import com.tdlibs.catalano.Math.Functions.Gamma;
  * testing, or in construction of confidence intervals.</para>
  * @author Diego catalano
  */
-public class ChiSquareDistribution implements IDistribution{
+public class ChiSquareDistribution implements IBatchDistribution{
     
     private int degreesOfFreedom;
     
@@ -95,4 +96,35 @@ public class ChiSquareDistribution implements IDistribution{
         double m3 = (v / 2.0) * Math.log(2) + Gamma.Log(v / 2.0);
         return (m1 + m2) - m3;
     }
-}
\ No newline at end of file
+
+    @Override
+    public double Sample(IRandomNumberGenerator rng) {
+        return 2 * RandomSampler.Gamma(degreesOfFreedom / 2.0, rng);
+    }
+
+    @Override
+    public void Sample(double[] out, IRandomNumberGenerator rng) {
+        RandomSampler.Gamma(degreesOfFreedom / 2.0, out, rng);
+        for (int i = 0; i < out.length; i++) {
+            out[i] *= 2;
+        }
+    }
+
+    @Override
+    public void DistributionFunction(double[] x, double[] out) {
+        double k = degreesOfFreedom / 2.0;
+        for (int i = 0; i < x.length; i++) {
+            out[i] = Gamma.Incomplete(k, x[i] / 2.0);
+        }
+    }
+
+    @Override
+    public void ProbabilityDensityFunction(double[] x, double[] out) {
+        double v = degreesOfFreedom;
+        double e = (v - 2.0) / 2.0;
+        double m3 = 1 / (Math.pow(2, v / 2.0) * Gamma.Function(v / 2.0));
+        for (int i = 0; i < x.length; i++) {
+            out[i] = Math.pow(x[i], e) * Math.exp(-x[i] / 2.0) * m3;
+        }
+    }
+}
@@ -24,11 +24,13 @@
 
 package com.tdlibs.catalano.Statistics.Distributions;
 
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
+
 /**
  * Exponential distribution.
  * @author Diego catalano
  */
-public class ExponentialDistribution implements IDistribution{
+public class ExponentialDistribution implements IBatchDistribution{
     
     private double lambda;
     
@@ -80,4 +82,32 @@ public class ExponentialDistribution implements IDistribution{
     public double LogProbabilityDensityFunction(double x) {
         return lnlambda - lambda * x;
     }
-}
\ No newline at end of file
+
+    @Override
+    public double Sample(IRandomNumberGenerator rng) {
+        return RandomSampler.Exponential(rng) / lambda;
+    }
+
+    @Override
+    public void Sample(double[] out, IRandomNumberGenerator rng) {
+        RandomSampler.Exponential(out, rng);
+        double inv = 1 / lambda;
+        for (int i = 0; i < out.length; i++) {
+            out[i] *= inv;
+        }
+    }
+
+    @Override
+    public void DistributionFunction(double[] x, double[] out) {
+        for (int i = 0; i < x.length; i++) {
+            out[i] = 1.0 - Math.exp(-lambda * x[i]);
+        }
+    }
+
+    @Override
+    public void ProbabilityDensityFunction(double[] x, double[] out) {
+        for (int i = 0; i < x.length; i++) {
+            out[i] = lambda * Math.exp(-lambda * x[i]);
+        }
+    }
+}
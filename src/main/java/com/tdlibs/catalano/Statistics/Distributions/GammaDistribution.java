@@ -25,12 +25,13 @@
 package com.tdlibs.catalano.Statistics.Distributions;
 
 import com.tdlibs.catalano.Math.Functions.Gamma;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
 
 /**
  * Gamma distribution.
  * @author Diego catalano
  */
-public class GammaDistribution implements IDistribution{
+public class GammaDistribution implements IBatchDistribution{
     
     // Distribution parameters
     private double scale;
@@ -94,4 +95,34 @@ public class GammaDistribution implements IDistribution{
     public double LogProbabilityDensityFunction(double x) {
         return lnconstant + (shape - 1) * Math.log(x) - x / scale;
     }
-}
\ No newline at end of file
+
+    @Override
+    public double Sample(IRandomNumberGenerator rng) {
+        return scale * RandomSampler.Gamma(shape, rng);
+    }
+
+    @Override
+    public void Sample(double[] out, IRandomNumberGenerator rng) {
+        RandomSampler.Gamma(shape, out, rng);
+        for (int i = 0; i < out.length; i++) {
+            out[i] *= scale;
+        }
+    }
+
+    @Override
+    public void DistributionFunction(double[] x, double[] out) {
+        double inv = 1 / scale;
+        for (int i = 0; i < x.length; i++) {
+            out[i] = Gamma.LowerIncomplete(shape, x[i] * inv);
+        }
+    }
+
+    @Override
+    public void ProbabilityDensityFunction(double[] x, double[] out) {
+        double inv = 1 / scale;
+        double s = shape - 1;
+        for (int i = 0; i < x.length; i++) {
+            out[i] = constant * Math.pow(x[i], s) * Math.exp(-x[i] * inv);
+        }
+    }
+}
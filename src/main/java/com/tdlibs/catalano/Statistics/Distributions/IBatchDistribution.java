@@ -0,0 +1,61 @@
+// catalano Statistics Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Statistics.Distributions;
+
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
+
+/**
+ * Distribution with sampling and evaluation over arrays.
+ * @author Diego catalano
+ */
+public interface IBatchDistribution extends IDistribution {
+    
+    /**
+     * Draws a sample from this distribution.
+     * @param rng Random number generator.
+     * @return Sample.
+     */
+    double Sample(IRandomNumberGenerator rng);
+    
+    /**
+     * Draws samples from this distribution.
+     * @param out Array to be filled with the samples.
+     * @param rng Random number generator.
+     */
+    void Sample(double[] out, IRandomNumberGenerator rng);
+    
+    /**
+     * Gets the cumulative distribution function (cdf) evaluated at each point of <c>x</c>.
+     * @param x Points in the distribution range.
+     * @param out Array to store the probabilities, can be the same array as <c>x</c>.
+     */
+    void DistributionFunction(double[] x, double[] out);
+    
+    /**
+     * Gets the probability density function (pdf) evaluated at each point of <c>x</c>.
+     * @param x Points in the distribution range.
+     * @param out Array to store the densities, can be the same array as <c>x</c>.
+     */
+    void ProbabilityDensityFunction(double[] x, double[] out);
+}
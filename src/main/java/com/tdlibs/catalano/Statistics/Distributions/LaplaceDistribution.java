@@ -23,6 +23,7 @@
 //
 package com.tdlibs.catalano.Statistics.Distributions;
 
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,7 +49,7 @@ import java.util.logging.Logger;
  * 
  * @author Diego catalano
  */
-public class LaplaceDistribution implements IDistribution{
+public class LaplaceDistribution implements IBatchDistribution{
     private double u;
     private double b;
     private double constant;
@@ -94,4 +95,36 @@ public class LaplaceDistribution implements IDistribution{
     public double LogProbabilityDensityFunction(double x){
         return Math.log(constant) - Math.abs(x - u) / b;
     }
+
+    @Override
+    public double Sample(IRandomNumberGenerator rng) {
+        double e = b * RandomSampler.Exponential(rng);
+        return rng.nextInt() < 0 ? u - e : u + e;
+    }
+
+    @Override
+    public void Sample(double[] out, IRandomNumberGenerator rng) {
+        RandomSampler.Exponential(out, rng);
+        for (int i = 0; i < out.length; i++) {
+            double e = b * out[i];
+            out[i] = rng.nextInt() < 0 ? u - e : u + e;
+        }
+    }
+
+    @Override
+    public void DistributionFunction(double[] x, double[] out) {
+        double inv = 1 / b;
+        for (int i = 0; i < x.length; i++) {
+            double d = x[i] - u;
+            out[i] = 0.5 * (1 + Math.signum(d) * (1 - Math.exp(-Math.abs(d) * inv)));
+        }
+    }
+
+    @Override
+    public void ProbabilityDensityFunction(double[] x, double[] out) {
+        double inv = 1 / b;
+        for (int i = 0; i < x.length; i++) {
+            out[i] = constant * Math.exp(-Math.abs(x[i] - u) * inv);
+        }
+    }
 }
@@ -25,6 +25,7 @@
 package com.tdlibs.catalano.Statistics.Distributions;
 
 import com.tdlibs.catalano.Math.Constants;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
 import com.tdlibs.catalano.Math.Special;
 
 /**
@@ -32,7 +33,7 @@ import com.tdlibs.catalano.Math.Special;
  * <para> The log-normal distribution is a probability distribution of a random variable whose logarithm is normally distributed.</para>
  * @author Diego catalano
  */
-public class LognormalDistribution implements IDistribution{
+public class LognormalDistribution implements IBatchDistribution{
     
     // Distribution parameters
     private double location = 0; // mean of the variable's natural logarithm
@@ -114,4 +115,34 @@ public class LognormalDistribution implements IDistribution{
         double z = (Math.log(x) - location) / shape;
         return Math.log(constant) + (-z * z) * 0.5 - Math.log(x);
     }
-}
\ No newline at end of file
+
+    @Override
+    public double Sample(IRandomNumberGenerator rng) {
+        return Math.exp(location + shape * RandomSampler.Normal(rng));
+    }
+
+    @Override
+    public void Sample(double[] out, IRandomNumberGenerator rng) {
+        RandomSampler.Normal(out, rng);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Math.exp(location + shape * out[i]);
+        }
+    }
+
+    @Override
+    public void DistributionFunction(double[] x, double[] out) {
+        double c = 1.0 / (shape * Constants.Sqrt2);
+        for (int i = 0; i < x.length; i++) {
+            out[i] = 0.5 * Special.Erfc((location - Math.log(x[i])) * c);
+        }
+    }
+
+    @Override
+    public void ProbabilityDensityFunction(double[] x, double[] out) {
+        double inv = 1.0 / shape;
+        for (int i = 0; i < x.length; i++) {
+            double z = (Math.log(x[i]) - location) * inv;
+            out[i] = constant * Math.exp((-z * z) * 0.5) / x[i];
+        }
+    }
+}
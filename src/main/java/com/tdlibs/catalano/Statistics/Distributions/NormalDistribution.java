@@ -26,13 +26,14 @@ package com.tdlibs.catalano.Statistics.Distributions;
 
 import com.tdlibs.catalano.Math.Constants;
 import com.tdlibs.catalano.Math.Functions.Normal;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
 import com.tdlibs.catalano.Math.Special;
 
 /**
  * Normal (Gaussian) distribution.
  * @author Diego catalano
  */
-public class NormalDistribution implements IDistribution{
+public class NormalDistribution implements IBatchDistribution{
     
     // Distribution parameters
     private double mean = 0;  // mean
@@ -151,5 +152,34 @@ public class NormalDistribution implements IDistribution{
     public double ZScore(double x){
         return (x - mean) / stdDev;
     }
-    
-}
\ No newline at end of file
+
+    @Override
+    public double Sample(IRandomNumberGenerator rng) {
+        return mean + stdDev * RandomSampler.Normal(rng);
+    }
+
+    @Override
+    public void Sample(double[] out, IRandomNumberGenerator rng) {
+        RandomSampler.Normal(out, rng);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = mean + stdDev * out[i];
+        }
+    }
+
+    @Override
+    public void DistributionFunction(double[] x, double[] out) {
+        double c = 1.0 / (stdDev * Constants.Sqrt2);
+        for (int i = 0; i < x.length; i++) {
+            out[i] = Special.Erfc((mean - x[i]) * c) * 0.5;
+        }
+    }
+
+    @Override
+    public void ProbabilityDensityFunction(double[] x, double[] out) {
+        double inv = 1.0 / stdDev;
+        for (int i = 0; i < x.length; i++) {
+            double z = (x[i] - mean) * inv;
+            out[i] = Math.exp(lnconstant - z * z * 0.5);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+// catalano Statistics Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+
+package com.tdlibs.catalano.Statistics.Distributions;
+
+import com.tdlibs.catalano.Math.Functions.Gamma;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
+
+/**
+ * Fast samplers of the standard distributions.
+ * 
+ * <p>Normal and exponential samples are drawn by the Ziggurat method, which
+ * needs a single random long and a table lookup in about 99% of the cases.
+ * The layer index is taken from the high bits and the value from the low bits of the long,
+ * so the index and the value are not correlated.</p>
+ * 
+ * <p>References:
+ * <br>George Marsaglia and Wai Wan Tsang, "The Ziggurat Method for Generating Random Variables", 2000.
+ * <br>George Marsaglia and Wai Wan Tsang, "A Simple Method for Generating Gamma Variables", 2000.
+ * <br>Wolfgang Hörmann, "The transformed rejection method for generating Poisson random variables", 1993.</p>
+ * 
+ * @author Diego catalano
+ */
+public final class RandomSampler {
+    
+    // Normal ziggurat, 128 layers.
+    private static final double NR = 3.442619855899;
+    private static final long[] KN = new long[128];
+    private static final double[] WN = new double[128];
+    private static final double[] FN = new double[128];
+    
+    // Exponential ziggurat, 256 layers.
+    private static final double ER = 7.697117470131487;
+    private static final long[] KE = new long[256];
+    private static final double[] WE = new double[256];
+    private static final double[] FE = new double[256];
+    
+    static {
+        double m1 = 2147483648.0;
+        double dn = NR, tn = dn, vn = 9.91256303526217e-3;
+        double q = vn / Math.exp(-0.5 * dn * dn);
+        KN[0] = (long) ((dn / q) * m1);
+        KN[1] = 0;
+        WN[0] = q / m1;
+        WN[127] = dn / m1;
+        FN[0] = 1;
+        FN[127] = Math.exp(-0.5 * dn * dn);
+        for (int i = 126; i >= 1; i--) {
+            dn = Math.sqrt(-2 * Math.log(vn / dn + Math.exp(-0.5 * dn * dn)));
+            KN[i + 1] = (long) ((dn / tn) * m1);
+            tn = dn;
+            FN[i] = Math.exp(-0.5 * dn * dn);
+            WN[i] = dn / m1;
+        }
+        
+        double m2 = 4294967296.0;
+        double de = ER, te = de, ve = 3.949659822581572e-3;
+        q = ve / Math.exp(-de);
+        KE[0] = (long) ((de / q) * m2);
+        KE[1] = 0;
+        WE[0] = q / m2;
+        WE[255] = de / m2;
+        FE[0] = 1;
+        FE[255] = Math.exp(-de);
+        for (int i = 254; i >= 1; i--) {
+            de = -Math.log(ve / de + Math.exp(-de));
+            KE[i + 1] = (long) ((de / te) * m2);
+            te = de;
+            FE[i] = Math.exp(-de);
+            WE[i] = de / m2;
+        }
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private RandomSampler() {}
+    
+    /**
+     * Uniform sample in (0, 1].
+     */
+    private static double Uniform(IRandomNumberGenerator rng){
+        return 1.0 - rng.nextDouble();
+    }
+    
+    /**
+     * Standard normal sample.
+     * @param rng Random number generator.
+     * @return Sample.
+     */
+    public static double Normal(IRandomNumberGenerator rng){
+        long u = rng.nextLong();
+        int hz = (int) u;
+        int iz = (int) (u >>> 32) & 127;
+        if (Math.abs((long) hz) < KN[iz])
+            return hz * WN[iz];
+        
+        // Slow path: wedges and tail.
+        for (;;) {
+            double x = hz * WN[iz];
+            if (iz == 0) {
+                double y;
+                do {
+                    x = -Math.log(Uniform(rng)) / NR;
+                    y = -Math.log(Uniform(rng));
+                } while (y + y < x * x);
+                return hz > 0 ? NR + x : -NR - x;
+            }
+            if (FN[iz] + rng.nextDouble() * (FN[iz - 1] - FN[iz]) < Math.exp(-0.5 * x * x))
+                return x;
+            
+            u = rng.nextLong();
+            hz = (int) u;
+            iz = (int) (u >>> 32) & 127;
+            if (Math.abs((long) hz) < KN[iz])
+                return hz * WN[iz];
+        }
+    }
+    
+    /**
+     * Standard normal samples.
+     * @param out Array to be filled.
+     * @param rng Random number generator.
+     */
+    public static void Normal(double[] out, IRandomNumberGenerator rng){
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Normal(rng);
+        }
+    }
+    
+    /**
+     * Standard exponential sample (rate 1).
+     * @param rng Random number generator.
+     * @return Sample.
+     */
+    public static double Exponential(IRandomNumberGenerator rng){
+        long u = rng.nextLong();
+        long jz = u & 0xFFFFFFFFL;
+        int iz = (int) (u >>> 32) & 255;
+        if (jz < KE[iz])
+            return jz * WE[iz];
+        
+        for (;;) {
+            if (iz == 0)
+                return ER - Math.log(Uniform(rng));
+            double x = jz * WE[iz];
+            if (FE[iz] + rng.nextDouble() * (FE[iz - 1] - FE[iz]) < Math.exp(-x))
+                return x;
+            
+            u = rng.nextLong();
+            jz = u & 0xFFFFFFFFL;
+            iz = (int) (u >>> 32) & 255;
+            if (jz < KE[iz])
+                return jz * WE[iz];
+        }
+    }
+    
+    /**
+     * Standard exponential samples (rate 1).
+     * @param out Array to be filled.
+     * @param rng Random number generator.
+     */
+    public static void Exponential(double[] out, IRandomNumberGenerator rng){
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Exponential(rng);
+        }
+    }
+    
+    /**
+     * Gamma sample with unit scale.
+     * @param shape Shape.
+     * @param rng Random number generator.
+     * @return Sample.
+     */
+    public static double Gamma(double shape, IRandomNumberGenerator rng){
+        if (shape <= 0)
+            throw new IllegalArgumentException("Shape must be positive.");
+        
+        if (shape < 1) {
+            // Gamma(a) = Gamma(a + 1) * U^(1/a)
+            double d = shape + 2.0 / 3.0;
+            return Gamma(d, 1 / Math.sqrt(9 * d), rng) * Math.pow(Uniform(rng), 1 / shape);
+        }
+        
+        double d = shape - 1.0 / 3.0;
+        return Gamma(d, 1 / Math.sqrt(9 * d), rng);
+    }
+    
+    /**
+     * Gamma samples with unit scale.
+     * @param shape Shape.
+     * @param out Array to be filled.
+     * @param rng Random number generator.
+     */
+    public static void Gamma(double shape, double[] out, IRandomNumberGenerator rng){
+        if (shape <= 0)
+            throw new IllegalArgumentException("Shape must be positive.");
+        
+        boolean boost = shape < 1;
+        double d = (boost ? shape + 1 : shape) - 1.0 / 3.0;
+        double c = 1 / Math.sqrt(9 * d);
+        double inv = 1 / shape;
+        for (int i = 0; i < out.length; i++) {
+            double g = Gamma(d, c, rng);
+            out[i] = boost ? g * Math.pow(Uniform(rng), inv) : g;
+        }
+    }
+    
+    /**
+     * Marsaglia and Tsang method, shape >= 1.
+     */
+    private static double Gamma(double d, double c, IRandomNumberGenerator rng){
+        for (;;) {
+            double x, v;
+            do {
+                x = Normal(rng);
+                v = 1 + c * x;
+            } while (v <= 0);
+            v = v * v * v;
+            double u = Uniform(rng);
+            double x2 = x * x;
+            if (u < 1 - 0.0331 * x2 * x2)
+                return d * v;
+            if (Math.log(u) < 0.5 * x2 + d * (1 - v + Math.log(v)))
+                return d * v;
+        }
+    }
+    
+    /**
+     * Poisson sample.
+     * Multiplication of uniforms for small means and transformed rejection (PTRS) otherwise,
+     * the cost of PTRS doesn't depend on the mean.
+     * @param lambda Mean.
+     * @param rng Random number generator.
+     * @return Sample.
+     */
+    public static int Poisson(double lambda, IRandomNumberGenerator rng){
+        if (lambda < 0)
+            throw new IllegalArgumentException("Lambda must be non-negative.");
+        
+        if (lambda < 10) {
+            double l = Math.exp(-lambda);
+            int k = 0;
+            double p = rng.nextDouble();
+            while (p > l) {
+                k++;
+                p *= rng.nextDouble();
+            }
+            return k;
+        }
+        
+        return new Ptrs(lambda).Sample(rng);
+    }
+    
+    /**
+     * Poisson samples.
+     * @param lambda Mean.
+     * @param out Array to be filled.
+     * @param rng Random number generator.
+     */
+    public static void Poisson(double lambda, int[] out, IRandomNumberGenerator rng){
+        if (lambda < 10) {
+            for (int i = 0; i < out.length; i++) {
+                out[i] = Poisson(lambda, rng);
+            }
+        } else {
+            Ptrs ptrs = new Ptrs(lambda);
+            for (int i = 0; i < out.length; i++) {
+                out[i] = ptrs.Sample(rng);
+            }
+        }
+    }
+    
+    /**
+     * Constants of the transformed rejection for a given mean (lambda >= 10).
+     */
+    private static final class Ptrs {
+        
+        private final double lambda;
+        private final double loglam;
+        private final double a;
+        private final double b;
+        private final double loginvalpha;
+        private final double vr;
+
+        Ptrs(double lambda) {
+            double slam = Math.sqrt(lambda);
+            this.lambda = lambda;
+            this.loglam = Math.log(lambda);
+            this.b = 0.931 + 2.53 * slam;
+            this.a = -0.059 + 0.02483 * b;
+            this.loginvalpha = Math.log(1.1239 + 1.1328 / (b - 3.4));
+            this.vr = 0.9277 - 3.6224 / (b - 2);
+        }
+        
+        int Sample(IRandomNumberGenerator rng){
+            for (;;) {
+                double u = rng.nextDouble() - 0.5;
+                double v = rng.nextDouble();
+                double us = 0.5 - Math.abs(u);
+                long k = (long) Math.floor((2 * a / us + b) * u + lambda + 0.43);
+                
+                // Immediate acceptance.
+                if (us >= 0.07 && v <= vr)
+                    return (int) k;
+                
+                if (k < 0 || (us < 0.013 && v > us))
+                    continue;
+                
+                if (Math.log(v) + loginvalpha - Math.log(a / (us * us) + b) <= -lambda + k * loglam - Gamma.Log(k + 1))
+                    return (int) k;
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@
 package com.tdlibs.catalano.Statistics.Distributions;
 
 import com.tdlibs.catalano.Math.Constants;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
 
 /**
  * Rayleigh distribution.
@@ -40,7 +41,7 @@ import com.tdlibs.catalano.Math.Constants;
  * distribution.</para>
  * @author Diego catalano
  */
-public class RayleighDistribution implements IDistribution{
+public class RayleighDistribution implements IBatchDistribution{
     
     private double sigma;
 
@@ -81,4 +82,34 @@ public class RayleighDistribution implements IDistribution{
     public double LogProbabilityDensityFunction(double x) {
         return Math.log(x / (sigma * sigma)) + (-x * x / (2 * sigma * sigma));
     }
-}
\ No newline at end of file
+
+    @Override
+    public double Sample(IRandomNumberGenerator rng) {
+        return sigma * Math.sqrt(2 * RandomSampler.Exponential(rng));
+    }
+
+    @Override
+    public void Sample(double[] out, IRandomNumberGenerator rng) {
+        RandomSampler.Exponential(out, rng);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = sigma * Math.sqrt(2 * out[i]);
+        }
+    }
+
+    @Override
+    public void DistributionFunction(double[] x, double[] out) {
+        double c = 1 / (2 * sigma * sigma);
+        for (int i = 0; i < x.length; i++) {
+            out[i] = 1.0 - Math.exp(-x[i] * x[i] * c);
+        }
+    }
+
+    @Override
+    public void ProbabilityDensityFunction(double[] x, double[] out) {
+        double s2 = 1 / (sigma * sigma);
+        double c = 0.5 * s2;
+        for (int i = 0; i < x.length; i++) {
+            out[i] = x[i] * s2 * Math.exp(-x[i] * x[i] * c);
+        }
+    }
+}
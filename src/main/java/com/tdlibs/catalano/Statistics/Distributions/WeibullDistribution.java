@@ -26,12 +26,13 @@ package com.tdlibs.catalano.Statistics.Distributions;
 
 import com.tdlibs.catalano.Math.Constants;
 import com.tdlibs.catalano.Math.Functions.Gamma;
+import com.tdlibs.catalano.Math.Random.IRandomNumberGenerator;
 
 /**
  * Weibull distribution.
  * @author Diego catalano
  */
-public class WeibullDistribution implements IDistribution{
+public class WeibullDistribution implements IBatchDistribution{
     
     // Distribution parameters
     private double a;
@@ -84,4 +85,41 @@ public class WeibullDistribution implements IDistribution{
             return Math.log(a / b) + (a - 1) * Math.log(x / b) - Math.pow(x / b, a);
         else return Double.NEGATIVE_INFINITY;
     }
-}
\ No newline at end of file
+
+    @Override
+    public double Sample(IRandomNumberGenerator rng) {
+        return b * Math.pow(RandomSampler.Exponential(rng), 1 / a);
+    }
+
+    @Override
+    public void Sample(double[] out, IRandomNumberGenerator rng) {
+        RandomSampler.Exponential(out, rng);
+        double inv = 1 / a;
+        for (int i = 0; i < out.length; i++) {
+            out[i] = b * Math.pow(out[i], inv);
+        }
+    }
+
+    @Override
+    public void DistributionFunction(double[] x, double[] out) {
+        for (int i = 0; i < x.length; i++) {
+            out[i] = DistributionFunction(x[i]);
+        }
+    }
+
+    @Override
+    public void ProbabilityDensityFunction(double[] x, double[] out) {
+        // (x/b)^a = (x/b)^(a-1) * (x/b), a single pow by point.
+        double inv = 1 / b;
+        double c = a / b;
+        for (int i = 0; i < x.length; i++) {
+            if (x[i] > 0) {
+                double z = x[i] * inv;
+                double p = Math.pow(z, a - 1);
+                out[i] = c * p * Math.exp(-p * z);
+            } else {
+                out[i] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+// catalano Vision Library
+// The catalano Framework
+//
+// Copyright © Diego catalano, 2012-2016
+// diego.catalano at live.com
+//
+//    This library is free software; you can redistribute it and/or
+//    modify it under the terms of the GNU Lesser General Public
+//    License as published by the Free Software Foundation; either
+//    version 2.1 of the License, or (at your option) any later version.
+//
+//    This library is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+//    Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public
+//    License along with this library; if not, write to the Free Software
+//    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+//
+
+package com.tdlibs.catalano.Vision.Detection;
+
+import com.tdlibs.catalano.Core.Concurrent.MulticoreExecutor;
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import com.tdlibs.catalano.Imaging.Shapes.IntRectangle;
+import com.tdlibs.catalano.Imaging.Tools.DenseHistogramOfOrientedGradients;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Sliding window detector based on Histograms of Oriented Gradients.
+ *
+ * <p>The frame is processed once by {@link DenseHistogramOfOrientedGradients} and each window
+ * is scored by a linear model (e.g. a linear SVM): score = weights * descriptor + bias.
+ * Rows of windows are scanned in parallel.</p>
+ *
+ * <p>The given descriptor only sets the number of bins, the block size and the cell size,
+ * each frame is processed by its own descriptor, so ProcessFrame can be called concurrently.
+ * DetectedObjects returns the objects of the last finished frame.</p>
+ *
+ * @author Diego catalano
+ */
+public class HOGDetector implements IObjectDetector{
+
+    private DenseHistogramOfOrientedGradients hog;
+    private float[] weights;
+    private double bias;
+    private double threshold = 0;
+    private int windowWidth = 64;
+    private int windowHeight = 128;
+    private int step = 8;
+    private volatile List<IntRectangle> objects = new ArrayList<IntRectangle>();
+
+    /**
+     * Get threshold of the score.
+     * @return Threshold.
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Set threshold of the score.
+     * @param threshold Threshold.
+     */
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Get step between windows, in pixels.
+     * @return Step.
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Set step between windows, in pixels.
+     * @param step Step.
+     */
+    public void setStep(int step) {
+        this.step = Math.max(1, step);
+    }
+
+    /**
+     * Initializes a new instance of the HOGDetector class.
+     * @param hog Dense HOG descriptor.
+     * @param windowWidth Width of the window.
+     * @param windowHeight Height of the window.
+     * @param weights Weights of the linear model.
+     * @param bias Bias of the linear model.
+     */
+    public HOGDetector(DenseHistogramOfOrientedGradients hog, int windowWidth, int windowHeight, double[] weights, double bias) {
+        if (weights.length != hog.getDescriptorLength(windowWidth, windowHeight))
+            throw new IllegalArgumentException("The length of the weights must be the same of the descriptor.");
+
+        this.hog = hog;
+        this.windowWidth = windowWidth;
+        this.windowHeight = windowHeight;
+        this.bias = bias;
+        this.weights = new float[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            this.weights[i] = (float)weights[i];
+        }
+    }
+
+    @Override
+    public List<IntRectangle> DetectedObjects() {
+        return objects;
+    }
+
+    @Override
+    public List<IntRectangle> ProcessFrame(FastBitmap fastBitmap) {
+
+        if (!fastBitmap.isGrayscale()){
+            fastBitmap = new FastBitmap(fastBitmap);
+            fastBitmap.toGrayscale();
+        }
+
+        DenseHistogramOfOrientedGradients frame = new DenseHistogramOfOrientedGradients(hog.getNumberOfBins(), hog.getBlockSize(), hog.getCellSize());
+        frame.Compute(fastBitmap);
+
+        int rows = fastBitmap.getHeight() - windowHeight;
+        List<Callable<List<IntRectangle>>> tasks = new ArrayList<Callable<List<IntRectangle>>>();
+        for (int x = 0; x <= rows; x += step) {
+            tasks.add(new ScanTask(frame, x, fastBitmap.getWidth()));
+        }
+
+        List<IntRectangle> lst = new ArrayList<IntRectangle>();
+        try {
+            for (List<IntRectangle> row : MulticoreExecutor.run(tasks)) {
+                lst.addAll(row);
+            }
+        } catch (Exception ex) {
+            System.err.println(ex);
+            lst.clear();
+            for (Callable<List<IntRectangle>> task : tasks) {
+                lst.addAll(((ScanTask)task).call());
+            }
+        }
+
+        objects = lst;
+        return lst;
+    }
+
+    /**
+     * Scan one row of windows.
+     */
+    class ScanTask implements Callable<List<IntRectangle>> {
+
+        final DenseHistogramOfOrientedGradients hog;
+        final int x;
+        final int width;
+
+        ScanTask(DenseHistogramOfOrientedGradients hog, int x, int width) {
+            this.hog = hog;
+            this.x = x;
+            this.width = width;
+        }
+
+        @Override
+        public List<IntRectangle> call() {
+            List<IntRectangle> lst = new ArrayList<IntRectangle>();
+            float[] descriptor = new float[weights.length];
+
+            for (int y = 0; y + windowWidth <= width; y += step) {
+                hog.getDescriptor(x, y, windowWidth, windowHeight, descriptor, 0);
+
+                double score = bias;
+                for (int k = 0; k < descriptor.length; k++) {
+                    score += weights[k] * descriptor[k];
+                }
+
+                if (score > threshold)
+                    lst.add(new IntRectangle(x, y, windowWidth, windowHeight));
+            }
+
+            return lst;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.tdlibs.catalano.Graph.Network;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.tdlibs.catalano.Graph.AdjacencyMatrix;
+import com.tdlibs.catalano.Graph.SparseGraph;
+import org.junit.Test;
+
+/**
+ * The adjacency matrix and the sparse graph of the same graph must have the same centrality.
+ */
+public class EigenvectorCentralityTest {
+
+    @Test
+    public void sameCentralityInBothRepresentations(){
+        int[] from = {0, 0, 0, 1, 1, 2, 3, 4, 5};
+        int[] to   = {1, 2, 3, 2, 4, 3, 4, 5, 6};
+        int n = 7;
+
+        double[][] m = new double[n][n];
+        for (int e = 0; e < from.length; e++) {
+            m[from[e]][to[e]] = 1;
+            m[to[e]][from[e]] = 1;
+        }
+
+        EigenvectorCentrality ec = new EigenvectorCentrality();
+        ec.setEpsilon(1e-12);
+        ec.setMaxIterations(1000);
+
+        double[] dense = ec.Compute(new AdjacencyMatrix(m));
+        double[] sparse = ec.Compute(new SparseGraph(n, from, to, null, true));
+
+        assertArrayEquals(sparse, dense, 1e-9);
+
+        // the result is the principal eigenvector: A x = lambda x
+        double lambda = 0;
+        for (int j = 0; j < n; j++)
+            lambda += m[0][j] * dense[j];
+        lambda /= dense[0];
+        for (int i = 0; i < n; i++) {
+            double ax = 0;
+            for (int j = 0; j < n; j++)
+                ax += m[i][j] * dense[j];
+            assertEquals(lambda * dense[i], ax, 1e-6);
+        }
+    }
+}
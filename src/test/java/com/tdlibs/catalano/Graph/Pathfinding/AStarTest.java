@@ -0,0 +1,70 @@
+package com.tdlibs.catalano.Graph.Pathfinding;
+
+import static org.junit.Assert.assertEquals;
+
+import com.tdlibs.catalano.Core.IntPoint;
+import com.tdlibs.catalano.Graph.Pathfinding.AStar.AStar;
+import com.tdlibs.catalano.Graph.Pathfinding.AStar.AStar.Heuristic;
+import com.tdlibs.catalano.Graph.Pathfinding.AStar.AStar.Neighbor;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * The default heuristic of AStar must return the shortest paths with eight neighbors.
+ */
+public class AStarTest {
+
+    @Test
+    public void defaultHeuristicIsOptimal(){
+        Random r = new Random(7);
+        int h = 20, w = 24;
+        for (int t = 0; t < 200; t++) {
+            double cost = t % 2 == 0 ? 1 : 0.5;
+            double[][] costMap = new double[h][w];
+            for (int x = 0; x < h; x++) {
+                for (int y = 0; y < w; y++) {
+                    costMap[x][y] = r.nextDouble() < 0.3 ? 0 : cost;
+                }
+            }
+            int sx = r.nextInt(h), sy = r.nextInt(w), ex = r.nextInt(h), ey = r.nextInt(w);
+            costMap[sx][sy] = cost;
+            costMap[ex][ey] = cost;
+
+            int moves = Moves(costMap, sx, sy, ex, ey);
+            if (moves <= 0) continue;
+
+            AStar astar = new AStar(costMap);
+            assertEquals(moves - 1, astar.FindPath(new IntPoint(sx, sy), new IntPoint(ex, ey)).size());
+
+            AStar jps = new AStar(costMap, Neighbor.Eight, Heuristic.Chebyshev);
+            jps.setJumpPointSearch(true);
+            assertEquals(moves - 1, jps.FindPath(new IntPoint(sx, sy), new IntPoint(ex, ey)).size());
+        }
+    }
+
+    /**
+     * Number of moves of the shortest path with eight neighbors, -1 if there is no path.
+     */
+    private static int Moves(double[][] costMap, int sx, int sy, int ex, int ey){
+        int h = costMap.length, w = costMap[0].length;
+        int[][] dist = new int[h][w];
+        for (int[] row : dist) Arrays.fill(row, -1);
+        ArrayDeque<int[]> queue = new ArrayDeque<int[]>();
+        dist[sx][sy] = 0;
+        queue.add(new int[] {sx, sy});
+        while (!queue.isEmpty()) {
+            int[] p = queue.poll();
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int x = p[0] + dx, y = p[1] + dy;
+                    if (x < 0 || x >= h || y < 0 || y >= w || costMap[x][y] == 0 || dist[x][y] >= 0) continue;
+                    dist[x][y] = dist[p[0]][p[1]] + 1;
+                    queue.add(new int[] {x, y});
+                }
+            }
+        }
+        return dist[ex][ey];
+    }
+}
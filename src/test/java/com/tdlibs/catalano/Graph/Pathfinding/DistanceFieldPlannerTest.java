@@ -0,0 +1,56 @@
+package com.tdlibs.catalano.Graph.Pathfinding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.tdlibs.catalano.Core.IntPoint;
+import com.tdlibs.catalano.Graph.Pathfinding.AStar.AStar;
+import com.tdlibs.catalano.Graph.Pathfinding.AStar.AStar.Heuristic;
+import com.tdlibs.catalano.Graph.Pathfinding.AStar.AStar.Neighbor;
+import java.util.ArrayList;
+import org.junit.Test;
+
+/**
+ * FindPath must follow the convention of ISearch, the same of AStar.
+ */
+public class DistanceFieldPlannerTest {
+
+    @Test
+    public void sameConventionAsAStar(){
+        int[][] map = new int[12][15];
+        double[][] costMap = new double[12][15];
+        for (int x = 0; x < map.length; x++) {
+            for (int y = 0; y < map[0].length; y++) {
+                map[x][y] = 1;
+                costMap[x][y] = 1;
+            }
+        }
+        // a wall with a gap at the bottom
+        for (int x = 0; x < 10; x++) {
+            map[x][7] = 0;
+            costMap[x][7] = 0;
+        }
+
+        ISearch[] searches = {
+            new AStar(costMap, Neighbor.Four, Heuristic.Manhattan),
+            new DistanceFieldPlanner(map, Neighbor.Four)
+        };
+
+        IntPoint start = new IntPoint(1, 2);
+        IntPoint end = new IntPoint(2, 12);
+        ArrayList<IntPoint> a = searches[0].FindPath(start, end);
+        ArrayList<IntPoint> b = searches[1].FindPath(start, end);
+
+        assertEquals(a.size(), b.size());
+        assertTrue(!b.contains(start) && !b.contains(end));
+        assertEquals(1, Manhattan(b.get(0), end));
+        assertEquals(1, Manhattan(b.get(b.size() - 1), start));
+
+        assertEquals(0, searches[1].FindPath(start, start).size());
+        assertEquals(b.size() + 2, ((DistanceFieldPlanner)searches[1]).FindPathToNearest(start, end).size());
+    }
+
+    private static int Manhattan(IntPoint p, IntPoint q){
+        return Math.abs(p.x - q.x) + Math.abs(p.y - q.y);
+    }
+}
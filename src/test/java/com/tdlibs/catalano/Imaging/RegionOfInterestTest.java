@@ -0,0 +1,260 @@
+package com.tdlibs.catalano.Imaging;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.tdlibs.catalano.Core.IntPoint;
+import com.tdlibs.catalano.Imaging.Filters.BinaryWatershed;
+import com.tdlibs.catalano.Imaging.Filters.DistanceTransform;
+import com.tdlibs.catalano.Imaging.Filters.MedianCut;
+import com.tdlibs.catalano.Imaging.Filters.ZhangSuenThinning;
+import com.tdlibs.catalano.Imaging.Parsers.FastGifEncoder;
+import com.tdlibs.catalano.Imaging.Texture.BinaryPattern.UniformLocalBinaryPattern;
+import com.tdlibs.catalano.Imaging.Tools.DenseHistogramOfOrientedGradients;
+import com.tdlibs.catalano.Imaging.Tools.HoughLine;
+import com.tdlibs.catalano.Imaging.Tools.HoughLineTransformation;
+import com.tdlibs.catalano.Imaging.Tools.IAggregateVectors;
+import com.tdlibs.catalano.Imaging.Tools.SpatialHistogram;
+import com.tdlibs.catalano.Imaging.Tools.UltimateErodedPoints;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * A region of interest must give the same results as its compact copy.
+ */
+public class RegionOfInterestTest {
+
+    private static FastBitmap Gray(){
+        FastBitmap fb = new FastBitmap(64, 64, FastBitmap.ColorSpace.Grayscale);
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                fb.setGray(x, y, (x * 7 + y * 13 + (x * y) % 31) & 0xFF);
+            }
+        }
+        return fb;
+    }
+
+    private static FastBitmap Binary(){
+        FastBitmap fb = new FastBitmap(64, 64, FastBitmap.ColorSpace.Grayscale);
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                int a = (x - 24) * (x - 24) + (y - 26) * (y - 26);
+                int b = (x - 34) * (x - 34) + (y - 38) * (y - 38);
+                boolean on = a < 81 || b < 64 || (x < 10 && y < 10);
+                fb.setGray(x, y, on ? 255 : 0);
+            }
+        }
+        return fb;
+    }
+
+    private static FastBitmap RGB(){
+        FastBitmap fb = new FastBitmap(64, 64, FastBitmap.ColorSpace.RGB);
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                fb.setRGB(x, y, (x * 5) & 0xFF, (y * 9) & 0xFF, (x * y) & 0xFF);
+            }
+        }
+        return fb;
+    }
+
+    private static FastBitmap View(FastBitmap fb){
+        return fb.getRegionOfInterest(16, 8, 32, 40);
+    }
+
+    private static void assertSamePixels(FastBitmap expected, FastBitmap actual){
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int x = 0; x < expected.getHeight(); x++) {
+            for (int y = 0; y < expected.getWidth(); y++) {
+                if (expected.isGrayscale())
+                    assertEquals(expected.getGray(x, y), actual.getGray(x, y));
+                else
+                    assertArrayEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void rawDataOfViewIsCompact(){
+        FastBitmap view = View(Gray());
+        FastBitmap copy = new FastBitmap(view);
+        assertTrue(view.isView());
+        assertArrayEquals(copy.getGrayData(), view.getGrayData());
+        assertTrue(view.isView());
+
+        FastBitmap rgb = View(RGB());
+        assertArrayEquals(new FastBitmap(rgb).getRGBData(), rgb.getRGBData());
+    }
+
+    @Test
+    public void rawDataIsWrittenThrough(){
+        FastBitmap image = Gray();
+        FastBitmap view = View(image);
+        byte[] data = view.getGrayData();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte)(255 - (data[i] & 0xFF));
+        }
+        view.setGrayData(data);
+
+        FastBitmap original = Gray();
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                boolean inside = x >= 16 && x < 56 && y >= 8 && y < 40;
+                int expected = inside ? 255 - original.getGray(x, y) : original.getGray(x, y);
+                assertEquals(expected, image.getGray(x, y));
+            }
+        }
+    }
+
+    /**
+     * An in place filter in a region must change the parent image only inside the region.
+     */
+    private static void assertWrittenThrough(FastBitmap original, IApplyInPlace filter){
+        FastBitmap image = new FastBitmap(original);
+        FastBitmap view = View(image);
+        FastBitmap copy = new FastBitmap(view);
+        filter.applyInPlace(copy);
+        filter.applyInPlace(view);
+        assertTrue(view.isView());
+
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                boolean inside = x >= 16 && x < 56 && y >= 8 && y < 40;
+                FastBitmap expected = inside ? copy : original;
+                int ex = inside ? x - 16 : x;
+                int ey = inside ? y - 8 : y;
+                if (image.isGrayscale())
+                    assertEquals(expected.getGray(ex, ey), image.getGray(x, y));
+                else
+                    assertArrayEquals(expected.getRGB(ex, ey), image.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void inPlaceFiltersWriteThrough(){
+        assertWrittenThrough(Binary(), new ZhangSuenThinning());
+        assertWrittenThrough(Binary(), new BinaryWatershed());
+        assertWrittenThrough(RGB(), new MedianCut(16));
+    }
+
+    @Test
+    public void denseHistogramOfOrientedGradients(){
+        FastBitmap view = View(Gray());
+        FastBitmap copy = new FastBitmap(view);
+        float[] expected = new DenseHistogramOfOrientedGradients().ProcessImage(copy);
+        float[] actual = new DenseHistogramOfOrientedGradients().ProcessImage(view);
+        assertArrayEquals(expected, actual, 0f);
+    }
+
+    @Test
+    public void distanceTransform(){
+        FastBitmap view = View(Binary());
+        FastBitmap copy = new FastBitmap(view);
+        float[][] expected = new DistanceTransform().Compute(copy);
+        float[][] actual = new DistanceTransform().Compute(view);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual[i], 0f);
+        }
+    }
+
+    @Test
+    public void binaryFilters(){
+        FastBitmap view = View(Binary());
+        FastBitmap copy = new FastBitmap(view);
+        new ZhangSuenThinning().applyInPlace(copy);
+        new ZhangSuenThinning().applyInPlace(view);
+        assertSamePixels(copy, view);
+
+        view = View(Binary());
+        copy = new FastBitmap(view);
+        new BinaryWatershed().applyInPlace(copy);
+        new BinaryWatershed().applyInPlace(view);
+        assertSamePixels(copy, view);
+
+        view = View(Binary());
+        copy = new FastBitmap(view);
+        List<IntPoint> expected = new UltimateErodedPoints().Process(copy);
+        List<IntPoint> actual = new UltimateErodedPoints().Process(view);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void medianCut(){
+        FastBitmap view = View(RGB());
+        FastBitmap copy = new FastBitmap(view);
+        assertArrayEquals(new MedianCut(16).CreatePalette(copy), new MedianCut(16).CreatePalette(view));
+
+        view = View(RGB());
+        copy = new FastBitmap(view);
+        new MedianCut(16).applyInPlace(copy);
+        new MedianCut(16).applyInPlace(view);
+        assertSamePixels(copy, view);
+    }
+
+    @Test
+    public void houghLines(){
+        FastBitmap view = View(Binary());
+        FastBitmap copy = new FastBitmap(view);
+        HoughLineTransformation expected = new HoughLineTransformation();
+        expected.ProcessImage(copy);
+        HoughLineTransformation actual = new HoughLineTransformation();
+        actual.ProcessImage(view);
+        List<HoughLine> e = expected.getLines();
+        List<HoughLine> a = actual.getLines();
+        assertEquals(e.size(), a.size());
+        for (int i = 0; i < e.size(); i++) {
+            assertEquals(e.get(i).getTheta(), a.get(i).getTheta(), 0);
+            assertEquals(e.get(i).getRadius(), a.get(i).getRadius(), 0);
+            assertEquals(e.get(i).getIntensity(), a.get(i).getIntensity());
+        }
+    }
+
+    @Test
+    public void spatialHistogram(){
+        FastBitmap view = View(Gray());
+        FastBitmap copy = new FastBitmap(view);
+        SpatialHistogram sh = new SpatialHistogram(2, 2);
+        assertArrayEquals(sh.Compute(copy, new UniformLocalBinaryPattern()), sh.Compute(view, new UniformLocalBinaryPattern()));
+
+        // the function reads the raw data of each block
+        IAggregateVectors raw = new IAggregateVectors() {
+            @Override
+            public double[] Compute(FastBitmap fastBitmap) {
+                byte[] data = fastBitmap.getGrayData();
+                double s = 0;
+                for (int i = 0; i < data.length; i++) {
+                    s += (i + 1) * (data[i] & 0xFF);
+                }
+                return new double[] {data.length, s};
+            }
+        };
+        view = View(Gray());
+        copy = new FastBitmap(view);
+        assertArrayEquals(sh.Compute(copy, raw), sh.Compute(view, raw), 0);
+
+        SpatialHistogram parallel = new SpatialHistogram(2, 2);
+        parallel.setParallel(true);
+        assertArrayEquals(sh.Compute(copy, raw), parallel.Compute(view, raw), 0);
+    }
+
+    @Test
+    public void gifEncoder(){
+        FastBitmap view = View(RGB());
+        FastBitmap copy = new FastBitmap(view);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        FastGifEncoder gif = new FastGifEncoder(expected, 100, false);
+        gif.addFrame(copy);
+        gif.finish();
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        gif = new FastGifEncoder(actual, 100, false);
+        gif.addFrame(view);
+        gif.finish();
+
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+}
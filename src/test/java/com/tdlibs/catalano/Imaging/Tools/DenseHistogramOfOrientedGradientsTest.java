@@ -0,0 +1,41 @@
+package com.tdlibs.catalano.Imaging.Tools;
+
+import static org.junit.Assert.assertEquals;
+
+import com.tdlibs.catalano.Imaging.FastBitmap;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * The dense descriptor of the whole image must be the descriptor of the HOG.
+ */
+public class DenseHistogramOfOrientedGradientsTest {
+
+    private static void assertSameDescriptor(int bins, int blockSize, int cellSize){
+        Random rand = new Random(bins * 31 + cellSize);
+        FastBitmap fb = new FastBitmap(61, 47, FastBitmap.ColorSpace.Grayscale);
+        for (int x = 0; x < fb.getHeight(); x++) {
+            for (int y = 0; y < fb.getWidth(); y++) {
+                fb.setGray(x, y, (x * 9 + y * 4 + rand.nextInt(60)) & 0xFF);
+            }
+        }
+
+        List<double[]> blocks = new HistogramOfOrientedGradients(bins, blockSize, cellSize).ProcessImage(fb);
+        float[] dense = new DenseHistogramOfOrientedGradients(bins, blockSize, cellSize).ProcessImage(fb);
+
+        int k = 0;
+        for (double[] block : blocks) {
+            for (double v : block) {
+                assertEquals(v, dense[k++], 1e-5);
+            }
+        }
+        assertEquals(dense.length, k);
+    }
+
+    @Test
+    public void sameDescriptorAsHistogramOfOrientedGradients(){
+        assertSameDescriptor(9, 3, 6);
+        assertSameDescriptor(12, 2, 4);
+    }
+}